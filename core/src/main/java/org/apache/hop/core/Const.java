@@ -170,6 +170,18 @@ public class Const {
       description = "The variable which points to the alternative location for the Hop metadata.")
   public static final String HOP_METADATA_FOLDER = "HOP_METADATA_FOLDER";
 
+  /**
+   * The minimum number of milliseconds between two checks for changes of a cached JSON metadata
+   * file or folder
+   */
+  @Variable(
+      scope = VariableScope.SYSTEM,
+      value = "1000",
+      description =
+          "The minimum number of milliseconds between two checks for changes of a cached JSON metadata file or folder. Changes saved by Hop itself are seen right away. 0 checks on every access, -1 disables the cache.")
+  public static final String HOP_METADATA_CACHE_CHECK_INTERVAL =
+      "HOP_METADATA_CACHE_CHECK_INTERVAL";
+
   /** A comma separated list pointing to folders with JDBC drivers to add. */
   @Variable(
       scope = VariableScope.SYSTEM,
@@ -611,6 +623,16 @@ public class Const {
       description = "The variable which points to the alternative location for plugins.")
   public static final String HOP_PLUGIN_BASE_FOLDERS = "HOP_PLUGIN_BASE_FOLDERS";
 
+  /**
+   * Name of the environment variable to specify the file to keep the plugin annotations found in
+   * the plugin jar files in
+   */
+  @Variable(
+      scope = VariableScope.SYSTEM,
+      description =
+          "The file to keep a snapshot of the annotations of the plugin jar files in. The jar files which didn't change since the snapshot was written are not scanned again.")
+  public static final String HOP_PLUGIN_SNAPSHOT_FILE = "HOP_PLUGIN_SNAPSHOT_FILE";
+
   /**
    * Name of the environment variable that contains the size of the pipeline rowset size. This
    * overwrites values that you set pipeline settings.
@@ -665,6 +687,16 @@ public class Const {
           "Set this variable to 'Y' if you want to test a more efficient batching row set.")
   public static final String HOP_BATCHING_ROWSET = "HOP_BATCHING_ROWSET";
 
+  /**
+   * Set this variable to N to stop using the lock-free ring buffer row set on hops between a single
+   * writer and a single reader transform copy. (default = Y)
+   */
+  @Variable(
+      value = "Y",
+      description =
+          "Set this variable to 'N' to stop using the lock-free ring buffer row set on hops with a single source and target transform copy.")
+  public static final String HOP_RING_BUFFER_ROWSET = "HOP_RING_BUFFER_ROWSET";
+
   /**
    * Set this variable to limit max number of files the Text File Output transform can have open at
    * one time.
@@ -44,6 +44,38 @@ public interface IRowSet {
    */
   boolean putRowWait(IRowMeta rowMeta, Object[] rowData, long time, TimeUnit tu);
 
+  /**
+   * Offer a batch of rows to this rowset. The rows are added in order until the buffer is full. If
+   * the buffer is full from the start, wait (block) for a small period of time, like {@link
+   * #putRow(IRowMeta, Object[])} does.
+   *
+   * @param rowMeta The description of the row data
+   * @param batch the rows of data
+   * @param offset the index of the first row in the batch to add
+   * @param count the number of rows to add
+   * @return the number of rows which were added to the rowset, 0 if this buffer was full.
+   */
+  default int putRows(IRowMeta rowMeta, Object[][] batch, int offset, int count) {
+    int nr = 0;
+    while (nr < count && putRow(rowMeta, batch[offset + nr])) {
+      nr++;
+    }
+    return nr;
+  }
+
+  /**
+   * Offer a batch of rows to this rowset, starting with the first row in the batch.
+   *
+   * @param rowMeta The description of the row data
+   * @param batch the rows of data
+   * @param count the number of rows to add
+   * @return the number of rows which were added to the rowset, 0 if this buffer was full.
+   * @see #putRows(IRowMeta, Object[][], int, int)
+   */
+  default int putRows(IRowMeta rowMeta, Object[][] batch, int count) {
+    return putRows(rowMeta, batch, 0, count);
+  }
+
   /**
    * Get a row from the input buffer, it blocks for a short period until a new row becomes
    * available. Otherwise, it returns null.
@@ -66,6 +98,23 @@ public interface IRowSet {
    */
   Object[] getRowWait(long timeout, TimeUnit tu);
 
+  /**
+   * Get the rows which are available in the rowset immediately, up to the given maximum, without
+   * waiting.
+   *
+   * @param batch the array to store the rows in, starting at index 0
+   * @param max the maximum number of rows to get
+   * @return the number of rows stored in the batch, 0 if no row is available.
+   */
+  default int getRows(Object[][] batch, int max) {
+    int nr = 0;
+    Object[] row;
+    while (nr < max && (row = getRowImmediate()) != null) {
+      batch[nr++] = row;
+    }
+    return nr;
+  }
+
   void setDone();
 
   /**
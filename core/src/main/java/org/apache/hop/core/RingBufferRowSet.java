@@ -0,0 +1,297 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.hop.core;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.LockSupport;
+import org.apache.hop.core.row.IRowMeta;
+
+/**
+ * A lock-free row set backed by a ring buffer. It is meant for hops with a single writer and a
+ * single reader transform copy where it replaces the lock taken by an {@link
+ * java.util.concurrent.ArrayBlockingQueue} on every put and get.
+ *
+ * <p>The ring has exactly one writer and one reader (single producer, single consumer). The writer
+ * is the only one to move the put position and the reader the only one to move the get position, so
+ * neither needs a compare-and-set: a row is stored in its slot and then published with an ordered
+ * write (lazySet) of the put position. Freeing a slot works the same way with the get position.
+ * Both sides keep their last view of the other side's position and only read it again when that
+ * view says the ring is full or empty. The two positions live on their own cache lines so the two
+ * threads don't invalidate each other's caches.
+ *
+ * <p>A transform copy writes its rows from one thread at a time. A transform which writes from
+ * several threads at once needs the locking of a {@link BlockingRowSet}: set HOP_RING_BUFFER_ROWSET
+ * to N to use it.
+ *
+ * <p>A full or empty ring is handled by spinning for a short while and then parking with an
+ * increasing back-off until the timeout passes.
+ */
+public class RingBufferRowSet extends BaseRowSet implements Comparable<IRowSet>, IRowSet {
+
+  /** The number of times we spin before we start parking the thread */
+  private static final int SPIN_TRIES = 128;
+
+  /** The maximum time we park a thread in one go */
+  private static final long MAX_PARK_NANOS = TimeUnit.MILLISECONDS.toNanos(1);
+
+  private final Object[][] slots;
+  private final int mask;
+
+  /** The position of the next row to write, moved by the writer only */
+  private final PaddedSequence putSequence = new PaddedSequence();
+
+  /** The position of the next row to read, moved by the reader only */
+  private final PaddedSequence getSequence = new PaddedSequence();
+
+  private final int timeoutPut;
+  private final int timeoutGet;
+
+  /**
+   * Create a new ring buffer row set. The capacity is rounded up to the next power of 2.
+   *
+   * @param maxSize the minimum capacity of the row set
+   */
+  public RingBufferRowSet(int maxSize) {
+    super();
+
+    int capacity = 1;
+    while (capacity < Math.max(2, maxSize)) {
+      capacity <<= 1;
+    }
+    slots = new Object[capacity][];
+    mask = capacity - 1;
+
+    timeoutGet =
+        Const.toInt(System.getProperty(Const.HOP_ROWSET_GET_TIMEOUT), Const.TIMEOUT_GET_MILLIS);
+    timeoutPut =
+        Const.toInt(System.getProperty(Const.HOP_ROWSET_PUT_TIMEOUT), Const.TIMEOUT_PUT_MILLIS);
+  }
+
+  @Override
+  public boolean putRow(IRowMeta rowMeta, Object[] rowData) {
+    return putRowWait(rowMeta, rowData, timeoutPut, TimeUnit.MILLISECONDS);
+  }
+
+  @Override
+  public boolean putRowWait(IRowMeta rowMeta, Object[] rowData, long time, TimeUnit tu) {
+    this.rowMeta = rowMeta;
+    if (rowData == null) {
+      return false;
+    }
+    if (offer(rowData)) {
+      return true;
+    }
+    long deadline = System.nanoTime() + tu.toNanos(time);
+    int tries = 0;
+    while (!offer(rowData)) {
+      if (Thread.currentThread().isInterrupted() || !backOff(tries++, deadline)) {
+        return false;
+      }
+    }
+    return true;
+  }
+
+  @Override
+  public Object[] getRow() {
+    return getRowWait(timeoutGet, TimeUnit.MILLISECONDS);
+  }
+
+  @Override
+  public Object[] getRowImmediate() {
+    return poll();
+  }
+
+  @Override
+  public Object[] getRowWait(long timeout, TimeUnit tu) {
+    Object[] row = poll();
+    if (row != null) {
+      return row;
+    }
+    long deadline = System.nanoTime() + tu.toNanos(timeout);
+    int tries = 0;
+    while ((row = poll()) == null) {
+      if (Thread.currentThread().isInterrupted() || !backOff(tries++, deadline)) {
+        return null;
+      }
+    }
+    return row;
+  }
+
+  @Override
+  public int putRows(IRowMeta rowMeta, Object[][] batch, int offset, int count) {
+    this.rowMeta = rowMeta;
+    if (count <= 0) {
+      return 0;
+    }
+    int nr = offerAll(batch, offset, count);
+    if (nr > 0) {
+      return nr;
+    }
+    long deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(timeoutPut);
+    int tries = 0;
+    while ((nr = offerAll(batch, offset, count)) == 0) {
+      if (Thread.currentThread().isInterrupted() || !backOff(tries++, deadline)) {
+        return 0;
+      }
+    }
+    return nr;
+  }
+
+  @Override
+  public int getRows(Object[][] batch, int max) {
+    if (max <= 0) {
+      return 0;
+    }
+    long position = getSequence.get();
+    long available = getSequence.otherPosition - position;
+    if (available < max) {
+      getSequence.otherPosition = putSequence.get();
+      available = getSequence.otherPosition - position;
+      if (available <= 0) {
+        return 0;
+      }
+    }
+    int nr = (int) Math.min(available, max);
+    for (int i = 0; i < nr; i++) {
+      int index = (int) ((position + i) & mask);
+      batch[i] = slots[index];
+      slots[index] = null; // prevent any hold-up to GC
+    }
+    getSequence.lazySet(position + nr);
+    return nr;
+  }
+
+  /**
+   * Try to add as many rows of a batch to the ring as there are free slots, without waiting. The
+   * rows are published in one go.
+   *
+   * @return the number of rows added, 0 if the ring is full
+   */
+  private int offerAll(Object[][] batch, int offset, int count) {
+    long position = putSequence.get();
+    long free = slots.length - (position - putSequence.otherPosition);
+    if (free < count) {
+      putSequence.otherPosition = getSequence.get();
+      free = slots.length - (position - putSequence.otherPosition);
+      if (free <= 0) {
+        return 0;
+      }
+    }
+    int nr = (int) Math.min(free, count);
+    for (int i = 0; i < nr; i++) {
+      slots[(int) ((position + i) & mask)] = batch[offset + i];
+    }
+    putSequence.lazySet(position + nr);
+    return nr;
+  }
+
+  /**
+   * Try to add a row to the ring without waiting.
+   *
+   * @param rowData the row to add
+   * @return true if the row was added, false if the ring is full
+   */
+  private boolean offer(Object[] rowData) {
+    long position = putSequence.get();
+    if (position - putSequence.otherPosition >= slots.length) {
+      // The ring looks full: see how far the reader got
+      //
+      putSequence.otherPosition = getSequence.get();
+      if (position - putSequence.otherPosition >= slots.length) {
+        return false;
+      }
+    }
+    slots[(int) (position & mask)] = rowData;
+    putSequence.lazySet(position + 1);
+    return true;
+  }
+
+  /**
+   * Try to take a row from the ring without waiting.
+   *
+   * @return the row or null if the ring is empty
+   */
+  private Object[] poll() {
+    long position = getSequence.get();
+    if (position >= getSequence.otherPosition) {
+      // The ring looks empty: see how far the writer got
+      //
+      getSequence.otherPosition = putSequence.get();
+      if (position >= getSequence.otherPosition) {
+        return null;
+      }
+    }
+    int index = (int) (position & mask);
+    Object[] rowData = slots[index];
+    slots[index] = null; // prevent any hold-up to GC
+    getSequence.lazySet(position + 1);
+    return rowData;
+  }
+
+  /**
+   * Wait a little while before trying again.
+   *
+   * @return false if the deadline has passed
+   */
+  private static boolean backOff(int tries, long deadline) {
+    long remaining = deadline - System.nanoTime();
+    if (remaining <= 0) {
+      return false;
+    }
+    if (tries < SPIN_TRIES) {
+      Thread.onSpinWait();
+    } else {
+      int shift = Math.min(tries - SPIN_TRIES, 10);
+      LockSupport.parkNanos(Math.min(remaining, Math.min(MAX_PARK_NANOS, 1000L << shift)));
+    }
+    return true;
+  }
+
+  @Override
+  public int size() {
+    long size = putSequence.get() - getSequence.get();
+    return (int) Math.max(0, Math.min(size, (long) slots.length));
+  }
+
+  /** Takes all the rows from the ring: this is done on the reading side. */
+  @Override
+  public void clear() {
+    while (poll() != null) {
+      // Drain the ring
+    }
+    done.set(false);
+  }
+
+  /**
+   * A position in the ring followed by padding so that the writer and reader positions, which are
+   * updated by different threads all the time, don't end up on the same cache line. It also holds
+   * the last position of the other side seen by the thread owning this position.
+   */
+  @SuppressWarnings("unused")
+  private static class PaddedSequence extends AtomicLong {
+    private long otherPosition;
+    private long p1;
+    private long p2;
+    private long p3;
+    private long p4;
+    private long p5;
+    private long p6;
+    private long p7;
+  }
+}
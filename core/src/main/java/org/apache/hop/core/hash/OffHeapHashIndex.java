@@ -0,0 +1,472 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.hop.core.hash;
+
+import java.io.ByteArrayOutputStream;
+import java.io.Closeable;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.lang.reflect.Field;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import org.apache.hop.core.exception.HopException;
+import org.apache.hop.core.row.IRowMeta;
+import org.apache.hop.core.row.IValueMeta;
+
+/**
+ * An open addressing hash index which stores its keys and values in serialized form outside of the
+ * Java heap. The entries are appended to large pages of direct memory. Once the memory budget is
+ * used up, new pages are memory-mapped from a temporary file instead. The only thing kept on the
+ * heap is one long per slot, pointing to the entry in its page.
+ *
+ * <p>If the JVM runs out of direct memory before the budget is used up (see
+ * -XX:MaxDirectMemorySize), the next pages are allocated on the heap instead. The pages are freed
+ * right away when the index is closed rather than when the garbage collector gets to them.
+ *
+ * <p>Keys are compared on their serialized form, like {@link ByteArrayHashIndex} does. Keys are
+ * serialized into a buffer which is re-used, so a lookup doesn't create any key objects.
+ *
+ * <p>This class is not thread-safe.
+ */
+public class OffHeapHashIndex implements Closeable {
+
+  /** The size of a page of entries, larger entries get a page of their own */
+  public static final int PAGE_SIZE = 16 * 1024 * 1024;
+
+  private static final int STANDARD_INDEX_SIZE = 1024;
+  private static final float LOAD_FACTOR = 0.7f;
+
+  /** An entry starts with the hash code, the key length and the value length */
+  private static final int ENTRY_HEADER_SIZE = 12;
+
+  /**
+   * A slot holds a tag of 16 bits taken from the hash code, the page number (16 bits) and the
+   * offset of the entry in the page (32 bits). An empty slot is 0, the tag always has its highest
+   * bit set.
+   */
+  private static final int MAX_PAGES = 1 << 16;
+
+  private static final long TAG_MASK = 0xFFFFL << 48;
+
+  /** Frees the memory of a direct or mapped buffer, null if this isn't possible on this JVM */
+  private static final MethodHandle INVOKE_CLEANER = lookupInvokeCleaner();
+
+  private final IValueMeta[] keyValueMetas;
+  private final IRowMeta valueMeta;
+  private final long memoryBudget;
+
+  private final List<ByteBuffer> pages;
+  private ByteBuffer currentPage;
+  private long offHeapSize;
+
+  private FileChannel spillChannel;
+  private long spillSize;
+
+  private boolean directMemoryExhausted;
+
+  private long[] slots;
+  private int size;
+  private int resizeThreshold;
+
+  private final SerializationBuffer keyBuffer;
+  private final DataOutputStream keyOutputStream;
+  private final SerializationBuffer valueBuffer;
+  private final DataOutputStream valueOutputStream;
+  private final PageInputStream pageInputStream;
+  private final DataInputStream valueInputStream;
+
+  /**
+   * Create a new off-heap hash index.
+   *
+   * @param keyMeta The metadata of the keys
+   * @param valueMeta The metadata of the values
+   * @param memoryBudget The maximum size in bytes of the pages in direct memory. When this is
+   *     exceeded, pages are memory-mapped from a temporary file. Use 0 for no limit.
+   */
+  public OffHeapHashIndex(IRowMeta keyMeta, IRowMeta valueMeta, long memoryBudget) {
+    this(keyMeta, valueMeta, memoryBudget, STANDARD_INDEX_SIZE);
+  }
+
+  /**
+   * Create a new off-heap hash index.
+   *
+   * @param keyMeta The metadata of the keys
+   * @param valueMeta The metadata of the values
+   * @param memoryBudget The maximum size in bytes of the pages in direct memory. When this is
+   *     exceeded, pages are memory-mapped from a temporary file. Use 0 for no limit.
+   * @param size The initial number of slots, rounded up to a power of 2
+   */
+  public OffHeapHashIndex(IRowMeta keyMeta, IRowMeta valueMeta, long memoryBudget, int size) {
+    this.keyValueMetas = keyMeta.getValueMetaList().toArray(new IValueMeta[0]);
+    this.valueMeta = valueMeta;
+    this.memoryBudget = memoryBudget;
+    this.pages = new ArrayList<>();
+
+    int capacity = 2;
+    while (capacity < size) {
+      capacity <<= 1;
+    }
+    this.slots = new long[capacity];
+    this.resizeThreshold = (int) (capacity * LOAD_FACTOR);
+
+    this.keyBuffer = new SerializationBuffer();
+    this.keyOutputStream = new DataOutputStream(keyBuffer);
+    this.valueBuffer = new SerializationBuffer();
+    this.valueOutputStream = new DataOutputStream(valueBuffer);
+    this.pageInputStream = new PageInputStream();
+    this.valueInputStream = new DataInputStream(pageInputStream);
+  }
+
+  /**
+   * Add a key and its values to the index. The values of an existing key are replaced.
+   *
+   * @param keyData The key, in normal storage
+   * @param valueData The values
+   * @throws HopException In case of a serialization error or if we can't allocate a page
+   */
+  public void put(Object[] keyData, Object[] valueData) throws HopException {
+    int keyLength = serializeKey(keyData);
+    int hashCode = hashCode(keyBuffer.getBuffer(), keyLength);
+    int index = findSlot(hashCode, keyLength);
+    boolean replace = slots[index] != 0;
+
+    try {
+      valueBuffer.reset();
+      valueMeta.writeData(valueOutputStream, valueData);
+      valueOutputStream.flush();
+    } catch (IOException e) {
+      throw new HopException("Error serializing the values for the hash index", e);
+    }
+
+    // Replaced entries simply stay behind in their page
+    //
+    slots[index] = writeEntry(hashCode, keyLength, valueBuffer.size());
+    if (!replace) {
+      size++;
+      if (size > resizeThreshold) {
+        resize();
+      }
+    }
+  }
+
+  /**
+   * Look up the values of a key.
+   *
+   * @param keyData The key, in normal storage
+   * @return The values or null if the key isn't in the index
+   * @throws HopException In case of a serialization error
+   */
+  public Object[] get(Object[] keyData) throws HopException {
+    int keyLength = serializeKey(keyData);
+    int hashCode = hashCode(keyBuffer.getBuffer(), keyLength);
+    long slot = slots[findSlot(hashCode, keyLength)];
+    if (slot == 0) {
+      return null;
+    }
+    ByteBuffer page = pages.get(pageOf(slot));
+    int offset = offsetOf(slot);
+    int valueOffset = offset + ENTRY_HEADER_SIZE + page.getInt(offset + 4);
+    pageInputStream.set(page, valueOffset, page.getInt(offset + 8));
+    try {
+      return valueMeta.readData(valueInputStream);
+    } catch (IOException e) {
+      throw new HopException("Error reading the values from the hash index", e);
+    }
+  }
+
+  /**
+   * @return The number of keys in the index
+   */
+  public int size() {
+    return size;
+  }
+
+  /**
+   * @return true if part of the index is stored in a memory-mapped temporary file
+   */
+  public boolean isSpilled() {
+    return spillChannel != null;
+  }
+
+  /**
+   * @return true if the JVM ran out of direct memory and pages are allocated on the heap
+   */
+  public boolean isDirectMemoryExhausted() {
+    return directMemoryExhausted;
+  }
+
+  /** Free the pages and delete the temporary file, if any. */
+  @Override
+  public void close() throws IOException {
+    for (ByteBuffer page : pages) {
+      release(page);
+    }
+    pages.clear();
+    currentPage = null;
+    slots = new long[2];
+    size = 0;
+    resizeThreshold = 1;
+    offHeapSize = 0;
+    if (spillChannel != null) {
+      try {
+        spillChannel.close();
+      } finally {
+        spillChannel = null;
+        spillSize = 0;
+      }
+    }
+  }
+
+  private int serializeKey(Object[] keyData) throws HopException {
+    try {
+      keyBuffer.reset();
+      for (int i = 0; i < keyValueMetas.length; i++) {
+        keyValueMetas[i].writeData(keyOutputStream, keyData[i]);
+      }
+      keyOutputStream.flush();
+      return keyBuffer.size();
+    } catch (IOException e) {
+      throw new HopException("Error serializing the key for the hash index", e);
+    }
+  }
+
+  /**
+   * Find the slot of the key in the key buffer: either the slot holding the key or the empty slot
+   * where it would go.
+   */
+  private int findSlot(int hashCode, int keyLength) {
+    int mask = slots.length - 1;
+    long tag = tagOf(hashCode);
+    int index = hashCode & mask;
+    while (true) {
+      long slot = slots[index];
+      if (slot == 0 || ((slot & TAG_MASK) == tag && keyEquals(slot, hashCode, keyLength))) {
+        return index;
+      }
+      index = (index + 1) & mask;
+    }
+  }
+
+  private boolean keyEquals(long slot, int hashCode, int keyLength) {
+    ByteBuffer page = pages.get(pageOf(slot));
+    int offset = offsetOf(slot);
+    if (page.getInt(offset) != hashCode || page.getInt(offset + 4) != keyLength) {
+      return false;
+    }
+    byte[] key = keyBuffer.getBuffer();
+    int keyOffset = offset + ENTRY_HEADER_SIZE;
+    for (int i = 0; i < keyLength; i++) {
+      if (page.get(keyOffset + i) != key[i]) {
+        return false;
+      }
+    }
+    return true;
+  }
+
+  /** Append the key in the key buffer and the value in the value buffer to a page. */
+  private long writeEntry(int hashCode, int keyLength, int valueLength) throws HopException {
+    int entrySize = ENTRY_HEADER_SIZE + keyLength + valueLength;
+    if (currentPage == null || currentPage.remaining() < entrySize) {
+      currentPage = newPage(Math.max(PAGE_SIZE, entrySize));
+    }
+    int offset = currentPage.position();
+    currentPage.putInt(hashCode);
+    currentPage.putInt(keyLength);
+    currentPage.putInt(valueLength);
+    currentPage.put(keyBuffer.getBuffer(), 0, keyLength);
+    currentPage.put(valueBuffer.getBuffer(), 0, valueLength);
+
+    return tagOf(hashCode) | ((long) (pages.size() - 1) << 32) | (offset & 0xFFFFFFFFL);
+  }
+
+  private ByteBuffer newPage(int pageSize) throws HopException {
+    if (pages.size() >= MAX_PAGES) {
+      throw new HopException("The hash index can't hold more than " + MAX_PAGES + " pages");
+    }
+    ByteBuffer page;
+    if (memoryBudget <= 0 || offHeapSize + pageSize <= memoryBudget) {
+      page = allocatePage(pageSize);
+      offHeapSize += pageSize;
+    } else {
+      page = mapPage(pageSize);
+    }
+    pages.add(page);
+    return page;
+  }
+
+  private ByteBuffer allocatePage(int pageSize) {
+    if (!directMemoryExhausted) {
+      try {
+        return allocateDirect(pageSize);
+      } catch (OutOfMemoryError e) {
+        // The direct memory limit of the JVM is lower than the budget: continue on the heap
+        //
+        directMemoryExhausted = true;
+      }
+    }
+    return ByteBuffer.allocate(pageSize);
+  }
+
+  ByteBuffer allocateDirect(int pageSize) {
+    return ByteBuffer.allocateDirect(pageSize);
+  }
+
+  private ByteBuffer mapPage(int pageSize) throws HopException {
+    try {
+      if (spillChannel == null) {
+        Path spillFile = Files.createTempFile("hop-hash-index-", ".tmp");
+        spillChannel =
+            FileChannel.open(
+                spillFile,
+                StandardOpenOption.READ,
+                StandardOpenOption.WRITE,
+                StandardOpenOption.DELETE_ON_CLOSE);
+      }
+      ByteBuffer page = spillChannel.map(FileChannel.MapMode.READ_WRITE, spillSize, pageSize);
+      spillSize += pageSize;
+      return page;
+    } catch (IOException e) {
+      throw new HopException("Unable to map a page of the hash index to a temporary file", e);
+    }
+  }
+
+  private void resize() {
+    long[] oldSlots = slots;
+    long[] newSlots = new long[oldSlots.length * 2];
+    int mask = newSlots.length - 1;
+    for (long slot : oldSlots) {
+      if (slot != 0) {
+        int hashCode = pages.get(pageOf(slot)).getInt(offsetOf(slot));
+        int index = hashCode & mask;
+        while (newSlots[index] != 0) {
+          index = (index + 1) & mask;
+        }
+        newSlots[index] = slot;
+      }
+    }
+    slots = newSlots;
+    resizeThreshold = (int) (newSlots.length * LOAD_FACTOR);
+  }
+
+  private static MethodHandle lookupInvokeCleaner() {
+    try {
+      Class<?> unsafeClass = Class.forName("sun.misc.Unsafe");
+      Field field = unsafeClass.getDeclaredField("theUnsafe");
+      field.setAccessible(true);
+      return MethodHandles.lookup()
+          .findVirtual(
+              unsafeClass, "invokeCleaner", MethodType.methodType(void.class, ByteBuffer.class))
+          .bindTo(field.get(null));
+    } catch (ReflectiveOperationException | RuntimeException e) {
+      // The garbage collector frees the pages
+      return null;
+    }
+  }
+
+  private static void release(ByteBuffer page) {
+    if (page.isDirect() && INVOKE_CLEANER != null) {
+      try {
+        INVOKE_CLEANER.invokeExact(page);
+      } catch (Throwable e) {
+        // The garbage collector frees the page
+      }
+    }
+  }
+
+  private static int pageOf(long slot) {
+    return (int) ((slot >>> 32) & 0xFFFF);
+  }
+
+  private static int offsetOf(long slot) {
+    return (int) slot;
+  }
+
+  private static long tagOf(int hashCode) {
+    return ((long) (((hashCode * 0x9E3779B9) >>> 16) | 0x8000)) << 48;
+  }
+
+  /** Hash the serialized key and spread the bits so the lower bits can be used as the index */
+  static int hashCode(byte[] bytes, int length) {
+    int h = 1;
+    for (int i = 0; i < length; i++) {
+      h = 31 * h + bytes[i];
+    }
+    h ^= h >>> 16;
+    h *= 0x85ebca6b;
+    h ^= h >>> 13;
+    h *= 0xc2b2ae35;
+    h ^= h >>> 16;
+    return h;
+  }
+
+  /** A byte array output stream which gives access to its buffer without copying it. */
+  private static class SerializationBuffer extends ByteArrayOutputStream {
+    SerializationBuffer() {
+      super(256);
+    }
+
+    byte[] getBuffer() {
+      return buf;
+    }
+  }
+
+  /** Reads a part of a page without copying it. */
+  private static class PageInputStream extends InputStream {
+    private ByteBuffer page;
+    private int position;
+    private int limit;
+
+    void set(ByteBuffer page, int position, int length) {
+      this.page = page;
+      this.position = position;
+      this.limit = position + length;
+    }
+
+    @Override
+    public int read() {
+      if (position >= limit) {
+        return -1;
+      }
+      return page.get(position++) & 0xFF;
+    }
+
+    @Override
+    public int read(byte[] bytes, int offset, int length) {
+      if (length == 0) {
+        return 0;
+      }
+      if (position >= limit) {
+        return -1;
+      }
+      int nr = Math.min(length, limit - position);
+      page.get(position, bytes, offset, nr);
+      position += nr;
+      return nr;
+    }
+  }
+}
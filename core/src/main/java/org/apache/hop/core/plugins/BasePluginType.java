@@ -47,9 +47,6 @@ import org.apache.hop.core.util.Utils;
 import org.apache.hop.core.xml.XmlHandler;
 import org.apache.hop.i18n.BaseMessages;
 import org.apache.hop.i18n.GlobalMessageUtil;
-import org.jboss.jandex.AnnotationInstance;
-import org.jboss.jandex.ClassInfo;
-import org.jboss.jandex.IndexView;
 import org.w3c.dom.Document;
 import org.w3c.dom.Node;
 
@@ -135,14 +132,10 @@ public abstract class BasePluginType<T extends Annotation> implements IPluginTyp
     try {
       JarCache cache = JarCache.getInstance();
       for (File jarFile : cache.getNativeJars()) {
-        IndexView index = cache.getIndex(jarFile);
-
         // find annotations annotated with this meta-annotation
-        for (AnnotationInstance instance : index.getAnnotations(pluginClass)) {
-          if (instance.target() instanceof ClassInfo) {
-
-            ClassInfo classInfo = instance.target().asClass();
-            String className = classInfo.name().toString();
+        for (JarCache.AnnotatedTarget target : cache.getAnnotatedTargets(jarFile, pluginClass)) {
+          if (target.isClass()) {
+            String className = target.className();
 
             Class<?> clazz = this.getClass().getClassLoader().loadClass(className);
 
@@ -307,13 +300,11 @@ public abstract class BasePluginType<T extends Annotation> implements IPluginTyp
 
         // These are the jar files : find annotations in it...
         //
-        IndexView index = cache.getIndex(jarFile);
         // find annotations annotated with this meta-annotation
-        for (AnnotationInstance instance : index.getAnnotations(pluginClass)) {
-          if (instance.target() instanceof ClassInfo) {
+        for (JarCache.AnnotatedTarget target : cache.getAnnotatedTargets(jarFile, pluginClass)) {
+          if (target.isClass()) {
             try {
-              ClassInfo classInfo = instance.target().asClass();
-              String className = classInfo.name().toString();
+              String className = target.className();
 
               File folder = jarFile.getParentFile();
 
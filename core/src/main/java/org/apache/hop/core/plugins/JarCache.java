@@ -17,25 +17,44 @@
 
 package org.apache.hop.core.plugins;
 
+import com.google.common.annotations.VisibleForTesting;
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
 import java.io.File;
 import java.io.IOException;
 import java.io.InputStream;
+import java.lang.annotation.Annotation;
 import java.net.URL;
+import java.net.URLDecoder;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
 import java.text.MessageFormat;
 import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
 import java.util.Enumeration;
 import java.util.HashMap;
 import java.util.HashSet;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicReference;
 import java.util.jar.JarFile;
 import java.util.zip.ZipEntry;
 import org.apache.commons.lang.StringUtils;
 import org.apache.hop.core.Const;
 import org.apache.hop.core.exception.HopFileException;
+import org.apache.hop.core.logging.LogChannel;
 import org.apache.hop.core.util.EnvUtil;
 import org.apache.hop.core.variables.Variables;
+import org.jboss.jandex.AnnotationInstance;
+import org.jboss.jandex.AnnotationTarget;
+import org.jboss.jandex.DotName;
+import org.jboss.jandex.FieldInfo;
 import org.jboss.jandex.Index;
 import org.jboss.jandex.IndexReader;
 
@@ -43,18 +62,71 @@ public class JarCache {
 
   public static final String ANNOTATION_INDEX_LOCATION = "META-INF/jandex.idx";
 
+  private static final String SNAPSHOT_HEADER = "# Hop plugin annotation snapshot, version 1";
+
   private static JarCache instance;
 
+  /** A class or a field of a class with an annotation, as found in an annotation index */
+  public record AnnotatedTarget(String className, String fieldName) {
+    /**
+     * @return true if the annotation is on the class, false if it's on a field
+     */
+    public boolean isClass() {
+      return fieldName == null;
+    }
+  }
+
+  /** The annotations found in a jar file, by annotation name */
+  private static final class JarAnnotations {
+    private final long size;
+    private final long lastModified;
+
+    /** true if the file can be verified so the annotations can be kept in the snapshot */
+    private final boolean persistent;
+
+    /** Whether or not the jar file has an annotation index, null if not yet known */
+    private volatile Boolean indexed;
+
+    private final Map<String, List<AnnotatedTarget>> targets = new ConcurrentHashMap<>();
+
+    /** true once the size and modification time are compared with the file */
+    private volatile boolean verified;
+
+    private JarAnnotations(long size, long lastModified, boolean persistent) {
+      this.size = size;
+      this.lastModified = lastModified;
+      this.persistent = persistent;
+    }
+  }
+
   private final Map<File, Index> indexCache;
+  private final Map<File, URL> nativeIndexUrls;
   private final Map<File, Set<File>> jarFiles;
   private final Set<File> nativeFiles;
   private final Set<File> pluginFiles;
 
+  /** The annotations of the jar files, by absolute path of the jar file */
+  private final Map<String, JarAnnotations> jarAnnotations;
+
+  /** The snapshot file to use, null to use the one configured with a variable */
+  private final Path snapshotFile;
+
+  private boolean snapshotLoaded;
+  private volatile boolean snapshotChanged;
+
   private JarCache() {
+    this(null);
+  }
+
+  @VisibleForTesting
+  JarCache(Path snapshotFile) {
+    this.snapshotFile = snapshotFile;
     nativeFiles = new HashSet<>();
     pluginFiles = new HashSet<>();
     jarFiles = new HashMap<>();
-    indexCache = new HashMap<>();
+    indexCache = new ConcurrentHashMap<>();
+    nativeIndexUrls = new ConcurrentHashMap<>();
+    jarAnnotations = new ConcurrentHashMap<>();
   }
 
   public static JarCache getInstance() {
@@ -107,16 +179,9 @@ public class JarCache {
 
           nativeFiles.add(file);
 
-          // Read annotation index from resource
+          // The annotation index is read from the resource when needed
           //
-          try (InputStream stream = url.openStream()) {
-            IndexReader reader = new IndexReader(stream);
-            Index index = reader.read();
-            indexCache.put(file, index);
-          } catch (IOException e) {
-            throw new HopFileException(
-                MessageFormat.format("Error reading annotation index from url ''{0}''", url), e);
-          }
+          nativeIndexUrls.put(file, url);
         }
       } catch (Exception e) {
         throw new HopFileException("Error finding native plugin jar", e);
@@ -136,16 +201,22 @@ public class JarCache {
     // Scan plugin jars only once
     //
     if (pluginFiles.isEmpty()) {
-
+      List<File> files = new ArrayList<>();
       for (String pluginFolder : getPluginFolders()) {
-
-        for (File file : this.findJarFiles(new File(pluginFolder))) {
-          Index index = this.getIndex(file);
-          if (index != null) {
-            pluginFiles.add(file);
-          }
-        }
+        files.addAll(this.findJarFiles(new File(pluginFolder)));
       }
+
+      // Look for the annotation indexes in parallel
+      //
+      Set<File> indexedFiles = ConcurrentHashMap.newKeySet();
+      forEachParallel(
+          files,
+          file -> {
+            if (hasIndex(file)) {
+              indexedFiles.add(file);
+            }
+          });
+      pluginFiles.addAll(indexedFiles);
     }
     return pluginFiles;
   }
@@ -156,7 +227,17 @@ public class JarCache {
     //
     Index index = indexCache.get(jarFile);
 
-    if (index == null) {
+    if (index == null && nativeIndexUrls.containsKey(jarFile)) {
+      URL url = nativeIndexUrls.get(jarFile);
+      try (InputStream stream = url.openStream()) {
+        IndexReader reader = new IndexReader(stream);
+        index = reader.read();
+        indexCache.put(jarFile, index);
+      } catch (IOException e) {
+        throw new HopFileException(
+            MessageFormat.format("Error reading annotation index from url ''{0}''", url), e);
+      }
+    } else if (index == null) {
 
       try (JarFile jar = new JarFile(jarFile)) {
         ZipEntry entry = jar.getEntry(ANNOTATION_INDEX_LOCATION);
@@ -171,19 +252,271 @@ public class JarCache {
         throw new HopFileException(
             MessageFormat.format("Error reading annotation index from file ''{0}''", jarFile), e);
       }
+    }
+
+    return index;
+  }
+
+  /**
+   * Find the classes and fields with an annotation in a jar file. The annotations are taken from
+   * the snapshot if the jar file didn't change, otherwise from the annotation index of the jar.
+   *
+   * @param jarFile The jar file to search
+   * @param annotationClass The annotation to look for
+   * @return The annotated classes and fields
+   * @throws HopFileException in case the annotation index can't be read
+   */
+  public List<AnnotatedTarget> getAnnotatedTargets(
+      File jarFile, Class<? extends Annotation> annotationClass) throws HopFileException {
+    return getAnnotatedTargets(jarFile, annotationClass.getName());
+  }
+
+  /**
+   * Find the classes and fields with an annotation in a jar file. The annotations are taken from
+   * the snapshot if the jar file didn't change, otherwise from the annotation index of the jar.
+   *
+   * @param jarFile The jar file to search
+   * @param annotationName The class name of the annotation to look for
+   * @return The annotated classes and fields
+   * @throws HopFileException in case the annotation index can't be read
+   */
+  public List<AnnotatedTarget> getAnnotatedTargets(File jarFile, String annotationName)
+      throws HopFileException {
+    JarAnnotations annotations = getJarAnnotations(jarFile);
+    List<AnnotatedTarget> targets = annotations.targets.get(annotationName);
+    if (targets == null) {
+      Index index = getIndex(jarFile);
+      if (index == null) {
+        targets = Collections.emptyList();
+      } else {
+        targets = new ArrayList<>();
+        DotName annotationDotName = DotName.createSimple(annotationName);
+        for (AnnotationInstance instance : index.getAnnotations(annotationDotName)) {
+          AnnotationTarget target = instance.target();
+          if (target.kind() == AnnotationTarget.Kind.CLASS) {
+            targets.add(new AnnotatedTarget(target.asClass().name().toString(), null));
+          } else if (target.kind() == AnnotationTarget.Kind.FIELD) {
+            FieldInfo fieldInfo = target.asField();
+            String className = fieldInfo.declaringClass().name().toString();
+            targets.add(new AnnotatedTarget(className, fieldInfo.name()));
+          }
+        }
+        targets = Collections.unmodifiableList(targets);
+      }
+      annotations.targets.put(annotationName, targets);
+      snapshotChanged |= annotations.persistent;
+    }
+    return targets;
+  }
 
-      // Cache annotation index of jars
+  /**
+   * Find the classes and fields with the given annotations in all the jar files at once. The jar
+   * files are read in parallel. Afterwards {@link #getAnnotatedTargets(File, String)} doesn't need
+   * to read the jar files anymore.
+   *
+   * @param files The jar files to search
+   * @param annotationNames The class names of the annotations to look for
+   * @throws HopFileException in case an annotation index can't be read
+   */
+  public void findAnnotatedTargets(Collection<File> files, Collection<String> annotationNames)
+      throws HopFileException {
+    forEachParallel(
+        files,
+        file -> {
+          for (String annotationName : annotationNames) {
+            getAnnotatedTargets(file, annotationName);
+          }
+        });
+  }
+
+  private interface IFileAction {
+    void apply(File file) throws HopFileException;
+  }
+
+  private static void forEachParallel(Collection<File> files, IFileAction action)
+      throws HopFileException {
+    AtomicReference<HopFileException> error = new AtomicReference<>();
+    files.parallelStream()
+        .forEach(
+            file -> {
+              try {
+                action.apply(file);
+              } catch (HopFileException e) {
+                error.compareAndSet(null, e);
+              }
+            });
+    if (error.get() != null) {
+      throw error.get();
+    }
+  }
+
+  private boolean hasIndex(File jarFile) throws HopFileException {
+    JarAnnotations annotations = getJarAnnotations(jarFile);
+    if (annotations.indexed == null) {
+      annotations.indexed = getIndex(jarFile) != null;
+      snapshotChanged |= annotations.persistent;
+    }
+    return annotations.indexed;
+  }
+
+  private JarAnnotations getJarAnnotations(File jarFile) {
+    loadSnapshot();
+
+    // Native "jar files" can also be a URL or the index file itself
+    //
+    String path = jarFile.getPath();
+    if (path.startsWith("file:")) {
+      path = URLDecoder.decode(path.substring(5), StandardCharsets.UTF_8);
+    }
+    File file = new File(path).getAbsoluteFile();
+    return jarAnnotations.compute(
+        file.getPath(),
+        (key, annotations) -> {
+          if (annotations != null && annotations.verified) {
+            return annotations;
+          }
+          boolean persistent = file.isFile();
+          long size = file.length();
+          long lastModified = file.lastModified();
+          if (annotations != null
+              && persistent
+              && annotations.size == size
+              && annotations.lastModified == lastModified) {
+            annotations.verified = true;
+            return annotations;
+          }
+          JarAnnotations newAnnotations = new JarAnnotations(size, lastModified, persistent);
+          newAnnotations.verified = true;
+          return newAnnotations;
+        });
+  }
+
+  private Path getSnapshotPath() {
+    if (snapshotFile != null) {
+      return snapshotFile;
+    }
+    String filename =
+        Const.NVL(
+            Variables.getADefaultVariableSpace().getVariable(Const.HOP_PLUGIN_SNAPSHOT_FILE),
+            EnvUtil.getSystemProperty(Const.HOP_PLUGIN_SNAPSHOT_FILE));
+    return StringUtils.isEmpty(filename) ? null : Path.of(filename);
+  }
+
+  /** Read the annotations of the jar files from the snapshot, if there is one. */
+  private synchronized void loadSnapshot() {
+    if (snapshotLoaded) {
+      return;
+    }
+    snapshotLoaded = true;
+    Path snapshotPath = getSnapshotPath();
+    if (snapshotPath == null || !Files.isRegularFile(snapshotPath)) {
+      return;
+    }
+    try (BufferedReader reader = Files.newBufferedReader(snapshotPath, StandardCharsets.UTF_8)) {
+      if (!SNAPSHOT_HEADER.equals(reader.readLine())) {
+        return;
+      }
+      JarAnnotations annotations = null;
+      List<AnnotatedTarget> targets = null;
+      String line;
+      while ((line = reader.readLine()) != null) {
+        String[] parts = line.split("\t", -1);
+        switch (parts[0]) {
+          case "jar" -> {
+            annotations =
+                new JarAnnotations(Long.parseLong(parts[2]), Long.parseLong(parts[3]), true);
+            annotations.indexed = parts[4].isEmpty() ? null : "Y".equals(parts[4]);
+            jarAnnotations.put(parts[1], annotations);
+          }
+          case "annotation" -> {
+            targets = new ArrayList<>();
+            annotations.targets.put(parts[1], targets);
+          }
+          case "target" ->
+              targets.add(new AnnotatedTarget(parts[1], parts[2].isEmpty() ? null : parts[2]));
+          default -> throw new IOException("Unexpected line in snapshot: " + line);
+        }
+      }
+    } catch (Exception e) {
+      // Scan the jar files instead
       //
-      indexCache.put(jarFile, index);
+      jarAnnotations.clear();
+      LogChannel.GENERAL.logDetailed(
+          "Unable to read plugin snapshot file '" + snapshotPath + "', scanning the plugins", e);
     }
+  }
 
-    return index;
+  /**
+   * Write the annotations found in the jar files to the snapshot file, if one is configured and
+   * something changed since it was read.
+   */
+  public synchronized void saveSnapshot() {
+    Path snapshotPath = getSnapshotPath();
+    if (snapshotPath == null || !snapshotChanged) {
+      return;
+    }
+    Path tempPath = snapshotPath.resolveSibling(snapshotPath.getFileName() + ".tmp");
+    try {
+      if (snapshotPath.getParent() != null) {
+        Files.createDirectories(snapshotPath.getParent());
+      }
+      try (BufferedWriter writer = Files.newBufferedWriter(tempPath, StandardCharsets.UTF_8)) {
+        writer.write(SNAPSHOT_HEADER);
+        writer.newLine();
+        for (Map.Entry<String, JarAnnotations> entry : jarAnnotations.entrySet()) {
+          JarAnnotations annotations = entry.getValue();
+          // Only keep the jar files which are still in use
+          if (!annotations.persistent || !annotations.verified) {
+            continue;
+          }
+          Boolean indexed = annotations.indexed;
+          writer.write(
+              String.join(
+                  "\t",
+                  "jar",
+                  entry.getKey(),
+                  Long.toString(annotations.size),
+                  Long.toString(annotations.lastModified),
+                  indexed == null ? "" : (indexed ? "Y" : "N")));
+          writer.newLine();
+          for (Map.Entry<String, List<AnnotatedTarget>> targets : annotations.targets.entrySet()) {
+            writer.write("annotation\t" + targets.getKey());
+            writer.newLine();
+            for (AnnotatedTarget target : targets.getValue()) {
+              writer.write(
+                  "target\t" + target.className() + "\t" + Const.NVL(target.fieldName(), ""));
+              writer.newLine();
+            }
+          }
+        }
+      }
+      try {
+        Files.move(
+            tempPath,
+            snapshotPath,
+            StandardCopyOption.REPLACE_EXISTING,
+            StandardCopyOption.ATOMIC_MOVE);
+      } catch (AtomicMoveNotSupportedException e) {
+        Files.move(tempPath, snapshotPath, StandardCopyOption.REPLACE_EXISTING);
+      }
+      snapshotChanged = false;
+    } catch (Exception e) {
+      LogChannel.GENERAL.logDetailed(
+          "Unable to write plugin snapshot file '" + snapshotPath + "'", e);
+    }
   }
 
+  /** Clears the cache. The annotations found are written to the snapshot first. */
   public void clear() {
+    saveSnapshot();
+    // The jar files can change before they're used again
+    for (JarAnnotations annotations : jarAnnotations.values()) {
+      annotations.verified = false;
+    }
     nativeFiles.clear();
     pluginFiles.clear();
     indexCache.clear();
+    nativeIndexUrls.clear();
     jarFiles.clear();
   }
 
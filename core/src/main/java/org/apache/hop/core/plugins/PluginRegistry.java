@@ -41,6 +41,7 @@ import java.util.concurrent.locks.ReentrantReadWriteLock;
 import java.util.stream.Collectors;
 import org.apache.commons.lang.StringUtils;
 import org.apache.hop.core.Const;
+import org.apache.hop.core.exception.HopFileException;
 import org.apache.hop.core.exception.HopPluginClassMapException;
 import org.apache.hop.core.exception.HopPluginException;
 import org.apache.hop.core.logging.HopLogStore;
@@ -52,6 +53,7 @@ import org.apache.hop.core.row.RowMeta;
 import org.apache.hop.core.row.value.ValueMetaString;
 import org.apache.hop.core.util.EnvUtil;
 import org.apache.hop.core.util.Utils;
+import org.apache.hop.core.variables.Variable;
 import org.apache.hop.i18n.BaseMessages;
 
 /**
@@ -515,9 +517,31 @@ public class PluginRegistry {
   public static synchronized void init() throws HopPluginException {
     final PluginRegistry registry = getInstance();
 
+    // Read the annotations of all the plugin types from the jar files in parallel first
+    //
+    JarCache cache = JarCache.getInstance();
+    List<String> annotationNames = new ArrayList<>();
+    for (IPluginType pluginType : pluginTypes) {
+      PluginAnnotationType annotationType =
+          pluginType.getClass().getAnnotation(PluginAnnotationType.class);
+      if (annotationType != null) {
+        annotationNames.add(annotationType.value().getName());
+      }
+    }
+    annotationNames.add(Variable.class.getName());
+    try {
+      List<File> jarFiles = new ArrayList<>(cache.getNativeJars());
+      jarFiles.addAll(cache.getPluginJars());
+      cache.findAnnotatedTargets(jarFiles, annotationNames);
+    } catch (HopFileException e) {
+      throw new HopPluginException("Error reading the annotations of the plugin jar files", e);
+    }
+
     for (final IPluginType pluginType : pluginTypes) {
       registry.registerType(pluginType);
     }
+
+    cache.saveSnapshot();
   }
 
   public void registerType(IPluginType pluginType) throws HopPluginException {
@@ -0,0 +1,531 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.hop.core.row;
+
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.net.SocketTimeoutException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Date;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Consumer;
+import org.apache.hop.core.exception.HopException;
+import org.apache.hop.core.exception.HopFileException;
+import org.apache.hop.core.exception.HopValueException;
+import org.apache.hop.core.util.Utils;
+import org.w3c.dom.Node;
+
+/**
+ * Row metadata for the hot paths of the transforms. All the information is kept in an immutable
+ * snapshot: an array of value metadata, a precomputed name index and the list of values which need
+ * a real clone. Reading doesn't need any lock, contrary to {@link RowMeta}.
+ *
+ * <p>The rare modifications copy the snapshot into a {@link RowMetaBuilder}, apply the change and
+ * publish a new snapshot. The value metadata objects themselves are shared, not cloned.
+ */
+public class CopyOnWriteRowMeta implements IRowMeta {
+
+  private volatile Snapshot snapshot;
+
+  /**
+   * Create row metadata with the same value metadata as the given row metadata.
+   *
+   * @param rowMeta The row metadata to take the value metadata from
+   */
+  public CopyOnWriteRowMeta(IRowMeta rowMeta) {
+    this.snapshot = new Snapshot(new RowMetaBuilder(rowMeta).build());
+  }
+
+  /**
+   * Get row metadata without locking for the given row metadata.
+   *
+   * @param rowMeta The row metadata
+   * @return The given row metadata if it already is copy-on-write, otherwise a copy-on-write
+   *     version with the same value metadata. Null if the given row metadata is null.
+   */
+  public static IRowMeta of(IRowMeta rowMeta) {
+    if (rowMeta == null || rowMeta instanceof CopyOnWriteRowMeta) {
+      return rowMeta;
+    }
+    return new CopyOnWriteRowMeta(rowMeta);
+  }
+
+  /** An immutable view of the row metadata. */
+  private static final class Snapshot {
+    /** Only used for the infrequent operations, never modified */
+    private final IRowMeta rowMeta;
+
+    private final IValueMeta[] valueMetas;
+    private final Map<String, Integer> indexes;
+    private final int[] needRealClone;
+
+    private Snapshot(IRowMeta rowMeta) {
+      this.rowMeta = rowMeta;
+      this.valueMetas = rowMeta.getValueMetaList().toArray(new IValueMeta[0]);
+      this.indexes = new HashMap<>();
+      int[] realClone = new int[valueMetas.length];
+      int nrRealClone = 0;
+      for (int i = 0; i < valueMetas.length; i++) {
+        String name = valueMetas[i].getName();
+        if (!Utils.isEmpty(name)) {
+          indexes.putIfAbsent(name.toLowerCase(), i);
+        }
+        if (valueMetas[i].requiresRealClone()) {
+          realClone[nrRealClone++] = i;
+        }
+      }
+      this.needRealClone = Arrays.copyOf(realClone, nrRealClone);
+    }
+
+    private int indexOf(String valueName) {
+      if (valueName == null) {
+        return -1;
+      }
+      Integer index = Utils.isEmpty(valueName) ? null : indexes.get(valueName.toLowerCase());
+      if (index != null && valueName.equalsIgnoreCase(valueMetas[index].getName())) {
+        return index;
+      }
+      // The value metadata could have been renamed since the snapshot was taken
+      //
+      for (int i = 0; i < valueMetas.length; i++) {
+        if (valueName.equalsIgnoreCase(valueMetas[i].getName())) {
+          return i;
+        }
+      }
+      return -1;
+    }
+  }
+
+  /**
+   * Apply a modification on a copy of the current snapshot and publish the result.
+   *
+   * @param modification The modification to apply
+   */
+  private synchronized void modify(Consumer<IRowMeta> modification) {
+    IRowMeta rowMeta = new RowMetaBuilder(snapshot.rowMeta).build();
+    modification.accept(rowMeta);
+    snapshot = new Snapshot(rowMeta);
+  }
+
+  @Override
+  public List<IValueMeta> getValueMetaList() {
+    return Collections.unmodifiableList(Arrays.asList(snapshot.valueMetas));
+  }
+
+  @Override
+  public void setValueMetaList(List<IValueMeta> valueMetaList) {
+    modify(rowMeta -> rowMeta.setValueMetaList(new ArrayList<>(valueMetaList)));
+  }
+
+  @Override
+  public boolean exists(IValueMeta meta) {
+    return meta != null && searchValueMeta(meta.getName()) != null;
+  }
+
+  @Override
+  public void addValueMeta(IValueMeta meta) {
+    if (meta != null) {
+      modify(rowMeta -> rowMeta.addValueMeta(meta));
+    }
+  }
+
+  @Override
+  public void addValueMeta(int index, IValueMeta meta) {
+    if (meta != null) {
+      modify(rowMeta -> rowMeta.addValueMeta(index, meta));
+    }
+  }
+
+  @Override
+  public IValueMeta getValueMeta(int index) {
+    IValueMeta[] valueMetas = snapshot.valueMetas;
+    if (index >= 0 && index < valueMetas.length) {
+      return valueMetas[index];
+    }
+    return null;
+  }
+
+  @Override
+  public void setValueMeta(int index, IValueMeta valueMeta) {
+    if (valueMeta != null) {
+      modify(rowMeta -> rowMeta.setValueMeta(index, valueMeta));
+    }
+  }
+
+  @Override
+  public String getString(Object[] dataRow, int index) throws HopValueException {
+    if (dataRow == null) {
+      return null;
+    }
+    return getValueMeta(index).getString(dataRow[index]);
+  }
+
+  @Override
+  public Long getInteger(Object[] dataRow, int index) throws HopValueException {
+    if (dataRow == null) {
+      return null;
+    }
+    return getValueMeta(index).getInteger(dataRow[index]);
+  }
+
+  @Override
+  public Double getNumber(Object[] dataRow, int index) throws HopValueException {
+    if (dataRow == null) {
+      return null;
+    }
+    return getValueMeta(index).getNumber(dataRow[index]);
+  }
+
+  @Override
+  public Date getDate(Object[] dataRow, int index) throws HopValueException {
+    if (dataRow == null) {
+      return null;
+    }
+    return getValueMeta(index).getDate(dataRow[index]);
+  }
+
+  @Override
+  public BigDecimal getBigNumber(Object[] dataRow, int index) throws HopValueException {
+    if (dataRow == null) {
+      return null;
+    }
+    return getValueMeta(index).getBigNumber(dataRow[index]);
+  }
+
+  @Override
+  public Boolean getBoolean(Object[] dataRow, int index) throws HopValueException {
+    if (dataRow == null) {
+      return null;
+    }
+    return getValueMeta(index).getBoolean(dataRow[index]);
+  }
+
+  @Override
+  public byte[] getBinary(Object[] dataRow, int index) throws HopValueException {
+    if (dataRow == null) {
+      return null;
+    }
+    return getValueMeta(index).getBinary(dataRow[index]);
+  }
+
+  @Override
+  public Object[] cloneRow(Object[] objects, Object[] cloneTo) throws HopValueException {
+    Snapshot current = snapshot;
+    for (int index : current.needRealClone) {
+      cloneTo[index] = current.valueMetas[index].cloneValueData(objects[index]);
+    }
+    return cloneTo;
+  }
+
+  @Override
+  public Object[] cloneRow(Object[] objects) throws HopValueException {
+    return cloneRow(objects, objects.clone());
+  }
+
+  @Override
+  public int size() {
+    return snapshot.valueMetas.length;
+  }
+
+  @Override
+  public boolean isEmpty() {
+    return snapshot.valueMetas.length == 0;
+  }
+
+  @Override
+  public boolean isNull(Object[] dataRow, int index) throws HopValueException {
+    if (dataRow == null) {
+      return true;
+    }
+    return getValueMeta(index).isNull(dataRow[index]);
+  }
+
+  /**
+   * Clone the row metadata and the value metadata.
+   *
+   * @return a regular row metadata object which can be modified freely
+   */
+  @Override
+  public IRowMeta clone() {
+    return snapshot.rowMeta.clone();
+  }
+
+  @Override
+  public IRowMeta cloneToType(int targetType) throws HopValueException {
+    return snapshot.rowMeta.cloneToType(targetType);
+  }
+
+  @Override
+  public String getString(Object[] dataRow, String valueName, String defaultValue)
+      throws HopValueException {
+    int index = indexOfValue(valueName);
+    if (index < 0) {
+      return defaultValue;
+    }
+    return getString(dataRow, index);
+  }
+
+  @Override
+  public Long getInteger(Object[] dataRow, String valueName, Long defaultValue)
+      throws HopValueException {
+    int index = indexOfValue(valueName);
+    if (index < 0) {
+      return defaultValue;
+    }
+    return getInteger(dataRow, index);
+  }
+
+  @Override
+  public Date getDate(Object[] dataRow, String valueName, Date defaultValue)
+      throws HopValueException {
+    int index = indexOfValue(valueName);
+    if (index < 0) {
+      return defaultValue;
+    }
+    return getDate(dataRow, index);
+  }
+
+  @Override
+  public Boolean getBoolean(Object[] dataRow, String valueName, Boolean defaultValue)
+      throws HopValueException {
+    int index = indexOfValue(valueName);
+    if (index < 0) {
+      return defaultValue;
+    }
+    return getBoolean(dataRow, index);
+  }
+
+  @Override
+  public IValueMeta searchValueMeta(String valueName) {
+    Snapshot current = snapshot;
+    int index = current.indexOf(valueName);
+    return index < 0 ? null : current.valueMetas[index];
+  }
+
+  @Override
+  public int indexOfValue(String valueName) {
+    return snapshot.indexOf(valueName);
+  }
+
+  @Override
+  public void addRowMeta(IRowMeta rowMeta) {
+    modify(copy -> copy.addRowMeta(rowMeta));
+  }
+
+  @Override
+  public void mergeRowMeta(IRowMeta r) {
+    modify(copy -> copy.mergeRowMeta(r));
+  }
+
+  @Override
+  public void mergeRowMeta(IRowMeta r, String originTransformName) {
+    modify(copy -> copy.mergeRowMeta(r, originTransformName));
+  }
+
+  @Override
+  public String[] getFieldNames() {
+    IValueMeta[] valueMetas = snapshot.valueMetas;
+    String[] fieldNames = new String[valueMetas.length];
+    for (int i = 0; i < valueMetas.length; i++) {
+      String valueName = valueMetas[i].getName();
+      fieldNames[i] = valueName == null ? "" : valueName;
+    }
+    return fieldNames;
+  }
+
+  @Override
+  public void writeMeta(DataOutputStream outputStream) throws HopFileException {
+    snapshot.rowMeta.writeMeta(outputStream);
+  }
+
+  @Override
+  public void writeData(DataOutputStream outputStream, Object[] data) throws HopFileException {
+    snapshot.rowMeta.writeData(outputStream, data);
+  }
+
+  @Override
+  public Object[] readData(DataInputStream inputStream)
+      throws HopFileException, SocketTimeoutException {
+    return snapshot.rowMeta.readData(inputStream);
+  }
+
+  @Override
+  public void clear() {
+    modify(IRowMeta::clear);
+  }
+
+  @Override
+  public void removeValueMeta(String string) throws HopValueException {
+    if (indexOfValue(string) < 0) {
+      throw new HopValueException(
+          "Unable to find value metadata with name '" + string + "', so I can't delete it.");
+    }
+    modify(
+        rowMeta -> {
+          int index = rowMeta.indexOfValue(string);
+          if (index >= 0) {
+            rowMeta.removeValueMeta(index);
+          }
+        });
+  }
+
+  @Override
+  public void removeValueMeta(int index) {
+    modify(rowMeta -> rowMeta.removeValueMeta(index));
+  }
+
+  @Override
+  public String getString(Object[] row) throws HopValueException {
+    StringBuilder buffer = new StringBuilder();
+    IValueMeta[] valueMetas = snapshot.valueMetas;
+    for (int i = 0; i < valueMetas.length; i++) {
+      if (i > 0) {
+        buffer.append(", ");
+      }
+      buffer.append("[");
+      buffer.append(row == null ? null : valueMetas[i].getString(row[i]));
+      buffer.append("]");
+    }
+    return buffer.toString();
+  }
+
+  @Override
+  public String[] getFieldNamesAndTypes(int maxlen) {
+    return snapshot.rowMeta.getFieldNamesAndTypes(maxlen);
+  }
+
+  @Override
+  public int compare(Object[] rowData1, Object[] rowData2, int[] fieldnrs)
+      throws HopValueException {
+    IValueMeta[] valueMetas = snapshot.valueMetas;
+    for (int fieldnr : fieldnrs) {
+      int cmp = valueMetas[fieldnr].compare(rowData1[fieldnr], rowData2[fieldnr]);
+      if (cmp != 0) {
+        return cmp;
+      }
+    }
+    return 0;
+  }
+
+  @Override
+  public boolean equals(Object[] rowData1, Object[] rowData2, int[] fieldnrs)
+      throws HopValueException {
+    return compare(rowData1, rowData2, fieldnrs) == 0;
+  }
+
+  @Override
+  public int compare(Object[] rowData1, Object[] rowData2, int[] fieldnrs1, int[] fieldnrs2)
+      throws HopValueException {
+    IValueMeta[] valueMetas = snapshot.valueMetas;
+    int len = Math.min(fieldnrs1.length, fieldnrs2.length);
+    for (int i = 0; i < len; i++) {
+      int cmp = valueMetas[fieldnrs1[i]].compare(rowData1[fieldnrs1[i]], rowData2[fieldnrs2[i]]);
+      if (cmp != 0) {
+        return cmp;
+      }
+    }
+    return 0;
+  }
+
+  @Override
+  public int compare(
+      Object[] rowData1, IRowMeta rowMeta2, Object[] rowData2, int[] fieldnrs1, int[] fieldnrs2)
+      throws HopValueException {
+    IValueMeta[] valueMetas = snapshot.valueMetas;
+    int len = Math.min(fieldnrs1.length, fieldnrs2.length);
+    for (int i = 0; i < len; i++) {
+      IValueMeta valueMeta2 = rowMeta2.getValueMeta(fieldnrs2[i]);
+      int cmp =
+          valueMetas[fieldnrs1[i]].compare(
+              rowData1[fieldnrs1[i]], valueMeta2, rowData2[fieldnrs2[i]]);
+      if (cmp != 0) {
+        return cmp;
+      }
+    }
+    return 0;
+  }
+
+  @Override
+  public int compare(Object[] rowData1, Object[] rowData2) throws HopValueException {
+    IValueMeta[] valueMetas = snapshot.valueMetas;
+    for (int i = 0; i < valueMetas.length; i++) {
+      int cmp = valueMetas[i].compare(rowData1[i], rowData2[i]);
+      if (cmp != 0) {
+        return cmp;
+      }
+    }
+    return 0;
+  }
+
+  @Override
+  public int hashCode(Object[] rowData) throws HopValueException {
+    return Arrays.deepHashCode(rowData);
+  }
+
+  @Override
+  public int convertedValuesHashCode(Object[] rowData) throws HopValueException {
+    return snapshot.rowMeta.convertedValuesHashCode(rowData);
+  }
+
+  @Override
+  public String toStringMeta() {
+    return snapshot.rowMeta.toStringMeta();
+  }
+
+  @Override
+  public String getMetaXml() throws IOException {
+    return snapshot.rowMeta.getMetaXml();
+  }
+
+  @Override
+  public String getDataXml(Object[] rowData) throws IOException {
+    return snapshot.rowMeta.getDataXml(rowData);
+  }
+
+  @Override
+  public Object[] getRow(Node node) throws HopException {
+    return snapshot.rowMeta.getRow(node);
+  }
+
+  @Override
+  public boolean equals(Object o) {
+    if (this == o) {
+      return true;
+    }
+    if (o == null || getClass() != o.getClass()) {
+      return false;
+    }
+    return Arrays.equals(snapshot.valueMetas, ((CopyOnWriteRowMeta) o).snapshot.valueMetas);
+  }
+
+  @Override
+  public int hashCode() {
+    return snapshot.rowMeta.hashCode();
+  }
+
+  @Override
+  public String toString() {
+    return snapshot.rowMeta.toString();
+  }
+}
@@ -17,6 +17,7 @@
 
 package org.apache.hop.core.row;
 
+import java.util.ArrayList;
 import org.apache.hop.core.row.value.ValueMetaBigNumber;
 import org.apache.hop.core.row.value.ValueMetaBoolean;
 import org.apache.hop.core.row.value.ValueMetaDate;
@@ -32,6 +33,22 @@ public class RowMetaBuilder {
     this.rowMeta = new RowMeta();
   }
 
+  /**
+   * Start from the fields of existing row metadata. The value metadata objects are shared, not
+   * cloned, so the given row metadata itself isn't modified by the builder.
+   *
+   * @param rowMeta The row metadata to start from
+   */
+  public RowMetaBuilder(IRowMeta rowMeta) {
+    this.rowMeta = new RowMeta();
+    this.rowMeta.setValueMetaList(new ArrayList<>(rowMeta.getValueMetaList()));
+  }
+
+  public RowMetaBuilder addValueMeta(IValueMeta valueMeta) {
+    rowMeta.addValueMeta(valueMeta);
+    return this;
+  }
+
   public RowMetaBuilder addString(String name) {
     return addString(name, -1);
   }
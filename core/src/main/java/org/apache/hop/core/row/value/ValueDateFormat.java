@@ -0,0 +1,393 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.hop.core.row.value;
+
+import java.text.DecimalFormat;
+import java.text.ParseException;
+import java.text.ParsePosition;
+import java.text.SimpleDateFormat;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.YearMonth;
+import java.time.ZoneOffset;
+import java.time.zone.ZoneRules;
+import java.util.Date;
+import java.util.GregorianCalendar;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Objects;
+import java.util.SimpleTimeZone;
+import java.util.TimeZone;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * An immutable date format used to convert between dates and strings. It can be shared by all the
+ * threads (transform copies) converting values with the same mask, locale, time zone and leniency
+ * without any locking.
+ *
+ * <p>Numeric masks built from <code>yyyy</code>, <code>MM</code>, <code>dd</code>, <code>HH</code>,
+ * <code>mm</code>, <code>ss</code> and <code>SSS</code> like <code>yyyy-MM-dd</code> or <code>
+ * yyyy/MM/dd HH:mm:ss.SSS</code> are compiled into a fixed layout which is formatted and parsed
+ * directly with the java.time zone rules. Values the fast path can't handle exactly like a
+ * SimpleDateFormat would (other masks, partial input, invalid fields, DST transitions, dates before
+ * 1901) are converted with a SimpleDateFormat kept per thread.
+ */
+public final class ValueDateFormat {
+
+  /** Clear the cache when it grows past this size: masks can come from variables. */
+  private static final int MAX_CACHE_SIZE = 1000;
+
+  private static final Map<Key, ValueDateFormat> cache = new ConcurrentHashMap<>();
+
+  private static final int MIN_FAST_YEAR = 1901;
+  private static final int MAX_FAST_YEAR = 9999;
+
+  /** Time zone rules after this year are generated differently by TimeZone and ZoneRules */
+  private static final int MAX_FAST_YEAR_WITH_TRANSITIONS = 2037;
+
+  private final String mask;
+  private final Locale locale;
+  private final TimeZone timeZone;
+  private final boolean lenient;
+
+  private final String pattern;
+  private final ThreadLocal<SimpleDateFormat> simpleDateFormat;
+
+  // The compiled fast path layout: the position of each field in the mask or -1
+  //
+  private final boolean fastPath;
+  private final ZoneRules zoneRules;
+  private final int maxFastYear;
+  private final int yearIndex;
+  private final int monthIndex;
+  private final int dayIndex;
+  private final int hourIndex;
+  private final int minuteIndex;
+  private final int secondIndex;
+  private final int milliIndex;
+
+  private record Key(String mask, Locale locale, TimeZone timeZone, boolean lenient) {}
+
+  private ValueDateFormat(String mask, Locale locale, TimeZone timeZone, boolean lenient) {
+    this.mask = mask;
+    this.locale = locale;
+    this.timeZone = timeZone;
+    this.lenient = lenient;
+
+    // Build the date format the same way the value metadata always did
+    //
+    SimpleDateFormat prototype;
+    if (locale == null || locale.equals(Locale.getDefault())) {
+      prototype = mask == null ? new SimpleDateFormat() : new SimpleDateFormat(mask);
+    } else {
+      prototype =
+          new SimpleDateFormat(mask == null ? new SimpleDateFormat().toPattern() : mask, locale);
+    }
+    if (timeZone != null) {
+      prototype.setTimeZone(timeZone);
+    }
+    prototype.setLenient(lenient);
+    this.pattern = prototype.toPattern();
+    this.simpleDateFormat = ThreadLocal.withInitial(() -> (SimpleDateFormat) prototype.clone());
+
+    // The fast path only writes ASCII digits of the Gregorian calendar
+    //
+    TimeZone zone = prototype.getTimeZone();
+    ZoneRules rules = null;
+    if (!(zone instanceof SimpleTimeZone)
+        && prototype.getCalendar() instanceof GregorianCalendar
+        && prototype.getNumberFormat() instanceof DecimalFormat decimalFormat
+        && decimalFormat.getDecimalFormatSymbols().getZeroDigit() == '0') {
+      try {
+        rules = zone.toZoneId().getRules();
+      } catch (Exception e) {
+        // Not a zone known to java.time, no fast path
+      }
+    }
+    int[] layout = compileLayout(pattern);
+    this.fastPath = layout != null && rules != null;
+    this.zoneRules = rules;
+    this.maxFastYear =
+        rules != null && rules.isFixedOffset() ? MAX_FAST_YEAR : MAX_FAST_YEAR_WITH_TRANSITIONS;
+    this.yearIndex = layout == null ? -1 : layout[0];
+    this.monthIndex = layout == null ? -1 : layout[1];
+    this.dayIndex = layout == null ? -1 : layout[2];
+    this.hourIndex = layout == null ? -1 : layout[3];
+    this.minuteIndex = layout == null ? -1 : layout[4];
+    this.secondIndex = layout == null ? -1 : layout[5];
+    this.milliIndex = layout == null ? -1 : layout[6];
+  }
+
+  /**
+   * Get the shared date format for the given options.
+   *
+   * @param mask The date mask or null for the default pattern of the locale
+   * @param locale The locale or null for the default locale
+   * @param timeZone The time zone or null for the default time zone
+   * @param lenient true if parsing should be lenient
+   * @return The cached date format
+   */
+  public static ValueDateFormat getInstance(
+      String mask, Locale locale, TimeZone timeZone, boolean lenient) {
+    Key key = new Key(mask, locale, timeZone, lenient);
+    ValueDateFormat format = cache.get(key);
+    if (format == null) {
+      if (cache.size() >= MAX_CACHE_SIZE) {
+        cache.clear();
+      }
+      format =
+          cache.computeIfAbsent(key, k -> new ValueDateFormat(mask, locale, timeZone, lenient));
+    }
+    return format;
+  }
+
+  /**
+   * See if this format was created for the given options
+   *
+   * @param mask The date mask
+   * @param locale The locale
+   * @param timeZone The time zone
+   * @param lenient The leniency
+   * @return true if this format can be used for the given options
+   */
+  public boolean matches(String mask, Locale locale, TimeZone timeZone, boolean lenient) {
+    return this.lenient == lenient
+        && Objects.equals(this.mask, mask)
+        && Objects.equals(this.locale, locale)
+        && Objects.equals(this.timeZone, timeZone);
+  }
+
+  /**
+   * Convert a date to a string
+   *
+   * @param date The date to format
+   * @return The formatted date
+   */
+  public String format(Date date) {
+    if (fastPath) {
+      String string = formatFast(date.getTime());
+      if (string != null) {
+        return string;
+      }
+    }
+    return simpleDateFormat.get().format(date);
+  }
+
+  /**
+   * Convert a string to a date
+   *
+   * @param string The string to parse
+   * @return The parsed date
+   * @throws ParseException in case the string can't be parsed with the mask
+   */
+  public Date parse(String string) throws ParseException {
+    if (fastPath) {
+      Date date = parseFast(string);
+      if (date != null) {
+        return date;
+      }
+    }
+    ParsePosition pp = new ParsePosition(0);
+    Date result = simpleDateFormat.get().parse(string, pp);
+    if (pp.getErrorIndex() >= 0) {
+      throw new ParseException(string, pp.getErrorIndex());
+    }
+    return result;
+  }
+
+  /**
+   * Gets the pattern of the date format
+   *
+   * @return value of pattern
+   */
+  public String toPattern() {
+    return pattern;
+  }
+
+  /**
+   * Gets fastPath
+   *
+   * @return true if the mask was compiled to the fast path
+   */
+  public boolean isFastPath() {
+    return fastPath;
+  }
+
+  /**
+   * Compile the mask into the positions of the year, month, day, hour, minute, second and
+   * millisecond fields. Only unquoted numeric fields with a fixed width are supported so that the
+   * position of every character in the mask is the same as the position in the formatted string.
+   *
+   * @param mask The mask to compile
+   * @return The field positions or null if the mask isn't supported by the fast path
+   */
+  static int[] compileLayout(String mask) {
+    if (mask == null || mask.isEmpty()) {
+      return null;
+    }
+    int[] layout = {-1, -1, -1, -1, -1, -1, -1};
+    int i = 0;
+    while (i < mask.length()) {
+      char c = mask.charAt(i);
+      if (c == '\'') {
+        return null;
+      }
+      if (!Character.isLetter(c)) {
+        i++;
+        continue;
+      }
+      int start = i;
+      while (i < mask.length() && mask.charAt(i) == c) {
+        i++;
+      }
+      int field;
+      int width;
+      switch (c) {
+        case 'y' -> {
+          field = 0;
+          width = 4;
+        }
+        case 'M' -> {
+          field = 1;
+          width = 2;
+        }
+        case 'd' -> {
+          field = 2;
+          width = 2;
+        }
+        case 'H' -> {
+          field = 3;
+          width = 2;
+        }
+        case 'm' -> {
+          field = 4;
+          width = 2;
+        }
+        case 's' -> {
+          field = 5;
+          width = 2;
+        }
+        case 'S' -> {
+          field = 6;
+          width = 3;
+        }
+        default -> {
+          return null;
+        }
+      }
+      if (i - start != width || layout[field] >= 0) {
+        return null;
+      }
+      layout[field] = start;
+    }
+    // We need a complete date
+    //
+    if (layout[0] < 0 || layout[1] < 0 || layout[2] < 0) {
+      return null;
+    }
+    return layout;
+  }
+
+  private String formatFast(long millis) {
+    long epochSecond = Math.floorDiv(millis, 1000L);
+    int milli = (int) Math.floorMod(millis, 1000L);
+    ZoneOffset offset = zoneRules.getOffset(Instant.ofEpochSecond(epochSecond));
+    LocalDateTime dateTime = LocalDateTime.ofEpochSecond(epochSecond, 0, offset);
+    int year = dateTime.getYear();
+    if (year < MIN_FAST_YEAR || year > maxFastYear) {
+      return null;
+    }
+    char[] chars = pattern.toCharArray();
+    writeDigits(chars, yearIndex, 4, year);
+    writeDigits(chars, monthIndex, 2, dateTime.getMonthValue());
+    writeDigits(chars, dayIndex, 2, dateTime.getDayOfMonth());
+    writeDigits(chars, hourIndex, 2, dateTime.getHour());
+    writeDigits(chars, minuteIndex, 2, dateTime.getMinute());
+    writeDigits(chars, secondIndex, 2, dateTime.getSecond());
+    writeDigits(chars, milliIndex, 3, milli);
+    return new String(chars);
+  }
+
+  private static void writeDigits(char[] chars, int index, int width, int value) {
+    if (index < 0) {
+      return;
+    }
+    for (int i = index + width - 1; i >= index; i--) {
+      chars[i] = (char) ('0' + value % 10);
+      value /= 10;
+    }
+  }
+
+  private Date parseFast(String string) {
+    if (string.length() != pattern.length()) {
+      return null;
+    }
+    for (int i = 0; i < pattern.length(); i++) {
+      char m = pattern.charAt(i);
+      char c = string.charAt(i);
+      if (Character.isLetter(m) ? (c < '0' || c > '9') : c != m) {
+        return null;
+      }
+    }
+    int year = readDigits(string, yearIndex, 4);
+    int month = readDigits(string, monthIndex, 2);
+    int day = readDigits(string, dayIndex, 2);
+    int hour = readDigits(string, hourIndex, 2);
+    int minute = readDigits(string, minuteIndex, 2);
+    int second = readDigits(string, secondIndex, 2);
+    int milli = readDigits(string, milliIndex, 3);
+    if (year < MIN_FAST_YEAR
+        || year > maxFastYear
+        || month < 1
+        || month > 12
+        || day < 1
+        || day > YearMonth.of(year, month).lengthOfMonth()
+        || hour > 23
+        || minute > 59
+        || second > 59) {
+      // Let the SimpleDateFormat handle leniency or report the error
+      //
+      return null;
+    }
+    LocalDateTime dateTime = LocalDateTime.of(year, month, day, hour, minute, second);
+    List<ZoneOffset> offsets = zoneRules.getValidOffsets(dateTime);
+    if (offsets.size() != 1) {
+      // A gap or an overlap in the local time line
+      //
+      return null;
+    }
+    return new Date(dateTime.toEpochSecond(offsets.get(0)) * 1000L + milli);
+  }
+
+  private static int readDigits(String string, int index, int width) {
+    if (index < 0) {
+      return 0;
+    }
+    int value = 0;
+    for (int i = index; i < index + width; i++) {
+      value = value * 10 + (string.charAt(i) - '0');
+    }
+    return value;
+  }
+
+  /** Remove all cached date formats. */
+  public static void clearCache() {
+    cache.clear();
+  }
+}
@@ -209,6 +209,11 @@ public class ValueMetaBase implements IValueMeta {
   @JsonIgnore protected DecimalFormat decimalFormat;
   @JsonIgnore protected boolean decimalFormatChanged;
 
+  /** The shared, immutable formats used by the conversions between strings and dates/numbers */
+  @JsonIgnore private ValueDateFormat valueDateFormat;
+
+  @JsonIgnore private ValueNumberFormat valueNumberFormat;
+
   @JsonIgnore protected IValueMeta storageMetadata;
   @JsonIgnore protected boolean identicalFormat;
 
@@ -611,6 +616,8 @@ public class ValueMetaBase implements IValueMeta {
       ValueMetaBase valueMeta = (ValueMetaBase) super.clone();
       valueMeta.dateFormat = null;
       valueMeta.decimalFormat = null;
+      valueMeta.valueDateFormat = null;
+      valueMeta.valueNumberFormat = null;
       if (dateFormatLocale != null) {
         valueMeta.dateFormatLocale = (Locale) dateFormatLocale.clone();
       }
@@ -678,6 +685,7 @@ public class ValueMetaBase implements IValueMeta {
   @Override
   public void setLength(int length) {
     this.length = length;
+    valueNumberFormat = null;
   }
 
   /**
@@ -687,6 +695,7 @@ public class ValueMetaBase implements IValueMeta {
   public void setLength(int length, int precision) {
     this.length = length;
     this.precision = precision;
+    valueNumberFormat = null;
   }
 
   /**
@@ -751,6 +760,7 @@ public class ValueMetaBase implements IValueMeta {
   @Override
   public void setPrecision(int precision) {
     this.precision = precision;
+    valueNumberFormat = null;
   }
 
   /**
@@ -767,6 +777,8 @@ public class ValueMetaBase implements IValueMeta {
   @Override
   public void setStorageType(int storageType) {
     this.storageType = storageType;
+    valueDateFormat = null;
+    valueNumberFormat = null;
   }
 
   @Override
@@ -811,6 +823,8 @@ public class ValueMetaBase implements IValueMeta {
     this.conversionMask = conversionMask;
     dateFormatChanged = true;
     decimalFormatChanged = true;
+    valueDateFormat = null;
+    valueNumberFormat = null;
     compareStorageAndActualFormat();
   }
 
@@ -847,6 +861,7 @@ public class ValueMetaBase implements IValueMeta {
   public void setDecimalSymbol(String decimalSymbol) {
     this.decimalSymbol = decimalSymbol;
     decimalFormatChanged = true;
+    valueNumberFormat = null;
     compareStorageAndActualFormat();
   }
 
@@ -865,6 +880,7 @@ public class ValueMetaBase implements IValueMeta {
   public void setGroupingSymbol(String groupingSymbol) {
     this.groupingSymbol = groupingSymbol;
     decimalFormatChanged = true;
+    valueNumberFormat = null;
     compareStorageAndActualFormat();
   }
 
@@ -883,6 +899,7 @@ public class ValueMetaBase implements IValueMeta {
   public void setCurrencySymbol(String currencySymbol) {
     this.currencySymbol = currencySymbol;
     decimalFormatChanged = true;
+    valueNumberFormat = null;
   }
 
   /**
@@ -1018,6 +1035,7 @@ public class ValueMetaBase implements IValueMeta {
   public void setDateFormatLenient(boolean dateFormatLenient) {
     this.dateFormatLenient = dateFormatLenient;
     dateFormatChanged = true;
+    valueDateFormat = null;
   }
 
   /**
@@ -1035,16 +1053,23 @@ public class ValueMetaBase implements IValueMeta {
   public void setDateFormatLocale(Locale dateFormatLocale) {
     this.dateFormatLocale = dateFormatLocale;
     dateFormatChanged = true;
+    valueDateFormat = null;
   }
 
   // DATE + STRING
 
-  protected synchronized String convertDateToString(Date date) {
+  protected String convertDateToString(Date date) {
     if (date == null) {
       return null;
     }
 
-    return getDateFormat().format(date);
+    ValueDateFormat format = getValueDateFormat(getType());
+    if (format == null) {
+      synchronized (this) {
+        return getDateFormat().format(date);
+      }
+    }
+    return format.format(date);
   }
 
   protected static SimpleDateFormat compatibleDateFormat =
@@ -1060,7 +1085,7 @@ public class ValueMetaBase implements IValueMeta {
         : compatibleDateFormat.format(date));
   }
 
-  public synchronized Date convertStringToDate(String string) throws HopValueException {
+  public Date convertStringToDate(String string) throws HopValueException {
     string = Const.trimToType(string, getTrimType()); // see if trimming needs
     // to be performed before
     // conversion
@@ -1069,21 +1094,31 @@ public class ValueMetaBase implements IValueMeta {
       return null;
     }
 
+    ValueDateFormat format = getValueDateFormat(TYPE_DATE);
     try {
-      ParsePosition pp = new ParsePosition(0);
-      Date result = getDateFormat(TYPE_DATE).parse(string, pp);
-      if (pp.getErrorIndex() >= 0) {
-        // error happen
-        throw new ParseException(string, pp.getErrorIndex());
+      // some chars can be after the parsed position. That means, not full value was parsed. For
+      // example, for value "25-03-1918 11:54" and format "dd-MM-yyyy", value will be
+      // "25-03-1918 00:00" without any exception.
+      //
+      if (format != null) {
+        return format.parse(string);
+      }
+      synchronized (this) {
+        ParsePosition pp = new ParsePosition(0);
+        Date result = getDateFormat(TYPE_DATE).parse(string, pp);
+        if (pp.getErrorIndex() >= 0) {
+          // error happen
+          throw new ParseException(string, pp.getErrorIndex());
+        }
+        return result;
       }
-      // some chars can be after pp.getIndex(). That means, not full value was parsed. For example,
-      // for value
-      // "25-03-1918 11:54" and format "dd-MM-yyyy", value will be "25-03-1918 00:00" without any
-      // exception.
-      // If there are only spaces after pp.getIndex() - that means full values was parsed
-      return result;
     } catch (ParseException e) {
-      String dateFormatString = (getDateFormat() != null) ? getDateFormat().toPattern() : "null";
+      String dateFormatString;
+      if (format != null) {
+        dateFormatString = format.toPattern();
+      } else {
+        dateFormatString = (getDateFormat() != null) ? getDateFormat().toPattern() : "null";
+      }
       throw new HopValueException(
           this
               + " : couldn't convert string ["
@@ -1126,7 +1161,7 @@ public class ValueMetaBase implements IValueMeta {
     return new Date(number.longValue());
   }
 
-  public synchronized String convertNumberToString(Double number) throws HopValueException {
+  public String convertNumberToString(Double number) throws HopValueException {
     if (number == null) {
       if (!outputPaddingEnabled || length < 1) {
         return null;
@@ -1145,15 +1180,14 @@ public class ValueMetaBase implements IValueMeta {
     }
 
     try {
-      DecimalFormat format = getDecimalFormat(false);
-
       // When conversion masks are different, we must ensure the number precision is not lost
+      int maximumFractionDigits = -1;
       if (this.conversionMask != null
           && storageMetadata != null
           && !this.conversionMask.equals(storageMetadata.getConversionMask())) {
-        format.setMaximumFractionDigits(50);
+        maximumFractionDigits = 50;
       }
-      return format.format(number);
+      return getValueNumberFormat(maximumFractionDigits).format(number);
     } catch (Exception e) {
       throw new HopValueException(this + " : couldn't convert Number to String ", e);
     }
@@ -1166,7 +1200,7 @@ public class ValueMetaBase implements IValueMeta {
     return Double.toString(number);
   }
 
-  protected synchronized Double convertStringToNumber(String string) throws HopValueException {
+  protected Double convertStringToNumber(String string) throws HopValueException {
     string = Const.trimToType(string, getTrimType()); // see if trimming needs
     // to be performed before
     // conversion
@@ -1176,7 +1210,7 @@ public class ValueMetaBase implements IValueMeta {
     }
 
     try {
-      DecimalFormat format = getDecimalFormat(false);
+      ValueNumberFormat format = getValueNumberFormat(-1);
       Number number;
       if (lenientStringToNumber) {
         number = format.parse(string);
@@ -1206,6 +1240,69 @@ public class ValueMetaBase implements IValueMeta {
     return getDateFormat(getType());
   }
 
+  /**
+   * Get the immutable date format to convert between strings and dates without locking. It is built
+   * with the same mask, locale, time zone and leniency as {@link #getDateFormat()}.
+   *
+   * @param valueMetaType The data type to get the mask for
+   * @return The shared date format or null if the conversion has to use {@link #getDateFormat()}
+   */
+  protected ValueDateFormat getValueDateFormat(int valueMetaType) {
+    if (conversionMetadata != null) {
+      if (conversionMetadata instanceof ValueMetaBase valueMetaBase) {
+        return valueMetaBase.getValueDateFormat(conversionMetadata.getType());
+      }
+      return null;
+    }
+
+    String mask = getMask(valueMetaType);
+    ValueDateFormat format = valueDateFormat;
+    if (format == null
+        || !format.matches(mask, dateFormatLocale, dateFormatTimeZone, dateFormatLenient)) {
+      format =
+          ValueDateFormat.getInstance(
+              mask, dateFormatLocale, dateFormatTimeZone, dateFormatLenient);
+      valueDateFormat = format;
+    }
+    return format;
+  }
+
+  /**
+   * Get the immutable number format to convert between strings and numbers without locking. It is
+   * built with the same mask and symbols as {@link #getDecimalFormat(boolean)}.
+   *
+   * @param maximumFractionDigits The maximum number of fraction digits or -1 to use the mask
+   * @return The shared number format
+   */
+  protected ValueNumberFormat getValueNumberFormat(int maximumFractionDigits) {
+    if (conversionMetadata instanceof ValueMetaBase valueMetaBase) {
+      return valueMetaBase.getValueNumberFormat(maximumFractionDigits);
+    }
+    if (conversionMetadata != null) {
+      return ValueNumberFormat.getInstance(
+          conversionMetadata.getFormatMask(),
+          conversionMetadata.getCurrencySymbol(),
+          conversionMetadata.getGroupingSymbol(),
+          conversionMetadata.getDecimalSymbol(),
+          false,
+          maximumFractionDigits);
+    }
+
+    // The mask also depends on the length, precision and data type: only reuse a matching format
+    //
+    String mask = getMask(getType());
+    ValueNumberFormat format = valueNumberFormat;
+    if (format == null
+        || format.getMaximumFractionDigits() != maximumFractionDigits
+        || !Objects.equals(format.getMask(), mask)) {
+      format =
+          ValueNumberFormat.getInstance(
+              mask, currencySymbol, groupingSymbol, decimalSymbol, false, maximumFractionDigits);
+      valueNumberFormat = format;
+    }
+    return format;
+  }
+
   private synchronized SimpleDateFormat getDateFormat(int valueMetaType) {
     // If we have a Date that is represented as a String
     // In that case we can set the format of the original Date on the String
@@ -5004,6 +5101,7 @@ public class ValueMetaBase implements IValueMeta {
   public void setDateFormatTimeZone(TimeZone dateFormatTimeZone) {
     this.dateFormatTimeZone = dateFormatTimeZone;
     dateFormatChanged = true;
+    valueDateFormat = null;
   }
 
   @Override
@@ -5016,6 +5114,16 @@ public class ValueMetaBase implements IValueMeta {
     this.ignoreWhitespace = ignoreWhitespace;
   }
 
+  /**
+   * Gets comparator
+   *
+   * @return value of the custom comparator, null if the values are compared by their data type
+   */
+  @JsonIgnore
+  public Comparator<Object> getComparator() {
+    return comparator;
+  }
+
   @Override
   public IValueMeta getValueFromSqlType(
       IVariables variables,
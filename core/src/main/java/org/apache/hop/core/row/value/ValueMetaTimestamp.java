@@ -669,6 +669,16 @@ public class ValueMetaTimestamp extends ValueMetaDate {
     return getDateFormat(getType());
   }
 
+  @Override
+  protected ValueDateFormat getValueDateFormat(int valueMetaType) {
+    // Timestamps keep using the nanosecond precision of the SimpleTimestampFormat
+    //
+    if (valueMetaType == TYPE_TIMESTAMP) {
+      return null;
+    }
+    return super.getValueDateFormat(valueMetaType);
+  }
+
   private synchronized SimpleDateFormat getDateFormat(int valueMetaType) {
     if (conversionMetadata != null) {
       return new SimpleTimestampFormat(conversionMetadata.getDateFormat().toPattern());
@@ -0,0 +1,323 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.hop.core.row.value;
+
+import java.text.DecimalFormat;
+import java.text.DecimalFormatSymbols;
+import java.text.NumberFormat;
+import java.text.ParseException;
+import java.text.ParsePosition;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import org.apache.hop.core.util.Utils;
+
+/**
+ * An immutable number format used to convert between numbers and strings. It can be shared by all
+ * the threads (transform copies) converting values with the same mask and symbols without any
+ * locking.
+ *
+ * <p>When the mask is a plain decimal mask (no prefix, suffix, multiplier or exponent) strings like
+ * <code>-123.45</code> are parsed directly and whole numbers are formatted directly. All other
+ * values are converted with a DecimalFormat kept per thread.
+ */
+public final class ValueNumberFormat {
+
+  /** Clear the cache when it grows past this size: masks can come from variables. */
+  private static final int MAX_CACHE_SIZE = 1000;
+
+  private static final Map<Key, ValueNumberFormat> cache = new ConcurrentHashMap<>();
+
+  /** Up to this many digits a DecimalFormat parses exactly like Double.parseDouble() */
+  private static final int MAX_PLAIN_DIGITS = 18;
+
+  /** Whole numbers below this value are formatted directly */
+  private static final double MAX_PLAIN_WHOLE_NUMBER = 1e15;
+
+  private final String mask;
+  private final int maximumFractionDigits;
+
+  private final ThreadLocal<DecimalFormat> decimalFormat;
+
+  // The plain decimal fast path
+  //
+  private final boolean plainParsing;
+  private final boolean plainFormatting;
+  private final char minusSign;
+  private final char decimalSeparator;
+  private final int minimumIntegerDigits;
+  private final int minimumFractionDigits;
+  private final boolean decimalSeparatorAlwaysShown;
+
+  private record Key(
+      String mask,
+      String currencySymbol,
+      String groupingSymbol,
+      String decimalSymbol,
+      boolean parseBigDecimal,
+      int maximumFractionDigits,
+      Locale locale) {}
+
+  private ValueNumberFormat(Key key) {
+    this.mask = key.mask();
+    this.maximumFractionDigits = key.maximumFractionDigits();
+    String currencySymbol = key.currencySymbol();
+    String groupingSymbol = key.groupingSymbol();
+    String decimalSymbol = key.decimalSymbol();
+    boolean parseBigDecimal = key.parseBigDecimal();
+
+    // Build the decimal format the same way the value metadata always did
+    //
+    DecimalFormat prototype = (DecimalFormat) NumberFormat.getInstance(key.locale());
+    prototype.setParseBigDecimal(parseBigDecimal);
+    DecimalFormatSymbols decimalFormatSymbols = prototype.getDecimalFormatSymbols();
+    if (!Utils.isEmpty(currencySymbol)) {
+      decimalFormatSymbols.setCurrencySymbol(currencySymbol);
+    }
+    if (!Utils.isEmpty(groupingSymbol)) {
+      decimalFormatSymbols.setGroupingSeparator(groupingSymbol.charAt(0));
+    }
+    if (!Utils.isEmpty(decimalSymbol)) {
+      decimalFormatSymbols.setDecimalSeparator(decimalSymbol.charAt(0));
+    }
+    prototype.setDecimalFormatSymbols(decimalFormatSymbols);
+    if (!Utils.isEmpty(mask)) {
+      prototype.applyPattern(mask);
+    }
+    if (maximumFractionDigits >= 0) {
+      prototype.setMaximumFractionDigits(maximumFractionDigits);
+    }
+    this.decimalFormat = ThreadLocal.withInitial(() -> (DecimalFormat) prototype.clone());
+
+    // See if this is a plain decimal format: only an optional minus sign, digits and a decimal
+    // separator
+    //
+    DecimalFormatSymbols symbols = prototype.getDecimalFormatSymbols();
+    this.minusSign = symbols.getMinusSign();
+    this.decimalSeparator = symbols.getDecimalSeparator();
+    this.minimumIntegerDigits = prototype.getMinimumIntegerDigits();
+    this.minimumFractionDigits = prototype.getMinimumFractionDigits();
+    this.decimalSeparatorAlwaysShown = prototype.isDecimalSeparatorAlwaysShown();
+    boolean plain =
+        prototype.getPositivePrefix().isEmpty()
+            && prototype.getPositiveSuffix().isEmpty()
+            && prototype.getNegativePrefix().equals(String.valueOf(minusSign))
+            && prototype.getNegativeSuffix().isEmpty()
+            && prototype.getMultiplier() == 1
+            && !prototype.toPattern().contains("E")
+            && symbols.getZeroDigit() == '0'
+            && !Character.isDigit(minusSign)
+            && !Character.isDigit(decimalSeparator)
+            && minusSign != decimalSeparator
+            && decimalSeparator != symbols.getGroupingSeparator();
+    this.plainParsing = plain && !parseBigDecimal && !prototype.isParseIntegerOnly();
+    this.plainFormatting =
+        plain
+            && !prototype.isGroupingUsed()
+            && minimumIntegerDigits >= 1
+            && prototype.getMaximumIntegerDigits() > MAX_PLAIN_DIGITS;
+  }
+
+  /**
+   * Get the shared number format for the given mask and symbols in the default locale.
+   *
+   * @param mask The number mask or null for the default pattern of the locale
+   * @param currencySymbol The currency symbol or null for the default
+   * @param groupingSymbol The grouping symbol or null for the default
+   * @param decimalSymbol The decimal symbol or null for the default
+   * @param parseBigDecimal true if parsing should return BigDecimal values
+   * @param maximumFractionDigits The maximum number of fraction digits or -1 to use the mask
+   * @return The cached number format
+   */
+  public static ValueNumberFormat getInstance(
+      String mask,
+      String currencySymbol,
+      String groupingSymbol,
+      String decimalSymbol,
+      boolean parseBigDecimal,
+      int maximumFractionDigits) {
+    Key key =
+        new Key(
+            mask,
+            currencySymbol,
+            groupingSymbol,
+            decimalSymbol,
+            parseBigDecimal,
+            maximumFractionDigits,
+            Locale.getDefault(Locale.Category.FORMAT));
+    ValueNumberFormat format = cache.get(key);
+    if (format == null) {
+      if (cache.size() >= MAX_CACHE_SIZE) {
+        cache.clear();
+      }
+      format = cache.computeIfAbsent(key, ValueNumberFormat::new);
+    }
+    return format;
+  }
+
+  /**
+   * Convert a number to a string
+   *
+   * @param number The number to format
+   * @return The formatted number
+   */
+  public String format(double number) {
+    if (plainFormatting
+        && Math.abs(number) < MAX_PLAIN_WHOLE_NUMBER
+        && number == Math.rint(number)) {
+      return formatWholeNumber(number);
+    }
+    return decimalFormat.get().format(number);
+  }
+
+  /**
+   * Convert a string to a number, accepting trailing characters.
+   *
+   * @param string The string to parse
+   * @return The parsed number
+   * @throws ParseException in case the start of the string isn't a number
+   */
+  public Number parse(String string) throws ParseException {
+    Double plain = parsePlainNumber(string);
+    if (plain != null) {
+      return plain;
+    }
+    return decimalFormat.get().parse(string);
+  }
+
+  /**
+   * Convert a string to a number, starting at the given position.
+   *
+   * @param string The string to parse
+   * @param parsePosition The position to start at, updated to the first unparsed character
+   * @return The parsed number or null in case of an error
+   */
+  public Number parse(String string, ParsePosition parsePosition) {
+    if (parsePosition.getIndex() == 0) {
+      Double plain = parsePlainNumber(string);
+      if (plain != null) {
+        parsePosition.setIndex(string.length());
+        return plain;
+      }
+    }
+    return decimalFormat.get().parse(string, parsePosition);
+  }
+
+  /**
+   * Parse a plain decimal string like <code>-123.45</code> directly.
+   *
+   * @param string The string to parse
+   * @return The number or null if the string isn't a plain decimal number or the mask isn't plain
+   */
+  Double parsePlainNumber(String string) {
+    if (!plainParsing) {
+      return null;
+    }
+    int length = string.length();
+    int index = 0;
+    if (length > 0 && string.charAt(0) == minusSign) {
+      index++;
+    }
+    int integerStart = index;
+    while (index < length && isAsciiDigit(string.charAt(index))) {
+      index++;
+    }
+    int digits = index - integerStart;
+    if (digits == 0) {
+      return null;
+    }
+    int separatorIndex = -1;
+    if (index < length) {
+      if (string.charAt(index) != decimalSeparator) {
+        return null;
+      }
+      separatorIndex = index++;
+      int fractionStart = index;
+      while (index < length && isAsciiDigit(string.charAt(index))) {
+        index++;
+      }
+      if (index == fractionStart || index < length) {
+        return null;
+      }
+      digits += index - fractionStart;
+    }
+    if (digits > MAX_PLAIN_DIGITS) {
+      return null;
+    }
+    boolean javaMinus = integerStart == 0 || minusSign == '-';
+    if (javaMinus && (separatorIndex < 0 || decimalSeparator == '.')) {
+      return Double.parseDouble(string);
+    }
+    char[] chars = string.toCharArray();
+    if (integerStart > 0) {
+      chars[0] = '-';
+    }
+    if (separatorIndex >= 0) {
+      chars[separatorIndex] = '.';
+    }
+    return Double.parseDouble(new String(chars));
+  }
+
+  private String formatWholeNumber(double number) {
+    boolean negative = number < 0 || (number == 0 && 1 / number < 0);
+    String digits = Long.toString((long) Math.abs(number));
+    StringBuilder builder =
+        new StringBuilder(minimumIntegerDigits + minimumFractionDigits + digits.length() + 2);
+    if (negative) {
+      builder.append(minusSign);
+    }
+    for (int i = digits.length(); i < minimumIntegerDigits; i++) {
+      builder.append('0');
+    }
+    builder.append(digits);
+    if (minimumFractionDigits > 0 || decimalSeparatorAlwaysShown) {
+      builder.append(decimalSeparator);
+      for (int i = 0; i < minimumFractionDigits; i++) {
+        builder.append('0');
+      }
+    }
+    return builder.toString();
+  }
+
+  private static boolean isAsciiDigit(char c) {
+    return c >= '0' && c <= '9';
+  }
+
+  /**
+   * Gets maximumFractionDigits
+   *
+   * @return value of maximumFractionDigits, -1 if the mask decides
+   */
+  public int getMaximumFractionDigits() {
+    return maximumFractionDigits;
+  }
+
+  /**
+   * Gets mask
+   *
+   * @return value of mask
+   */
+  public String getMask() {
+    return mask;
+  }
+
+  /** Remove all cached number formats. */
+  public static void clearCache() {
+    cache.clear();
+  }
+}
@@ -0,0 +1,285 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.hop.core.util;
+
+import java.io.IOException;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.Iterator;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Executes blocking requests (HTTP calls for example) for rows in the background, keeping at most a
+ * maximum number of requests in flight. This allows a single transform copy to wait for many slow
+ * requests at the same time. The requests run in a pool with a thread per request in flight. The
+ * threads stop when they're idle for a minute or when the executor is cancelled.
+ *
+ * <p>The transform thread submits requests and takes the completed ones to pass them on. The
+ * completed requests are handed out in the order of submission, unless unordered output is allowed.
+ * Requests failing with an I/O error are retried after a delay which doubles for every attempt.
+ *
+ * <p>This class is meant to be used by a single transform thread.
+ *
+ * @param <T> The type of the result of a request
+ */
+public class AsyncRequestExecutor<T> {
+
+  /** A submitted request for a row */
+  public static final class Request<T> {
+    private final Object[] row;
+    private T result;
+    private Exception error;
+    private int attempts;
+    private boolean done;
+
+    private Request(Object[] row) {
+      this.row = row;
+    }
+
+    /**
+     * Gets row
+     *
+     * @return value of the row the request was submitted for
+     */
+    public Object[] getRow() {
+      return row;
+    }
+
+    /**
+     * Gets result
+     *
+     * @return value of the result or null if the request failed
+     */
+    public T getResult() {
+      return result;
+    }
+
+    /**
+     * Gets error
+     *
+     * @return value of the error of the last attempt or null if the request succeeded
+     */
+    public Exception getError() {
+      return error;
+    }
+
+    /**
+     * Gets attempts
+     *
+     * @return value of the number of times the request was executed
+     */
+    public int getAttempts() {
+      return attempts;
+    }
+  }
+
+  private static final AtomicInteger threadNr = new AtomicInteger(1);
+
+  private final int maxInFlight;
+  private final boolean ordered;
+  private final int maxRetries;
+  private final long retryDelay;
+
+  /** The requests which are not yet taken, in the order of submission */
+  private final Deque<Request<T>> requests = new ArrayDeque<>();
+
+  private final ThreadPoolExecutor threadPool;
+
+  private volatile boolean cancelled;
+
+  /**
+   * @param name The name of the threads executing the requests
+   * @param maxInFlight The maximum number of requests executing or waiting to be taken
+   * @param ordered true to take the completed requests in the order of submission
+   * @param maxRetries The maximum number of retries of a request failing with an I/O error
+   * @param retryDelay The delay in milliseconds before the first retry, doubled for every retry
+   */
+  public AsyncRequestExecutor(
+      String name, int maxInFlight, boolean ordered, int maxRetries, long retryDelay) {
+    this.maxInFlight = Math.max(1, maxInFlight);
+    this.ordered = ordered;
+    this.maxRetries = Math.max(0, maxRetries);
+    this.retryDelay = Math.max(0L, retryDelay);
+    this.threadPool =
+        new ThreadPoolExecutor(
+            this.maxInFlight,
+            this.maxInFlight,
+            60L,
+            TimeUnit.SECONDS,
+            new LinkedBlockingQueue<>(),
+            r -> {
+              Thread thread = new Thread(r, name + " request " + threadNr.getAndIncrement());
+              thread.setDaemon(true);
+              return thread;
+            });
+    this.threadPool.allowCoreThreadTimeOut(true);
+  }
+
+  /**
+   * Submit a request for a row. Check {@link #isFull()} first: the maximum number of requests in
+   * flight is not verified here.
+   *
+   * @param row The row to execute the request for
+   * @param call The request to execute
+   */
+  public void submit(Object[] row, Callable<T> call) {
+    Request<T> request = new Request<>(row);
+    synchronized (requests) {
+      requests.addLast(request);
+    }
+    threadPool.execute(() -> execute(request, call));
+  }
+
+  private void execute(Request<T> request, Callable<T> call) {
+    T result = null;
+    Exception error = null;
+    int attempts = 0;
+    while (true) {
+      attempts++;
+      try {
+        result = call.call();
+        error = null;
+        break;
+      } catch (Exception e) {
+        error = e;
+        if (cancelled || attempts > maxRetries || !isRetryable(e)) {
+          break;
+        }
+        try {
+          Thread.sleep(retryDelay << Math.min(attempts - 1, 20));
+        } catch (InterruptedException ie) {
+          Thread.currentThread().interrupt();
+          break;
+        }
+      }
+    }
+    synchronized (requests) {
+      request.result = result;
+      request.error = error;
+      request.attempts = attempts;
+      request.done = true;
+      requests.notifyAll();
+    }
+  }
+
+  /**
+   * A request is retried if it failed with an I/O error like a refused connection or a timeout.
+   *
+   * @param e The exception thrown by the request
+   * @return true if the exception or one of its causes is an I/O error
+   */
+  protected boolean isRetryable(Exception e) {
+    for (Throwable cause = e; cause != null; cause = cause.getCause()) {
+      if (cause instanceof IOException) {
+        return true;
+      }
+      if (cause.getCause() == cause) {
+        break;
+      }
+    }
+    return false;
+  }
+
+  /**
+   * @return true if no more requests can be submitted until completed requests are taken
+   */
+  public boolean isFull() {
+    synchronized (requests) {
+      return requests.size() >= maxInFlight;
+    }
+  }
+
+  /**
+   * @return true if all submitted requests are taken
+   */
+  public boolean isEmpty() {
+    synchronized (requests) {
+      return requests.isEmpty();
+    }
+  }
+
+  /**
+   * Take the completed requests. With ordered output the requests completed after a request which
+   * is still executing stay behind.
+   *
+   * @param waitMillis The maximum time to wait for a completed request in milliseconds, 0 to not
+   *     wait at all
+   * @return The completed requests, possibly none
+   * @throws InterruptedException in case the thread is interrupted while waiting
+   */
+  public List<Request<T>> takeCompleted(long waitMillis) throws InterruptedException {
+    List<Request<T>> completed = new ArrayList<>();
+    long deadline = System.currentTimeMillis() + waitMillis;
+    synchronized (requests) {
+      while (true) {
+        if (ordered) {
+          while (!requests.isEmpty() && requests.peekFirst().done) {
+            completed.add(requests.removeFirst());
+          }
+        } else {
+          Iterator<Request<T>> iterator = requests.iterator();
+          while (iterator.hasNext()) {
+            Request<T> request = iterator.next();
+            if (request.done) {
+              completed.add(request);
+              iterator.remove();
+            }
+          }
+        }
+        long remaining = deadline - System.currentTimeMillis();
+        if (!completed.isEmpty() || requests.isEmpty() || remaining <= 0) {
+          return completed;
+        }
+        requests.wait(remaining);
+      }
+    }
+  }
+
+  /**
+   * Stop executing requests and stop the threads. The requests which are executing are interrupted,
+   * the ones which didn't start yet are dropped and no more requests can be submitted.
+   */
+  public void cancel() {
+    cancelled = true;
+    threadPool.shutdownNow();
+  }
+
+  /**
+   * Gets maxInFlight
+   *
+   * @return value of maxInFlight
+   */
+  public int getMaxInFlight() {
+    return maxInFlight;
+  }
+
+  /**
+   * Gets ordered
+   *
+   * @return value of ordered
+   */
+  public boolean isOrdered() {
+    return ordered;
+  }
+}
@@ -17,6 +17,9 @@
 
 package org.apache.hop.core.util;
 
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
 import java.util.concurrent.ExecutorService;
 import java.util.concurrent.Executors;
 import java.util.concurrent.atomic.AtomicInteger;
@@ -41,4 +44,74 @@ public class ExecutorUtil {
   public static ExecutorService getExecutor() {
     return executor;
   }
+
+  /**
+   * @return true if the Java runtime supports virtual threads (Java 21 or later)
+   */
+  public static boolean isVirtualThreadSupported() {
+    return VirtualThreads.OF_VIRTUAL != null;
+  }
+
+  /**
+   * Create a new thread which isn't started yet. When virtual threads are requested and the Java
+   * runtime supports them, a virtual thread is created. Otherwise, this is a regular platform
+   * thread.
+   *
+   * @param runnable The code to run in the thread
+   * @param name The name of the thread
+   * @param virtual true if you want a virtual thread
+   * @return The new unstarted thread
+   */
+  public static Thread newThread(Runnable runnable, String name, boolean virtual) {
+    if (virtual && isVirtualThreadSupported()) {
+      try {
+        Object builder = VirtualThreads.OF_VIRTUAL.invoke();
+        builder = VirtualThreads.NAME.invoke(builder, name);
+        return (Thread) VirtualThreads.UNSTARTED.invoke(builder, runnable);
+      } catch (Throwable e) {
+        // Fall back to a platform thread below
+      }
+    }
+    Thread thread = new Thread(runnable);
+    thread.setName(name);
+    return thread;
+  }
+
+  /**
+   * Looks up the virtual thread builder API of Java 21 and later. We still compile for Java 17, so
+   * the methods are found at runtime. On Java 17 the lookup fails and the handles are null: virtual
+   * threads are then never used.
+   */
+  private static class VirtualThreads {
+    static final MethodHandle OF_VIRTUAL;
+    static final MethodHandle NAME;
+    static final MethodHandle UNSTARTED;
+
+    static {
+      MethodHandle ofVirtual = null;
+      MethodHandle name = null;
+      MethodHandle unstarted = null;
+      try {
+        MethodHandles.Lookup lookup = MethodHandles.publicLookup();
+        Class<?> builderClass = Class.forName("java.lang.Thread$Builder");
+        Class<?> virtualBuilderClass = Class.forName("java.lang.Thread$Builder$OfVirtual");
+        ofVirtual =
+            lookup.findStatic(
+                Thread.class, "ofVirtual", MethodType.methodType(virtualBuilderClass));
+        name =
+            lookup.findVirtual(
+                virtualBuilderClass,
+                "name",
+                MethodType.methodType(virtualBuilderClass, String.class));
+        unstarted =
+            lookup.findVirtual(
+                builderClass, "unstarted", MethodType.methodType(Thread.class, Runnable.class));
+      } catch (ReflectiveOperationException e) {
+        ofVirtual = null;
+      }
+      OF_VIRTUAL = ofVirtual;
+      NAME = name;
+      UNSTARTED = unstarted;
+    }
+  }
 }
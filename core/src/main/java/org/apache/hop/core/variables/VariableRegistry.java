@@ -37,9 +37,6 @@ import org.apache.hop.core.plugins.HopURLClassLoader;
 import org.apache.hop.core.plugins.JarCache;
 import org.apache.hop.core.util.TranslateUtil;
 import org.apache.hop.core.xml.XmlHandler;
-import org.jboss.jandex.AnnotationInstance;
-import org.jboss.jandex.FieldInfo;
-import org.jboss.jandex.IndexView;
 import org.w3c.dom.Document;
 import org.w3c.dom.Node;
 
@@ -77,17 +74,15 @@ public class VariableRegistry {
 
       // Search annotation in native jar
       for (File jarFile : cache.getNativeJars()) {
-        IndexView index = cache.getIndex(jarFile);
-        for (AnnotationInstance info : index.getAnnotations(Variable.class)) {
-          register(jarFile, info.target().asField());
+        for (JarCache.AnnotatedTarget target : cache.getAnnotatedTargets(jarFile, Variable.class)) {
+          register(jarFile, target.className(), target.fieldName());
         }
       }
 
       // Search annotation in plugins
       for (File jarFile : cache.getPluginJars()) {
-        IndexView index = cache.getIndex(jarFile);
-        for (AnnotationInstance info : index.getAnnotations(Variable.class)) {
-          register(jarFile, info.target().asField());
+        for (JarCache.AnnotatedTarget target : cache.getAnnotatedTargets(jarFile, Variable.class)) {
+          register(jarFile, target.className(), target.fieldName());
         }
       }
     } catch (Exception e) {
@@ -95,15 +90,15 @@ public class VariableRegistry {
     }
   }
 
-  protected static void register(File jarFile, FieldInfo fieldInfo)
+  protected static void register(File jarFile, String className, String fieldName)
       throws ClassNotFoundException,
           SecurityException,
           NoSuchFieldException,
           MalformedURLException {
     URLClassLoader urlClassLoader =
-        createUrlClassLoader(jarFile.toURI().toURL(), FieldInfo.class.getClassLoader());
-    Class<?> clazz = urlClassLoader.loadClass(fieldInfo.declaringClass().name().toString());
-    Field field = clazz.getDeclaredField(fieldInfo.name());
+        createUrlClassLoader(jarFile.toURI().toURL(), JarCache.class.getClassLoader());
+    Class<?> clazz = urlClassLoader.loadClass(className);
+    Field field = clazz.getDeclaredField(fieldName);
 
     // Register described variable with annotation
     Variable variable = field.getAnnotation(Variable.class);
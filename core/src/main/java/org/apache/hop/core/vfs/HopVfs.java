@@ -57,34 +57,51 @@ public class HopVfs {
 
   public static final String TEMP_DIR = System.getProperty("java.io.tmpdir");
 
-  private static DefaultFileSystemManager fsm;
-  private static DefaultFileSystemManager extendedFsm;
+  /**
+   * The file system managers are created lazily and only replaced by {@link #reset()}. They are
+   * safe for use by multiple threads so files are resolved without a global lock.
+   */
+  private static volatile DefaultFileSystemManager fsm;
+
+  private static volatile DefaultFileSystemManager extendedFsm;
+
+  /** Guards the creation of the file system managers */
+  private static final Object initLock = new Object();
 
+  /**
+   * Files are resolved under the read lock, in parallel. A reset takes the write lock to wait until
+   * the file system managers are no longer in use.
+   */
   private static final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
 
   public static DefaultFileSystemManager getFileSystemManager() {
-    lock.readLock().lock();
-    try {
+    DefaultFileSystemManager manager = fsm;
+    if (manager != null) {
+      return manager;
+    }
+    synchronized (initLock) {
       if (fsm == null) {
         try {
-          fsm = createFileSystemManager();
-          fsm.init();
+          DefaultFileSystemManager newManager = createFileSystemManager();
+          newManager.init();
+          fsm = newManager;
         } catch (Exception e) {
           throw new RuntimeException("Error initializing file system manager : ", e);
         }
       }
       return fsm;
-    } finally {
-      lock.readLock().unlock();
     }
   }
 
   public static DefaultFileSystemManager getFileSystemManager(IVariables variables) {
-    lock.readLock().lock();
-    try {
+    DefaultFileSystemManager manager = extendedFsm;
+    if (manager != null) {
+      return manager;
+    }
+    synchronized (initLock) {
       if (extendedFsm == null) {
         try {
-          extendedFsm = createFileSystemManager();
+          DefaultFileSystemManager newManager = createFileSystemManager();
           // Here are extra VFS plugins to register
           //
           PluginRegistry registry = PluginRegistry.getInstance();
@@ -95,7 +112,7 @@ public class HopVfs {
               Map<String, FileProvider> fileProviderMap = iVfs.getProviders(variables);
               if (fileProviderMap != null) {
                 for (Map.Entry<String, FileProvider> entry : fileProviderMap.entrySet()) {
-                  extendedFsm.addProvider(entry.getKey(), entry.getValue());
+                  newManager.addProvider(entry.getKey(), entry.getValue());
                 }
               }
             } catch (Exception e) {
@@ -109,14 +126,13 @@ public class HopVfs {
             }
           }
 
-          extendedFsm.init();
+          newManager.init();
+          extendedFsm = newManager;
         } catch (Exception e) {
           throw new RuntimeException("Error initializing file system manager : ", e);
         }
       }
       return extendedFsm;
-    } finally {
-      lock.readLock().unlock();
     }
   }
 
@@ -193,100 +209,66 @@ public class HopVfs {
     }
   }
 
-  public static synchronized FileObject getFileObject(String vfsFilename, IVariables variables)
+  public static FileObject getFileObject(String vfsFilename, IVariables variables)
       throws HopFileException {
     lock.readLock().lock();
     try {
-      DefaultFileSystemManager fsManager = getFileSystemManager(variables);
-
-      try {
-        // We have one problem with VFS: if the file is in a subdirectory of the current one:
-        // somedir/somefile
-        // In that case, VFS doesn't parse the file correctly.
-        // We need to put file: in front of it to make it work.
-        // However, how are we going to verify this?
-        //
-        // We are going to see if the filename starts with one of the known protocols like file:
-        // zip: ram: smb: jar: etc.
-        // If not, we are going to assume it's a file.
-        //
-        boolean relativeFilename = true;
-        String[] initialSchemes = fsManager.getSchemes();
-
-        relativeFilename = checkForScheme(initialSchemes, relativeFilename, vfsFilename);
-
-        String filename;
-        if (vfsFilename.startsWith("\\\\")) {
-          File file = new File(vfsFilename);
-          filename = file.toURI().toString();
-        } else {
-          if (relativeFilename) {
-            File file = new File(vfsFilename);
-            filename = file.getAbsolutePath();
-          } else {
-            filename = vfsFilename;
-          }
-        }
-
-        return fsManager.resolveFile(filename);
-      } catch (Exception e) {
-        throw new HopFileException(
-            "Unable to get VFS File object for filename '"
-                + cleanseFilename(vfsFilename)
-                + "' : "
-                + e.getMessage(),
-            e);
-      }
+      return resolveFile(getFileSystemManager(variables), vfsFilename);
     } finally {
       lock.readLock().unlock();
     }
   }
 
-  public static synchronized FileObject getFileObject(String vfsFilename) throws HopFileException {
+  public static FileObject getFileObject(String vfsFilename) throws HopFileException {
     lock.readLock().lock();
     try {
-      DefaultFileSystemManager fsManager = getFileSystemManager();
-
-      try {
-        // We have one problem with VFS: if the file is in a subdirectory of the current one:
-        // somedir/somefile
-        // In that case, VFS doesn't parse the file correctly.
-        // We need to put file: in front of it to make it work.
-        // However, how are we going to verify this?
-        //
-        // We are going to see if the filename starts with one of the known protocols like file:
-        // zip: ram: smb: jar: etc.
-        // If not, we are going to assume it's a file.
-        //
-        boolean relativeFilename = true;
-        String[] initialSchemes = fsManager.getSchemes();
+      return resolveFile(getFileSystemManager(), vfsFilename);
+    } finally {
+      lock.readLock().unlock();
+    }
+  }
+
+  private static FileObject resolveFile(DefaultFileSystemManager fsManager, String vfsFilename)
+      throws HopFileException {
+    try {
+      // We have one problem with VFS: if the file is in a subdirectory of the current one:
+      // somedir/somefile
+      // In that case, VFS doesn't parse the file correctly.
+      // We need to put file: in front of it to make it work.
+      // However, how are we going to verify this?
+      //
+      // We are going to see if the filename starts with one of the known protocols like file:
+      // zip: ram: smb: jar: etc.
+      // If not, we are going to assume it's a file.
+      //
+      boolean relativeFilename = true;
+      String[] initialSchemes = fsManager.getSchemes();
 
-        relativeFilename = checkForScheme(initialSchemes, relativeFilename, vfsFilename);
+      relativeFilename = checkForScheme(initialSchemes, relativeFilename, vfsFilename);
 
-        String filename;
-        if (vfsFilename.startsWith("\\\\")) {
+      String filename;
+      if (vfsFilename.startsWith("\\\\")) {
+        File file = new File(vfsFilename);
+        filename = file.toURI().toString();
+      } else {
+        if (relativeFilename) {
           File file = new File(vfsFilename);
-          filename = file.toURI().toString();
+          filename = file.getAbsolutePath();
         } else {
-          if (relativeFilename) {
-            File file = new File(vfsFilename);
-            filename = file.getAbsolutePath();
-          } else {
-            filename = vfsFilename;
-          }
+          filename = vfsFilename;
         }
-
-        return fsManager.resolveFile(filename);
-      } catch (Exception e) {
-        throw new HopFileException(
-            "Unable to get VFS File object for filename '"
-                + cleanseFilename(vfsFilename)
-                + "' : "
-                + e.getMessage(),
-            e);
       }
-    } finally {
-      lock.readLock().unlock();
+
+      // The resolved file objects are cached by the file system manager (soft references)
+      //
+      return fsManager.resolveFile(filename);
+    } catch (Exception e) {
+      throw new HopFileException(
+          "Unable to get VFS File object for filename '"
+              + cleanseFilename(vfsFilename)
+              + "' : "
+              + e.getMessage(),
+          e);
     }
   }
 
@@ -533,8 +515,8 @@ public class HopVfs {
    * @return FileObject
    * @throws HopFileException
    */
-  public static synchronized FileObject createTempFile(
-      String prefix, String suffix, String directory) throws HopFileException {
+  public static FileObject createTempFile(String prefix, String suffix, String directory)
+      throws HopFileException {
     try {
       FileObject fileObject;
       do {
@@ -572,7 +554,7 @@ public class HopVfs {
    * @return FileObject
    * @throws HopFileException
    */
-  public static synchronized FileObject createTempFile(
+  public static FileObject createTempFile(
       String prefix, String suffix, String directory, IVariables variables)
       throws HopFileException {
     try {
@@ -621,24 +603,18 @@ public class HopVfs {
    * @return boolean
    */
   public static boolean startsWithScheme(String vfsFileName, IVariables variables) {
-    lock.readLock().lock();
-    try {
-
-      DefaultFileSystemManager fsManager = getFileSystemManager(variables);
-
-      boolean found = false;
-      String[] schemes = fsManager.getSchemes();
-      for (int i = 0; i < schemes.length; i++) {
-        if (vfsFileName.startsWith(schemes[i] + ":")) {
-          found = true;
-          break;
-        }
+    DefaultFileSystemManager fsManager = getFileSystemManager(variables);
+
+    boolean found = false;
+    String[] schemes = fsManager.getSchemes();
+    for (int i = 0; i < schemes.length; i++) {
+      if (vfsFileName.startsWith(schemes[i] + ":")) {
+        found = true;
+        break;
       }
-
-      return found;
-    } finally {
-      lock.readLock().unlock();
     }
+
+    return found;
   }
 
   /**
@@ -672,21 +648,29 @@ public class HopVfs {
    * @see StandardFileSystemManager#freeUnusedResources()
    */
   public static void freeUnusedResources() {
-    if (fsm != null) {
-      fsm.freeUnusedResources();
+    DefaultFileSystemManager manager = fsm;
+    if (manager != null) {
+      manager.freeUnusedResources();
     }
   }
 
   public static void reset() {
-    if (fsm != null) {
-      fsm.freeUnusedResources();
-      fsm.close();
-      fsm = null;
-    }
-    if (extendedFsm != null) {
-      extendedFsm.freeUnusedResources();
-      extendedFsm.close();
-      extendedFsm = null;
+    lock.writeLock().lock();
+    try {
+      synchronized (initLock) {
+        if (fsm != null) {
+          fsm.freeUnusedResources();
+          fsm.close();
+          fsm = null;
+        }
+        if (extendedFsm != null) {
+          extendedFsm.freeUnusedResources();
+          extendedFsm.close();
+          extendedFsm = null;
+        }
+      }
+    } finally {
+      lock.writeLock().unlock();
     }
   }
 
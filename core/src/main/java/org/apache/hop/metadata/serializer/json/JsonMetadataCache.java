@@ -0,0 +1,238 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.hop.metadata.serializer.json;
+
+import java.io.InputStream;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import org.apache.commons.vfs2.FileContent;
+import org.apache.commons.vfs2.FileObject;
+import org.apache.hop.core.Const;
+import org.apache.hop.core.exception.HopException;
+import org.apache.hop.core.vfs.HopVfs;
+
+/**
+ * Caches the content of JSON metadata files and the names of the files in the metadata folders.
+ * This saves reading the same files over and over when metadata objects like database connections
+ * are looked up for every execution. A cached file is verified with its modification time and size,
+ * a cached folder with its modification time. To keep the number of file system calls down, this is
+ * done at most once per check interval (HOP_METADATA_CACHE_CHECK_INTERVAL, one second by default).
+ * Files saved or deleted through a JSON metadata serializer are forgotten right away, only changes
+ * made by other processes can take up to the check interval to be seen.
+ *
+ * <p>Only the content of the files is cached, not the metadata objects. Every load parses a new
+ * object so changes to a loaded object never affect other users.
+ *
+ * <p>The cache is shared by all JSON metadata providers.
+ */
+public class JsonMetadataCache {
+
+  private static final JsonMetadataCache instance = new JsonMetadataCache();
+
+  private record FileEntry(long lastModified, long size, byte[] content, long checked) {}
+
+  private record FolderEntry(long lastModified, List<String> names, long checked) {}
+
+  private final Map<String, FileEntry> files = new ConcurrentHashMap<>();
+  private final Map<String, FolderEntry> folders = new ConcurrentHashMap<>();
+
+  private final AtomicLong hitCount = new AtomicLong();
+  private final AtomicLong missCount = new AtomicLong();
+
+  /** The default minimum number of milliseconds between two checks for changes */
+  public static final long DEFAULT_CHECK_INTERVAL = 1000L;
+
+  private volatile long checkInterval;
+
+  JsonMetadataCache() {
+    checkInterval =
+        Const.toLong(
+            System.getProperty(Const.HOP_METADATA_CACHE_CHECK_INTERVAL), DEFAULT_CHECK_INTERVAL);
+  }
+
+  public static JsonMetadataCache getInstance() {
+    return instance;
+  }
+
+  /**
+   * @return true if the cache is used
+   */
+  public boolean isEnabled() {
+    return checkInterval >= 0;
+  }
+
+  /**
+   * Get the content of a file.
+   *
+   * @param filename The name of the file
+   * @return The content of the file or null if the file doesn't exist
+   * @throws HopException in case the file can't be read
+   */
+  public byte[] getContent(String filename) throws HopException {
+    long now = System.currentTimeMillis();
+    FileEntry entry = files.get(filename);
+    if (entry != null && now - entry.checked() < checkInterval) {
+      hitCount.incrementAndGet();
+      return entry.content();
+    }
+    try {
+      FileObject fileObject = HopVfs.getFileObject(filename);
+      if (!fileObject.exists()) {
+        files.remove(filename);
+        return null;
+      }
+      FileContent fileContent = fileObject.getContent();
+      long lastModified = fileContent.getLastModifiedTime();
+      long size = fileContent.getSize();
+      if (entry != null && entry.lastModified() == lastModified && entry.size() == size) {
+        hitCount.incrementAndGet();
+        files.put(filename, new FileEntry(lastModified, size, entry.content(), now));
+        return entry.content();
+      }
+      missCount.incrementAndGet();
+      byte[] content;
+      try (InputStream inputStream = fileContent.getInputStream()) {
+        content = inputStream.readAllBytes();
+      }
+      files.put(filename, new FileEntry(lastModified, size, content, now));
+      return content;
+    } catch (Exception e) {
+      files.remove(filename);
+      throw new HopException("Error reading file '" + filename + "'", e);
+    }
+  }
+
+  /**
+   * See if a file exists without reading it.
+   *
+   * @param filename The name of the file
+   * @return true if the file exists
+   * @throws HopException in case the file system can't be queried
+   */
+  public boolean exists(String filename) throws HopException {
+    FileEntry entry = files.get(filename);
+    if (entry != null && System.currentTimeMillis() - entry.checked() < checkInterval) {
+      hitCount.incrementAndGet();
+      return true;
+    }
+    return HopVfs.fileExists(filename);
+  }
+
+  /**
+   * List the names of the JSON files in a folder, without the extension.
+   *
+   * @param folderName The name of the folder
+   * @return The names of the files. Don't modify this list.
+   * @throws HopException in case the folder can't be read
+   */
+  public List<String> getObjectNames(String folderName) throws HopException {
+    long now = System.currentTimeMillis();
+    FolderEntry entry = folders.get(folderName);
+    if (entry != null && now - entry.checked() < checkInterval) {
+      hitCount.incrementAndGet();
+      return entry.names();
+    }
+    try {
+      FileObject folder = HopVfs.getFileObject(folderName);
+      long lastModified = folder.getContent().getLastModifiedTime();
+      if (entry != null && entry.lastModified() == lastModified) {
+        hitCount.incrementAndGet();
+        folders.put(folderName, new FolderEntry(lastModified, entry.names(), now));
+        return entry.names();
+      }
+      missCount.incrementAndGet();
+      List<String> names = new ArrayList<>();
+      for (FileObject jsonFile : HopVfs.findFiles(folder, "json", false)) {
+        String baseName = jsonFile.getName().getBaseName();
+        names.add(baseName.replaceAll("\\.json$", ""));
+      }
+      names = Collections.unmodifiableList(names);
+      folders.put(folderName, new FolderEntry(lastModified, names, now));
+      return names;
+    } catch (Exception e) {
+      folders.remove(folderName);
+      throw new HopException("Error searching for JSON files in folder '" + folderName + "'", e);
+    }
+  }
+
+  /**
+   * Forget a file after it was saved or deleted. The modification time of the file or its folder
+   * might not change if this happens twice in a short time.
+   *
+   * @param filename The name of the file
+   * @param folderName The name of the folder of the file
+   */
+  public void invalidate(String filename, String folderName) {
+    files.remove(filename);
+    folders.remove(folderName);
+  }
+
+  /** Forget all files and folders */
+  public void clear() {
+    files.clear();
+    folders.clear();
+  }
+
+  /**
+   * Gets hitCount
+   *
+   * @return value of the number of times a file or folder was taken from the cache
+   */
+  public long getHitCount() {
+    return hitCount.get();
+  }
+
+  /**
+   * Gets missCount
+   *
+   * @return value of the number of times a file or folder was read
+   */
+  public long getMissCount() {
+    return missCount.get();
+  }
+
+  /**
+   * @return The fraction of the lookups taken from the cache, between 0 and 1
+   */
+  public double getHitRate() {
+    long hits = hitCount.get();
+    long total = hits + missCount.get();
+    return total == 0 ? 0.0 : (double) hits / total;
+  }
+
+  /**
+   * Gets checkInterval
+   *
+   * @return value of checkInterval
+   */
+  public long getCheckInterval() {
+    return checkInterval;
+  }
+
+  /**
+   * @param checkInterval The minimum number of milliseconds between two checks for changes, 0 to
+   *     check on every access or -1 to disable the cache
+   */
+  public void setCheckInterval(long checkInterval) {
+    this.checkInterval = checkInterval;
+  }
+}
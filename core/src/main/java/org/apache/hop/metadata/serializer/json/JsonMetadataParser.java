@@ -36,6 +36,8 @@ import org.apache.hop.metadata.api.IHopMetadata;
 import org.apache.hop.metadata.api.IHopMetadataObjectFactory;
 import org.apache.hop.metadata.api.IHopMetadataProvider;
 import org.apache.hop.metadata.api.IHopMetadataSerializer;
+import org.apache.hop.metadata.util.MetadataClassPlan;
+import org.apache.hop.metadata.util.MetadataClassPlan.Accessor;
 import org.apache.hop.metadata.util.ReflectionUtil;
 import org.json.simple.JSONArray;
 import org.json.simple.JSONObject;
@@ -65,26 +67,22 @@ public class JsonMetadataParser<T extends IHopMetadata> {
   private void loadProperties(Object object, com.fasterxml.jackson.core.JsonParser jsonParser)
       throws HopException {
     Class<?> objectClass = object.getClass();
-    Map<String, Field> keyFieldMap = new HashMap<>();
-    for (Field field : ReflectionUtil.findAllFields(objectClass)) {
-      HopMetadataProperty metadataProperty = field.getAnnotation(HopMetadataProperty.class);
-      if (metadataProperty != null) {
-        String key;
-        if (StringUtils.isNotEmpty(metadataProperty.key())) {
-          key = metadataProperty.key();
-        } else {
-          key = field.getName();
-        }
-        keyFieldMap.put(key, field);
+    Map<String, Accessor> keyFieldMap = new HashMap<>();
+    for (Accessor accessor : MetadataClassPlan.of(objectClass).getAccessors()) {
+      HopMetadataProperty metadataProperty = accessor.getProperty();
+      String key;
+      if (StringUtils.isNotEmpty(metadataProperty.key())) {
+        key = metadataProperty.key();
+      } else {
+        key = accessor.getField().getName();
+      }
+      keyFieldMap.put(key, accessor);
 
-        // We need to go over the boolean fields and consider the defaultBoolean flag.
-        // If we don't do this we'll always get the value specified in the constructor.
-        //
-        Class<?> fieldType = field.getType();
-        if (Boolean.class.equals(fieldType) || boolean.class.equals(fieldType)) {
-          ReflectionUtil.setFieldValue(
-              object, field.getName(), fieldType, metadataProperty.defaultBoolean());
-        }
+      // We need to go over the boolean fields and consider the defaultBoolean flag.
+      // If we don't do this we'll always get the value specified in the constructor.
+      //
+      if (accessor.isBoolean()) {
+        accessor.setValue(object, metadataProperty.defaultBoolean());
       }
     }
 
@@ -93,11 +91,11 @@ public class JsonMetadataParser<T extends IHopMetadata> {
     try {
       while (jsonParser.nextToken() != JsonToken.END_OBJECT) {
         String key = jsonParser.getCurrentName();
-        Field field = keyFieldMap.get(key);
-        if (field != null) {
+        Accessor accessor = keyFieldMap.get(key);
+        if (accessor != null) {
           // This is a recognized piece of data. We can load this...
           //
-          loadProperty(object, jsonParser, key, field);
+          loadProperty(object, jsonParser, key, accessor);
         }
       }
     } catch (Exception e) {
@@ -106,11 +104,15 @@ public class JsonMetadataParser<T extends IHopMetadata> {
   }
 
   private void loadProperty(
-      Object object, com.fasterxml.jackson.core.JsonParser jsonParser, String key, Field field)
+      Object object,
+      com.fasterxml.jackson.core.JsonParser jsonParser,
+      String key,
+      Accessor accessor)
       throws HopException {
     Class<?> objectClass = object.getClass();
+    Field field = accessor.getField();
     Class<?> fieldType = field.getType();
-    HopMetadataProperty metadataProperty = field.getAnnotation(HopMetadataProperty.class);
+    HopMetadataProperty metadataProperty = accessor.getProperty();
 
     try {
       // Position on the value in the JSON
@@ -215,7 +217,7 @@ public class JsonMetadataParser<T extends IHopMetadata> {
 
       // Set the value on the object...
       //
-      ReflectionUtil.setFieldValue(object, field.getName(), fieldType, fieldValue);
+      accessor.setValue(object, fieldValue);
 
     } catch (Exception e) {
       throw new HopException(
@@ -270,28 +272,25 @@ public class JsonMetadataParser<T extends IHopMetadata> {
     if (object == null) {
       return;
     }
-    for (Field objectField : ReflectionUtil.findAllFields(object.getClass())) {
-      HopMetadataProperty metadataProperty = objectField.getAnnotation(HopMetadataProperty.class);
-      if (metadataProperty != null) {
-        // The contents of this field needs to be serialized...
-        //
-        saveProperty(jObject, object, metadataProperty, objectField);
-      }
+    for (Accessor accessor : MetadataClassPlan.of(object.getClass()).getAccessors()) {
+      // The contents of this field needs to be serialized...
+      //
+      saveProperty(jObject, object, accessor);
     }
   }
 
-  private void saveProperty(
-      JSONObject jObject, Object object, HopMetadataProperty metadataProperty, Field objectField)
+  private void saveProperty(JSONObject jObject, Object object, Accessor accessor)
       throws HopException {
+    HopMetadataProperty metadataProperty = accessor.getProperty();
+    Field objectField = accessor.getField();
     String key = objectField.getName();
     if (StringUtils.isNotEmpty(metadataProperty.key())) {
       key = metadataProperty.key();
     }
     Class<?> fieldType = objectField.getType();
-    boolean isBoolean = Boolean.class.equals(fieldType) || boolean.class.equals(fieldType);
 
     try {
-      Object fieldValue = ReflectionUtil.getFieldValue(object, objectField.getName(), isBoolean);
+      Object fieldValue = accessor.getValue(object);
       if (fieldValue == null) {
         jObject.put(key, null);
       } else {
@@ -310,7 +309,7 @@ public class JsonMetadataParser<T extends IHopMetadata> {
           jObject.put(key, fieldValue);
         } else if (long.class.equals(fieldType) || Long.class.equals(fieldType)) {
           jObject.put(key, fieldValue);
-        } else if (isBoolean) {
+        } else if (accessor.isBoolean()) {
           jObject.put(key, fieldValue);
         } else if (Date.class.equals(fieldType)) {
           String dateString =
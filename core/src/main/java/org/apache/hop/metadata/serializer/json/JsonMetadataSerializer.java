@@ -22,6 +22,7 @@ import com.google.gson.Gson;
 import com.google.gson.GsonBuilder;
 import com.google.gson.JsonElement;
 import com.google.gson.JsonParser;
+import java.io.ByteArrayInputStream;
 import java.io.IOException;
 import java.io.InputStream;
 import java.io.OutputStream;
@@ -92,18 +93,28 @@ public class JsonMetadataSerializer<T extends IHopMetadata> implements IHopMetad
     if (name == null) {
       throw new HopException("Error: you need to specify the name of the metadata object to load");
     }
-    if (!exists(name)) {
+    String filename = calculateFilename(name);
+    JsonMetadataCache cache = JsonMetadataCache.getInstance();
+    byte[] content = null;
+    if (cache.isEnabled()) {
+      content = cache.getContent(filename);
+      if (content == null) {
+        return null;
+      }
+    } else if (!exists(name)) {
       return null;
     }
 
-    String filename = calculateFilename(name);
-
     try {
       // Load the JSON in a streaming fashion so we can parse the properties one by one...
       //
       InputStream fileInputStream = null;
       try {
-        fileInputStream = HopVfs.getInputStream(filename);
+        if (content != null) {
+          fileInputStream = new ByteArrayInputStream(content);
+        } else {
+          fileInputStream = HopVfs.getInputStream(filename);
+        }
         JsonFactory jsonFactory = new JsonFactory();
         try (com.fasterxml.jackson.core.JsonParser jsonParser =
             jsonFactory.createParser(fileInputStream)) {
@@ -157,6 +168,7 @@ public class JsonMetadataSerializer<T extends IHopMetadata> implements IHopMetad
         String formattedJson = gson.toJson(je);
         outputStream.write(formattedJson.getBytes(StandardCharsets.UTF_8));
         outputStream.flush();
+        JsonMetadataCache.getInstance().invalidate(filename, baseFolder);
 
         // Remember where we saved this...
         //
@@ -187,6 +199,7 @@ public class JsonMetadataSerializer<T extends IHopMetadata> implements IHopMetad
     String filename = calculateFilename(name);
     try {
       boolean deleted = HopVfs.getFileObject(filename).delete();
+      JsonMetadataCache.getInstance().invalidate(filename, baseFolder);
       if (!deleted) {
         throw new HopException(
             "Error: Object '" + name + "' could not be deleted, filename : " + filename);
@@ -199,6 +212,10 @@ public class JsonMetadataSerializer<T extends IHopMetadata> implements IHopMetad
 
   @Override
   public List<String> listObjectNames() throws HopException {
+    JsonMetadataCache cache = JsonMetadataCache.getInstance();
+    if (cache.isEnabled()) {
+      return new ArrayList<>(cache.getObjectNames(baseFolder));
+    }
     FileObject folder = HopVfs.getFileObject(baseFolder);
 
     try {
@@ -216,7 +233,7 @@ public class JsonMetadataSerializer<T extends IHopMetadata> implements IHopMetad
 
   @Override
   public boolean exists(String name) throws HopException {
-    return HopVfs.fileExists(calculateFilename(name));
+    return JsonMetadataCache.getInstance().exists(calculateFilename(name));
   }
 
   /**
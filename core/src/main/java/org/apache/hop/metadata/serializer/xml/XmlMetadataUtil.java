@@ -18,7 +18,6 @@
 package org.apache.hop.metadata.serializer.xml;
 
 import java.lang.reflect.Field;
-import java.lang.reflect.Modifier;
 import java.lang.reflect.ParameterizedType;
 import java.util.ArrayList;
 import java.util.Date;
@@ -38,7 +37,8 @@ import org.apache.hop.metadata.api.IHopMetadata;
 import org.apache.hop.metadata.api.IHopMetadataObjectFactory;
 import org.apache.hop.metadata.api.IHopMetadataProvider;
 import org.apache.hop.metadata.api.IIntCodeConverter;
-import org.apache.hop.metadata.util.ReflectionUtil;
+import org.apache.hop.metadata.util.MetadataClassPlan;
+import org.apache.hop.metadata.util.MetadataClassPlan.Accessor;
 import org.w3c.dom.Node;
 
 public class XmlMetadataUtil {
@@ -64,55 +64,46 @@ public class XmlMetadataUtil {
     // Pick up all the fields with @HopMetadataProperty annotation, sorted by name.
     // Serialize them to XML.
     //
-    List<Field> fields =
-        ReflectionUtil.findAllFields(objectClass, new MetadataPropertyKeyFunction());
-    for (Field field : fields) {
+    for (Accessor accessor : MetadataClassPlan.of(objectClass).getKeySortedAccessors()) {
       // Don't serialize fields flagged as transient or volatile
       //
-      if (Modifier.isTransient(field.getModifiers()) || Modifier.isVolatile(field.getModifiers())) {
+      if (accessor.isTransient()) {
         continue;
       }
-      HopMetadataProperty property = field.getAnnotation(HopMetadataProperty.class);
-      if (property != null) {
-        String groupKey = property.groupKey();
-        String tag = property.key();
-        if (StringUtils.isEmpty(tag)) {
-          tag = field.getName();
-        }
-
-        Class<?> fieldType = field.getType();
-
-        // Is this a boolean?
-        //
-        boolean isBoolean = Boolean.class.equals(fieldType) || boolean.class.equals(fieldType);
+      Field field = accessor.getField();
+      HopMetadataProperty property = accessor.getProperty();
+      String groupKey = property.groupKey();
+      String tag = property.key();
+      if (StringUtils.isEmpty(tag)) {
+        tag = field.getName();
+      }
 
-        // A password?
-        //
-        boolean isPassword = property.password();
+      // A password?
+      //
+      boolean isPassword = property.password();
 
-        // Store enums with their code?
-        //
-        boolean storeWithCode = property.storeWithCode();
+      // Store enums with their code?
+      //
+      boolean storeWithCode = property.storeWithCode();
 
-        // Get the value of the field...
+      // Get the value of the field...
+      //
+      Object value = accessor.getValue(object);
+      if (value != null) {
+        // We only serialize non-null values to save space and performance.
         //
-        Object value = ReflectionUtil.getFieldValue(object, field.getName(), isBoolean);
-        if (value != null) {
-          // We only serialize non-null values to save space and performance.
-          //
-          if (property.storeWithName()) {
-            xml += XmlHandler.addTagValue(tag, ((IHopMetadata) value).getName());
-          } else {
-            xml +=
-                serializeObjectToXml(
-                    property,
-                    value,
-                    groupKey,
-                    tag,
-                    isPassword,
-                    storeWithCode,
-                    property.intCodeConverter());
-          }
+        if (property.storeWithName()) {
+          xml += XmlHandler.addTagValue(tag, ((IHopMetadata) value).getName());
+        } else {
+          xml +=
+              serializeObjectToXml(
+                  property,
+                  value,
+                  groupKey,
+                  tag,
+                  isPassword,
+                  storeWithCode,
+                  property.intCodeConverter());
         }
       }
     }
@@ -341,74 +332,71 @@ public class XmlMetadataUtil {
     // Pick up all the @HopMetadataProperty annotations.
     // The fields are sorted by name to get a stable XML output when serialized.
     //
-    List<Field> fields =
-        ReflectionUtil.findAllFields(object.getClass(), new MetadataPropertyKeyFunction());
-    for (Field field : fields) {
+    for (Accessor accessor : MetadataClassPlan.of(object.getClass()).getKeySortedAccessors()) {
       // Don't serialize fields flagged as transient or volatile
       //
-      if (Modifier.isTransient(field.getModifiers()) || Modifier.isVolatile(field.getModifiers())) {
+      if (accessor.isTransient()) {
         continue;
       }
 
-      HopMetadataProperty property = field.getAnnotation(HopMetadataProperty.class);
-      if (property != null) {
-        String tag = property.key();
-        String groupKey = property.groupKey();
-        if (StringUtils.isEmpty(tag)) {
-          tag = field.getName();
-        }
-        Class<?> fieldType = field.getType();
-        boolean defaultBoolean = property.defaultBoolean();
-        boolean storeWithName = property.storeWithName();
-        boolean password = property.password();
-        boolean storeWithCode = property.storeWithCode();
-        String[] inlineListTags = property.inlineListTags();
-
-        Node tagNode;
-        if (property.inline()) {
-          tagNode = node;
-        } else {
-          tagNode = XmlHandler.getSubNode(node, tag);
-        }
-        Node groupNode;
-        if (StringUtils.isEmpty(groupKey)) {
-          groupNode = node;
-        } else {
-          groupNode = XmlHandler.getSubNode(node, groupKey);
-        }
-        Object value =
-            deSerializeFromXml(
-                object,
-                fieldType,
-                groupNode,
-                tagNode,
-                tag,
-                field,
-                defaultBoolean,
-                storeWithName,
-                metadataProvider,
-                password,
-                storeWithCode,
-                property.intCodeConverter(),
-                inlineListTags);
+      Field field = accessor.getField();
+      HopMetadataProperty property = accessor.getProperty();
+      String tag = property.key();
+      String groupKey = property.groupKey();
+      if (StringUtils.isEmpty(tag)) {
+        tag = field.getName();
+      }
+      Class<?> fieldType = field.getType();
+      boolean defaultBoolean = property.defaultBoolean();
+      boolean storeWithName = property.storeWithName();
+      boolean password = property.password();
+      boolean storeWithCode = property.storeWithCode();
+      String[] inlineListTags = property.inlineListTags();
+
+      Node tagNode;
+      if (property.inline()) {
+        tagNode = node;
+      } else {
+        tagNode = XmlHandler.getSubNode(node, tag);
+      }
+      Node groupNode;
+      if (StringUtils.isEmpty(groupKey)) {
+        groupNode = node;
+      } else {
+        groupNode = XmlHandler.getSubNode(node, groupKey);
+      }
+      Object value =
+          deSerializeFromXml(
+              object,
+              fieldType,
+              groupNode,
+              tagNode,
+              tag,
+              field,
+              defaultBoolean,
+              storeWithName,
+              metadataProvider,
+              password,
+              storeWithCode,
+              property.intCodeConverter(),
+              inlineListTags);
 
-        try {
-          // Only set a value if we have something to set.
-          // Empty strings and such will still go through but not null values for int/long/...
-          //
-          if (value != null) {
-            ReflectionUtil.setFieldValue(object, field.getName(), fieldType, value);
-          }
-        } catch (HopException e) {
-          throw new HopXmlException(
-              "Unable to set value "
-                  + value
-                  + " on field "
-                  + field.getName()
-                  + " in class "
-                  + fieldType.getName(),
-              e);
+      try {
+        // Only set a value if we have something to set.
+        // Empty strings and such will still go through but not null values for int/long/...
+        //
+        if (value != null) {
+          accessor.setValue(object, value);
         }
+      } catch (HopException e) {
+        throw new HopXmlException(
+            "Unable to set value "
+                + value
+                + " on field "
+                + field.getName()
+                + " in class "
+                + fieldType.getName(),
+            e);
       }
     }
     return object;
@@ -0,0 +1,247 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.hop.metadata.util;
+
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.lang.reflect.Field;
+import java.lang.reflect.Method;
+import java.lang.reflect.Modifier;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import org.apache.hop.core.exception.HopException;
+import org.apache.hop.metadata.api.HopMetadataProperty;
+import org.apache.hop.metadata.serializer.xml.MetadataPropertyKeyFunction;
+
+/**
+ * The serialization plan of a class: the fields with a {@link HopMetadataProperty} annotation with
+ * their getter and setter. The plan of a class is built once and then shared, so the fields,
+ * annotations and methods are not looked up again for every object which is serialized.
+ */
+public class MetadataClassPlan {
+
+  private static final ClassValue<MetadataClassPlan> plans =
+      new ClassValue<>() {
+        @Override
+        protected MetadataClassPlan computeValue(Class<?> type) {
+          return new MetadataClassPlan(type);
+        }
+      };
+
+  private static final MethodType GETTER_TYPE = MethodType.methodType(Object.class, Object.class);
+  private static final MethodType SETTER_TYPE =
+      MethodType.methodType(void.class, Object.class, Object.class);
+
+  /** The getter and setter of a field with a {@link HopMetadataProperty} annotation */
+  public static final class Accessor {
+    private final Field field;
+    private final HopMetadataProperty property;
+    private final boolean isBoolean;
+    private final boolean isTransient;
+    private final String getterMethodName;
+    private final String setterMethodName;
+    private final MethodHandle getter;
+    private final MethodHandle setter;
+
+    private Accessor(Class<?> objectClass, Field field, HopMetadataProperty property) {
+      this.field = field;
+      this.property = property;
+      Class<?> fieldType = field.getType();
+      this.isBoolean = Boolean.class.equals(fieldType) || boolean.class.equals(fieldType);
+      this.isTransient =
+          Modifier.isTransient(field.getModifiers()) || Modifier.isVolatile(field.getModifiers());
+      this.getterMethodName = ReflectionUtil.getGetterMethodName(field.getName(), isBoolean);
+      this.setterMethodName = ReflectionUtil.getSetterMethodName(field.getName());
+      this.getter = findMethod(objectClass, getterMethodName, GETTER_TYPE);
+      this.setter = findMethod(objectClass, setterMethodName, SETTER_TYPE, fieldType);
+    }
+
+    /**
+     * Find a public method the same way as {@link ReflectionUtil#getFieldValue(Object, String,
+     * boolean)} and {@link ReflectionUtil#setFieldValue(Object, String, Class, Object)}.
+     *
+     * @return A handle with the given generic type or null if the method can't be found or
+     *     accessed. The error is reported when the method is used.
+     */
+    private static MethodHandle findMethod(
+        Class<?> objectClass, String name, MethodType type, Class<?>... parameterTypes) {
+      try {
+        Method method = objectClass.getMethod(name, parameterTypes);
+        return MethodHandles.publicLookup().unreflect(method).asType(type);
+      } catch (Exception e) {
+        return null;
+      }
+    }
+
+    /**
+     * Get the value of the field from an object using its getter.
+     *
+     * @param object The object to get the value from
+     * @return The value
+     * @throws HopException in case the getter can't be found or fails
+     */
+    public Object getValue(Object object) throws HopException {
+      try {
+        if (getter != null) {
+          return (Object) getter.invokeExact(object);
+        }
+        // Report the problem with the getter as before
+        return object.getClass().getMethod(getterMethodName).invoke(object);
+      } catch (Throwable e) {
+        throw new HopException(
+            "Error getting value for field '"
+                + field.getName()
+                + "' using method '"
+                + getterMethodName
+                + "' in class '"
+                + object.getClass().getName(),
+            e);
+      }
+    }
+
+    /**
+     * Set the value of the field on an object using its setter.
+     *
+     * @param object The object to set the value on
+     * @param value The value to set
+     * @throws HopException in case the setter can't be found or fails
+     */
+    public void setValue(Object object, Object value) throws HopException {
+      try {
+        if (setter != null) {
+          setter.invokeExact(object, value);
+        } else {
+          object.getClass().getMethod(setterMethodName, field.getType()).invoke(object, value);
+        }
+      } catch (Throwable e) {
+        throw new HopException(
+            "Error setting value on field '"
+                + field.getName()
+                + "' using method '"
+                + setterMethodName
+                + "' in class '"
+                + object.getClass().getName(),
+            e);
+      }
+    }
+
+    /**
+     * Gets field
+     *
+     * @return value of field
+     */
+    public Field getField() {
+      return field;
+    }
+
+    /**
+     * Gets property
+     *
+     * @return value of the annotation of the field
+     */
+    public HopMetadataProperty getProperty() {
+      return property;
+    }
+
+    /**
+     * @return The type of the field
+     */
+    public Class<?> getType() {
+      return field.getType();
+    }
+
+    /**
+     * Gets isBoolean
+     *
+     * @return true if the field is a boolean or Boolean
+     */
+    public boolean isBoolean() {
+      return isBoolean;
+    }
+
+    /**
+     * Gets isTransient
+     *
+     * @return true if the field is transient or volatile
+     */
+    public boolean isTransient() {
+      return isTransient;
+    }
+  }
+
+  private final List<Accessor> accessors;
+  private final List<Accessor> keySortedAccessors;
+
+  private MetadataClassPlan(Class<?> objectClass) {
+    // Same fields and order as ReflectionUtil.findAllFields(objectClass)
+    //
+    List<Accessor> list = new ArrayList<>();
+    for (Field field : ReflectionUtil.findAllFields(objectClass)) {
+      HopMetadataProperty property = field.getAnnotation(HopMetadataProperty.class);
+      if (property != null) {
+        list.add(new Accessor(objectClass, field, property));
+      }
+    }
+    this.accessors = Collections.unmodifiableList(list);
+
+    // Same fields and order as ReflectionUtil.findAllFields(objectClass, keyFunction)
+    //
+    MetadataPropertyKeyFunction keyFunction = new MetadataPropertyKeyFunction();
+    List<Accessor> sorted = new ArrayList<>();
+    for (Field field : ReflectionUtil.findAllFields(objectClass, keyFunction)) {
+      for (Accessor accessor : list) {
+        if (accessor.field.equals(field)) {
+          sorted.add(accessor);
+          break;
+        }
+      }
+    }
+    this.keySortedAccessors = Collections.unmodifiableList(sorted);
+  }
+
+  /**
+   * Get the plan of a class. It's built the first time it's asked for.
+   *
+   * @param objectClass The class to get the plan for
+   * @return The plan of the class
+   */
+  public static MetadataClassPlan of(Class<?> objectClass) {
+    return plans.get(objectClass);
+  }
+
+  /**
+   * Gets accessors
+   *
+   * @return The accessors of the annotated fields of the class and its parents, sorted by name
+   */
+  public List<Accessor> getAccessors() {
+    return accessors;
+  }
+
+  /**
+   * Gets keySortedAccessors
+   *
+   * @return The accessors of the annotated fields of the class and its parents, sorted by the group
+   *     key or key as determined by {@link MetadataPropertyKeyFunction}
+   */
+  public List<Accessor> getKeySortedAccessors() {
+    return keySortedAccessors;
+  }
+}
@@ -0,0 +1,194 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.hop.core;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
+import org.apache.hop.core.row.IRowMeta;
+import org.apache.hop.core.row.RowMeta;
+import org.apache.hop.core.row.value.ValueMetaInteger;
+import org.apache.hop.junit.rules.RestoreHopEnvironment;
+import org.junit.ClassRule;
+import org.junit.Test;
+
+/** Test class for the basic functionality of the ring buffer row set. */
+public class RingBufferRowSetTest {
+  @ClassRule public static RestoreHopEnvironment env = new RestoreHopEnvironment();
+
+  private IRowMeta createRowMeta() {
+    IRowMeta rowMeta = new RowMeta();
+    rowMeta.addValueMeta(new ValueMetaInteger("ROWNR"));
+    return rowMeta;
+  }
+
+  @Test
+  public void testBasicCreation() {
+    IRowSet set = new RingBufferRowSet(10);
+
+    assertFalse(set.isDone());
+    assertEquals(0, set.size());
+  }
+
+  @Test
+  public void testPutAndGet() {
+    IRowSet set = new RingBufferRowSet(4);
+    IRowMeta rowMeta = createRowMeta();
+
+    assertNull(set.getRowImmediate());
+    for (long i = 0; i < 4; i++) {
+      assertTrue(set.putRow(rowMeta, new Object[] {i}));
+    }
+    assertEquals(4, set.size());
+    assertEquals(rowMeta, set.getRowMeta());
+
+    // The ring is full
+    //
+    assertFalse(set.putRowWait(rowMeta, new Object[] {4L}, 1, TimeUnit.MILLISECONDS));
+
+    for (long i = 0; i < 4; i++) {
+      assertArrayEquals(new Object[] {i}, set.getRow());
+    }
+    assertEquals(0, set.size());
+    assertNull(set.getRowWait(1, TimeUnit.MILLISECONDS));
+
+    set.setDone();
+    assertTrue(set.isDone());
+    set.clear();
+    assertFalse(set.isDone());
+  }
+
+  @Test
+  public void testPutAndGetRows() {
+    IRowSet set = new RingBufferRowSet(8);
+    IRowMeta rowMeta = createRowMeta();
+
+    Object[][] batch = new Object[12][];
+    for (int i = 0; i < batch.length; i++) {
+      batch[i] = new Object[] {(long) i};
+    }
+
+    // Only 8 rows fit in the ring
+    //
+    assertEquals(8, set.putRows(rowMeta, batch, 12));
+    assertEquals(8, set.size());
+    assertEquals(0, set.putRows(rowMeta, batch, 8, 4));
+
+    Object[][] read = new Object[5][];
+    assertEquals(5, set.getRows(read, 5));
+    for (int i = 0; i < 5; i++) {
+      assertArrayEquals(batch[i], read[i]);
+    }
+
+    // Wrap around the end of the ring
+    //
+    assertEquals(4, set.putRows(rowMeta, batch, 8, 4));
+    read = new Object[10][];
+    assertEquals(7, set.getRows(read, 10));
+    for (int i = 0; i < 7; i++) {
+      assertArrayEquals(batch[i + 5], read[i]);
+    }
+    assertEquals(0, set.getRows(read, 10));
+    assertEquals(0, set.size());
+  }
+
+  @Test
+  public void testProducerConsumer() throws Exception {
+    final IRowSet set = new RingBufferRowSet(16);
+    final IRowMeta rowMeta = createRowMeta();
+    final int nrRows = 100000;
+    final AtomicReference<String> error = new AtomicReference<>();
+
+    Thread producer =
+        new Thread(
+            () -> {
+              for (long i = 0; i < nrRows; i++) {
+                Object[] row = new Object[] {i};
+                while (!set.putRow(rowMeta, row)) {
+                  // Retry like BaseTransform does
+                }
+              }
+              set.setDone();
+            });
+    producer.start();
+
+    long expected = 0;
+    while (!set.isDone() || set.size() > 0) {
+      Object[] row = set.getRow();
+      if (row != null) {
+        if ((Long) row[0] != expected) {
+          error.compareAndSet(null, "Expected row " + expected + " but got " + row[0]);
+        }
+        expected++;
+      }
+    }
+    producer.join();
+
+    assertNull(error.get());
+    assertEquals(nrRows, expected);
+  }
+
+  @Test
+  public void testProducerConsumerBatches() throws Exception {
+    final IRowSet set = new RingBufferRowSet(16);
+    final IRowMeta rowMeta = createRowMeta();
+    final int nrRows = 100000;
+
+    Thread producer =
+        new Thread(
+            () -> {
+              Object[][] batch = new Object[7][];
+              long i = 0;
+              while (i < nrRows) {
+                int count = (int) Math.min(batch.length, nrRows - i);
+                for (int b = 0; b < count; b++) {
+                  batch[b] = new Object[] {i + b};
+                }
+                int offset = 0;
+                while (offset < count) {
+                  offset += set.putRows(rowMeta, batch, offset, count - offset);
+                }
+                i += count;
+              }
+              set.setDone();
+            });
+    producer.start();
+
+    long expected = 0;
+    Object[][] read = new Object[5][];
+    String error = null;
+    while (!set.isDone() || set.size() > 0) {
+      int nr = set.getRows(read, read.length);
+      for (int r = 0; r < nr; r++) {
+        if ((Long) read[r][0] != expected && error == null) {
+          error = "Expected row " + expected + " but got " + read[r][0];
+        }
+        expected++;
+      }
+    }
+    producer.join();
+
+    assertNull(error);
+    assertEquals(nrRows, expected);
+  }
+}
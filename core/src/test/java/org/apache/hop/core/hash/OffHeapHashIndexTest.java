@@ -0,0 +1,135 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.hop.core.hash;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+import java.nio.ByteBuffer;
+import org.apache.hop.core.row.IRowMeta;
+import org.apache.hop.core.row.RowMeta;
+import org.apache.hop.core.row.value.ValueMetaInteger;
+import org.apache.hop.core.row.value.ValueMetaString;
+import org.junit.Test;
+
+public class OffHeapHashIndexTest {
+
+  private IRowMeta createKeyMeta() {
+    IRowMeta keyMeta = new RowMeta();
+    keyMeta.addValueMeta(new ValueMetaString("code"));
+    keyMeta.addValueMeta(new ValueMetaInteger("id"));
+    return keyMeta;
+  }
+
+  private IRowMeta createValueMeta() {
+    IRowMeta valueMeta = new RowMeta();
+    valueMeta.addValueMeta(new ValueMetaString("name"));
+    return valueMeta;
+  }
+
+  @Test
+  public void testGetAndPut() throws Exception {
+    try (OffHeapHashIndex index = new OffHeapHashIndex(createKeyMeta(), createValueMeta(), 0)) {
+      assertNull(index.get(new Object[] {"a", 1L}));
+
+      index.put(new Object[] {"a", 1L}, new Object[] {"one"});
+      index.put(new Object[] {"a", 2L}, new Object[] {"two"});
+      index.put(new Object[] {null, null}, new Object[] {null});
+      assertEquals(3, index.size());
+
+      assertArrayEquals(new Object[] {"one"}, index.get(new Object[] {"a", 1L}));
+      assertArrayEquals(new Object[] {"two"}, index.get(new Object[] {"a", 2L}));
+      assertArrayEquals(new Object[] {null}, index.get(new Object[] {null, null}));
+      assertNull(index.get(new Object[] {"b", 1L}));
+
+      // Replace the values of an existing key
+      index.put(new Object[] {"a", 1L}, new Object[] {"uno"});
+      assertEquals(3, index.size());
+      assertArrayEquals(new Object[] {"uno"}, index.get(new Object[] {"a", 1L}));
+      assertFalse(index.isSpilled());
+    }
+  }
+
+  @Test
+  public void testResize() throws Exception {
+    try (OffHeapHashIndex index = new OffHeapHashIndex(createKeyMeta(), createValueMeta(), 0, 2)) {
+      for (long i = 0; i < 10000; i++) {
+        index.put(new Object[] {"key", i}, new Object[] {"value " + i});
+      }
+      assertEquals(10000, index.size());
+      for (long i = 0; i < 10000; i++) {
+        assertArrayEquals(new Object[] {"value " + i}, index.get(new Object[] {"key", i}));
+      }
+      assertNull(index.get(new Object[] {"key", 10000L}));
+    }
+  }
+
+  @Test
+  public void testSpillToFile() throws Exception {
+    // A budget smaller than a page maps every page from the temporary file
+    try (OffHeapHashIndex index = new OffHeapHashIndex(createKeyMeta(), createValueMeta(), 1)) {
+      for (long i = 0; i < 1000; i++) {
+        index.put(new Object[] {"key", i}, new Object[] {"value " + i});
+      }
+      assertTrue(index.isSpilled());
+      for (long i = 0; i < 1000; i++) {
+        assertArrayEquals(new Object[] {"value " + i}, index.get(new Object[] {"key", i}));
+      }
+    }
+  }
+
+  @Test
+  public void testHeapPagesWithoutDirectMemory() throws Exception {
+    try (OffHeapHashIndex index =
+        new OffHeapHashIndex(createKeyMeta(), createValueMeta(), 0) {
+          @Override
+          ByteBuffer allocateDirect(int pageSize) {
+            throw new OutOfMemoryError("Cannot reserve direct buffer memory");
+          }
+        }) {
+      for (long i = 0; i < 1000; i++) {
+        index.put(new Object[] {"key", i}, new Object[] {"value " + i});
+      }
+      assertTrue(index.isDirectMemoryExhausted());
+      assertFalse(index.isSpilled());
+      for (long i = 0; i < 1000; i++) {
+        assertArrayEquals(new Object[] {"value " + i}, index.get(new Object[] {"key", i}));
+      }
+    }
+  }
+
+  @Test
+  public void testClose() throws Exception {
+    OffHeapHashIndex index = new OffHeapHashIndex(createKeyMeta(), createValueMeta(), 1);
+    index.put(new Object[] {"a", 1L}, new Object[] {"one"});
+    assertTrue(index.isSpilled());
+
+    // The pages are freed, the index starts over empty
+    index.close();
+    assertEquals(0, index.size());
+    assertFalse(index.isSpilled());
+    assertNull(index.get(new Object[] {"a", 1L}));
+
+    index.put(new Object[] {"b", 2L}, new Object[] {"two"});
+    assertArrayEquals(new Object[] {"two"}, index.get(new Object[] {"b", 2L}));
+    index.close();
+  }
+}
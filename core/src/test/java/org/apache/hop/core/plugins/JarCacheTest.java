@@ -0,0 +1,119 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.hop.core.plugins;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.io.File;
+import java.io.FileOutputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.jar.JarOutputStream;
+import java.util.zip.ZipEntry;
+import org.apache.hop.core.extension.ExtensionPoint;
+import org.apache.hop.core.variables.Variable;
+import org.jboss.jandex.IndexWriter;
+import org.jboss.jandex.Indexer;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+public class JarCacheTest {
+
+  @Rule public TemporaryFolder temporaryFolder = new TemporaryFolder();
+
+  @ExtensionPoint(
+      id = "JarCacheTestExtensionPoint",
+      extensionPointId = "JarCacheTest",
+      description = "A test extension point")
+  public static class AnnotatedClass {
+    @Variable(description = "A test variable")
+    public static final String TEST_VARIABLE = "TEST_VARIABLE";
+  }
+
+  private File createJar(String name) throws Exception {
+    Indexer indexer = new Indexer();
+    indexer.indexClass(AnnotatedClass.class);
+    File jarFile = temporaryFolder.newFile(name);
+    try (JarOutputStream jar = new JarOutputStream(new FileOutputStream(jarFile))) {
+      jar.putNextEntry(new ZipEntry(JarCache.ANNOTATION_INDEX_LOCATION));
+      new IndexWriter(jar).write(indexer.complete());
+      jar.closeEntry();
+    }
+    return jarFile;
+  }
+
+  @Test
+  public void testAnnotatedTargets() throws Exception {
+    File jarFile = createJar("plugin.jar");
+    JarCache cache = new JarCache(null);
+
+    List<JarCache.AnnotatedTarget> classes =
+        cache.getAnnotatedTargets(jarFile, ExtensionPoint.class);
+    assertEquals(
+        List.of(new JarCache.AnnotatedTarget(AnnotatedClass.class.getName(), null)), classes);
+    assertTrue(classes.get(0).isClass());
+
+    List<JarCache.AnnotatedTarget> fields = cache.getAnnotatedTargets(jarFile, Variable.class);
+    assertEquals(
+        List.of(new JarCache.AnnotatedTarget(AnnotatedClass.class.getName(), "TEST_VARIABLE")),
+        fields);
+    assertFalse(fields.get(0).isClass());
+
+    assertTrue(cache.getAnnotatedTargets(jarFile, Deprecated.class).isEmpty());
+  }
+
+  @Test
+  public void testSnapshot() throws Exception {
+    File jarFile = createJar("plugin.jar");
+    Path snapshot = temporaryFolder.getRoot().toPath().resolve("snapshot/plugins.txt");
+
+    JarCache cache = new JarCache(snapshot);
+    cache.findAnnotatedTargets(List.of(jarFile), List.of(ExtensionPoint.class.getName()));
+    cache.saveSnapshot();
+    assertTrue(Files.exists(snapshot));
+
+    // Break the annotation index without changing the size or modification time of the jar file:
+    // the annotations now have to come from the snapshot.
+    //
+    long lastModified = jarFile.lastModified();
+    byte[] content = Files.readAllBytes(jarFile.toPath());
+    byte[] garbage = new byte[content.length];
+    Files.write(jarFile.toPath(), garbage);
+    assertTrue(jarFile.setLastModified(lastModified));
+
+    JarCache snapshotCache = new JarCache(snapshot);
+    assertEquals(
+        List.of(new JarCache.AnnotatedTarget(AnnotatedClass.class.getName(), null)),
+        snapshotCache.getAnnotatedTargets(jarFile, ExtensionPoint.class));
+
+    // A changed jar file is scanned again
+    //
+    Files.write(jarFile.toPath(), content);
+    assertTrue(jarFile.setLastModified(lastModified + 10000));
+    JarCache changedCache = new JarCache(snapshot);
+    assertEquals(1, changedCache.getAnnotatedTargets(jarFile, Variable.class).size());
+    changedCache.saveSnapshot();
+    assertTrue(
+        Files.readString(snapshot, StandardCharsets.UTF_8).contains(Variable.class.getName()));
+  }
+}
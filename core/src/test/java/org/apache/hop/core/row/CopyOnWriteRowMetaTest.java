@@ -0,0 +1,128 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.hop.core.row;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+import org.apache.hop.core.HopClientEnvironment;
+import org.apache.hop.core.exception.HopValueException;
+import org.apache.hop.core.row.value.ValueMetaInteger;
+import org.apache.hop.core.row.value.ValueMetaString;
+import org.apache.hop.junit.rules.RestoreHopEnvironment;
+import org.junit.Before;
+import org.junit.BeforeClass;
+import org.junit.ClassRule;
+import org.junit.Test;
+
+public class CopyOnWriteRowMetaTest {
+  @ClassRule public static RestoreHopEnvironment env = new RestoreHopEnvironment();
+
+  private IRowMeta source;
+  private IRowMeta rowMeta;
+
+  @BeforeClass
+  public static void setUpBeforeClass() throws Exception {
+    HopClientEnvironment.init();
+  }
+
+  @Before
+  public void setUp() {
+    source = new RowMetaBuilder().addString("name").addInteger("id").addDate("birthday").build();
+    rowMeta = CopyOnWriteRowMeta.of(source);
+  }
+
+  @Test
+  public void testSameValueMetadata() {
+    assertEquals(3, rowMeta.size());
+    assertFalse(rowMeta.isEmpty());
+    for (int i = 0; i < source.size(); i++) {
+      assertSame(source.getValueMeta(i), rowMeta.getValueMeta(i));
+    }
+    assertNull(rowMeta.getValueMeta(3));
+    assertSame(rowMeta, CopyOnWriteRowMeta.of(rowMeta));
+    assertNull(CopyOnWriteRowMeta.of(null));
+  }
+
+  @Test
+  public void testIndexOfValue() {
+    assertEquals(0, rowMeta.indexOfValue("name"));
+    assertEquals(1, rowMeta.indexOfValue("ID"));
+    assertEquals(-1, rowMeta.indexOfValue("unknown"));
+    assertEquals(-1, rowMeta.indexOfValue(null));
+    assertSame(source.getValueMeta(2), rowMeta.searchValueMeta("Birthday"));
+
+    // Renaming a value is picked up without a modification of the row metadata
+    //
+    rowMeta.getValueMeta(1).setName("key");
+    assertEquals(1, rowMeta.indexOfValue("key"));
+    assertEquals(-1, rowMeta.indexOfValue("id"));
+  }
+
+  @Test
+  public void testGetValues() throws HopValueException {
+    Object[] row = new Object[] {"Hop", 12L, null};
+    assertEquals("Hop", rowMeta.getString(row, 0));
+    assertEquals(Long.valueOf(12L), rowMeta.getInteger(row, "id", null));
+    assertEquals("12", rowMeta.getString(row, "id", null));
+    assertEquals("default", rowMeta.getString(row, "unknown", "default"));
+    assertTrue(rowMeta.isNull(row, 2));
+    assertEquals(source.getString(row), rowMeta.getString(row));
+    assertEquals(0, rowMeta.compare(row, row.clone()));
+  }
+
+  @Test
+  public void testModificationsCopyOnWrite() throws HopValueException {
+    rowMeta.addValueMeta(new ValueMetaString("extra"));
+    assertEquals(4, rowMeta.size());
+    assertEquals(3, rowMeta.indexOfValue("extra"));
+    assertEquals(3, source.size());
+
+    // Adding a field with an existing name renames it, just like RowMeta
+    //
+    rowMeta.addValueMeta(new ValueMetaInteger("id"));
+    assertEquals("id_1", rowMeta.getValueMeta(4).getName());
+
+    rowMeta.removeValueMeta("name");
+    assertEquals(-1, rowMeta.indexOfValue("name"));
+    assertEquals(0, rowMeta.indexOfValue("id"));
+    assertEquals(3, source.size());
+  }
+
+  @Test(expected = HopValueException.class)
+  public void testRemoveUnknownValue() throws HopValueException {
+    rowMeta.removeValueMeta("unknown");
+  }
+
+  @Test
+  public void testClone() {
+    IRowMeta clone = rowMeta.clone();
+    assertTrue(clone instanceof RowMeta);
+    assertNotSame(rowMeta.getValueMeta(0), clone.getValueMeta(0));
+    assertEquals(rowMeta.getValueMeta(0), clone.getValueMeta(0));
+
+    // A modification of the clone doesn't change the original
+    //
+    clone.addValueMeta(new ValueMetaString("extra"));
+    assertEquals(3, rowMeta.size());
+  }
+}
@@ -0,0 +1,180 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.hop.core.row.value;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+import java.text.ParseException;
+import java.text.ParsePosition;
+import java.text.SimpleDateFormat;
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.List;
+import java.util.Locale;
+import java.util.TimeZone;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import org.junit.Test;
+
+public class ValueDateFormatTest {
+
+  private static final String[] MASKS = {
+    "yyyy-MM-dd", "yyyy/MM/dd HH:mm:ss", "yyyy/MM/dd HH:mm:ss.SSS", "yyyyMMdd", "dd/MM/yyyy HH:mm"
+  };
+
+  private static final String[] TIME_ZONES = {"UTC", "Europe/Brussels", "America/New_York"};
+
+  @Test
+  public void testCompileLayout() {
+    assertArrayEquals(
+        new int[] {0, 5, 8, -1, -1, -1, -1}, ValueDateFormat.compileLayout("yyyy-MM-dd"));
+    assertArrayEquals(
+        new int[] {0, 5, 8, 11, 14, 17, 20},
+        ValueDateFormat.compileLayout("yyyy/MM/dd HH:mm:ss.SSS"));
+    assertNull(ValueDateFormat.compileLayout("yy-MM-dd"));
+    assertNull(ValueDateFormat.compileLayout("yyyy-MMM-dd"));
+    assertNull(ValueDateFormat.compileLayout("yyyy-MM-dd'T'HH:mm:ss"));
+    assertNull(ValueDateFormat.compileLayout("HH:mm:ss"));
+    assertNull(ValueDateFormat.compileLayout(null));
+  }
+
+  @Test
+  public void testSameAsSimpleDateFormat() throws Exception {
+    long[] times = {
+      0L,
+      -1L,
+      1234567890123L,
+      1616893200000L, // 2021-03-28 01:00 UTC, DST starts in Brussels
+      1635642000000L, // 2021-10-31 01:00 UTC, DST ends in Brussels
+      -2208988800000L, // 1900-01-01
+      253402214400000L // 9999-12-31
+    };
+    for (String timeZoneId : TIME_ZONES) {
+      TimeZone timeZone = TimeZone.getTimeZone(timeZoneId);
+      for (String mask : MASKS) {
+        for (boolean lenient : new boolean[] {false, true}) {
+          ValueDateFormat format = ValueDateFormat.getInstance(mask, null, timeZone, lenient);
+          SimpleDateFormat simpleDateFormat = new SimpleDateFormat(mask);
+          simpleDateFormat.setTimeZone(timeZone);
+          simpleDateFormat.setLenient(lenient);
+
+          for (long time : times) {
+            Date date = new Date(time);
+            String string = simpleDateFormat.format(date);
+            assertEquals(string, format.format(date));
+            assertEquals(simpleDateFormat.parse(string), format.parse(string));
+          }
+        }
+      }
+    }
+  }
+
+  @Test
+  public void testFastPath() {
+    assertTrue(ValueDateFormat.getInstance("yyyy-MM-dd", null, null, false).isFastPath());
+    assertTrue(
+        ValueDateFormat.getInstance("yyyy/MM/dd HH:mm:ss", Locale.US, null, true).isFastPath());
+    assertFalse(ValueDateFormat.getInstance("yyyy-MMM-dd", null, null, false).isFastPath());
+    assertFalse(ValueDateFormat.getInstance(null, null, null, false).isFastPath());
+  }
+
+  @Test
+  public void testFallbackParsing() throws Exception {
+    TimeZone utc = TimeZone.getTimeZone("UTC");
+    ValueDateFormat strict = ValueDateFormat.getInstance("yyyy-MM-dd", null, utc, false);
+    ValueDateFormat lenient = ValueDateFormat.getInstance("yyyy-MM-dd", null, utc, true);
+
+    // Trailing characters are ignored, variable width fields are accepted
+    //
+    assertEquals(strict.parse("2020-01-05"), strict.parse("2020-01-05T10:00:00"));
+    assertEquals(strict.parse("2020-01-05"), strict.parse("2020-1-5"));
+
+    // Invalid dates are rolled over when lenient, refused when strict
+    //
+    assertEquals(lenient.parse("2020-03-01"), lenient.parse("2020-02-30"));
+    try {
+      strict.parse("2020-02-30");
+      fail("Invalid date parsed in strict mode");
+    } catch (ParseException e) {
+      // Expected
+    }
+  }
+
+  @Test
+  public void testDaylightSavingTransitions() throws Exception {
+    TimeZone timeZone = TimeZone.getTimeZone("Europe/Brussels");
+    String mask = "yyyy/MM/dd HH:mm:ss";
+    SimpleDateFormat simpleDateFormat = new SimpleDateFormat(mask);
+    simpleDateFormat.setTimeZone(timeZone);
+    simpleDateFormat.setLenient(true);
+    ValueDateFormat format = ValueDateFormat.getInstance(mask, null, timeZone, true);
+
+    // A gap and an overlap in the local time line
+    //
+    for (String string : new String[] {"2021/03/28 02:30:00", "2021/10/31 02:30:00"}) {
+      assertEquals(simpleDateFormat.parse(string, new ParsePosition(0)), format.parse(string));
+    }
+  }
+
+  @Test
+  public void testCached() {
+    TimeZone utc = TimeZone.getTimeZone("UTC");
+    ValueDateFormat format = ValueDateFormat.getInstance("yyyy-MM-dd", Locale.US, utc, false);
+    assertSame(format, ValueDateFormat.getInstance("yyyy-MM-dd", Locale.US, utc, false));
+    assertTrue(format.matches("yyyy-MM-dd", Locale.US, utc, false));
+    assertFalse(format.matches("yyyy-MM-dd", Locale.US, utc, true));
+    assertFalse(format.matches("yyyy/MM/dd", Locale.US, utc, false));
+  }
+
+  @Test
+  public void testConcurrentConversions() throws Exception {
+    ValueDateFormat format =
+        ValueDateFormat.getInstance(
+            "dd/MM/yyyy HH:mm:ss", null, TimeZone.getTimeZone("UTC"), false);
+    ExecutorService executorService = Executors.newFixedThreadPool(4);
+    try {
+      List<Future<Boolean>> futures = new ArrayList<>();
+      for (int t = 0; t < 4; t++) {
+        final long offset = t * 1000000000L;
+        futures.add(
+            executorService.submit(
+                () -> {
+                  for (long i = 0; i < 10000; i++) {
+                    Date date = new Date(offset + i * 1000L);
+                    if (!date.equals(format.parse(format.format(date)))) {
+                      return false;
+                    }
+                  }
+                  return true;
+                }));
+      }
+      for (Future<Boolean> future : futures) {
+        assertTrue(future.get());
+      }
+    } finally {
+      executorService.shutdown();
+    }
+  }
+}
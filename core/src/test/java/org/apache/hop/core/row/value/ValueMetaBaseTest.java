@@ -20,6 +20,7 @@ package org.apache.hop.core.row.value;
 import static org.junit.Assert.assertArrayEquals;
 import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotEquals;
 import static org.junit.Assert.assertNotNull;
 import static org.junit.Assert.assertNull;
 import static org.junit.Assert.assertTrue;
@@ -944,6 +945,53 @@ public class ValueMetaBaseTest {
     assertEquals(expectedStringRepresentation, convertedNumber);
   }
 
+  @Test
+  public void testNumberFormatFollowsLengthAndPrecision() throws HopValueException {
+    ValueMetaBase base = new ValueMetaNumber("ValueMetaNumber");
+    base.setLength(5, 2);
+    String twoDecimals = base.convertNumberToString(123.456);
+
+    ValueMetaBase expected = new ValueMetaNumber("ValueMetaNumber");
+    expected.setLength(5, 1);
+    base.setPrecision(1);
+    assertEquals(expected.convertNumberToString(123.456), base.convertNumberToString(123.456));
+    assertNotEquals(twoDecimals, base.convertNumberToString(123.456));
+
+    // The cached format is checked against the mask, even without a setter
+    //
+    expected = new ValueMetaNumber("ValueMetaNumber");
+    expected.setLength(5, 3);
+    base.precision = 3;
+    assertEquals(expected.convertNumberToString(123.456), base.convertNumberToString(123.456));
+
+    // A clone doesn't keep the format of the original
+    //
+    ValueMetaBase clone = base.clone();
+    clone.setLength(7, 0);
+    expected = new ValueMetaNumber("ValueMetaNumber");
+    expected.setLength(7, 0);
+    assertEquals(expected.convertNumberToString(123.456), clone.convertNumberToString(123.456));
+    expected = new ValueMetaNumber("ValueMetaNumber");
+    expected.setLength(5, 3);
+    assertEquals(expected.convertNumberToString(123.456), base.convertNumberToString(123.456));
+  }
+
+  @Test
+  public void testDateFormatOfClone() throws HopValueException {
+    ValueMetaBase base = new ValueMetaDate("ValueMetaDate");
+    base.setConversionMask("yyyy-MM-dd HH:mm");
+    base.setDateFormatTimeZone(TimeZone.getTimeZone("UTC"));
+    Date date = new Date(0L);
+    assertEquals("1970-01-01 00:00", base.convertDateToString(date));
+
+    ValueMetaBase clone = base.clone();
+    clone.setConversionMask("yyyy/MM/dd");
+    assertEquals("1970/01/01", clone.convertDateToString(date));
+    clone.setDateFormatTimeZone(TimeZone.getTimeZone("GMT+02:00"));
+    assertEquals("1970/01/01", clone.convertDateToString(new Date(-3600000L)));
+    assertEquals("1970-01-01 00:00", base.convertDateToString(date));
+  }
+
   @Test
   public void testNullHashCodes() throws Exception {
     ValueMetaBase valueMetaString = new ValueMetaBase();
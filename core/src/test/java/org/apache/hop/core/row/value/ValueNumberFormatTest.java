@@ -0,0 +1,118 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.hop.core.row.value;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+
+import java.text.DecimalFormat;
+import java.text.DecimalFormatSymbols;
+import java.text.NumberFormat;
+import java.text.ParsePosition;
+import org.junit.Test;
+
+public class ValueNumberFormatTest {
+
+  private static final String[] MASKS = {
+    null, "####0.0#########;-####0.0#########", "#", "0.00", "#,##0.###", "000.0", "$#.00"
+  };
+
+  private static final double[] NUMBERS = {
+    0.0, -0.0, 1.0, -1.0, 123.0, 0.5, -2.5, 1234.5678, 1e15, -987654321012.0, Double.NaN
+  };
+
+  private static DecimalFormat createDecimalFormat(String mask, char decimal, char grouping) {
+    DecimalFormat decimalFormat = (DecimalFormat) NumberFormat.getInstance();
+    DecimalFormatSymbols symbols = decimalFormat.getDecimalFormatSymbols();
+    symbols.setDecimalSeparator(decimal);
+    symbols.setGroupingSeparator(grouping);
+    decimalFormat.setDecimalFormatSymbols(symbols);
+    if (mask != null) {
+      decimalFormat.applyPattern(mask);
+    }
+    return decimalFormat;
+  }
+
+  @Test
+  public void testSameAsDecimalFormat() throws Exception {
+    for (String mask : MASKS) {
+      for (String decimal : new String[] {".", ","}) {
+        String grouping = ".".equals(decimal) ? "," : ".";
+        ValueNumberFormat format =
+            ValueNumberFormat.getInstance(mask, null, grouping, decimal, false, -1);
+        DecimalFormat decimalFormat =
+            createDecimalFormat(mask, decimal.charAt(0), grouping.charAt(0));
+
+        for (double number : NUMBERS) {
+          String string = decimalFormat.format(number);
+          assertEquals(string, format.format(number));
+
+          ParsePosition expectedPosition = new ParsePosition(0);
+          Number expected = decimalFormat.parse(string, expectedPosition);
+          ParsePosition actualPosition = new ParsePosition(0);
+          Number actual = format.parse(string, actualPosition);
+          assertEquals(expectedPosition.getIndex(), actualPosition.getIndex());
+          if (expected != null) {
+            assertEquals(expected.doubleValue(), actual.doubleValue(), 0.0);
+          }
+        }
+      }
+    }
+  }
+
+  @Test
+  public void testParsePlainNumber() {
+    ValueNumberFormat format = ValueNumberFormat.getInstance(null, null, ",", ".", false, -1);
+    assertEquals(-123.45, format.parsePlainNumber("-123.45"), 0.0);
+    assertEquals(7.0, format.parsePlainNumber("007"), 0.0);
+    assertNull(format.parsePlainNumber("1,234.5"));
+    assertNull(format.parsePlainNumber("1."));
+    assertNull(format.parsePlainNumber(".5"));
+    assertNull(format.parsePlainNumber("1e5"));
+    assertNull(format.parsePlainNumber("1234567890.1234567890"));
+
+    ValueNumberFormat european = ValueNumberFormat.getInstance(null, null, ".", ",", false, -1);
+    assertEquals(-1.5, european.parsePlainNumber("-1,5"), 0.0);
+    assertNull(european.parsePlainNumber("1.5"));
+
+    ValueNumberFormat percent = ValueNumberFormat.getInstance("#%", null, ",", ".", false, -1);
+    assertNull(percent.parsePlainNumber("15"));
+  }
+
+  @Test
+  public void testParseTrailingCharacters() throws Exception {
+    ValueNumberFormat format = ValueNumberFormat.getInstance(null, null, ",", ".", false, -1);
+    assertEquals(1.0, format.parse("1b").doubleValue(), 0.0);
+
+    ParsePosition parsePosition = new ParsePosition(0);
+    assertNotNull(format.parse("12abc", parsePosition));
+    assertEquals(2, parsePosition.getIndex());
+  }
+
+  @Test
+  public void testMaximumFractionDigits() {
+    ValueNumberFormat format = ValueNumberFormat.getInstance("0.00", null, ",", ".", false, -1);
+    ValueNumberFormat precise = ValueNumberFormat.getInstance("0.00", null, ",", ".", false, 50);
+    assertEquals("1.23", format.format(1.23456));
+    assertEquals("1.23456", precise.format(1.23456));
+    assertEquals(50, precise.getMaximumFractionDigits());
+    assertSame(precise, ValueNumberFormat.getInstance("0.00", null, ",", ".", false, 50));
+  }
+}
@@ -0,0 +1,237 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.hop.core.util;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+import com.sun.net.httpserver.HttpServer;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.apache.http.client.methods.CloseableHttpResponse;
+import org.apache.http.client.methods.HttpGet;
+import org.apache.http.impl.client.CloseableHttpClient;
+import org.apache.http.util.EntityUtils;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+public class AsyncRequestExecutorTest {
+
+  private HttpServer server;
+  private final AtomicInteger inFlight = new AtomicInteger();
+  private final AtomicInteger maxInFlight = new AtomicInteger();
+
+  @Before
+  public void setUp() throws Exception {
+    // A stub server answering after a delay with the value of the "delay" parameter
+    //
+    server = HttpServer.create(new InetSocketAddress("localhost", 0), 0);
+    server.setExecutor(Executors.newCachedThreadPool());
+    server.createContext(
+        "/echo",
+        exchange -> {
+          int current = inFlight.incrementAndGet();
+          maxInFlight.accumulateAndGet(current, Math::max);
+          try {
+            String query = exchange.getRequestURI().getQuery();
+            long delay = Long.parseLong(query.substring(query.indexOf('=') + 1));
+            Thread.sleep(delay);
+            byte[] body = query.getBytes(StandardCharsets.UTF_8);
+            exchange.sendResponseHeaders(200, body.length);
+            try (OutputStream outputStream = exchange.getResponseBody()) {
+              outputStream.write(body);
+            }
+          } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+          } finally {
+            inFlight.decrementAndGet();
+            exchange.close();
+          }
+        });
+    server.start();
+  }
+
+  @After
+  public void tearDown() {
+    server.stop(0);
+  }
+
+  private String get(long delay) throws IOException {
+    String url =
+        "http://localhost:" + server.getAddress().getPort() + "/echo?delay=" + Long.toString(delay);
+    CloseableHttpClient client = HttpClientManager.getInstance().createDefaultClient();
+    try (CloseableHttpResponse response = client.execute(new HttpGet(url))) {
+      return EntityUtils.toString(response.getEntity());
+    }
+  }
+
+  private List<AsyncRequestExecutor.Request<String>> execute(
+      AsyncRequestExecutor<String> executor, long[] delays) throws Exception {
+    List<AsyncRequestExecutor.Request<String>> completed = new ArrayList<>();
+    for (long delay : delays) {
+      while (executor.isFull()) {
+        completed.addAll(executor.takeCompleted(1000));
+      }
+      executor.submit(new Object[] {delay}, () -> get(delay));
+      completed.addAll(executor.takeCompleted(0));
+    }
+    while (!executor.isEmpty()) {
+      completed.addAll(executor.takeCompleted(1000));
+    }
+    return completed;
+  }
+
+  @Test
+  public void testOrderedOutput() throws Exception {
+    AsyncRequestExecutor<String> executor = new AsyncRequestExecutor<>("test", 8, true, 0, 0);
+    long[] delays = {300, 10, 200, 10, 100, 10, 50, 10, 10, 10};
+
+    long start = System.currentTimeMillis();
+    List<AsyncRequestExecutor.Request<String>> completed = execute(executor, delays);
+    long duration = System.currentTimeMillis() - start;
+
+    assertEquals(delays.length, completed.size());
+    for (int i = 0; i < delays.length; i++) {
+      AsyncRequestExecutor.Request<String> request = completed.get(i);
+      assertNull(request.getError());
+      assertEquals(delays[i], request.getRow()[0]);
+      assertEquals("delay=" + delays[i], request.getResult());
+    }
+    assertTrue(maxInFlight.get() > 1);
+    assertTrue(maxInFlight.get() <= 8);
+    // The requests overlap: less than the sum of the delays (710 ms)
+    assertTrue("Took " + duration + " ms", duration < 700);
+  }
+
+  @Test
+  public void testUnorderedOutput() throws Exception {
+    AsyncRequestExecutor<String> executor = new AsyncRequestExecutor<>("test", 4, false, 0, 0);
+    long[] delays = {500, 10, 10, 10};
+
+    List<AsyncRequestExecutor.Request<String>> completed = execute(executor, delays);
+
+    assertEquals(delays.length, completed.size());
+    // The slow request doesn't hold back the others
+    assertEquals(500L, completed.get(completed.size() - 1).getRow()[0]);
+  }
+
+  @Test
+  public void testMaxInFlight() throws Exception {
+    AsyncRequestExecutor<String> executor = new AsyncRequestExecutor<>("test", 2, true, 0, 0);
+    long[] delays = {50, 50, 50, 50, 50, 50};
+
+    execute(executor, delays);
+
+    assertEquals(2, maxInFlight.get());
+  }
+
+  @Test
+  public void testRetry() throws Exception {
+    AsyncRequestExecutor<String> executor = new AsyncRequestExecutor<>("test", 2, true, 3, 10);
+    AtomicInteger calls = new AtomicInteger();
+    executor.submit(
+        new Object[] {"row"},
+        () -> {
+          if (calls.incrementAndGet() < 3) {
+            throw new IOException("Connection refused");
+          }
+          return get(0);
+        });
+
+    List<AsyncRequestExecutor.Request<String>> completed = executor.takeCompleted(5000);
+    assertEquals(1, completed.size());
+    assertNull(completed.get(0).getError());
+    assertEquals(3, completed.get(0).getAttempts());
+    assertEquals("delay=0", completed.get(0).getResult());
+  }
+
+  @Test
+  public void testNoRetryOfOtherErrors() throws Exception {
+    AsyncRequestExecutor<String> executor = new AsyncRequestExecutor<>("test", 2, true, 3, 10);
+    executor.submit(
+        new Object[] {"row"},
+        () -> {
+          throw new IllegalStateException("Unauthorized");
+        });
+
+    List<AsyncRequestExecutor.Request<String>> completed = executor.takeCompleted(5000);
+    assertEquals(1, completed.size());
+    assertNotNull(completed.get(0).getError());
+    assertEquals(1, completed.get(0).getAttempts());
+    assertFalse(executor.isFull());
+    assertTrue(executor.isEmpty());
+  }
+
+  @Test
+  public void testThreadsAreReused() throws Exception {
+    AsyncRequestExecutor<String> executor = new AsyncRequestExecutor<>("test", 2, true, 0, 0);
+    Set<String> threadNames = ConcurrentHashMap.newKeySet();
+    for (int i = 0; i < 20; i++) {
+      while (executor.isFull()) {
+        executor.takeCompleted(1000);
+      }
+      executor.submit(
+          new Object[] {i},
+          () -> {
+            threadNames.add(Thread.currentThread().getName());
+            return get(0);
+          });
+    }
+    while (!executor.isEmpty()) {
+      executor.takeCompleted(1000);
+    }
+    executor.cancel();
+
+    assertTrue(threadNames.toString(), threadNames.size() <= 2);
+  }
+
+  @Test
+  public void testCancel() throws Exception {
+    AsyncRequestExecutor<String> executor = new AsyncRequestExecutor<>("test", 1, true, 3, 10);
+    CountDownLatch started = new CountDownLatch(1);
+    executor.submit(
+        new Object[] {"row"},
+        () -> {
+          started.countDown();
+          Thread.sleep(60000);
+          return "done";
+        });
+    started.await();
+
+    // The executing request is interrupted and not retried
+    //
+    executor.cancel();
+    List<AsyncRequestExecutor.Request<String>> completed = executor.takeCompleted(5000);
+    assertEquals(1, completed.size());
+    assertTrue(completed.get(0).getError() instanceof InterruptedException);
+    assertEquals(1, completed.get(0).getAttempts());
+  }
+}
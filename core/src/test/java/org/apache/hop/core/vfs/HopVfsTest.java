@@ -17,10 +17,18 @@
 
 package org.apache.hop.core.vfs;
 
+import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertFalse;
 import static org.junit.Assert.assertTrue;
 
 import java.io.OutputStream;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
 import org.apache.commons.vfs2.FileObject;
 import org.apache.hop.core.variables.Variables;
 import org.junit.Test;
@@ -68,4 +76,36 @@ public class HopVfsTest {
       outputStream.write("Test-content".getBytes());
     }
   }
+
+  @Test
+  public void testParallelFileResolution() throws Exception {
+    Set<String> tempFiles = ConcurrentHashMap.newKeySet();
+    ExecutorService executor = Executors.newFixedThreadPool(8);
+    try {
+      List<Future<?>> futures = new ArrayList<>();
+      for (int i = 0; i < 8; i++) {
+        int thread = i;
+        futures.add(
+            executor.submit(
+                () -> {
+                  for (int j = 0; j < 100; j++) {
+                    FileObject fileObject =
+                        HopVfs.getFileObject("ram:///parallel/" + thread + "/" + j + ".txt");
+                    assertEquals(
+                        "/parallel/" + thread + "/" + j + ".txt", fileObject.getName().getPath());
+                    FileObject tempFile =
+                        HopVfs.createTempFile("parallel", ".tmp", "ram:///parallel-tmp");
+                    assertTrue(tempFiles.add(tempFile.toString()));
+                  }
+                  return null;
+                }));
+      }
+      for (Future<?> future : futures) {
+        future.get();
+      }
+    } finally {
+      executor.shutdown();
+    }
+    assertEquals(800, tempFiles.size());
+  }
 }
@@ -0,0 +1,163 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.hop.metadata.serializer.json;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+import java.io.File;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.List;
+import org.apache.hop.core.encryption.HopTwoWayPasswordEncoder;
+import org.apache.hop.core.variables.Variables;
+import org.apache.hop.metadata.api.IHopMetadataSerializer;
+import org.apache.hop.metadata.serializer.json.occupation.Occupation;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+public class JsonMetadataCacheTest {
+
+  @Rule public TemporaryFolder temporaryFolder = new TemporaryFolder();
+
+  private final JsonMetadataCache cache = JsonMetadataCache.getInstance();
+  private long checkInterval;
+  private IHopMetadataSerializer<Occupation> serializer;
+
+  @Before
+  public void setUp() throws Exception {
+    checkInterval = cache.getCheckInterval();
+    cache.setCheckInterval(0L);
+    cache.clear();
+    JsonMetadataProvider metadataProvider =
+        new JsonMetadataProvider(
+            new HopTwoWayPasswordEncoder(),
+            temporaryFolder.getRoot().getAbsolutePath(),
+            Variables.getADefaultVariableSpace());
+    serializer = metadataProvider.getSerializer(Occupation.class);
+  }
+
+  @After
+  public void tearDown() {
+    cache.setCheckInterval(checkInterval);
+    cache.clear();
+  }
+
+  @Test
+  public void testLoadIsCached() throws Exception {
+    serializer.save(new Occupation("cached", "First", 2001));
+
+    long hits = cache.getHitCount();
+    long misses = cache.getMissCount();
+    Occupation first = serializer.load("cached");
+    Occupation second = serializer.load("cached");
+
+    assertEquals("First", first.getDescription());
+    assertEquals(first, second);
+    // Every load gives a new object
+    assertNotSame(first, second);
+    assertEquals(1, cache.getMissCount() - misses);
+    assertEquals(1, cache.getHitCount() - hits);
+  }
+
+  @Test
+  public void testChangedFileIsReloaded() throws Exception {
+    serializer.save(new Occupation("changed", "First", 2001));
+    assertEquals("First", serializer.load("changed").getDescription());
+
+    // Change the file behind the back of the serializer
+    //
+    File file = new File(temporaryFolder.getRoot(), "occupation/changed.json");
+    String json = Files.readString(file.toPath(), StandardCharsets.UTF_8);
+    Files.writeString(
+        file.toPath(), json.replace("First", "Second version"), StandardCharsets.UTF_8);
+
+    assertEquals("Second version", serializer.load("changed").getDescription());
+  }
+
+  @Test
+  public void testSaveAndDeleteUpdateTheNames() throws Exception {
+    assertTrue(serializer.listObjectNames().isEmpty());
+
+    serializer.save(new Occupation("one", "One", 2001));
+    serializer.save(new Occupation("two", "Two", 2002));
+    List<String> names = serializer.listObjectNames();
+    assertEquals(2, names.size());
+    assertTrue(names.contains("one"));
+    assertTrue(names.contains("two"));
+
+    serializer.delete("one");
+    assertEquals(List.of("two"), serializer.listObjectNames());
+    assertFalse(serializer.exists("one"));
+    assertNull(serializer.load("one"));
+  }
+
+  @Test
+  public void testSavesAreSeenWithinTheCheckInterval() throws Exception {
+    cache.setCheckInterval(60000L);
+    serializer.save(new Occupation("saved", "First", 2001));
+    assertEquals("First", serializer.load("saved").getDescription());
+    assertEquals(List.of("saved"), serializer.listObjectNames());
+
+    serializer.save(new Occupation("saved", "Second version", 2002));
+    serializer.save(new Occupation("other", "Other", 2003));
+    assertEquals("Second version", serializer.load("saved").getDescription());
+    assertEquals(2, serializer.listObjectNames().size());
+
+    serializer.delete("saved");
+    assertFalse(serializer.exists("saved"));
+    assertNull(serializer.load("saved"));
+    assertEquals(List.of("other"), serializer.listObjectNames());
+  }
+
+  @Test
+  public void testExistsDoesntReadTheFile() throws Exception {
+    serializer.save(new Occupation("exists", "Exists", 2001));
+
+    long misses = cache.getMissCount();
+    assertTrue(serializer.exists("exists"));
+    assertFalse(serializer.exists("missing"));
+    assertEquals(misses, cache.getMissCount());
+  }
+
+  @Test
+  public void testDefaultCheckInterval() {
+    assertEquals(
+        JsonMetadataCache.DEFAULT_CHECK_INTERVAL, new JsonMetadataCache().getCheckInterval());
+  }
+
+  @Test
+  public void testDisabledCache() throws Exception {
+    cache.setCheckInterval(-1L);
+    serializer.save(new Occupation("disabled", "Disabled", 2001));
+
+    long hits = cache.getHitCount();
+    long misses = cache.getMissCount();
+    assertEquals("Disabled", serializer.load("disabled").getDescription());
+    assertEquals(List.of("disabled"), serializer.listObjectNames());
+
+    assertEquals(hits, cache.getHitCount());
+    assertEquals(misses, cache.getMissCount());
+  }
+}
@@ -0,0 +1,143 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.hop.metadata.serializer.xml;
+
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonParser;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import org.apache.hop.core.xml.XmlHandler;
+import org.apache.hop.metadata.serializer.json.JsonMetadataParser;
+import org.apache.hop.metadata.serializer.json.person.Address;
+import org.apache.hop.metadata.serializer.json.person.City;
+import org.apache.hop.metadata.serializer.json.person.Person;
+import org.apache.hop.metadata.serializer.json.person.interest.Cooking;
+import org.apache.hop.metadata.serializer.json.person.interest.Music;
+import org.apache.hop.metadata.serializer.json.person.interest.Running;
+import org.apache.hop.metadata.serializer.xml.classes.Field;
+import org.apache.hop.metadata.serializer.xml.classes.Info;
+import org.apache.hop.metadata.serializer.xml.classes.MetaData;
+import org.apache.hop.metadata.serializer.xml.classes.TestEnum;
+import org.w3c.dom.Node;
+
+/**
+ * Measures the XML and JSON (de)serialization of metadata. The size of the XML metadata is about
+ * the size of the transforms of a pipeline with 300 transforms of 10 fields each.
+ *
+ * <p>This is not a unit test: run the main method, optionally with the number of iterations.
+ */
+public class MetadataSerializationBenchmark {
+
+  private static final int NR_TRANSFORMS = 300;
+  private static final int NR_FIELDS = 10;
+
+  public static void main(String[] args) throws Exception {
+    int iterations = args.length > 0 ? Integer.parseInt(args[0]) : 20;
+
+    List<MetaData> transforms = new ArrayList<>();
+    for (int t = 0; t < NR_TRANSFORMS; t++) {
+      MetaData metaData = new MetaData();
+      metaData.setFilename("file-" + t + ".csv");
+      metaData.setSeparator(",");
+      metaData.setGroup("\"");
+      for (int f = 0; f < NR_FIELDS; f++) {
+        metaData
+            .getFields()
+            .add(new Field("field" + f, "String", 50, -1, "format" + f, TestEnum.TWO));
+      }
+      metaData.setValues(Arrays.asList("v1", "v2", "v3"));
+      metaData.setTestEnum(TestEnum.ONE);
+      metaData.setInfo(new Info("aValue", "bValue"));
+      transforms.add(metaData);
+    }
+
+    Map<String, String> attributes = new HashMap<>();
+    for (int i = 0; i < 50; i++) {
+      attributes.put("attribute" + i, "value" + i);
+    }
+    Person person =
+        new Person(
+            "Person",
+            "51",
+            new Address("Street", "123", new City("12345", "McCity")),
+            new Music("Music", "Love Music"),
+            Arrays.asList(
+                new Cooking("Cooking", "Cooking is great"),
+                new Running("Running", "Keep on running")),
+            attributes,
+            null);
+    JsonMetadataParser<Person> jsonParser = new JsonMetadataParser<>(Person.class, null);
+    JsonFactory jsonFactory = new JsonFactory();
+
+    for (int run = 0; run < 2; run++) {
+      // The first run is the warm-up
+      //
+      long xmlSave = 0;
+      long xmlLoad = 0;
+      long jsonSave = 0;
+      long jsonLoad = 0;
+      for (int i = 0; i < iterations; i++) {
+        long start = System.nanoTime();
+        List<String> xmls = new ArrayList<>();
+        for (MetaData metaData : transforms) {
+          xmls.add(XmlMetadataUtil.serializeObjectToXml(metaData));
+        }
+        xmlSave += System.nanoTime() - start;
+
+        List<Node> nodes = new ArrayList<>();
+        for (String xml : xmls) {
+          nodes.add(XmlHandler.loadXmlString("<meta>" + xml + "</meta>", "meta"));
+        }
+        start = System.nanoTime();
+        for (Node node : nodes) {
+          XmlMetadataUtil.deSerializeFromXml(null, node, MetaData.class, null);
+        }
+        xmlLoad += System.nanoTime() - start;
+
+        start = System.nanoTime();
+        String json = null;
+        for (int p = 0; p < NR_TRANSFORMS; p++) {
+          json = jsonParser.getJsonObject(person).toJSONString();
+        }
+        jsonSave += System.nanoTime() - start;
+
+        start = System.nanoTime();
+        for (int p = 0; p < NR_TRANSFORMS; p++) {
+          try (JsonParser parser = jsonFactory.createParser(json)) {
+            parser.nextToken();
+            jsonParser.loadJsonObject(Person.class, parser);
+          }
+        }
+        jsonLoad += System.nanoTime() - start;
+      }
+      if (run > 0) {
+        System.out.printf(
+            "Per pipeline of %d transforms: XML save %.2f ms, XML load %.2f ms, "
+                + "JSON save %.2f ms, JSON load %.2f ms%n",
+            NR_TRANSFORMS,
+            xmlSave / 1e6 / iterations,
+            xmlLoad / 1e6 / iterations,
+            jsonSave / 1e6 / iterations,
+            jsonLoad / 1e6 / iterations);
+      }
+    }
+  }
+}
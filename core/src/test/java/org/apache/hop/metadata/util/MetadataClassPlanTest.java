@@ -0,0 +1,86 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.hop.metadata.util;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertSame;
+
+import java.lang.reflect.Field;
+import java.util.ArrayList;
+import java.util.List;
+import org.apache.hop.core.exception.HopException;
+import org.apache.hop.metadata.api.HopMetadataProperty;
+import org.apache.hop.metadata.serializer.xml.MetadataPropertyKeyFunction;
+import org.apache.hop.metadata.serializer.xml.classes.MetaData;
+import org.apache.hop.metadata.util.MetadataClassPlan.Accessor;
+import org.junit.Test;
+
+public class MetadataClassPlanTest {
+
+  private static List<String> names(List<Accessor> accessors) {
+    List<String> names = new ArrayList<>();
+    for (Accessor accessor : accessors) {
+      names.add(accessor.getField().getName());
+    }
+    return names;
+  }
+
+  @Test
+  public void testSameFieldsAsReflectionUtil() {
+    MetadataClassPlan plan = MetadataClassPlan.of(MetaData.class);
+    assertSame(plan, MetadataClassPlan.of(MetaData.class));
+
+    List<String> expected = new ArrayList<>();
+    for (Field field : ReflectionUtil.findAllFields(MetaData.class)) {
+      if (field.getAnnotation(HopMetadataProperty.class) != null) {
+        expected.add(field.getName());
+      }
+    }
+    assertEquals(expected, names(plan.getAccessors()));
+
+    List<String> expectedByKey = new ArrayList<>();
+    for (Field field :
+        ReflectionUtil.findAllFields(MetaData.class, new MetadataPropertyKeyFunction())) {
+      expectedByKey.add(field.getName());
+    }
+    assertEquals(expectedByKey, names(plan.getKeySortedAccessors()));
+  }
+
+  @Test
+  public void testGetAndSetValue() throws Exception {
+    MetaData metaData = new MetaData();
+    for (Accessor accessor : MetadataClassPlan.of(MetaData.class).getAccessors()) {
+      if ("filename".equals(accessor.getField().getName())) {
+        assertFalse(accessor.isBoolean());
+        accessor.setValue(metaData, "file.csv");
+        assertEquals("file.csv", metaData.getFilename());
+        assertEquals("file.csv", accessor.getValue(metaData));
+      }
+    }
+  }
+
+  @Test(expected = HopException.class)
+  public void testWrongValueType() throws Exception {
+    for (Accessor accessor : MetadataClassPlan.of(MetaData.class).getAccessors()) {
+      if ("filename".equals(accessor.getField().getName())) {
+        accessor.setValue(new MetaData(), 42L);
+      }
+    }
+  }
+}
@@ -0,0 +1,562 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.hop.beam.core.coder;
+
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.net.InetAddress;
+import java.nio.charset.StandardCharsets;
+import java.sql.Timestamp;
+import java.util.Arrays;
+import java.util.Date;
+import org.apache.avro.Schema;
+import org.apache.avro.generic.GenericRecord;
+import org.apache.beam.sdk.coders.CoderException;
+import org.apache.beam.sdk.coders.CustomCoder;
+import org.apache.hop.beam.core.HopRow;
+import org.apache.hop.core.row.IRowMeta;
+import org.apache.hop.core.row.IValueMeta;
+import org.apache.hop.core.row.value.ValueMetaAvroRecord;
+
+/**
+ * A coder for rows of which the layout is known when the pipeline is built. The data types come
+ * from the row metadata so they don't need to be written for every value. A row is encoded as:
+ *
+ * <ul>
+ *   <li>a header: a variable length integer with the number of values and a flag which tells us
+ *       whether or not there are values which don't match the layout
+ *   <li>a bitmap with the null values
+ *   <li>only if the flag is set: a bitmap with the values which carry their own data type
+ *   <li>the values which are not null: integers and dates as zig-zag variable length longs, strings
+ *       and binaries as a variable length size followed by the bytes and so on
+ * </ul>
+ *
+ * There is no stream header per row like {@link java.io.ObjectOutputStream} writes. Values which
+ * don't match the data type of the layout (or which go past the end of the layout) are written with
+ * their own data type so the coder never loses data.
+ *
+ * <p>Numbers are written as they are: the sign of a zero, the bits of a NaN and the scale of a big
+ * number are kept. Equal keys could then end up in different groups so this coder isn't
+ * deterministic for layouts with numbers. A coder for the keys of a shuffle is created with {@link
+ * #ofKey(IRowMeta)}: it writes numbers in a canonical form.
+ */
+public class HopRowSchemaCoder extends CustomCoder<HopRow> {
+
+  private static final long serialVersionUID = 1L;
+
+  private final int[] valueTypes;
+
+  private final boolean key;
+
+  /**
+   * @param valueTypes the data types of the values in the rows (see {@link IValueMeta#getType()})
+   */
+  public HopRowSchemaCoder(int[] valueTypes) {
+    this(valueTypes, false);
+  }
+
+  /**
+   * @param valueTypes the data types of the values in the rows (see {@link IValueMeta#getType()})
+   * @param key true if numbers are written in a canonical form so that equal keys are encoded the
+   *     same way
+   */
+  public HopRowSchemaCoder(int[] valueTypes, boolean key) {
+    this.valueTypes = valueTypes.clone();
+    this.key = key;
+  }
+
+  /**
+   * Create a coder for rows with the given layout.
+   *
+   * @param rowMeta the layout of the rows
+   * @return the coder
+   */
+  public static HopRowSchemaCoder of(IRowMeta rowMeta) {
+    return new HopRowSchemaCoder(getValueTypes(rowMeta), false);
+  }
+
+  /**
+   * Create a coder for the keys of a shuffle like a group by or a join. Zeros lose their sign, NaN
+   * values get the same bits and big numbers lose their trailing zeros. This way 1.5 and 1.50 end
+   * up in the same group.
+   *
+   * @param rowMeta the layout of the keys
+   * @return the coder
+   */
+  public static HopRowSchemaCoder ofKey(IRowMeta rowMeta) {
+    return new HopRowSchemaCoder(getValueTypes(rowMeta), true);
+  }
+
+  private static int[] getValueTypes(IRowMeta rowMeta) {
+    int[] valueTypes = new int[rowMeta.size()];
+    for (int i = 0; i < valueTypes.length; i++) {
+      valueTypes[i] = rowMeta.getValueMeta(i).getType();
+    }
+    return valueTypes;
+  }
+
+  @Override
+  public void encode(HopRow hopRow, OutputStream out) throws IOException {
+    Object[] row = hopRow.getRow();
+    if (row == null) {
+      writeVarLong(out, 0L);
+      return;
+    }
+    int length = hopRow.length();
+
+    // See if we need to write data types for some of the values
+    //
+    boolean hasTypedValues = false;
+    for (int i = 0; i < length; i++) {
+      if (row[i] != null && !matchesLayout(i, row[i])) {
+        hasTypedValues = true;
+        break;
+      }
+    }
+    writeVarLong(out, ((length + 1L) << 1) | (hasTypedValues ? 1 : 0));
+
+    // The null values
+    //
+    for (int offset = 0; offset < length; offset += 8) {
+      int bits = 0;
+      for (int i = offset; i < Math.min(length, offset + 8); i++) {
+        if (row[i] == null) {
+          bits |= 1 << (i - offset);
+        }
+      }
+      out.write(bits);
+    }
+
+    // The values which carry their own data type
+    //
+    if (hasTypedValues) {
+      for (int offset = 0; offset < length; offset += 8) {
+        int bits = 0;
+        for (int i = offset; i < Math.min(length, offset + 8); i++) {
+          if (row[i] != null && !matchesLayout(i, row[i])) {
+            bits |= 1 << (i - offset);
+          }
+        }
+        out.write(bits);
+      }
+    }
+
+    // The values themselves
+    //
+    for (int i = 0; i < length; i++) {
+      Object object = row[i];
+      if (object == null) {
+        continue;
+      }
+      if (hasTypedValues && !matchesLayout(i, object)) {
+        int objectType = getObjectType(object);
+        writeVarLong(out, objectType);
+        write(out, objectType, object);
+      } else {
+        write(out, valueTypes[i], object);
+      }
+    }
+  }
+
+  @Override
+  public HopRow decode(InputStream in) throws IOException {
+    long header = readVarLong(in);
+    if (header == 0L) {
+      return new HopRow();
+    }
+    boolean hasTypedValues = (header & 1) != 0;
+    int length = (int) ((header >>> 1) - 1);
+
+    int bitmapSize = (length + 7) >>> 3;
+    byte[] nulls = readBytes(in, bitmapSize);
+    byte[] typed = hasTypedValues ? readBytes(in, bitmapSize) : null;
+
+    Object[] row = new Object[length];
+    for (int i = 0; i < length; i++) {
+      if (isSet(nulls, i)) {
+        continue;
+      }
+      if (typed != null && isSet(typed, i)) {
+        row[i] = read(in, (int) readVarLong(in));
+      } else {
+        row[i] = read(in, valueTypes[i]);
+      }
+    }
+    return new HopRow(row, length);
+  }
+
+  /**
+   * The values of the layout are checked. Values which don't match the layout carry their own data
+   * type and are written the same way as values of that type in the layout.
+   */
+  @Override
+  public void verifyDeterministic() throws NonDeterministicException {
+    for (int valueType : valueTypes) {
+      switch (valueType) {
+        case IValueMeta.TYPE_STRING,
+            IValueMeta.TYPE_INTEGER,
+            IValueMeta.TYPE_BOOLEAN,
+            IValueMeta.TYPE_DATE,
+            IValueMeta.TYPE_TIMESTAMP,
+            IValueMeta.TYPE_BINARY,
+            IValueMeta.TYPE_INET:
+          break;
+        case IValueMeta.TYPE_NUMBER, IValueMeta.TYPE_BIGNUMBER:
+          if (!key) {
+            throw new NonDeterministicException(
+                this,
+                "Numbers are written as they are, the sign of a zero, the bits of a NaN and the"
+                    + " scale of a big number are kept. Use a key coder instead.");
+          }
+          break;
+        case IValueMeta.TYPE_AVRO:
+          throw new NonDeterministicException(
+              this, "The encoding of Avro records isn't guaranteed to be deterministic");
+        default:
+          throw new NonDeterministicException(
+              this, "Data type " + valueType + " isn't supported by this coder");
+      }
+    }
+  }
+
+  /**
+   * See if a value can be written with the data type of the layout.
+   *
+   * @param index the index of the value in the row
+   * @param object the value, not null
+   * @return true if the value matches the data type of the layout at the given index
+   */
+  private boolean matchesLayout(int index, Object object) {
+    if (index >= valueTypes.length) {
+      return false;
+    }
+    switch (valueTypes[index]) {
+      case IValueMeta.TYPE_STRING:
+        return object instanceof String;
+      case IValueMeta.TYPE_INTEGER:
+        return object instanceof Long;
+      case IValueMeta.TYPE_NUMBER:
+        return object instanceof Double;
+      case IValueMeta.TYPE_BIGNUMBER:
+        return object instanceof BigDecimal;
+      case IValueMeta.TYPE_BOOLEAN:
+        return object instanceof Boolean;
+      case IValueMeta.TYPE_DATE:
+        // A timestamp in a date field would lose its nanoseconds
+        return object instanceof Date && !(object instanceof Timestamp);
+      case IValueMeta.TYPE_TIMESTAMP:
+        return object instanceof Timestamp;
+      case IValueMeta.TYPE_BINARY:
+        return object instanceof byte[];
+      case IValueMeta.TYPE_INET:
+        return object instanceof InetAddress;
+      case IValueMeta.TYPE_AVRO:
+        return object instanceof GenericRecord;
+      default:
+        return false;
+    }
+  }
+
+  private void write(OutputStream out, int objectType, Object object) throws IOException {
+    switch (objectType) {
+      case IValueMeta.TYPE_STRING:
+        writeBytes(out, ((String) object).getBytes(StandardCharsets.UTF_8));
+        break;
+      case IValueMeta.TYPE_INTEGER:
+        writeZigZag(out, (Long) object);
+        break;
+      case IValueMeta.TYPE_NUMBER:
+        {
+          double number = (Double) object;
+          if (key) {
+            // Drop the sign of a zero, doubleToLongBits() gives all NaN values the same bits
+            //
+            writeLong(out, Double.doubleToLongBits(number == 0.0 ? 0.0 : number));
+          } else {
+            writeLong(out, Double.doubleToRawLongBits(number));
+          }
+        }
+        break;
+      case IValueMeta.TYPE_BIGNUMBER:
+        {
+          BigDecimal bigDecimal = (BigDecimal) object;
+          if (key) {
+            bigDecimal = canonical(bigDecimal);
+          }
+          writeZigZag(out, bigDecimal.scale());
+          writeBytes(out, bigDecimal.unscaledValue().toByteArray());
+        }
+        break;
+      case IValueMeta.TYPE_BOOLEAN:
+        out.write(((Boolean) object) ? 1 : 0);
+        break;
+      case IValueMeta.TYPE_DATE:
+        writeZigZag(out, ((Date) object).getTime());
+        break;
+      case IValueMeta.TYPE_TIMESTAMP:
+        {
+          Timestamp timestamp = (Timestamp) object;
+          writeZigZag(out, timestamp.getTime());
+          writeVarLong(out, timestamp.getNanos());
+        }
+        break;
+      case IValueMeta.TYPE_BINARY:
+        writeBytes(out, (byte[]) object);
+        break;
+      case IValueMeta.TYPE_INET:
+        {
+          // Only keep the host name if it was already known: don't do a reverse lookup
+          //
+          InetAddress inetAddress = (InetAddress) object;
+          String string = inetAddress.toString();
+          String hostname = string.substring(0, string.indexOf('/'));
+          writeBytes(out, hostname.getBytes(StandardCharsets.UTF_8));
+          writeBytes(out, inetAddress.getAddress());
+        }
+        break;
+      case IValueMeta.TYPE_AVRO:
+        {
+          GenericRecord genericRecord = (GenericRecord) object;
+          try {
+            writeBytes(
+                out, genericRecord.getSchema().toString(false).getBytes(StandardCharsets.UTF_8));
+            ValueMetaAvroRecord valueMeta =
+                new ValueMetaAvroRecord("write", genericRecord.getSchema());
+            DataOutputStream dataOutputStream = new DataOutputStream(out);
+            valueMeta.writeData(dataOutputStream, genericRecord);
+            dataOutputStream.flush();
+          } catch (Exception e) {
+            throw new IOException("Error serializing Avro generic schema and record", e);
+          }
+        }
+        break;
+      default:
+        throw new CoderException(
+            "Data type not supported yet: " + objectType + " - " + object.toString());
+    }
+  }
+
+  /**
+   * @return the big number without trailing zeros behind the decimal point: 1.50 becomes 1.5, 100
+   *     stays 100
+   */
+  private static BigDecimal canonical(BigDecimal bigDecimal) {
+    BigDecimal stripped = bigDecimal.stripTrailingZeros();
+    return stripped.scale() < 0 ? stripped.setScale(0) : stripped;
+  }
+
+  private static Object read(InputStream in, int objectType) throws IOException {
+    switch (objectType) {
+      case IValueMeta.TYPE_STRING:
+        return new String(readBytes(in), StandardCharsets.UTF_8);
+      case IValueMeta.TYPE_INTEGER:
+        return readZigZag(in);
+      case IValueMeta.TYPE_NUMBER:
+        return Double.longBitsToDouble(readLong(in));
+      case IValueMeta.TYPE_BIGNUMBER:
+        {
+          int scale = (int) readZigZag(in);
+          return new BigDecimal(new BigInteger(readBytes(in)), scale);
+        }
+      case IValueMeta.TYPE_BOOLEAN:
+        return readByte(in) != 0;
+      case IValueMeta.TYPE_DATE:
+        return new Date(readZigZag(in));
+      case IValueMeta.TYPE_TIMESTAMP:
+        {
+          Timestamp timestamp = new Timestamp(readZigZag(in));
+          timestamp.setNanos((int) readVarLong(in));
+          return timestamp;
+        }
+      case IValueMeta.TYPE_BINARY:
+        return readBytes(in);
+      case IValueMeta.TYPE_INET:
+        {
+          String hostname = new String(readBytes(in), StandardCharsets.UTF_8);
+          byte[] address = readBytes(in);
+          return InetAddress.getByAddress(hostname.isEmpty() ? null : hostname, address);
+        }
+      case IValueMeta.TYPE_AVRO:
+        {
+          try {
+            String schemaJson = new String(readBytes(in), StandardCharsets.UTF_8);
+            Schema schema = new Schema.Parser().parse(schemaJson);
+            ValueMetaAvroRecord valueMeta = new ValueMetaAvroRecord("read", schema);
+            return valueMeta.readData(new DataInputStream(in));
+          } catch (Exception e) {
+            throw new IOException("Error de-serializing Avro schema and generic record", e);
+          }
+        }
+      default:
+        throw new CoderException("Data type not supported yet: " + objectType);
+    }
+  }
+
+  private static int getObjectType(Object object) throws CoderException {
+    if (object instanceof String) {
+      return IValueMeta.TYPE_STRING;
+    }
+    if (object instanceof Long) {
+      return IValueMeta.TYPE_INTEGER;
+    }
+    if (object instanceof Timestamp) {
+      return IValueMeta.TYPE_TIMESTAMP;
+    }
+    if (object instanceof Date) {
+      return IValueMeta.TYPE_DATE;
+    }
+    if (object instanceof Boolean) {
+      return IValueMeta.TYPE_BOOLEAN;
+    }
+    if (object instanceof Double) {
+      return IValueMeta.TYPE_NUMBER;
+    }
+    if (object instanceof BigDecimal) {
+      return IValueMeta.TYPE_BIGNUMBER;
+    }
+    if (object instanceof byte[]) {
+      return IValueMeta.TYPE_BINARY;
+    }
+    if (object instanceof InetAddress) {
+      return IValueMeta.TYPE_INET;
+    }
+    if (object instanceof GenericRecord) {
+      return IValueMeta.TYPE_AVRO;
+    }
+    throw new CoderException(
+        "Data type for object class " + object.getClass().getName() + " isn't supported yet");
+  }
+
+  private static boolean isSet(byte[] bitmap, int index) {
+    return (bitmap[index >>> 3] & (1 << (index & 7))) != 0;
+  }
+
+  private static void writeZigZag(OutputStream out, long value) throws IOException {
+    writeVarLong(out, (value << 1) ^ (value >> 63));
+  }
+
+  private static long readZigZag(InputStream in) throws IOException {
+    long value = readVarLong(in);
+    return (value >>> 1) ^ -(value & 1);
+  }
+
+  static void writeVarLong(OutputStream out, long value) throws IOException {
+    while ((value & ~0x7FL) != 0) {
+      out.write((int) ((value & 0x7F) | 0x80));
+      value >>>= 7;
+    }
+    out.write((int) value);
+  }
+
+  static long readVarLong(InputStream in) throws IOException {
+    long value = 0;
+    for (int shift = 0; shift < 64; shift += 7) {
+      int b = readByte(in);
+      value |= (long) (b & 0x7F) << shift;
+      if ((b & 0x80) == 0) {
+        return value;
+      }
+    }
+    throw new CoderException("Malformed variable length integer");
+  }
+
+  private static void writeLong(OutputStream out, long value) throws IOException {
+    for (int shift = 56; shift >= 0; shift -= 8) {
+      out.write((int) (value >>> shift));
+    }
+  }
+
+  private static long readLong(InputStream in) throws IOException {
+    long value = 0;
+    for (int i = 0; i < 8; i++) {
+      value = (value << 8) | readByte(in);
+    }
+    return value;
+  }
+
+  private static void writeBytes(OutputStream out, byte[] bytes) throws IOException {
+    writeVarLong(out, bytes.length);
+    out.write(bytes);
+  }
+
+  private static byte[] readBytes(InputStream in) throws IOException {
+    return readBytes(in, (int) readVarLong(in));
+  }
+
+  private static byte[] readBytes(InputStream in, int length) throws IOException {
+    byte[] bytes = new byte[length];
+    int offset = 0;
+    while (offset < length) {
+      int read = in.read(bytes, offset, length - offset);
+      if (read < 0) {
+        throw new EOFException();
+      }
+      offset += read;
+    }
+    return bytes;
+  }
+
+  private static int readByte(InputStream in) throws IOException {
+    int b = in.read();
+    if (b < 0) {
+      throw new EOFException();
+    }
+    return b;
+  }
+
+  @Override
+  public boolean equals(Object o) {
+    if (this == o) {
+      return true;
+    }
+    if (o == null || getClass() != o.getClass()) {
+      return false;
+    }
+    HopRowSchemaCoder other = (HopRowSchemaCoder) o;
+    return key == other.key && Arrays.equals(valueTypes, other.valueTypes);
+  }
+
+  @Override
+  public int hashCode() {
+    return 31 * Arrays.hashCode(valueTypes) + Boolean.hashCode(key);
+  }
+
+  /**
+   * Gets valueTypes
+   *
+   * @return value of valueTypes
+   */
+  public int[] getValueTypes() {
+    return valueTypes.clone();
+  }
+
+  /**
+   * Gets key
+   *
+   * @return true if numbers are written in a canonical form
+   */
+  public boolean isKey() {
+    return key;
+  }
+}
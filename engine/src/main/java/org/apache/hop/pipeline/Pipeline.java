@@ -54,6 +54,7 @@ import org.apache.hop.core.IRowSet;
 import org.apache.hop.core.QueueRowSet;
 import org.apache.hop.core.Result;
 import org.apache.hop.core.ResultFile;
+import org.apache.hop.core.RingBufferRowSet;
 import org.apache.hop.core.RowMetaAndData;
 import org.apache.hop.core.database.Database;
 import org.apache.hop.core.exception.HopException;
@@ -82,6 +83,7 @@ import org.apache.hop.core.row.IRowMeta;
 import org.apache.hop.core.row.RowBuffer;
 import org.apache.hop.core.row.value.ValueMetaBase;
 import org.apache.hop.core.util.EnvUtil;
+import org.apache.hop.core.util.ExecutorUtil;
 import org.apache.hop.core.util.Utils;
 import org.apache.hop.core.variables.IVariables;
 import org.apache.hop.core.variables.Variables;
@@ -359,6 +361,9 @@ public abstract class Pipeline
 
   protected int rowSetSize;
 
+  /** Whether the transform copies run in virtual threads. */
+  protected boolean virtualTransformThreads;
+
   /** Whether the feedback is shown. */
   protected boolean feedbackShown;
 
@@ -702,8 +707,16 @@ public abstract class Pipeline
                 Boolean batchingRowSet =
                     ValueMetaBase.convertStringToBoolean(
                         System.getProperty(Const.HOP_BATCHING_ROWSET));
+                Boolean ringBufferRowSet =
+                    ValueMetaBase.convertStringToBoolean(
+                        System.getProperty(Const.HOP_RING_BUFFER_ROWSET));
                 if (batchingRowSet != null && batchingRowSet.booleanValue()) {
                   rowSet = new BlockingBatchingRowSet(rowSetSize);
+                } else if (dispatchType == TYPE_DISP_1_1
+                    && (ringBufferRowSet == null || ringBufferRowSet.booleanValue())) {
+                  // A single writer and a single reader: no need to lock on every row
+                  //
+                  rowSet = new RingBufferRowSet(rowSetSize);
                 } else {
                   rowSet = new BlockingRowSet(rowSetSize);
                 }
@@ -1257,8 +1270,9 @@ public abstract class Pipeline
         //
         for (final TransformMetaDataCombi combi : transforms) {
           RunThread runThread = new RunThread(combi);
-          Thread thread = new Thread(runThread);
-          thread.setName(getName() + " - " + combi.transformName);
+          Thread thread =
+              ExecutorUtil.newThread(
+                  runThread, getName() + " - " + combi.transformName, virtualTransformThreads);
           ExtensionPointHandler.callExtensionPoint(
               log, this, HopExtensionPoint.TransformBeforeStart.id, combi);
           // Call an extension point at the end of the transform
@@ -1973,6 +1987,25 @@ public abstract class Pipeline
     return list;
   }
 
+  /**
+   * Run the transform copies in virtual threads instead of one platform thread each. This is
+   * ignored if the Java runtime doesn't support virtual threads.
+   *
+   * @param virtualTransformThreads true to run the transforms in virtual threads
+   */
+  public void setVirtualTransformThreads(boolean virtualTransformThreads) {
+    this.virtualTransformThreads = virtualTransformThreads;
+  }
+
+  /**
+   * Checks whether the transform copies run in virtual threads.
+   *
+   * @return true if the transforms run in virtual threads
+   */
+  public boolean isVirtualTransformThreads() {
+    return virtualTransformThreads;
+  }
+
   /**
    * Turn on safe mode during running: the pipeline will run slower but with more checking enabled.
    *
@@ -432,6 +432,16 @@ public class SingleThreadedPipelineExecutor {
                 String.valueOf(lu),
                 String.valueOf(e + lj)));
       }
+    }
+    resetCounters();
+  }
+
+  /**
+   * Reset the line counters of all the transforms so that the next iteration (batch) starts
+   * counting from zero. Nothing is logged.
+   */
+  public void resetCounters() {
+    for (TransformMetaDataCombi combi : transforms) {
       ((BaseTransform<?, ?>) combi.transform).setLinesInput(0);
       ((BaseTransform<?, ?>) combi.transform).setLinesOutput(0);
       ((BaseTransform<?, ?>) combi.transform).setLinesWritten(0);
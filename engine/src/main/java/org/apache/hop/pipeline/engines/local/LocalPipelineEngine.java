@@ -35,6 +35,7 @@ import org.apache.hop.core.exception.HopException;
 import org.apache.hop.core.logging.ILoggingObject;
 import org.apache.hop.core.parameters.INamedParameters;
 import org.apache.hop.core.row.IRowMeta;
+import org.apache.hop.core.util.ExecutorUtil;
 import org.apache.hop.core.variables.IVariables;
 import org.apache.hop.execution.ExecutionBuilder;
 import org.apache.hop.execution.ExecutionDataBuilder;
@@ -130,6 +131,18 @@ public class LocalPipelineEngine extends Pipeline implements IPipelineEngine<Pip
     setFeedbackShown(config.isFeedbackShown());
     setFeedbackSize(Const.toInt(resolve(config.getFeedbackSize()), Const.ROWS_UPDATE));
 
+    boolean virtualThreads =
+        LocalPipelineRunConfiguration.TransformThreadType.Virtual.name()
+            .equalsIgnoreCase(resolve(config.getTransformThreadType()));
+    if (virtualThreads && !ExecutorUtil.isVirtualThreadSupported()) {
+      log.logBasic(
+          "Virtual transform threads need Java 21 or later, this is Java "
+              + Runtime.version().feature()
+              + ": the transforms run in regular threads");
+      virtualThreads = false;
+    }
+    setVirtualTransformThreads(virtualThreads);
+
     // See if we need to enable transactions...
     //
     IExtensionData parentExtensionData = getParentPipeline();
@@ -143,6 +143,19 @@ public class LocalPipelineRunConfiguration extends EmptyPipelineRunConfiguration
   @HopMetadataProperty(key = "transactional")
   protected boolean transactional;
 
+  @GuiWidgetElement(
+      id = "transformThreadType",
+      order = "110",
+      parentId = PipelineRunConfiguration.GUI_PLUGIN_ELEMENT_PARENT_ID,
+      type = GuiElementType.COMBO,
+      label =
+          "i18n:org.apache.hop.ui.pipeline.config:PipelineRunConfigurationDialog.TransformThreadType.Label",
+      toolTip =
+          "i18n:org.apache.hop.ui.pipeline.config:PipelineRunConfigurationDialog.TransformThreadType.ToolTip",
+      comboValuesMethod = "getTransformThreadTypes")
+  @HopMetadataProperty(key = "transform_thread_type")
+  protected String transformThreadType;
+
   @SuppressWarnings("java:S115")
   public enum SampleType {
     None,
@@ -151,6 +164,19 @@ public class LocalPipelineRunConfiguration extends EmptyPipelineRunConfiguration
     Random;
   }
 
+  /** The kind of thread the transform copies run in */
+  @SuppressWarnings("java:S115")
+  public enum TransformThreadType {
+    /** One regular (platform) thread per transform copy */
+    Platform,
+    /**
+     * One virtual thread per transform copy. The virtual threads share a pool of carrier threads
+     * sized to the number of cores. This requires Java 21 or later: on Java 17 this is the same as
+     * {@link #Platform}.
+     */
+    Virtual;
+  }
+
   public LocalPipelineRunConfiguration() {
     super();
     this.rowSetSize = Integer.toString(Const.ROWS_IN_ROWSET);
@@ -160,6 +186,7 @@ public class LocalPipelineRunConfiguration extends EmptyPipelineRunConfiguration
     this.sampleTypeInGui = SampleType.Last.name();
     this.sampleSize = "100";
     this.transactional = false;
+    this.transformThreadType = TransformThreadType.Platform.name();
   }
 
   public LocalPipelineRunConfiguration(LocalPipelineRunConfiguration config) {
@@ -174,6 +201,7 @@ public class LocalPipelineRunConfiguration extends EmptyPipelineRunConfiguration
     this.sampleTypeInGui = config.sampleTypeInGui;
     this.sampleSize = config.sampleSize;
     this.transactional = config.transactional;
+    this.transformThreadType = config.transformThreadType;
   }
 
   @Override
@@ -189,6 +217,15 @@ public class LocalPipelineRunConfiguration extends EmptyPipelineRunConfiguration
     return list;
   }
 
+  public List<String> getTransformThreadTypes(
+      ILogChannel log, IHopMetadataProvider metadataProvider) {
+    List<String> list = new ArrayList<>();
+    for (TransformThreadType type : TransformThreadType.values()) {
+      list.add(type.name());
+    }
+    return list;
+  }
+
   /**
    * Gets rowSetSize
    *
@@ -348,4 +385,20 @@ public class LocalPipelineRunConfiguration extends EmptyPipelineRunConfiguration
   public void setTransactional(boolean transactional) {
     this.transactional = transactional;
   }
+
+  /**
+   * Gets transformThreadType
+   *
+   * @return value of transformThreadType
+   */
+  public String getTransformThreadType() {
+    return transformThreadType;
+  }
+
+  /**
+   * @param transformThreadType The transformThreadType to set
+   */
+  public void setTransformThreadType(String transformThreadType) {
+    this.transformThreadType = transformThreadType;
+  }
 }
@@ -51,6 +51,7 @@ import org.apache.hop.core.logging.ILogChannel;
 import org.apache.hop.core.logging.ILoggingObject;
 import org.apache.hop.core.logging.LogLevel;
 import org.apache.hop.core.logging.LoggingObjectType;
+import org.apache.hop.core.row.CopyOnWriteRowMeta;
 import org.apache.hop.core.row.IRowMeta;
 import org.apache.hop.core.row.IValueMeta;
 import org.apache.hop.core.row.RowDataUtil;
@@ -106,6 +107,9 @@ import org.apache.hop.pipeline.engines.local.LocalPipelineRunConfiguration;
  *       input row, the transform does the necessary row processing and calls putRow() to pass the
  *       row on to the next transform. If there are no more rows, the transform must call
  *       setOutputDone() and return false.
+ *       <p>Simple transforms can also work on batches of rows: processRow() then calls
+ *       processRowBatch() which reads rows with getRows() and hands them to processRows(). The
+ *       result is passed on with putRows().
  *       <p>Formally the method must conform to the following rules:
  *       <ul>
  *         <li>If the transform is done processing all rows, the method must call setOutputDone()
@@ -285,8 +289,14 @@ public class BaseTransform<Meta extends ITransformMeta, Data extends ITransformD
 
   private static final int NR_OF_ROWS_IN_BLOCK = 500;
 
+  /** The number of rows read in one go by {@link #processRowBatch()} */
+  public static final int ROW_BATCH_SIZE = 100;
+
   private int blockPointer;
 
+  /** The rows read by {@link #processRowBatch()} */
+  private Object[][] rowBatch;
+
   private List<ITransformFinishedListener> transformFinishedListeners;
   private List<ITransformStartedListener> transformStartedListeners;
 
@@ -1037,6 +1047,96 @@ public class BaseTransform<Meta extends ITransformMeta, Data extends ITransformD
     }
   }
 
+  /**
+   * putRows is used to send a batch of rows to the next transform(s). It behaves like calling
+   * {@link #putRow(IRowMeta, Object[])} for every row in the batch. When the rows all go to the
+   * same output rowset they are handed over in one go: the locking, the row listeners and the
+   * counters are then handled once per batch instead of once per row.
+   *
+   * @param rowMeta The row metadata of the rows
+   * @param rows The rows to put to the destination rowset(s), starting at index 0
+   * @param count The number of rows in the batch
+   * @throws HopTransformException In case something unexpected goes wrong
+   */
+  public void putRows(IRowMeta rowMeta, Object[][] rows, int count) throws HopTransformException {
+    if (count <= 0) {
+      return;
+    }
+    if (rowMeta != null && !allowEmptyFieldNamesAndTypes) {
+      // check row meta for empty field name (BACKLOG-18004)
+      for (IValueMeta vmi : rowMeta.getValueMetaList()) {
+        if (StringUtils.isBlank(vmi.getName())) {
+          throw new HopTransformException(
+              "Please set a field name for all field(s) that have 'null'.");
+        }
+        if (vmi.getType() <= 0) {
+          throw new HopTransformException(
+              "Please set a value for the missing field(s) type for field: '"
+                  + vmi.getName()
+                  + "'");
+        }
+      }
+    }
+    getRowHandler().putRows(rowMeta, rows, count);
+
+    // This transform is not reading data, only writing
+    //
+    if (firstRowReadDate == null) {
+      firstRowReadDate = new Date();
+    }
+  }
+
+  private void handlePutRows(IRowMeta rowMeta, Object[][] rows, int count)
+      throws HopTransformException {
+    // Pausing, stopping, partitioning, copying or distributing rows all need the row by row logic.
+    // This includes a plugin defined row distribution, even with a single output rowset.
+    //
+    if (!checkPipelineRunning
+        || paused.get()
+        || stopped.get()
+        || terminator
+        || repartitioning != TransformPartitioningMeta.PARTITIONING_METHOD_NONE
+        || (distributed && rowDistribution != null)
+        || outputRowSets.size() > 1) {
+      for (int i = 0; i < count; i++) {
+        handlePutRow(rowMeta, rows[i]);
+      }
+      return;
+    }
+
+    // call all row listeners, in the same order as putRow() does...
+    //
+    if (!rowListeners.isEmpty()) {
+      for (int i = 0; i < count; i++) {
+        for (IRowListener listener : rowListeners) {
+          listener.rowWrittenEvent(rowMeta, rows[i]);
+        }
+      }
+    }
+
+    outputRowSetsLock.readLock().lock();
+    try {
+      if (outputRowSets.size() > 1) {
+        // The output rowsets changed in the meantime
+        //
+        for (int i = 0; i < count; i++) {
+          noPartitioning(rowMeta, rows[i]);
+        }
+        return;
+      }
+      if (!outputRowSets.isEmpty()) {
+        putRowsToRowSet(outputRowSets.get(0), rowMeta, rows, count);
+      }
+      // Also update the nr of lines written when there are no more output rowsets
+      //
+      synchronized (statusCountersLock) {
+        linesWritten += count;
+      }
+    } finally {
+      outputRowSetsLock.readLock().unlock();
+    }
+  }
+
   private void handlePutRow(IRowMeta rowMeta, Object[] row) throws HopTransformException {
     // Are we pausing the transform? If so, stall forever...
     //
@@ -1301,6 +1401,26 @@ public class BaseTransform<Meta extends ITransformMeta, Data extends ITransformD
     }
   }
 
+  private void putRowsToRowSet(IRowSet rs, IRowMeta rowMeta, Object[][] rows, int count) {
+    IRowMeta toBeSent;
+    IRowMeta metaFromRs = rs.getRowMeta();
+    if (metaFromRs == null) {
+      // IRowSet is not initialised so far
+      toBeSent = rowMeta.clone();
+    } else {
+      // use the existing
+      toBeSent = metaFromRs;
+    }
+
+    int offset = 0;
+    while (offset < count) {
+      offset += rs.putRows(toBeSent, rows, offset, count - offset);
+      if (offset < count && isStopped() && !safeStopped.get()) {
+        return;
+      }
+    }
+  }
+
   /**
    * putRowTo is used to put a row in a certain specific IRowSet.
    *
@@ -1550,6 +1670,78 @@ public class BaseTransform<Meta extends ITransformMeta, Data extends ITransformD
     return row;
   }
 
+  /**
+   * Read a batch of rows from the input rowset(s). Like {@link #getRow()} this waits until a row is
+   * available. After that, all the rows which are waiting in the same input rowset are added to the
+   * batch, up to the given maximum. The locking, the row listeners and the counters are handled
+   * once per batch.
+   *
+   * <p>Only a transform running in its own thread reads more than one row at a time. The {@link
+   * org.apache.hop.pipeline.SingleThreadedPipelineExecutor} calls processRow() once for every row
+   * waiting on input, so there a batch is always a single row and reading never waits for rows
+   * which are not there yet.
+   *
+   * @param batch The array to store the rows in, starting at index 0
+   * @param max The maximum number of rows to read
+   * @return The number of rows read or 0 if there is no more input
+   * @throws HopException In case something goes wrong reading the rows
+   */
+  public int getRows(Object[][] batch, int max) throws HopException {
+    int count = getRowHandler().getRows(batch, max);
+
+    if (firstRowReadDate == null) {
+      firstRowReadDate = new Date();
+    }
+
+    return count;
+  }
+
+  private int handleGetRows(Object[][] batch, int max) throws HopException {
+    if (max > 1 && isRunning() && checkPipelineRunning && !paused.get() && !stopped.get()) {
+      int count = 0;
+      inputRowSetsLock.readLock().lock();
+      try {
+        // Stay within the block of rows we read from the current input stream (see getRow())
+        //
+        if (!inputRowSets.isEmpty() && blockPointer < NR_OF_ROWS_IN_BLOCK) {
+          IRowSet inputRowSet = inputRowSets.get(currentInputRowSetNr);
+          count = inputRowSet.getRows(batch, Math.min(max, NR_OF_ROWS_IN_BLOCK - blockPointer));
+          if (count > 0) {
+            obtainInputRowMeta(batch[0], inputRowSet);
+            blockPointer += count;
+          }
+        }
+      } finally {
+        inputRowSetsLock.readLock().unlock();
+      }
+
+      if (count > 0) {
+        synchronized (statusCountersLock) {
+          linesRead += count;
+        }
+        if (pipeline.isSafeModeEnabled()) {
+          pipelineMeta.checkRowMixingStatically(this, transformMeta, null);
+        }
+        for (IRowListener listener : rowListeners) {
+          for (int i = 0; i < count; i++) {
+            listener.rowReadEvent(inputRowMeta, batch[i]);
+          }
+        }
+        verifyRejectionRates();
+        return count;
+      }
+    }
+
+    // Nothing is waiting: wait for the next row, switch input streams and so on like getRow()
+    //
+    Object[] row = getRow();
+    if (row == null) {
+      return 0;
+    }
+    batch[0] = row;
+    return 1;
+  }
+
   private Object[] handleGetRow() throws HopException {
 
     // Are we pausing the transform? If so, stall forever...
@@ -1751,9 +1943,13 @@ public class BaseTransform<Meta extends ITransformMeta, Data extends ITransformD
 
     // Set the row metadata on the first occurrence.
     // If prevTransforms.length > 1, inputRowMeta can be changed as well.
+    // With a single input the row metadata doesn't change anymore so we hand out a version which
+    // doesn't need any locking to read from.
     //
-    if (inputRowMeta == null || prevTransforms.length > 1) {
+    if (prevTransforms.length > 1) {
       inputRowMeta = inputRowSet.getRowMeta();
+    } else if (inputRowMeta == null) {
+      inputRowMeta = CopyOnWriteRowMeta.of(inputRowSet.getRowMeta());
     }
 
     // Extra sanity check
@@ -3526,6 +3722,47 @@ public class BaseTransform<Meta extends ITransformMeta, Data extends ITransformD
     return false;
   }
 
+  /**
+   * Batch-aware alternative for the body of {@link #processRow()}. It reads up to {@link
+   * #ROW_BATCH_SIZE} rows with {@link #getRows(Object[][], int)} and hands them to {@link
+   * #processRows(Object[][], int)}. When there is no more input it calls {@link #setOutputDone()}
+   * and returns false. Transforms opt in by calling this method from processRow(), typically after
+   * handling the first row.
+   *
+   * @return false if the transform is done processing rows
+   * @throws HopException In case something goes wrong
+   */
+  protected boolean processRowBatch() throws HopException {
+    if (rowBatch == null) {
+      rowBatch = new Object[ROW_BATCH_SIZE][];
+    }
+    int count = getRows(rowBatch, rowBatch.length);
+    if (count == 0) {
+      setOutputDone();
+      return false;
+    }
+    try {
+      return processRows(rowBatch, count);
+    } finally {
+      Arrays.fill(rowBatch, 0, count, null);
+    }
+  }
+
+  /**
+   * Process a batch of rows read by {@link #processRowBatch()}. The rows in the batch can be
+   * replaced or reordered, for example to pass the result on with {@link #putRows(IRowMeta,
+   * Object[][], int)}.
+   *
+   * @param rows The rows, starting at index 0
+   * @param count The number of rows in the batch
+   * @return false if the transform should stop processing rows, like processRow()
+   * @throws HopException In case something goes wrong
+   */
+  protected boolean processRows(Object[][] rows, int count) throws HopException {
+    throw new HopException(
+        "Transform " + getTransformName() + " doesn't support processing rows in batches");
+  }
+
   /*
    * (non-Javadoc)
    *
@@ -3858,11 +4095,21 @@ public class BaseTransform<Meta extends ITransformMeta, Data extends ITransformD
       return handleGetRow();
     }
 
+    @Override
+    public int getRows(Object[][] batch, int max) throws HopException {
+      return handleGetRows(batch, max);
+    }
+
     @Override
     public void putRow(IRowMeta rowMeta, Object[] row) throws HopTransformException {
       handlePutRow(rowMeta, row);
     }
 
+    @Override
+    public void putRows(IRowMeta rowMeta, Object[][] rows, int count) throws HopTransformException {
+      handlePutRows(rowMeta, rows, count);
+    }
+
     @Override
     public void putError(
         IRowMeta rowMeta,
@@ -38,6 +38,35 @@ public interface IRowHandler {
 
   void putRow(IRowMeta rowMeta, Object[] row) throws HopTransformException;
 
+  /**
+   * Get a batch of rows. By default this gets a single row with {@link #getRow()}.
+   *
+   * @param batch The array to store the rows in, starting at index 0
+   * @param max The maximum number of rows to get
+   * @return The number of rows stored in the batch or 0 if there is no more input
+   */
+  default int getRows(Object[][] batch, int max) throws HopException {
+    Object[] row = getRow();
+    if (row == null) {
+      return 0;
+    }
+    batch[0] = row;
+    return 1;
+  }
+
+  /**
+   * Put a batch of rows. By default every row is passed to {@link #putRow(IRowMeta, Object[])}.
+   *
+   * @param rowMeta The row metadata of the rows
+   * @param rows The rows, starting at index 0
+   * @param count The number of rows in the batch
+   */
+  default void putRows(IRowMeta rowMeta, Object[][] rows, int count) throws HopTransformException {
+    for (int i = 0; i < count; i++) {
+      putRow(rowMeta, rows[i]);
+    }
+  }
+
   void putError(
       IRowMeta rowMeta,
       Object[] row,
@@ -17,6 +17,7 @@
 
 package org.apache.hop.pipeline.transform;
 
+import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertNotNull;
 import static org.junit.Assert.assertNotSame;
 import static org.junit.Assert.assertNull;
@@ -32,6 +33,7 @@ import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
+import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.List;
 import java.util.Map;
@@ -276,6 +278,181 @@ public class BaseTransformTest {
     verify(rowHandler, times(1)).putRow(iRowMeta, objects);
   }
 
+  private BaseTransform<ITransformMeta, ITransformData> createPutRowsTransform(
+      IRowSet... outputRowSets) {
+    when(mockHelper.pipeline.isRunning()).thenReturn(true);
+    BaseTransform<ITransformMeta, ITransformData> baseTransform =
+        new BaseTransform(
+            mockHelper.transformMeta,
+            mockHelper.iTransformMeta,
+            mockHelper.iTransformData,
+            0,
+            mockHelper.pipelineMeta,
+            mockHelper.pipeline);
+    baseTransform.setStopped(false);
+    baseTransform.setRepartitioning(TransformPartitioningMeta.PARTITIONING_METHOD_NONE);
+    baseTransform.setOutputRowSets(new ArrayList<>(Arrays.asList(outputRowSets)));
+    return baseTransform;
+  }
+
+  private static IRowMeta createPutRowsRowMeta() {
+    IRowMeta rowMeta = new RowMeta();
+    rowMeta.addValueMeta(new ValueMetaInteger("id"));
+    return rowMeta;
+  }
+
+  private static Object[][] createPutRowsBatch(long from, int count) {
+    Object[][] rows = new Object[count][];
+    for (int i = 0; i < count; i++) {
+      rows[i] = new Object[] {from + i};
+    }
+    return rows;
+  }
+
+  @Test
+  public void putRowsWithOneOutputRowSet() throws HopException {
+    IRowSet rowSet = new QueueRowSet();
+    BaseTransform<ITransformMeta, ITransformData> baseTransform = createPutRowsTransform(rowSet);
+    IRowMeta rowMeta = createPutRowsRowMeta();
+
+    // The first batch checks if the pipeline is running row by row, the next one is put at once
+    //
+    baseTransform.putRows(rowMeta, createPutRowsBatch(0, 5), 5);
+    baseTransform.putRows(rowMeta, createPutRowsBatch(5, 5), 5);
+
+    for (long id = 0; id < 10; id++) {
+      assertEquals(id, rowSet.getRowImmediate()[0]);
+    }
+    assertNull(rowSet.getRowImmediate());
+    assertEquals(10, baseTransform.getLinesWritten());
+  }
+
+  @Test
+  public void putRowsWithSeveralOutputRowSets() throws HopException {
+    IRowSet rowSet1 = new QueueRowSet();
+    IRowSet rowSet2 = new QueueRowSet();
+    BaseTransform<ITransformMeta, ITransformData> baseTransform =
+        createPutRowsTransform(rowSet1, rowSet2);
+    IRowMeta rowMeta = createPutRowsRowMeta();
+
+    // Round robin distribution
+    //
+    baseTransform.setDistributed(true);
+    baseTransform.putRows(rowMeta, createPutRowsBatch(0, 4), 4);
+    baseTransform.putRows(rowMeta, createPutRowsBatch(4, 4), 4);
+    for (long id = 0; id < 8; id += 2) {
+      assertEquals(id, rowSet1.getRowImmediate()[0]);
+      assertEquals(id + 1, rowSet2.getRowImmediate()[0]);
+    }
+    assertNull(rowSet1.getRowImmediate());
+    assertNull(rowSet2.getRowImmediate());
+    assertEquals(8, baseTransform.getLinesWritten());
+
+    // Copy to all output rowsets
+    //
+    baseTransform.setDistributed(false);
+    baseTransform.putRows(rowMeta, createPutRowsBatch(8, 4), 4);
+    for (long id = 8; id < 12; id++) {
+      assertEquals(id, rowSet1.getRowImmediate()[0]);
+      assertEquals(id, rowSet2.getRowImmediate()[0]);
+    }
+    assertEquals(16, baseTransform.getLinesWritten());
+  }
+
+  @Test
+  public void putRowsWithRowDistribution() throws HopException {
+    IRowDistribution rowDistribution = mock(IRowDistribution.class);
+    when(mockHelper.transformMeta.getRowDistribution()).thenReturn(rowDistribution);
+    IRowSet rowSet = new QueueRowSet();
+    BaseTransform<ITransformMeta, ITransformData> baseTransform = createPutRowsTransform(rowSet);
+    baseTransform.setDistributed(true);
+    IRowMeta rowMeta = createPutRowsRowMeta();
+
+    // Every row goes through the row distribution, even with a single output rowset
+    //
+    Object[][] rows = createPutRowsBatch(3, 3);
+    baseTransform.putRows(rowMeta, createPutRowsBatch(0, 3), 3);
+    baseTransform.putRows(rowMeta, rows, 3);
+
+    verify(rowDistribution, times(6))
+        .distributeRow(any(IRowMeta.class), any(Object[].class), eq(baseTransform));
+    verify(rowDistribution).distributeRow(rowMeta, rows[2], baseTransform);
+    assertEquals(0, rowSet.size());
+    assertEquals(6, baseTransform.getLinesWritten());
+  }
+
+  @Test
+  public void putRowsWithRowListeners() throws HopException {
+    IRowSet rowSet = new QueueRowSet();
+    BaseTransform<ITransformMeta, ITransformData> baseTransform = createPutRowsTransform(rowSet);
+    IRowMeta rowMeta = createPutRowsRowMeta();
+
+    List<String> events = new ArrayList<>();
+    for (String name : new String[] {"a", "b"}) {
+      baseTransform.addRowListener(
+          new RowAdapter() {
+            @Override
+            public void rowWrittenEvent(IRowMeta rowMeta, Object[] row) {
+              events.add(name + row[0]);
+            }
+          });
+    }
+    baseTransform.putRows(rowMeta, createPutRowsBatch(0, 2), 2);
+    baseTransform.putRows(rowMeta, createPutRowsBatch(2, 2), 2);
+
+    // Every listener sees every row, in the same order as with putRow()
+    //
+    assertEquals(List.of("a0", "b0", "a1", "b1", "a2", "b2", "a3", "b3"), events);
+    assertEquals(4, rowSet.size());
+  }
+
+  private BaseTransform<ITransformMeta, ITransformData> createGetRowsTransform(
+      IRowSet inputRowSet, int nrRows) {
+    IRowMeta rowMeta = createPutRowsRowMeta();
+    for (Object[] row : createPutRowsBatch(0, nrRows)) {
+      inputRowSet.putRow(rowMeta, row);
+    }
+    BaseTransform<ITransformMeta, ITransformData> baseTransform = createPutRowsTransform();
+    baseTransform.setInputRowSets(new ArrayList<>(List.of(inputRowSet)));
+    return baseTransform;
+  }
+
+  @Test
+  public void getRowsReadsTheWaitingRowsInItsOwnThread() throws HopException {
+    BaseTransform<ITransformMeta, ITransformData> baseTransform =
+        createGetRowsTransform(new QueueRowSet(), 5);
+    baseTransform.setRunning(true);
+
+    // The first row checks if the pipeline is running, the other ones are read at once
+    //
+    Object[][] batch = new Object[10][];
+    assertEquals(1, baseTransform.getRows(batch, batch.length));
+    assertEquals(0L, batch[0][0]);
+    assertEquals(4, baseTransform.getRows(batch, batch.length));
+    for (int i = 0; i < 4; i++) {
+      assertEquals(i + 1L, batch[i][0]);
+    }
+    assertEquals(5, baseTransform.getLinesRead());
+  }
+
+  @Test
+  public void getRowsReadsOneRowAtATimeWhenNotInItsOwnThread() throws HopException {
+    // The single threaded executor calls processRow() once for every waiting row. The input isn't
+    // done, so reading more than one row per call would wait forever for the next one.
+    //
+    IRowSet inputRowSet = new QueueRowSet();
+    BaseTransform<ITransformMeta, ITransformData> baseTransform =
+        createGetRowsTransform(inputRowSet, 3);
+
+    Object[][] batch = new Object[10][];
+    for (long id = 0; id < 3; id++) {
+      assertEquals(1, baseTransform.getRows(batch, batch.length));
+      assertEquals(id, batch[0][0]);
+    }
+    assertEquals(0, inputRowSet.size());
+    assertEquals(3, baseTransform.getLinesRead());
+  }
+
   @Test
   public void putErrorWithRowHandler() throws HopException {
     BaseTransform baseTransform =
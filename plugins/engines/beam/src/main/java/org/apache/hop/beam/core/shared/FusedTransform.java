@@ -0,0 +1,89 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.hop.beam.core.shared;
+
+import java.io.Serializable;
+
+/**
+ * A transform which runs in the same single threaded pipeline as the transform before it, inside a
+ * single Beam transform. This way rows don't have to be encoded and passed on between a chain of
+ * generic transforms.
+ */
+public class FusedTransform implements Serializable {
+
+  private String transformName;
+  private String transformPluginId;
+  private String transformMetaInterfaceXml;
+
+  public FusedTransform() {}
+
+  public FusedTransform(
+      String transformName, String transformPluginId, String transformMetaInterfaceXml) {
+    this.transformName = transformName;
+    this.transformPluginId = transformPluginId;
+    this.transformMetaInterfaceXml = transformMetaInterfaceXml;
+  }
+
+  /**
+   * Gets transformName
+   *
+   * @return value of transformName
+   */
+  public String getTransformName() {
+    return transformName;
+  }
+
+  /**
+   * @param transformName The transformName to set
+   */
+  public void setTransformName(String transformName) {
+    this.transformName = transformName;
+  }
+
+  /**
+   * Gets transformPluginId
+   *
+   * @return value of transformPluginId
+   */
+  public String getTransformPluginId() {
+    return transformPluginId;
+  }
+
+  /**
+   * @param transformPluginId The transformPluginId to set
+   */
+  public void setTransformPluginId(String transformPluginId) {
+    this.transformPluginId = transformPluginId;
+  }
+
+  /**
+   * Gets transformMetaInterfaceXml
+   *
+   * @return value of transformMetaInterfaceXml
+   */
+  public String getTransformMetaInterfaceXml() {
+    return transformMetaInterfaceXml;
+  }
+
+  /**
+   * @param transformMetaInterfaceXml The transformMetaInterfaceXml to set
+   */
+  public void setTransformMetaInterfaceXml(String transformMetaInterfaceXml) {
+    this.transformMetaInterfaceXml = transformMetaInterfaceXml;
+  }
+}
@@ -31,6 +31,7 @@ import org.apache.beam.sdk.values.TupleTag;
 import org.apache.commons.lang.StringUtils;
 import org.apache.hop.beam.core.BeamHop;
 import org.apache.hop.beam.core.HopRow;
+import org.apache.hop.beam.core.shared.FusedTransform;
 import org.apache.hop.beam.core.shared.VariableValue;
 import org.apache.hop.beam.core.util.HopBeamUtil;
 import org.apache.hop.beam.engines.HopPipelineExecutionOptions;
@@ -81,6 +82,7 @@ public class TransformFn extends TransformBaseFn {
   protected List<String> infoRowMetaJsons;
   protected boolean inputTransform;
   protected boolean initialize;
+  protected List<FusedTransform> fusedTransforms;
 
   protected List<PCollectionView<List<HopRow>>> infoCollectionViews;
   protected List<PCollection<HopRow>> infoCollections;
@@ -90,6 +92,7 @@ public class TransformFn extends TransformBaseFn {
 
   private transient PipelineMeta pipelineMeta;
   private transient TransformMeta transformMeta;
+  private transient TransformMeta outputTransformMeta;
   private transient IRowMeta inputRowMeta;
   private transient List<TransformMetaDataCombi> transformCombis;
   private transient LocalPipelineEngine pipeline;
@@ -105,6 +108,7 @@ public class TransformFn extends TransformBaseFn {
 
   public TransformFn() {
     super(null, null, null);
+    this.fusedTransforms = new ArrayList<>();
   }
 
   // I created a private class because instances of this one need access to infoCollectionViews
@@ -138,6 +142,7 @@ public class TransformFn extends TransformBaseFn {
     this.infoRowMetaJsons = infoRowMetaJsons;
     this.dataSamplersJson = dataSamplersJson;
     this.infoCollectionViews = infoCollectionViews;
+    this.fusedTransforms = new ArrayList<>();
     this.initialize = true;
   }
 
@@ -310,10 +315,47 @@ public class TransformFn extends TransformBaseFn {
     if (!inputTransform) {
       pipelineMeta.addPipelineHop(new PipelineHopMeta(mainInjectorTransformMeta, transformMeta));
     }
+
+    // The fused transforms are chained behind the main transform.
+    // The last one in the chain writes the output rows.
+    //
+    List<TransformMeta> chainTransformMetas = new ArrayList<>();
+    chainTransformMetas.add(transformMeta);
+    outputTransformMeta = transformMeta;
+    for (FusedTransform fusedTransform : fusedTransforms) {
+      ITransformMeta fusedTransformMetaInterface =
+          registry.loadClass(
+              TransformPluginType.class,
+              fusedTransform.getTransformPluginId(),
+              ITransformMeta.class);
+      if (fusedTransformMetaInterface == null) {
+        throw new HopException(
+            "Unable to load transform plugin with ID "
+                + fusedTransform.getTransformPluginId()
+                + ", this plugin isn't in the plugin registry or classpath");
+      }
+      HopBeamUtil.loadTransformMetadataFromXml(
+          fusedTransform.getTransformName(),
+          fusedTransformMetaInterface,
+          fusedTransform.getTransformMetaInterfaceXml(),
+          pipelineMeta.getMetadataProvider());
+
+      TransformMeta fusedTransformMeta =
+          new TransformMeta(fusedTransform.getTransformName(), fusedTransformMetaInterface);
+      fusedTransformMeta.setTransformPluginId(fusedTransform.getTransformPluginId());
+      fusedTransformMeta.setLocation(400, 200 + 150 * chainTransformMetas.size());
+      pipelineMeta.addTransform(fusedTransformMeta);
+      pipelineMeta.addPipelineHop(new PipelineHopMeta(outputTransformMeta, fusedTransformMeta));
+
+      chainTransformMetas.add(fusedTransformMeta);
+      outputTransformMeta = fusedTransformMeta;
+    }
+    String outputTransformName = outputTransformMeta.getName();
+
     // The target hops as well
     //
     for (TransformMeta targetTransformMeta : targetTransformMetas) {
-      pipelineMeta.addPipelineHop(new PipelineHopMeta(transformMeta, targetTransformMeta));
+      pipelineMeta.addPipelineHop(new PipelineHopMeta(outputTransformMeta, targetTransformMeta));
     }
 
     // And the info hops...
@@ -329,7 +371,9 @@ public class TransformFn extends TransformBaseFn {
     //
     lookupExecutionInformation(variables, metadataProvider);
 
-    iTransformMeta.searchInfoAndTargetTransforms(pipelineMeta.getTransforms());
+    for (TransformMeta chainTransformMeta : chainTransformMetas) {
+      chainTransformMeta.getTransform().searchInfoAndTargetTransforms(pipelineMeta.getTransforms());
+    }
 
     // Create the transformation...
     //
@@ -376,8 +420,10 @@ public class TransformFn extends TransformBaseFn {
       transformCombis.add(injectorCombi);
     }
 
-    TransformMetaDataCombi transformCombi = findCombi(pipeline, transformName);
-    transformCombis.add(transformCombi);
+    for (TransformMeta chainTransformMeta : chainTransformMetas) {
+      transformCombis.add(findCombi(pipeline, chainTransformMeta.getName()));
+    }
+    TransformMetaDataCombi outputCombi = findCombi(pipeline, outputTransformName);
 
     if (targetTransforms.isEmpty()) {
       IRowListener rowListener =
@@ -388,12 +434,12 @@ public class TransformFn extends TransformBaseFn {
               resultRows.add(new HopRow(row, rowMeta.size()));
             }
           };
-      transformCombi.transform.addRowListener(rowListener);
+      outputCombi.transform.addRowListener(rowListener);
     }
 
     // Create a list of TupleTag to direct the target rows
     //
-    mainTupleTag = new TupleTag<>(HopBeamUtil.createMainOutputTupleId(transformName)) {};
+    mainTupleTag = new TupleTag<>(HopBeamUtil.createMainOutputTupleId(outputTransformName)) {};
     tupleTagList = new ArrayList<>();
 
     // The lists in here will contain all the rows that ended up in the various target
@@ -405,7 +451,7 @@ public class TransformFn extends TransformBaseFn {
       TransformMetaDataCombi targetCombi = findCombi(pipeline, targetTransform);
       transformCombis.add(targetCombi);
 
-      String tupleId = HopBeamUtil.createTargetTupleId(transformName, targetTransform);
+      String tupleId = HopBeamUtil.createTargetTupleId(outputTransformName, targetTransform);
       TupleTag<HopRow> tupleTag = new TupleTag<>(tupleId) {};
       tupleTagList.add(tupleTag);
       final List<Object[]> targetResultRows = new ArrayList<>();
@@ -611,6 +657,23 @@ public class TransformFn extends TransformBaseFn {
     }
   }
 
+  /**
+   * Gets fusedTransforms
+   *
+   * @return value of fusedTransforms
+   */
+  public List<FusedTransform> getFusedTransforms() {
+    return fusedTransforms;
+  }
+
+  /**
+   * @param fusedTransforms The transforms to run behind this one in the same single threaded
+   *     pipeline
+   */
+  public void setFusedTransforms(List<FusedTransform> fusedTransforms) {
+    this.fusedTransforms = fusedTransforms;
+  }
+
   @FinishBundle
   public void finishBundle(FinishBundleContext context) {
     try {
@@ -30,6 +30,7 @@ import org.apache.beam.sdk.values.TupleTag;
 import org.apache.beam.sdk.values.TupleTagList;
 import org.apache.hop.beam.core.BeamHop;
 import org.apache.hop.beam.core.HopRow;
+import org.apache.hop.beam.core.shared.FusedTransform;
 import org.apache.hop.beam.core.shared.VariableValue;
 import org.apache.hop.beam.core.util.HopBeamUtil;
 import org.slf4j.Logger;
@@ -55,6 +56,9 @@ public class TransformTransform extends PTransform<PCollection<HopRow>, PCollect
   protected String dataSamplersJson;
   protected String parentLogChannelId;
 
+  // The transforms which run behind this one in the same transform function
+  protected List<FusedTransform> fusedTransforms;
+
   // Used in the private TransformFn class below
   //
   protected List<PCollectionView<List<HopRow>>> infoCollectionViews;
@@ -65,6 +69,7 @@ public class TransformTransform extends PTransform<PCollection<HopRow>, PCollect
 
   public TransformTransform() {
     variableValues = new ArrayList<>();
+    fusedTransforms = new ArrayList<>();
   }
 
   public TransformTransform(
@@ -100,6 +105,7 @@ public class TransformTransform extends PTransform<PCollection<HopRow>, PCollect
     this.runConfigName = runConfigName;
     this.dataSamplersJson = dataSamplersJson;
     this.parentLogChannelId = parentLogChannelId;
+    this.fusedTransforms = new ArrayList<>();
   }
 
   @Override
@@ -109,13 +115,17 @@ public class TransformTransform extends PTransform<PCollection<HopRow>, PCollect
       //
       BeamHop.init();
 
+      // The output is written by the last fused transform, if there are any
+      //
+      String outputTransformName = getOutputTransformName();
+
       // Similar for the output : treat a TupleTag list for the target transforms...
       //
       TupleTag<HopRow> mainOutputTupleTag =
-          new TupleTag<>(HopBeamUtil.createMainOutputTupleId(transformName)) {};
+          new TupleTag<>(HopBeamUtil.createMainOutputTupleId(outputTransformName)) {};
       TupleTagList targetTupleTagList = null;
       for (String targetTransform : targetTransforms) {
-        String tupleId = HopBeamUtil.createTargetTupleId(transformName, targetTransform);
+        String tupleId = HopBeamUtil.createTargetTupleId(outputTransformName, targetTransform);
         TupleTag<HopRow> tupleTag = new TupleTag<>(tupleId) {};
         if (targetTupleTagList == null) {
           targetTupleTagList = TupleTagList.of(tupleTag);
@@ -145,6 +155,7 @@ public class TransformTransform extends PTransform<PCollection<HopRow>, PCollect
               runConfigName,
               parentLogChannelId,
               infoCollectionViews);
+      transformFn.setFusedTransforms(fusedTransforms);
 
       // The actual transform functionality
       //
@@ -175,4 +186,33 @@ public class TransformTransform extends PTransform<PCollection<HopRow>, PCollect
       throw new RuntimeException("Error transforming data in transform", e);
     }
   }
+
+  /**
+   * Gets the name of the transform which writes the output rows: the last fused transform or this
+   * transform if nothing is fused into it.
+   *
+   * @return the name of the output transform
+   */
+  public String getOutputTransformName() {
+    if (fusedTransforms == null || fusedTransforms.isEmpty()) {
+      return transformName;
+    }
+    return fusedTransforms.get(fusedTransforms.size() - 1).getTransformName();
+  }
+
+  /**
+   * Gets fusedTransforms
+   *
+   * @return value of fusedTransforms
+   */
+  public List<FusedTransform> getFusedTransforms() {
+    return fusedTransforms;
+  }
+
+  /**
+   * @param fusedTransforms The fusedTransforms to set
+   */
+  public void setFusedTransforms(List<FusedTransform> fusedTransforms) {
+    this.fusedTransforms = fusedTransforms;
+  }
 }
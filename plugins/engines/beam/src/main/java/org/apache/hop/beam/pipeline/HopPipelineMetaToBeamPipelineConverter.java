@@ -21,6 +21,7 @@ import java.io.File;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.HashMap;
+import java.util.HashSet;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
@@ -62,8 +63,10 @@ import org.apache.hop.execution.sampler.IExecutionDataSamplerStore;
 import org.apache.hop.metadata.api.IHopMetadataProvider;
 import org.apache.hop.pipeline.PipelineMeta;
 import org.apache.hop.pipeline.config.PipelineRunConfiguration;
+import org.apache.hop.pipeline.transform.ITransformIOMeta;
 import org.apache.hop.pipeline.transform.ITransformMeta;
 import org.apache.hop.pipeline.transform.TransformMeta;
+import org.apache.hop.pipeline.transform.stream.IStream;
 import org.apache.hop.pipeline.transforms.groupby.GroupByMeta;
 import org.apache.hop.pipeline.transforms.uniquerows.UniqueRowsMeta;
 import org.jboss.jandex.AnnotationInstance;
@@ -472,7 +475,23 @@ public class HopPipelineMetaToBeamPipelineConverter {
     //
     List<TransformMeta> transforms = getSortedTransformsList();
 
+    // Chains of generic transforms run together in a single Beam transform.
+    // The transforms fused behind the first one of a chain are handled along with it.
+    //
+    Map<String, List<TransformMeta>> fusedTransformMetas = new HashMap<>();
+    if (genericTransformHandler instanceof BeamGenericTransformHandler beamGenericHandler) {
+      fusedTransformMetas = findFusedTransforms(transforms);
+      beamGenericHandler.setFusedTransformMetas(fusedTransformMetas);
+    }
+    Set<String> fusedTransformNames = new HashSet<>();
+    for (List<TransformMeta> fusedTransforms : fusedTransformMetas.values()) {
+      fusedTransforms.forEach(fusedTransform -> fusedTransformNames.add(fusedTransform.getName()));
+    }
+
     for (TransformMeta transformMeta : transforms) {
+      if (fusedTransformNames.contains(transformMeta.getName())) {
+        continue;
+      }
 
       // Input and output transforms are handled else where.
       //
@@ -607,6 +626,94 @@ public class HopPipelineMetaToBeamPipelineConverter {
     }
   }
 
+  /**
+   * Find the chains of generic transforms which can run in the same single threaded pipeline of a
+   * single Beam transform. A transform is added to a chain if it only reads from the previous
+   * transform in the chain and if that transform only writes to it. Rows then don't need to be
+   * encoded and decoded in between the transforms of a chain. Transforms with error handling and
+   * the targets of error hops are never fused: a chain only passes on the main output rows.
+   *
+   * @param transforms The sorted transforms of the pipeline
+   * @return The transforms to run behind the first transform of every chain, per name of the first
+   *     transform
+   * @throws HopException In case a transform can't be used on Beam
+   */
+  private Map<String, List<TransformMeta>> findFusedTransforms(List<TransformMeta> transforms)
+      throws HopException {
+    Map<String, List<TransformMeta>> fusedTransformMetas = new HashMap<>();
+    if (!Const.toBoolean(
+        Const.NVL(variables.getVariable(BeamConst.STRING_VARIABLE_FUSE_TRANSFORMS), "Y"))) {
+      return fusedTransformMetas;
+    }
+
+    Set<String> fusedTransformNames = new HashSet<>();
+    for (TransformMeta transformMeta : transforms) {
+      if (fusedTransformNames.contains(transformMeta.getName()) || !isFusable(transformMeta)) {
+        continue;
+      }
+      List<TransformMeta> chain = new ArrayList<>();
+      TransformMeta nextTransformMeta = findFusableNextTransform(transformMeta);
+      while (nextTransformMeta != null) {
+        chain.add(nextTransformMeta);
+        fusedTransformNames.add(nextTransformMeta.getName());
+        nextTransformMeta = findFusableNextTransform(nextTransformMeta);
+      }
+      if (!chain.isEmpty()) {
+        fusedTransformMetas.put(transformMeta.getName(), chain);
+      }
+    }
+    return fusedTransformMetas;
+  }
+
+  private TransformMeta findFusableNextTransform(TransformMeta transformMeta) throws HopException {
+    // Rows sent to specific target transforms need their own output
+    //
+    ITransformIOMeta ioMeta = transformMeta.getTransform().getTransformIOMeta();
+    for (IStream targetStream : ioMeta.getTargetStreams()) {
+      if (targetStream.getTransformMeta() != null) {
+        return null;
+      }
+    }
+
+    // A single hop to a transform which only reads from this transform
+    //
+    List<TransformMeta> nextTransforms = pipelineMeta.findNextTransforms(transformMeta);
+    if (nextTransforms.size() != 1) {
+      return null;
+    }
+    TransformMeta nextTransformMeta = nextTransforms.get(0);
+    if (pipelineMeta.findPreviousTransforms(nextTransformMeta, true).size() != 1
+        || pipelineMeta.findPreviousTransforms(nextTransformMeta, false).size() != 1
+        || !isFusable(nextTransformMeta)) {
+      return null;
+    }
+    validateTransformBeamUsage(nextTransformMeta.getTransform());
+    return nextTransformMeta;
+  }
+
+  private boolean isFusable(TransformMeta transformMeta) {
+    if (transformHandlers.containsKey(transformMeta.getTransformPluginId())
+        || transformMeta.getTransform() instanceof IBeamPipelineTransformHandler
+        || transformMeta.isDoingErrorHandling()
+        || isErrorHandlingTarget(transformMeta)) {
+      return false;
+    }
+    return !BeamGenericTransformHandler.needsBatching(variables, transformMeta)
+        && !BeamGenericTransformHandler.needsSingleThreading(transformMeta)
+        && !BeamGenericTransformHandler.checkTransformCopiesForReducedParallelism(transformMeta);
+  }
+
+  private boolean isErrorHandlingTarget(TransformMeta transformMeta) {
+    for (TransformMeta previousTransformMeta : pipelineMeta.findPreviousTransforms(transformMeta)) {
+      if (previousTransformMeta.isDoingErrorHandling()
+          && transformMeta.equals(
+              previousTransformMeta.getTransformErrorMeta().getTargetTransform())) {
+        return true;
+      }
+    }
+    return false;
+  }
+
   private void validateTransformBeamUsage(ITransformMeta meta) throws HopException {
     if (meta instanceof GroupByMeta) {
       throw new HopException(
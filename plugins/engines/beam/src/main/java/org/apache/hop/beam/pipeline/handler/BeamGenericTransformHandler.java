@@ -18,6 +18,8 @@
 package org.apache.hop.beam.pipeline.handler;
 
 import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 import org.apache.beam.sdk.Pipeline;
@@ -37,7 +39,9 @@ import org.apache.beam.sdk.values.PCollectionTuple;
 import org.apache.beam.sdk.values.PCollectionView;
 import org.apache.beam.sdk.values.TupleTag;
 import org.apache.hop.beam.core.HopRow;
+import org.apache.hop.beam.core.coder.HopRowSchemaCoder;
 import org.apache.hop.beam.core.fn.StringToHopRowFn;
+import org.apache.hop.beam.core.shared.FusedTransform;
 import org.apache.hop.beam.core.shared.VariableValue;
 import org.apache.hop.beam.core.transform.TransformBatchTransform;
 import org.apache.hop.beam.core.transform.TransformTransform;
@@ -62,6 +66,9 @@ import org.apache.hop.pipeline.transform.stream.IStream;
 public class BeamGenericTransformHandler extends BeamBaseTransformHandler
     implements IBeamPipelineTransformHandler {
 
+  /** The transforms to run behind a transform in the same Beam transform, per transform name */
+  private Map<String, List<TransformMeta>> fusedTransformMetas = new HashMap<>();
+
   @Override
   public boolean isInput() {
     return false;
@@ -129,9 +136,28 @@ public class BeamGenericTransformHandler extends BeamBaseTransformHandler
     //
     List<VariableValue> variableValues = getVariableValues(variables);
 
+    // The transforms fused into this one run behind it in the same Beam transform.
+    // The last one of the chain produces the output.
+    //
+    List<TransformMeta> fusedTransforms =
+        fusedTransformMetas.getOrDefault(transformMeta.getName(), Collections.emptyList());
+    List<FusedTransform> fusedTransformList = new ArrayList<>();
+    TransformMeta outputTransformMeta = transformMeta;
+    for (TransformMeta fusedTransformMeta : fusedTransforms) {
+      fusedTransformList.add(
+          new FusedTransform(
+              fusedTransformMeta.getName(),
+              fusedTransformMeta.getTransformPluginId(),
+              XmlHandler.openTag(TransformMeta.XML_TAG)
+                  + fusedTransformMeta.getTransform().getXml()
+                  + XmlHandler.closeTag(TransformMeta.XML_TAG)));
+      outputTransformMeta = fusedTransformMeta;
+    }
+    String outputTransformName = outputTransformMeta.getName();
+
     // Find out all the target transforms for this transform...
     //
-    ITransformIOMeta ioMeta = transformMeta.getTransform().getTransformIOMeta();
+    ITransformIOMeta ioMeta = outputTransformMeta.getTransform().getTransformIOMeta();
     List<String> targetTransforms = new ArrayList<>();
     for (IStream targetStream : ioMeta.getTargetStreams()) {
       if (targetStream.getTransformMeta() != null) {
@@ -175,7 +201,7 @@ public class BeamGenericTransformHandler extends BeamBaseTransformHandler
               dataSamplersJson,
               parentLogChannelId);
     } else {
-      transformTransform =
+      TransformTransform singleTransformTransform =
           new TransformTransform(
               variableValues,
               metaStoreJson,
@@ -193,6 +219,8 @@ public class BeamGenericTransformHandler extends BeamBaseTransformHandler
               runConfigurationName,
               dataSamplersJson,
               parentLogChannelId);
+      singleTransformTransform.setFusedTransforms(fusedTransformList);
+      transformTransform = singleTransformTransform;
     }
 
     if (input == null) {
@@ -243,17 +271,25 @@ public class BeamGenericTransformHandler extends BeamBaseTransformHandler
     // The main collection
     //
     PCollection<HopRow> mainPCollection =
-        tuple.get(new TupleTag<>(HopBeamUtil.createMainOutputTupleId(transformMeta.getName())));
+        tuple.get(new TupleTag<>(HopBeamUtil.createMainOutputTupleId(outputTransformName)));
+
+    // We know the layout of the output rows so we can use a compact encoding for them.
+    // Rows which don't follow the layout are still encoded correctly, only less compactly.
+    //
+    HopRowSchemaCoder outputCoder =
+        HopRowSchemaCoder.of(pipelineMeta.getTransformFields(variables, outputTransformMeta));
+    mainPCollection.setCoder(outputCoder);
 
     // Save this in the map
     //
-    transformCollectionMap.put(transformMeta.getName(), mainPCollection);
+    transformCollectionMap.put(outputTransformName, mainPCollection);
 
     // Were there any targeted transforms in this transform?
     //
     for (String targetTransform : targetTransforms) {
-      String tupleId = HopBeamUtil.createTargetTupleId(transformMeta.getName(), targetTransform);
+      String tupleId = HopBeamUtil.createTargetTupleId(outputTransformName, targetTransform);
       PCollection<HopRow> targetPCollection = tuple.get(new TupleTag<>(tupleId));
+      targetPCollection.setCoder(outputCoder);
 
       // Store this in the map as well
       //
@@ -268,7 +304,8 @@ public class BeamGenericTransformHandler extends BeamBaseTransformHandler
             + " previous transform(s), targets="
             + targetTransforms.size()
             + ", infos="
-            + infoTransforms.size());
+            + infoTransforms.size()
+            + (fusedTransforms.isEmpty() ? "" : ", fused=" + fusedTransforms.size()));
   }
 
   public static boolean needsBatching(IVariables variables, TransformMeta transformMeta) {
@@ -291,7 +328,7 @@ public class BeamGenericTransformHandler extends BeamBaseTransformHandler
     return Const.toBoolean(value);
   }
 
-  private boolean checkTransformCopiesForReducedParallelism(TransformMeta transformMeta) {
+  public static boolean checkTransformCopiesForReducedParallelism(TransformMeta transformMeta) {
     if (transformMeta.getCopiesString() == null) {
       return false;
     }
@@ -316,4 +353,21 @@ public class BeamGenericTransformHandler extends BeamBaseTransformHandler
     }
     return variableValues;
   }
+
+  /**
+   * Gets fusedTransformMetas
+   *
+   * @return value of fusedTransformMetas
+   */
+  public Map<String, List<TransformMeta>> getFusedTransformMetas() {
+    return fusedTransformMetas;
+  }
+
+  /**
+   * @param fusedTransformMetas The transforms to run behind a transform in the same Beam transform,
+   *     per transform name
+   */
+  public void setFusedTransformMetas(Map<String, List<TransformMeta>> fusedTransformMetas) {
+    this.fusedTransformMetas = fusedTransformMetas;
+  }
 }
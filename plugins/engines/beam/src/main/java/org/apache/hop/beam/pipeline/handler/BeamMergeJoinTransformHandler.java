@@ -22,12 +22,14 @@ import java.util.Arrays;
 import java.util.List;
 import java.util.Map;
 import org.apache.beam.sdk.Pipeline;
+import org.apache.beam.sdk.coders.KvCoder;
 import org.apache.beam.sdk.extensions.joinlibrary.Join;
 import org.apache.beam.sdk.transforms.DoFn;
 import org.apache.beam.sdk.transforms.ParDo;
 import org.apache.beam.sdk.values.KV;
 import org.apache.beam.sdk.values.PCollection;
 import org.apache.hop.beam.core.HopRow;
+import org.apache.hop.beam.core.coder.HopRowSchemaCoder;
 import org.apache.hop.beam.core.fn.HopKeyValueFn;
 import org.apache.hop.beam.core.fn.MergeJoinAssemblerFn;
 import org.apache.hop.beam.engines.IBeamPipelineEngineRunConfiguration;
@@ -161,6 +163,13 @@ public class BeamMergeJoinTransformHandler extends BeamBaseTransformHandler
     PCollection<KV<HopRow, HopRow>> rightKVPCollection =
         rightPCollection.apply(ParDo.of(rightKVFn));
 
+    // The layout of the keys and values is known: encode them compactly for the join.
+    // Both sides use the same key coder, the join groups the keys of both sides together.
+    //
+    HopRowSchemaCoder keyCoder = HopRowSchemaCoder.ofKey(leftKRowMeta);
+    leftKVPCollection.setCoder(KvCoder.of(keyCoder, HopRowSchemaCoder.of(leftVRowMeta)));
+    rightKVPCollection.setCoder(KvCoder.of(keyCoder, HopRowSchemaCoder.of(rightVRowMeta)));
+
     PCollection<KV<HopRow, KV<HopRow, HopRow>>> kvpCollection;
 
     // For efficiency of detecting "all null value rows" we send an empty row as null value.
@@ -51,6 +51,9 @@ public class BeamConst {
   public static final String STRING_TRANSFORM_FLAG_SINGLE_THREADED = "SingleThreaded";
   public static final String STRING_LOCAL_PIPELINE_FLAG_LOG_LEVEL = "LogLevel";
 
+  /** Set this variable to N to run every generic transform in its own Beam transform */
+  public static final String STRING_VARIABLE_FUSE_TRANSFORMS = "HOP_BEAM_FUSE_TRANSFORMS";
+
   private static List<String[]> gcpWorkerCodeDescriptions =
       Arrays.asList(
           new String[] {
@@ -0,0 +1,242 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.hop.beam.core.coder;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertThrows;
+import static org.junit.Assert.assertTrue;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.math.BigDecimal;
+import java.net.InetAddress;
+import java.sql.Timestamp;
+import java.util.Date;
+import org.apache.beam.sdk.coders.Coder;
+import org.apache.beam.sdk.util.SerializableUtils;
+import org.apache.hop.beam.core.HopRow;
+import org.apache.hop.core.row.IRowMeta;
+import org.apache.hop.core.row.RowMeta;
+import org.apache.hop.core.row.value.ValueMetaAvroRecord;
+import org.apache.hop.core.row.value.ValueMetaBigNumber;
+import org.apache.hop.core.row.value.ValueMetaBinary;
+import org.apache.hop.core.row.value.ValueMetaBoolean;
+import org.apache.hop.core.row.value.ValueMetaDate;
+import org.apache.hop.core.row.value.ValueMetaInteger;
+import org.apache.hop.core.row.value.ValueMetaInternetAddress;
+import org.apache.hop.core.row.value.ValueMetaNumber;
+import org.apache.hop.core.row.value.ValueMetaString;
+import org.apache.hop.core.row.value.ValueMetaTimestamp;
+import org.junit.Test;
+
+public class HopRowSchemaCoderTest {
+
+  private IRowMeta createRowMeta() {
+    IRowMeta rowMeta = new RowMeta();
+    rowMeta.addValueMeta(new ValueMetaString("string"));
+    rowMeta.addValueMeta(new ValueMetaInteger("integer"));
+    rowMeta.addValueMeta(new ValueMetaNumber("number"));
+    rowMeta.addValueMeta(new ValueMetaDate("date"));
+    rowMeta.addValueMeta(new ValueMetaTimestamp("timestamp"));
+    rowMeta.addValueMeta(new ValueMetaBoolean("boolean"));
+    rowMeta.addValueMeta(new ValueMetaBigNumber("bignumber"));
+    rowMeta.addValueMeta(new ValueMetaBinary("binary"));
+    rowMeta.addValueMeta(new ValueMetaInternetAddress("inet"));
+    return rowMeta;
+  }
+
+  private static byte[] encode(Coder<HopRow> coder, HopRow row) throws Exception {
+    ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
+    coder.encode(row, outputStream);
+    return outputStream.toByteArray();
+  }
+
+  private static HopRow roundTrip(HopRowSchemaCoder coder, HopRow row) throws Exception {
+    return coder.decode(new ByteArrayInputStream(encode(coder, row)));
+  }
+
+  @Test
+  public void testEncodeDecodeAllTypes() throws Exception {
+    HopRowSchemaCoder coder = HopRowSchemaCoder.of(createRowMeta());
+
+    Timestamp timestamp = new Timestamp(1234567890123L);
+    timestamp.setNanos(123456789);
+    Object[] values =
+        new Object[] {
+          "Hop éè",
+          -123456789L,
+          3.14,
+          new Date(876876868L),
+          timestamp,
+          true,
+          new BigDecimal("-12345678901234567890.0012"),
+          new byte[] {1, 2, 3},
+          InetAddress.getByAddress("hop.apache.org", new byte[] {10, 0, 0, 1})
+        };
+    HopRow decoded = roundTrip(coder, new HopRow(values));
+
+    assertEquals(values.length, decoded.length());
+    for (int i = 0; i < values.length; i++) {
+      if (values[i] instanceof byte[]) {
+        assertArrayEquals((byte[]) values[i], (byte[]) decoded.getRow()[i]);
+      } else {
+        assertEquals(values[i], decoded.getRow()[i]);
+      }
+    }
+    assertEquals("hop.apache.org", ((InetAddress) decoded.getRow()[8]).getHostName());
+  }
+
+  @Test
+  public void testEncodeDecodeNulls() throws Exception {
+    HopRowSchemaCoder coder = HopRowSchemaCoder.of(createRowMeta());
+
+    HopRow row = new HopRow(new Object[9]);
+    assertEquals(row, roundTrip(coder, row));
+
+    HopRow empty = new HopRow(new Object[0]);
+    assertEquals(0, roundTrip(coder, empty).length());
+
+    assertNull(roundTrip(coder, new HopRow()).getRow());
+  }
+
+  @Test
+  public void testValuesNotMatchingTheLayout() throws Exception {
+    HopRowSchemaCoder coder = HopRowSchemaCoder.of(createRowMeta());
+
+    // A string in the integer field, a timestamp in the date field and values past the layout
+    //
+    Timestamp timestamp = new Timestamp(1000L);
+    timestamp.setNanos(5);
+    HopRow row =
+        new HopRow(
+            new Object[] {
+              "a", "not a number", null, timestamp, null, null, null, null, null, 42L, "extra"
+            });
+    HopRow decoded = roundTrip(coder, row);
+
+    assertEquals(row, decoded);
+    assertTrue(decoded.getRow()[3] instanceof Timestamp);
+  }
+
+  @Test
+  public void testOptionalSize() throws Exception {
+    HopRowSchemaCoder coder = HopRowSchemaCoder.of(createRowMeta());
+
+    // Only the first 2 values are part of the row
+    //
+    HopRow row = new HopRow(new Object[] {"a", 1L, null, null, null}, 2);
+    HopRow decoded = roundTrip(coder, row);
+
+    assertEquals(2, decoded.length());
+    assertEquals("a", decoded.getRow()[0]);
+    assertEquals(1L, decoded.getRow()[1]);
+  }
+
+  @Test
+  public void testSmallerThanHopRowCoder() throws Exception {
+    IRowMeta rowMeta = new RowMeta();
+    rowMeta.addValueMeta(new ValueMetaString("name"));
+    rowMeta.addValueMeta(new ValueMetaInteger("id"));
+    rowMeta.addValueMeta(new ValueMetaDate("date"));
+    rowMeta.addValueMeta(new ValueMetaInteger("nullable"));
+
+    HopRow row = new HopRow(new Object[] {"Hop", 12L, new Date(876876868L), null});
+    int compactSize = encode(HopRowSchemaCoder.of(rowMeta), row).length;
+    int genericSize = encode(new HopRowCoder(), row).length;
+
+    assertTrue(compactSize * 2 < genericSize);
+  }
+
+  @Test
+  public void testSerializable() {
+    HopRowSchemaCoder coder = HopRowSchemaCoder.of(createRowMeta());
+    assertEquals(coder, SerializableUtils.clone(coder));
+  }
+
+  @Test
+  public void testVerifyDeterministic() throws Exception {
+    IRowMeta rowMeta = new RowMeta();
+    rowMeta.addValueMeta(new ValueMetaString("string"));
+    rowMeta.addValueMeta(new ValueMetaInteger("integer"));
+    rowMeta.addValueMeta(new ValueMetaDate("date"));
+    HopRowSchemaCoder.of(rowMeta).verifyDeterministic();
+    HopRowSchemaCoder.ofKey(rowMeta).verifyDeterministic();
+
+    // Numbers are only written in a canonical form by a key coder
+    //
+    HopRowSchemaCoder coder = HopRowSchemaCoder.of(createRowMeta());
+    assertThrows(Coder.NonDeterministicException.class, coder::verifyDeterministic);
+    HopRowSchemaCoder.ofKey(createRowMeta()).verifyDeterministic();
+
+    rowMeta.addValueMeta(new ValueMetaAvroRecord("avro"));
+    HopRowSchemaCoder keyCoder = HopRowSchemaCoder.ofKey(rowMeta);
+    assertThrows(Coder.NonDeterministicException.class, keyCoder::verifyDeterministic);
+  }
+
+  @Test
+  public void testKeyNumbers() throws Exception {
+    IRowMeta rowMeta = new RowMeta();
+    rowMeta.addValueMeta(new ValueMetaNumber("number"));
+    rowMeta.addValueMeta(new ValueMetaBigNumber("bignumber"));
+    HopRowSchemaCoder coder = HopRowSchemaCoder.ofKey(rowMeta);
+    assertFalse(coder.equals(HopRowSchemaCoder.of(rowMeta)));
+
+    // Equal keys are encoded the same way
+    //
+    assertArrayEquals(
+        encode(coder, new HopRow(new Object[] {0.0, new BigDecimal("1.5")})),
+        encode(coder, new HopRow(new Object[] {-0.0, new BigDecimal("1.500")})));
+    assertArrayEquals(
+        encode(coder, new HopRow(new Object[] {Double.NaN, new BigDecimal("100")})),
+        encode(
+            coder,
+            new HopRow(
+                new Object[] {
+                  Double.longBitsToDouble(0x7ff8000000000001L), new BigDecimal("1E+2")
+                })));
+
+    HopRow row = roundTrip(coder, new HopRow(new Object[] {-0.0, new BigDecimal("100.00")}));
+    assertEquals(0.0, row.getRow()[0]);
+    assertEquals(new BigDecimal("100"), row.getRow()[1]);
+
+    // The value coder keeps the numbers as they are
+    //
+    row =
+        roundTrip(
+            HopRowSchemaCoder.of(rowMeta),
+            new HopRow(new Object[] {-0.0, new BigDecimal("100.00")}));
+    assertEquals(-0.0, row.getRow()[0]);
+    assertEquals(new BigDecimal("100.00"), row.getRow()[1]);
+  }
+
+  @Test
+  public void testVarLong() throws Exception {
+    long[] values = {0L, 1L, 127L, 128L, 1L << 40, Long.MAX_VALUE, -1L, Long.MIN_VALUE};
+    ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
+    for (long value : values) {
+      HopRowSchemaCoder.writeVarLong(outputStream, value);
+    }
+    ByteArrayInputStream inputStream = new ByteArrayInputStream(outputStream.toByteArray());
+    for (long value : values) {
+      assertEquals(value, HopRowSchemaCoder.readVarLong(inputStream));
+    }
+  }
+}
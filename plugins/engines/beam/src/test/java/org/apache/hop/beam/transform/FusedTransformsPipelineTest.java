@@ -0,0 +1,127 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.hop.beam.transform;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import org.apache.beam.sdk.Pipeline;
+import org.apache.beam.sdk.runners.TransformHierarchy;
+import org.apache.hop.beam.pipeline.HopPipelineMetaToBeamPipelineConverter;
+import org.apache.hop.beam.pipeline.handler.BeamGenericTransformHandler;
+import org.apache.hop.beam.util.BeamPipelineMetaUtil;
+import org.apache.hop.pipeline.PipelineMeta;
+import org.apache.hop.pipeline.transform.TransformMeta;
+import org.junit.Test;
+
+public class FusedTransformsPipelineTest extends PipelineTestBase {
+
+  @Test
+  public void testFusedTransformsPipeline() throws Exception {
+
+    PipelineMeta pipelineMeta =
+        BeamPipelineMetaUtil.generateFusedTransformsPipelineMeta(
+            "io-fused-transforms-output", "INPUT", "OUTPUT", metadataProvider);
+
+    try {
+      createRunPipeline(variables, pipelineMeta);
+    } catch (Exception e) {
+      e.printStackTrace();
+      throw e;
+    }
+  }
+
+  @Test
+  public void testTransformsAreFused() throws Exception {
+    PipelineMeta pipelineMeta =
+        BeamPipelineMetaUtil.generateFusedTransformsPipelineMeta(
+            "io-fused-transforms-output", "INPUT", "OUTPUT", metadataProvider);
+    HopPipelineMetaToBeamPipelineConverter converter = createConverter(pipelineMeta);
+    Pipeline pipeline = converter.createPipeline();
+
+    // B and Dummy run behind A in the same Beam transform
+    //
+    Map<String, List<TransformMeta>> fusedTransformMetas =
+        ((BeamGenericTransformHandler) converter.getGenericTransformHandler())
+            .getFusedTransformMetas();
+    assertEquals(1, fusedTransformMetas.size());
+    List<String> fusedNames = new ArrayList<>();
+    fusedTransformMetas.get("A").forEach(transformMeta -> fusedNames.add(transformMeta.getName()));
+    assertEquals(List.of("B", "Dummy"), fusedNames);
+
+    List<String> names = getTopLevelTransformNames(pipeline);
+    assertTrue(names.contains("A"));
+    assertFalse(names.contains("B"));
+    assertFalse(names.contains("Dummy"));
+  }
+
+  @Test
+  public void testErrorHandlingIsNotFused() throws Exception {
+    PipelineMeta pipelineMeta =
+        BeamPipelineMetaUtil.generateErrorHandlingPipelineMeta(
+            "io-error-handling-output", "INPUT", "OUTPUT", metadataProvider);
+    HopPipelineMetaToBeamPipelineConverter converter = createConverter(pipelineMeta);
+    Pipeline pipeline = converter.createPipeline();
+
+    // B handles errors and Errors is the target of its error hop: both get their own transform
+    //
+    assertTrue(
+        ((BeamGenericTransformHandler) converter.getGenericTransformHandler())
+            .getFusedTransformMetas()
+            .isEmpty());
+    List<String> names = getTopLevelTransformNames(pipeline);
+    assertTrue(names.contains("A"));
+    assertTrue(names.contains("B"));
+    assertTrue(names.contains("Errors"));
+  }
+
+  private HopPipelineMetaToBeamPipelineConverter createConverter(PipelineMeta pipelineMeta)
+      throws Exception {
+    return new HopPipelineMetaToBeamPipelineConverter(
+        variables, pipelineMeta, metadataProvider, NAME_RUN_CONFIG, Collections.emptyList(), null);
+  }
+
+  private List<String> getTopLevelTransformNames(Pipeline pipeline) {
+    List<String> names = new ArrayList<>();
+    pipeline.traverseTopologically(
+        new Pipeline.PipelineVisitor.Defaults() {
+          @Override
+          public CompositeBehavior enterCompositeTransform(TransformHierarchy.Node node) {
+            addTopLevelName(node);
+            return CompositeBehavior.ENTER_TRANSFORM;
+          }
+
+          @Override
+          public void visitPrimitiveTransform(TransformHierarchy.Node node) {
+            addTopLevelName(node);
+          }
+
+          private void addTopLevelName(TransformHierarchy.Node node) {
+            if (!node.isRootNode() && node.getEnclosingNode().isRootNode()) {
+              names.add(node.getFullName());
+            }
+          }
+        });
+    return names;
+  }
+}
@@ -30,6 +30,7 @@ import org.apache.hop.metadata.api.IHopMetadataProvider;
 import org.apache.hop.metadata.api.IHopMetadataSerializer;
 import org.apache.hop.pipeline.PipelineHopMeta;
 import org.apache.hop.pipeline.PipelineMeta;
+import org.apache.hop.pipeline.transform.TransformErrorMeta;
 import org.apache.hop.pipeline.transform.TransformMeta;
 import org.apache.hop.pipeline.transforms.constant.ConstantField;
 import org.apache.hop.pipeline.transforms.constant.ConstantMeta;
@@ -227,6 +228,136 @@ public class BeamPipelineMetaUtil {
     return pipelineMeta;
   }
 
+  public static final PipelineMeta generateFusedTransformsPipelineMeta(
+      String transname,
+      String inputTransformName,
+      String outputTransformName,
+      IHopMetadataProvider metadataProvider)
+      throws Exception {
+
+    IHopMetadataSerializer<FileDefinition> serializer =
+        metadataProvider.getSerializer(FileDefinition.class);
+    FileDefinition customerFileDefinition = createCustomersInputFileDefinition();
+    serializer.save(customerFileDefinition);
+
+    PipelineMeta pipelineMeta = new PipelineMeta();
+    pipelineMeta.setName(transname);
+    pipelineMeta.setMetadataProvider(metadataProvider);
+
+    // Add the io transform
+    //
+    BeamInputMeta beamInputMeta = new BeamInputMeta();
+    beamInputMeta.setInputLocation(PipelineTestBase.INPUT_CUSTOMERS_FILE);
+    beamInputMeta.setFileDefinitionName(customerFileDefinition.getName());
+    TransformMeta beamInputTransformMeta = new TransformMeta(inputTransformName, beamInputMeta);
+    beamInputTransformMeta.setTransformPluginId(BeamConst.STRING_BEAM_INPUT_PLUGIN_ID);
+    pipelineMeta.addTransform(beamInputTransformMeta);
+
+    // A chain of transforms which runs in a single Beam transform: A, B and Dummy
+    //
+    ConstantMeta constantA = new ConstantMeta();
+    constantA.getFields().add(new ConstantField("labelA", "String", "A"));
+    TransformMeta constantAMeta = new TransformMeta("A", constantA);
+    pipelineMeta.addTransform(constantAMeta);
+    pipelineMeta.addPipelineHop(new PipelineHopMeta(beamInputTransformMeta, constantAMeta));
+
+    ConstantMeta constantB = new ConstantMeta();
+    constantB.getFields().add(new ConstantField("labelB", "String", "B"));
+    TransformMeta constantBMeta = new TransformMeta("B", constantB);
+    pipelineMeta.addTransform(constantBMeta);
+    pipelineMeta.addPipelineHop(new PipelineHopMeta(constantAMeta, constantBMeta));
+
+    DummyMeta dummyPipelineMeta = new DummyMeta();
+    TransformMeta dummyTransformMeta = new TransformMeta("Dummy", dummyPipelineMeta);
+    pipelineMeta.addTransform(dummyTransformMeta);
+    pipelineMeta.addPipelineHop(new PipelineHopMeta(constantBMeta, dummyTransformMeta));
+
+    // Add the output transform
+    //
+    BeamOutputMeta beamOutputMeta = new BeamOutputMeta();
+    beamOutputMeta.setOutputLocation("/tmp/customers/output/");
+    beamOutputMeta.setFileDefinitionName(null);
+    beamOutputMeta.setFilePrefix("fused-test");
+    beamOutputMeta.setFileSuffix(".csv");
+    beamOutputMeta.setWindowed(false); // Not yet supported
+    TransformMeta beamOutputTransformMeta = new TransformMeta(outputTransformName, beamOutputMeta);
+    beamOutputTransformMeta.setTransformPluginId("BeamOutput");
+    pipelineMeta.addTransform(beamOutputTransformMeta);
+    pipelineMeta.addPipelineHop(new PipelineHopMeta(dummyTransformMeta, beamOutputTransformMeta));
+
+    return pipelineMeta;
+  }
+
+  public static final PipelineMeta generateErrorHandlingPipelineMeta(
+      String transname,
+      String inputTransformName,
+      String outputTransformName,
+      IHopMetadataProvider metadataProvider)
+      throws Exception {
+
+    IHopMetadataSerializer<FileDefinition> serializer =
+        metadataProvider.getSerializer(FileDefinition.class);
+    FileDefinition customerFileDefinition = createCustomersInputFileDefinition();
+    serializer.save(customerFileDefinition);
+
+    PipelineMeta pipelineMeta = new PipelineMeta();
+    pipelineMeta.setName(transname);
+    pipelineMeta.setMetadataProvider(metadataProvider);
+
+    // Add the io transform
+    //
+    BeamInputMeta beamInputMeta = new BeamInputMeta();
+    beamInputMeta.setInputLocation(PipelineTestBase.INPUT_CUSTOMERS_FILE);
+    beamInputMeta.setFileDefinitionName(customerFileDefinition.getName());
+    TransformMeta beamInputTransformMeta = new TransformMeta(inputTransformName, beamInputMeta);
+    beamInputTransformMeta.setTransformPluginId(BeamConst.STRING_BEAM_INPUT_PLUGIN_ID);
+    pipelineMeta.addTransform(beamInputTransformMeta);
+
+    // A, then B which sends its error rows to Errors: its only hop.
+    //
+    ConstantMeta constantA = new ConstantMeta();
+    constantA.getFields().add(new ConstantField("labelA", "String", "A"));
+    TransformMeta constantAMeta = new TransformMeta("A", constantA);
+    pipelineMeta.addTransform(constantAMeta);
+    pipelineMeta.addPipelineHop(new PipelineHopMeta(beamInputTransformMeta, constantAMeta));
+
+    DummyMeta errorHandlingMeta =
+        new DummyMeta() {
+          @Override
+          public boolean supportsErrorHandling() {
+            return true;
+          }
+        };
+    TransformMeta errorHandlingTransformMeta = new TransformMeta("B", errorHandlingMeta);
+    errorHandlingTransformMeta.setTransformPluginId("Dummy");
+    pipelineMeta.addTransform(errorHandlingTransformMeta);
+    pipelineMeta.addPipelineHop(new PipelineHopMeta(constantAMeta, errorHandlingTransformMeta));
+
+    TransformMeta errorsTransformMeta = new TransformMeta("Errors", new DummyMeta());
+    pipelineMeta.addTransform(errorsTransformMeta);
+    pipelineMeta.addPipelineHop(
+        new PipelineHopMeta(errorHandlingTransformMeta, errorsTransformMeta));
+    TransformErrorMeta transformErrorMeta =
+        new TransformErrorMeta(errorHandlingTransformMeta, errorsTransformMeta);
+    transformErrorMeta.setEnabled(true);
+    errorHandlingTransformMeta.setTransformErrorMeta(transformErrorMeta);
+
+    // Add the output transform
+    //
+    BeamOutputMeta beamOutputMeta = new BeamOutputMeta();
+    beamOutputMeta.setOutputLocation("/tmp/customers/output/");
+    beamOutputMeta.setFileDefinitionName(null);
+    beamOutputMeta.setFilePrefix("error-handling-test");
+    beamOutputMeta.setFileSuffix(".csv");
+    beamOutputMeta.setWindowed(false); // Not yet supported
+    TransformMeta beamOutputTransformMeta = new TransformMeta(outputTransformName, beamOutputMeta);
+    beamOutputTransformMeta.setTransformPluginId("BeamOutput");
+    pipelineMeta.addTransform(beamOutputTransformMeta);
+    pipelineMeta.addPipelineHop(new PipelineHopMeta(errorsTransformMeta, beamOutputTransformMeta));
+
+    return pipelineMeta;
+  }
+
   public static final PipelineMeta generateSwitchCasePipelineMeta(
       String transname,
       String inputTransformName,
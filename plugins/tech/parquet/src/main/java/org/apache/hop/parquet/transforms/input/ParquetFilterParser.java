@@ -0,0 +1,457 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.hop.parquet.transforms.input;
+
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.math.RoundingMode;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.time.ZoneOffset;
+import java.time.format.DateTimeParseException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+import org.apache.hop.core.exception.HopException;
+import org.apache.parquet.filter2.predicate.FilterApi;
+import org.apache.parquet.filter2.predicate.FilterPredicate;
+import org.apache.parquet.filter2.predicate.Operators;
+import org.apache.parquet.io.api.Binary;
+import org.apache.parquet.schema.LogicalTypeAnnotation;
+import org.apache.parquet.schema.LogicalTypeAnnotation.DateLogicalTypeAnnotation;
+import org.apache.parquet.schema.LogicalTypeAnnotation.DecimalLogicalTypeAnnotation;
+import org.apache.parquet.schema.LogicalTypeAnnotation.EnumLogicalTypeAnnotation;
+import org.apache.parquet.schema.LogicalTypeAnnotation.IntLogicalTypeAnnotation;
+import org.apache.parquet.schema.LogicalTypeAnnotation.JsonLogicalTypeAnnotation;
+import org.apache.parquet.schema.LogicalTypeAnnotation.StringLogicalTypeAnnotation;
+import org.apache.parquet.schema.LogicalTypeAnnotation.TimeLogicalTypeAnnotation;
+import org.apache.parquet.schema.LogicalTypeAnnotation.TimestampLogicalTypeAnnotation;
+import org.apache.parquet.schema.MessageType;
+import org.apache.parquet.schema.PrimitiveType;
+import org.apache.parquet.schema.Type;
+
+/**
+ * Parses a simple filter expression into a Parquet {@link FilterPredicate}. The predicate is pushed
+ * down into the Parquet reader which uses it to skip row groups and pages based on column
+ * statistics and dictionaries before evaluating it on the individual records.
+ *
+ * <p>The supported syntax:
+ *
+ * <pre>
+ *   expression : term ( OR term )*
+ *   term       : factor ( AND factor )*
+ *   factor     : NOT factor | '(' expression ')' | condition
+ *   condition  : column ( '=' | '!=' | '&lt;&gt;' | '&lt;' | '&lt;=' | '&gt;' | '&gt;=' ) literal
+ *              | column IS [NOT] NULL
+ *   column     : name | "quoted name" (nested columns use dots: a.b.c)
+ *   literal    : 'string' | number | true | false
+ * </pre>
+ *
+ * For example: <code>country = 'BE' AND amount &gt;= 100</code>
+ *
+ * <p>The literal is converted to the logical type of the column: decimals like <code>12.50</code>,
+ * dates like <code>'2024-01-31'</code>, times like <code>'10:15:30'</code> and timestamps in UTC
+ * like <code>'2024-01-31 10:15:30'</code>. Filtering on other logical types isn't supported.
+ */
+public class ParquetFilterParser {
+
+  private final MessageType schema;
+  private final Set<String> referencedColumns;
+
+  private List<String> tokens;
+  private int index;
+
+  public ParquetFilterParser(MessageType schema) {
+    this.schema = schema;
+    this.referencedColumns = new LinkedHashSet<>();
+  }
+
+  /**
+   * Parse the given expression into a filter predicate using the column types of the file schema.
+   *
+   * @param expression The filter expression to parse
+   * @return The filter predicate
+   * @throws HopException In case the expression is invalid or references unknown columns
+   */
+  public FilterPredicate parse(String expression) throws HopException {
+    tokens = tokenize(expression);
+    index = 0;
+    FilterPredicate predicate = parseOr();
+    if (index < tokens.size()) {
+      throw new HopException(
+          "Unexpected token '" + tokens.get(index) + "' in Parquet filter: " + expression);
+    }
+    return predicate;
+  }
+
+  /**
+   * Gets the names of the top level columns used in the last parsed expression. The reader needs
+   * these in the requested schema to be able to evaluate the filter.
+   *
+   * @return value of referencedColumns
+   */
+  public Set<String> getReferencedColumns() {
+    return referencedColumns;
+  }
+
+  private FilterPredicate parseOr() throws HopException {
+    FilterPredicate predicate = parseAnd();
+    while (acceptKeyword("OR")) {
+      predicate = FilterApi.or(predicate, parseAnd());
+    }
+    return predicate;
+  }
+
+  private FilterPredicate parseAnd() throws HopException {
+    FilterPredicate predicate = parseFactor();
+    while (acceptKeyword("AND")) {
+      predicate = FilterApi.and(predicate, parseFactor());
+    }
+    return predicate;
+  }
+
+  private FilterPredicate parseFactor() throws HopException {
+    if (acceptKeyword("NOT")) {
+      return FilterApi.not(parseFactor());
+    }
+    if (accept("(")) {
+      FilterPredicate predicate = parseOr();
+      expect(")");
+      return predicate;
+    }
+    return parseCondition();
+  }
+
+  private FilterPredicate parseCondition() throws HopException {
+    String column = next("column name");
+    if (column.startsWith("\"")) {
+      column = column.substring(1, column.length() - 1);
+    }
+    PrimitiveType type = lookupColumn(column);
+
+    if (acceptKeyword("IS")) {
+      boolean negate = acceptKeyword("NOT");
+      if (!acceptKeyword("NULL")) {
+        throw new HopException("Expected NULL after IS in the Parquet filter on column " + column);
+      }
+      return createPredicate(column, type, negate ? "!=" : "=", null);
+    }
+
+    String operator = next("operator");
+    if ("<>".equals(operator)) {
+      operator = "!=";
+    }
+    String literal = next("value");
+    return createPredicate(column, type, operator, literal);
+  }
+
+  private PrimitiveType lookupColumn(String column) throws HopException {
+    String[] path = column.split("\\.");
+    if (!schema.containsPath(path)) {
+      throw new HopException("Column '" + column + "' used in the Parquet filter doesn't exist");
+    }
+    Type type = schema.getType(path);
+    if (!type.isPrimitive()) {
+      throw new HopException("Column '" + column + "' used in the Parquet filter isn't primitive");
+    }
+    referencedColumns.add(path[0]);
+    return type.asPrimitiveType();
+  }
+
+  private FilterPredicate createPredicate(
+      String column, PrimitiveType type, String operator, String literal) throws HopException {
+    try {
+      switch (type.getPrimitiveTypeName()) {
+        case INT32:
+          return compare(
+              FilterApi.intColumn(column),
+              operator,
+              literal == null ? null : toInteger(column, type, unquote(literal)));
+        case INT64:
+          return compare(
+              FilterApi.longColumn(column),
+              operator,
+              literal == null ? null : toLong(column, type, unquote(literal)));
+        case FLOAT:
+          checkNoLogicalType(column, type);
+          return compare(
+              FilterApi.floatColumn(column),
+              operator,
+              literal == null ? null : Float.valueOf(unquote(literal)));
+        case DOUBLE:
+          checkNoLogicalType(column, type);
+          return compare(
+              FilterApi.doubleColumn(column),
+              operator,
+              literal == null ? null : Double.valueOf(unquote(literal)));
+        case BINARY, FIXED_LEN_BYTE_ARRAY:
+          return compare(
+              FilterApi.binaryColumn(column),
+              operator,
+              literal == null ? null : toBinary(column, type, unquote(literal)));
+        case BOOLEAN:
+          checkNoLogicalType(column, type);
+          Operators.BooleanColumn booleanColumn = FilterApi.booleanColumn(column);
+          Boolean value = literal == null ? null : Boolean.valueOf(unquote(literal));
+          switch (operator) {
+            case "=":
+              return FilterApi.eq(booleanColumn, value);
+            case "!=":
+              return FilterApi.notEq(booleanColumn, value);
+            default:
+              throw new HopException(
+                  "Operator " + operator + " isn't supported on boolean column " + column);
+          }
+        default:
+          throw new HopException(
+              "Filtering on column "
+                  + column
+                  + " of type "
+                  + type.getPrimitiveTypeName()
+                  + " isn't supported");
+      }
+    } catch (NumberFormatException | ArithmeticException | DateTimeParseException e) {
+      throw new HopException(
+          "Unable to convert value " + literal + " to the type of column " + column, e);
+    }
+  }
+
+  /*
+   * The values of columns with a logical type are stored in a different form than the literal in
+   * the filter: decimals as unscaled numbers, dates as days since the epoch and so on. The
+   * literal is converted to that form so the filter compares the same values the reader returns.
+   */
+
+  private static Integer toInteger(String column, PrimitiveType type, String literal)
+      throws HopException {
+    LogicalTypeAnnotation logicalType = type.getLogicalTypeAnnotation();
+    if (logicalType == null || logicalType instanceof IntLogicalTypeAnnotation) {
+      return Integer.valueOf(literal);
+    }
+    if (logicalType instanceof DecimalLogicalTypeAnnotation decimal) {
+      return toUnscaled(decimal, literal).intValueExact();
+    }
+    if (logicalType instanceof DateLogicalTypeAnnotation) {
+      return Math.toIntExact(LocalDate.parse(literal).toEpochDay());
+    }
+    if (logicalType instanceof TimeLogicalTypeAnnotation time) {
+      return Math.toIntExact(toTimeUnit(LocalTime.parse(literal).toNanoOfDay(), time.getUnit()));
+    }
+    throw unsupportedLogicalType(column, logicalType);
+  }
+
+  private static Long toLong(String column, PrimitiveType type, String literal)
+      throws HopException {
+    LogicalTypeAnnotation logicalType = type.getLogicalTypeAnnotation();
+    if (logicalType == null || logicalType instanceof IntLogicalTypeAnnotation) {
+      return Long.valueOf(literal);
+    }
+    if (logicalType instanceof DecimalLogicalTypeAnnotation decimal) {
+      return toUnscaled(decimal, literal).longValueExact();
+    }
+    if (logicalType instanceof TimestampLogicalTypeAnnotation timestamp) {
+      // Timestamps are compared in UTC, a date without a time is midnight
+      //
+      LocalDateTime dateTime =
+          literal.length() <= 10
+              ? LocalDate.parse(literal).atStartOfDay()
+              : LocalDateTime.parse(literal.replace(' ', 'T'));
+      Instant instant = dateTime.toInstant(ZoneOffset.UTC);
+      long seconds = instant.getEpochSecond();
+      long nanos = instant.getNano();
+      switch (timestamp.getUnit()) {
+        case MILLIS:
+          return Math.addExact(Math.multiplyExact(seconds, 1000L), nanos / 1_000_000L);
+        case MICROS:
+          return Math.addExact(Math.multiplyExact(seconds, 1_000_000L), nanos / 1000L);
+        default:
+          return Math.addExact(Math.multiplyExact(seconds, 1_000_000_000L), nanos);
+      }
+    }
+    if (logicalType instanceof TimeLogicalTypeAnnotation time) {
+      return toTimeUnit(LocalTime.parse(literal).toNanoOfDay(), time.getUnit());
+    }
+    throw unsupportedLogicalType(column, logicalType);
+  }
+
+  private static Binary toBinary(String column, PrimitiveType type, String literal)
+      throws HopException {
+    LogicalTypeAnnotation logicalType = type.getLogicalTypeAnnotation();
+    if (logicalType instanceof DecimalLogicalTypeAnnotation decimal) {
+      // Big-endian two's complement, padded with the sign to the length of a fixed column
+      //
+      byte[] bytes = toUnscaled(decimal, literal).toByteArray();
+      if (type.getPrimitiveTypeName() == PrimitiveType.PrimitiveTypeName.FIXED_LEN_BYTE_ARRAY) {
+        int length = type.getTypeLength();
+        if (bytes.length > length) {
+          throw new ArithmeticException("Value doesn't fit in " + length + " bytes");
+        }
+        byte[] fixed = new byte[length];
+        Arrays.fill(fixed, 0, length - bytes.length, bytes[0] < 0 ? (byte) -1 : (byte) 0);
+        System.arraycopy(bytes, 0, fixed, length - bytes.length, bytes.length);
+        bytes = fixed;
+      }
+      return Binary.fromConstantByteArray(bytes);
+    }
+    if (logicalType == null
+        || logicalType instanceof StringLogicalTypeAnnotation
+        || logicalType instanceof EnumLogicalTypeAnnotation
+        || logicalType instanceof JsonLogicalTypeAnnotation) {
+      return Binary.fromString(literal);
+    }
+    throw unsupportedLogicalType(column, logicalType);
+  }
+
+  /** The unscaled value of a decimal, a value with more decimals than the scale is rejected. */
+  private static BigInteger toUnscaled(DecimalLogicalTypeAnnotation decimal, String literal) {
+    return new BigDecimal(literal)
+        .setScale(decimal.getScale(), RoundingMode.UNNECESSARY)
+        .unscaledValue();
+  }
+
+  private static long toTimeUnit(long nanos, LogicalTypeAnnotation.TimeUnit unit) {
+    switch (unit) {
+      case MILLIS:
+        return nanos / 1_000_000L;
+      case MICROS:
+        return nanos / 1000L;
+      default:
+        return nanos;
+    }
+  }
+
+  private static void checkNoLogicalType(String column, PrimitiveType type) throws HopException {
+    if (type.getLogicalTypeAnnotation() != null) {
+      throw unsupportedLogicalType(column, type.getLogicalTypeAnnotation());
+    }
+  }
+
+  private static HopException unsupportedLogicalType(
+      String column, LogicalTypeAnnotation logicalType) {
+    return new HopException(
+        "Filtering on column " + column + " with logical type " + logicalType + " isn't supported");
+  }
+
+  private static <T extends Comparable<T>, C extends Operators.Column<T> & Operators.SupportsLtGt>
+      FilterPredicate compare(C column, String operator, T value) throws HopException {
+    switch (operator) {
+      case "=":
+        return FilterApi.eq(column, value);
+      case "!=":
+        return FilterApi.notEq(column, value);
+      case "<":
+        return FilterApi.lt(column, value);
+      case "<=":
+        return FilterApi.ltEq(column, value);
+      case ">":
+        return FilterApi.gt(column, value);
+      case ">=":
+        return FilterApi.gtEq(column, value);
+      default:
+        throw new HopException("Unknown operator '" + operator + "' in Parquet filter");
+    }
+  }
+
+  private static String unquote(String literal) {
+    if (literal.length() >= 2 && literal.startsWith("'") && literal.endsWith("'")) {
+      return literal.substring(1, literal.length() - 1).replace("''", "'");
+    }
+    return literal;
+  }
+
+  private boolean accept(String token) {
+    if (index < tokens.size() && tokens.get(index).equals(token)) {
+      index++;
+      return true;
+    }
+    return false;
+  }
+
+  private boolean acceptKeyword(String keyword) {
+    if (index < tokens.size() && tokens.get(index).equalsIgnoreCase(keyword)) {
+      index++;
+      return true;
+    }
+    return false;
+  }
+
+  private void expect(String token) throws HopException {
+    if (!accept(token)) {
+      throw new HopException("Expected '" + token + "' in the Parquet filter");
+    }
+  }
+
+  private String next(String what) throws HopException {
+    if (index >= tokens.size()) {
+      throw new HopException("Expected a " + what + " at the end of the Parquet filter");
+    }
+    return tokens.get(index++);
+  }
+
+  private static List<String> tokenize(String expression) throws HopException {
+    List<String> list = new ArrayList<>();
+    int i = 0;
+    int length = expression.length();
+    while (i < length) {
+      char c = expression.charAt(i);
+      if (Character.isWhitespace(c)) {
+        i++;
+      } else if (c == '(' || c == ')') {
+        list.add(String.valueOf(c));
+        i++;
+      } else if (c == '=' || c == '<' || c == '>' || c == '!') {
+        int start = i++;
+        if (i < length && (expression.charAt(i) == '=' || expression.charAt(i) == '>')) {
+          i++;
+        }
+        list.add(expression.substring(start, i));
+      } else if (c == '\'' || c == '"') {
+        int start = i++;
+        while (true) {
+          if (i >= length) {
+            throw new HopException("Unterminated quote in Parquet filter: " + expression);
+          }
+          if (expression.charAt(i) == c) {
+            // A doubled quote is an escaped quote
+            if (i + 1 < length && expression.charAt(i + 1) == c) {
+              i += 2;
+              continue;
+            }
+            break;
+          }
+          i++;
+        }
+        i++;
+        list.add(expression.substring(start, i));
+      } else {
+        int start = i;
+        while (i < length
+            && !Character.isWhitespace(expression.charAt(i))
+            && "()=<>!'\"".indexOf(expression.charAt(i)) < 0) {
+          i++;
+        }
+        list.add(expression.substring(start, i));
+      }
+    }
+    return list;
+  }
+}
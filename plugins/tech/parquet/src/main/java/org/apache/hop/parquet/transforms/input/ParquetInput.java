@@ -17,9 +17,8 @@
 
 package org.apache.hop.parquet.transforms.input;
 
-import java.io.ByteArrayOutputStream;
 import java.io.IOException;
-import org.apache.commons.io.IOUtils;
+import org.apache.commons.lang.StringUtils;
 import org.apache.commons.vfs2.FileObject;
 import org.apache.hop.core.RowMetaAndData;
 import org.apache.hop.core.exception.HopException;
@@ -29,6 +28,10 @@ import org.apache.hop.pipeline.Pipeline;
 import org.apache.hop.pipeline.PipelineMeta;
 import org.apache.hop.pipeline.transform.BaseTransform;
 import org.apache.hop.pipeline.transform.TransformMeta;
+import org.apache.parquet.filter2.compat.FilterCompat;
+import org.apache.parquet.filter2.predicate.FilterPredicate;
+import org.apache.parquet.hadoop.ParquetFileReader;
+import org.apache.parquet.schema.MessageType;
 
 public class ParquetInput extends BaseTransform<ParquetInputMeta, ParquetInputData> {
   public ParquetInput(
@@ -74,17 +77,36 @@ public class ParquetInput extends BaseTransform<ParquetInputMeta, ParquetInputDa
     FileObject fileObject = HopVfs.getFileObject(filename, variables);
 
     try {
-      long size = fileObject.getContent().getSize();
-      data.inputStream = HopVfs.getInputStream(fileObject);
-
-      // Reads the whole file into memory...
+      // Close the reader of the previous file if there was one
       //
-      ByteArrayOutputStream outputStream = new ByteArrayOutputStream((int) size);
-      IOUtils.copy(data.inputStream, outputStream);
-      ParquetStream inputFile = new ParquetStream(outputStream.toByteArray(), filename);
+      closeFile();
 
-      ParquetReadSupport readSupport = new ParquetReadSupport(meta.getFields());
-      data.reader = new ParquetReaderBuilder<>(readSupport, inputFile).build();
+      // Only the byte ranges the reader asks for are read: the footer and one row group at a time.
+      //
+      ParquetVfsInputFile inputFile = new ParquetVfsInputFile(fileObject, filename);
+
+      ParquetReaderBuilder<RowMetaAndData> readerBuilder;
+      String filter = resolve(meta.getFilter());
+      if (StringUtils.isEmpty(filter)) {
+        readerBuilder =
+            new ParquetReaderBuilder<>(new ParquetReadSupport(meta.getFields()), inputFile);
+      } else {
+        // The filter is pushed down into the reader: row groups and pages are skipped based on
+        // column statistics and dictionaries. We need the file schema to know the column types.
+        //
+        MessageType fileSchema;
+        try (ParquetFileReader fileReader = ParquetFileReader.open(inputFile)) {
+          fileSchema = fileReader.getFooter().getFileMetaData().getSchema();
+        }
+        ParquetFilterParser filterParser = new ParquetFilterParser(fileSchema);
+        FilterPredicate predicate = filterParser.parse(filter);
+        ParquetReadSupport readSupport =
+            new ParquetReadSupport(meta.getFields(), filterParser.getReferencedColumns());
+        readerBuilder = new ParquetReaderBuilder<>(readSupport, inputFile);
+        readerBuilder.withFilter(FilterCompat.get(predicate));
+      }
+      data.reader = readerBuilder.build();
+      data.readerClosed = false;
 
       RowMetaAndData r = data.reader.read();
       while (r != null && !isStopped()) {
@@ -102,10 +124,9 @@ public class ParquetInput extends BaseTransform<ParquetInputMeta, ParquetInputDa
   }
 
   public void closeFile() {
-    if (!data.readerClosed) {
+    if (!data.readerClosed && data.reader != null) {
       try {
         data.reader.close();
-        data.inputStream.close();
       } catch (IOException e) {
         logError("Unable to properly close parquet reader!");
       }
@@ -17,11 +17,8 @@
 
 package org.apache.hop.parquet.transforms.input;
 
-import java.io.ByteArrayOutputStream;
-import java.io.InputStream;
 import java.util.ArrayList;
 import java.util.List;
-import org.apache.commons.io.IOUtils;
 import org.apache.commons.vfs2.FileObject;
 import org.apache.hop.core.Const;
 import org.apache.hop.core.RowMetaAndData;
@@ -39,6 +36,7 @@ import org.apache.hop.ui.core.dialog.BaseDialog;
 import org.apache.hop.ui.core.gui.WindowProperty;
 import org.apache.hop.ui.core.widget.ColumnInfo;
 import org.apache.hop.ui.core.widget.TableView;
+import org.apache.hop.ui.core.widget.TextVar;
 import org.apache.hop.ui.pipeline.transform.BaseTransformDialog;
 import org.apache.parquet.column.ColumnDescriptor;
 import org.apache.parquet.hadoop.ParquetReader;
@@ -63,6 +61,7 @@ public class ParquetInputDialog extends BaseTransformDialog {
   protected ParquetInputMeta input;
 
   private Combo wFilenameField;
+  private TextVar wFilter;
   private TableView wFields;
 
   private String returnValue;
@@ -143,6 +142,25 @@ public class ParquetInputDialog extends BaseTransformDialog {
     wFilenameField.setLayoutData(fdFilenameField);
     lastControl = wFilenameField;
 
+    Label wlFilter = new Label(shell, SWT.RIGHT);
+    wlFilter.setText(BaseMessages.getString(PKG, "ParquetInputDialog.Filter.Label"));
+    wlFilter.setToolTipText(BaseMessages.getString(PKG, "ParquetInputDialog.Filter.Tooltip"));
+    PropsUi.setLook(wlFilter);
+    FormData fdlFilter = new FormData();
+    fdlFilter.left = new FormAttachment(0, 0);
+    fdlFilter.right = new FormAttachment(middle, -margin);
+    fdlFilter.top = new FormAttachment(lastControl, margin);
+    wlFilter.setLayoutData(fdlFilter);
+    wFilter = new TextVar(variables, shell, SWT.SINGLE | SWT.LEFT | SWT.BORDER);
+    wFilter.setToolTipText(BaseMessages.getString(PKG, "ParquetInputDialog.Filter.Tooltip"));
+    PropsUi.setLook(wFilter);
+    FormData fdFilter = new FormData();
+    fdFilter.left = new FormAttachment(middle, 0);
+    fdFilter.top = new FormAttachment(wlFilter, 0, SWT.CENTER);
+    fdFilter.right = new FormAttachment(100, 0);
+    wFilter.setLayoutData(fdFilter);
+    lastControl = wFilter;
+
     Label wlFields = new Label(shell, SWT.LEFT);
     wlFields.setText(BaseMessages.getString(PKG, "ParquetInputDialog.Fields.Label"));
     PropsUi.setLook(wlFields);
@@ -212,24 +230,16 @@ public class ParquetInputDialog extends BaseTransformDialog {
               true);
       if (filename != null) {
         FileObject fileObject = HopVfs.getFileObject(variables.resolve(filename), variables);
-
-        long size = fileObject.getContent().getSize();
-        InputStream inputStream = HopVfs.getInputStream(fileObject);
-
-        // Reads the whole file into memory...
-        //
-        ByteArrayOutputStream outputStream = new ByteArrayOutputStream((int) size);
-        IOUtils.copy(inputStream, outputStream);
-        ParquetStream inputFile = new ParquetStream(outputStream.toByteArray(), filename);
+        ParquetVfsInputFile inputFile = new ParquetVfsInputFile(fileObject, filename);
         // Empty list of fields to retrieve: we still grab the schema
         //
         ParquetReadSupport readSupport = new ParquetReadSupport(new ArrayList<>());
-        ParquetReader<RowMetaAndData> reader =
-            new ParquetReaderBuilder<>(readSupport, inputFile).build();
-
-        // Read one empty row...
-        //
-        reader.read();
+        try (ParquetReader<RowMetaAndData> reader =
+            new ParquetReaderBuilder<>(readSupport, inputFile).build()) {
+          // Read one empty row...
+          //
+          reader.read();
+        }
 
         // Now we have the schema...
         //
@@ -287,6 +297,7 @@ public class ParquetInputDialog extends BaseTransformDialog {
 
     wTransformName.setText(Const.NVL(transformName, ""));
     wFilenameField.setText(Const.NVL(input.getFilenameField(), ""));
+    wFilter.setText(Const.NVL(input.getFilter(), ""));
     for (int i = 0; i < input.getFields().size(); i++) {
       ParquetField field = input.getFields().get(i);
       TableItem item = wFields.table.getItem(i);
@@ -310,6 +321,7 @@ public class ParquetInputDialog extends BaseTransformDialog {
 
   private void getInfo(ParquetInputMeta meta) {
     meta.setFilenameField(wFilenameField.getText());
+    meta.setFilter(wFilter.getText());
     meta.getFields().clear();
     for (TableItem item : wFields.getNonEmptyItems()) {
       int index = 1;
@@ -46,6 +46,10 @@ public class ParquetInputMeta extends BaseTransformMeta<ParquetInput, ParquetInp
   @HopMetadataProperty(groupKey = "fields", key = "field")
   private List<ParquetField> fields;
 
+  /** An optional filter expression which is pushed down into the Parquet reader */
+  @HopMetadataProperty(key = "filter")
+  private String filter;
+
   public ParquetInputMeta() {
     fields = new ArrayList<>();
   }
@@ -104,4 +108,20 @@ public class ParquetInputMeta extends BaseTransformMeta<ParquetInput, ParquetInp
   public void setFields(List<ParquetField> fields) {
     this.fields = fields;
   }
+
+  /**
+   * Gets filter
+   *
+   * @return value of filter
+   */
+  public String getFilter() {
+    return filter;
+  }
+
+  /**
+   * @param filter The filter to set
+   */
+  public void setFilter(String filter) {
+    this.filter = filter;
+  }
 }
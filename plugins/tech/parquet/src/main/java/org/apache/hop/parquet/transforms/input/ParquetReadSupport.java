@@ -17,22 +17,34 @@
 
 package org.apache.hop.parquet.transforms.input;
 
+import java.util.ArrayList;
+import java.util.Collections;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.Set;
 import org.apache.hadoop.conf.Configuration;
 import org.apache.hop.core.RowMetaAndData;
 import org.apache.parquet.hadoop.api.InitContext;
 import org.apache.parquet.hadoop.api.ReadSupport;
 import org.apache.parquet.io.api.RecordMaterializer;
 import org.apache.parquet.schema.MessageType;
+import org.apache.parquet.schema.Type;
 
 public class ParquetReadSupport extends ReadSupport<RowMetaAndData> {
 
   private List<ParquetField> fields;
 
+  /** Extra columns to read, for example because a filter is evaluated on them. */
+  private Set<String> extraColumns;
+
   public ParquetReadSupport(List<ParquetField> fields) {
+    this(fields, Collections.emptySet());
+  }
+
+  public ParquetReadSupport(List<ParquetField> fields, Set<String> extraColumns) {
     this.fields = fields;
+    this.extraColumns = extraColumns;
   }
 
   private MessageType messageType;
@@ -40,7 +52,38 @@ public class ParquetReadSupport extends ReadSupport<RowMetaAndData> {
   @Override
   public ReadContext init(InitContext context) {
     this.messageType = context.getFileSchema();
-    return new ReadContext(messageType, new HashMap<>());
+    return new ReadContext(getRequestedSchema(messageType), new HashMap<>());
+  }
+
+  /**
+   * Only ask the reader for the columns we actually need. The other columns are never read from the
+   * file or decoded.
+   *
+   * @param fileSchema The schema of the file
+   * @return The projected schema
+   */
+  private MessageType getRequestedSchema(MessageType fileSchema) {
+    if (fields.isEmpty()) {
+      // Nothing specific was requested: we're probably just after the schema.
+      //
+      return fileSchema;
+    }
+    List<Type> requestedTypes = new ArrayList<>();
+    for (Type type : fileSchema.getFields()) {
+      if (isRequested(type.getName())) {
+        requestedTypes.add(type);
+      }
+    }
+    return new MessageType(fileSchema.getName(), requestedTypes);
+  }
+
+  private boolean isRequested(String columnName) {
+    for (ParquetField field : fields) {
+      if (columnName.equalsIgnoreCase(field.getSourceField())) {
+        return true;
+      }
+    }
+    return extraColumns.contains(columnName);
   }
 
   @Override
@@ -49,7 +92,7 @@ public class ParquetReadSupport extends ReadSupport<RowMetaAndData> {
       Map<String, String> keyValueMetaData,
       MessageType messageType,
       ReadContext readContext) {
-    return new ParquetRecordMaterializer(messageType, fields);
+    return new ParquetRecordMaterializer(readContext.getRequestedSchema(), fields);
   }
 
   /**
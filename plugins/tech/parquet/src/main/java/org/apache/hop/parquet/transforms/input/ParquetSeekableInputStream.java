@@ -0,0 +1,265 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.hop.parquet.transforms.input;
+
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import org.apache.commons.vfs2.FileObject;
+import org.apache.commons.vfs2.RandomAccessContent;
+import org.apache.parquet.io.SeekableInputStream;
+
+/**
+ * Base class for the seekable streams handed out by {@link ParquetVfsInputFile}. Subclasses only
+ * need to implement a positioned read, the position bookkeeping is done here.
+ */
+public abstract class ParquetSeekableInputStream extends SeekableInputStream {
+
+  private static final int COPY_BUFFER_SIZE = 64 * 1024;
+
+  protected final long length;
+  protected long position;
+
+  protected ParquetSeekableInputStream(long length) {
+    this.length = length;
+    this.position = 0L;
+  }
+
+  /**
+   * Read at most len bytes starting at the given position in the file.
+   *
+   * @param filePosition the absolute position in the file
+   * @param buffer the buffer to read into
+   * @param offset the offset in the buffer
+   * @param len the maximum number of bytes to read
+   * @return the number of bytes read or -1 at the end of the file
+   * @throws IOException in case of an I/O error
+   */
+  protected abstract int readAt(long filePosition, byte[] buffer, int offset, int len)
+      throws IOException;
+
+  @Override
+  public long getPos() throws IOException {
+    return position;
+  }
+
+  @Override
+  public void seek(long newPos) throws IOException {
+    if (newPos < 0 || newPos > length) {
+      throw new EOFException("Unable to seek to position " + newPos + ", file length is " + length);
+    }
+    position = newPos;
+  }
+
+  @Override
+  public int read() throws IOException {
+    byte[] single = new byte[1];
+    int read = read(single, 0, 1);
+    return read <= 0 ? -1 : (single[0] & 0xFF);
+  }
+
+  @Override
+  public int read(byte[] buffer, int offset, int len) throws IOException {
+    if (len == 0) {
+      return 0;
+    }
+    if (position >= length) {
+      return -1;
+    }
+    int toRead = (int) Math.min(len, length - position);
+    int read = readAt(position, buffer, offset, toRead);
+    if (read > 0) {
+      position += read;
+    }
+    return read;
+  }
+
+  @Override
+  public long skip(long n) throws IOException {
+    long skipped = Math.max(0L, Math.min(n, length - position));
+    position += skipped;
+    return skipped;
+  }
+
+  @Override
+  public int available() throws IOException {
+    return (int) Math.min(Integer.MAX_VALUE, length - position);
+  }
+
+  @Override
+  public void readFully(byte[] buffer) throws IOException {
+    readFully(buffer, 0, buffer.length);
+  }
+
+  @Override
+  public void readFully(byte[] buffer, int offset, int len) throws IOException {
+    int done = 0;
+    while (done < len) {
+      int read = read(buffer, offset + done, len - done);
+      if (read < 0) {
+        throw new EOFException(
+            "Reached the end of the file after " + done + " of " + len + " bytes");
+      }
+      done += read;
+    }
+  }
+
+  @Override
+  public int read(ByteBuffer byteBuffer) throws IOException {
+    if (!byteBuffer.hasRemaining()) {
+      return 0;
+    }
+    if (byteBuffer.hasArray()) {
+      int read =
+          read(
+              byteBuffer.array(),
+              byteBuffer.arrayOffset() + byteBuffer.position(),
+              byteBuffer.remaining());
+      if (read > 0) {
+        byteBuffer.position(byteBuffer.position() + read);
+      }
+      return read;
+    }
+    byte[] chunk = new byte[Math.min(byteBuffer.remaining(), COPY_BUFFER_SIZE)];
+    int read = read(chunk, 0, chunk.length);
+    if (read > 0) {
+      byteBuffer.put(chunk, 0, read);
+    }
+    return read;
+  }
+
+  @Override
+  public void readFully(ByteBuffer byteBuffer) throws IOException {
+    while (byteBuffer.hasRemaining()) {
+      if (read(byteBuffer) < 0) {
+        throw new EOFException("Reached the end of the file while filling a buffer");
+      }
+    }
+  }
+
+  /** Positioned reads on a local file channel. Seeking doesn't cost anything. */
+  public static class ChannelStream extends ParquetSeekableInputStream {
+    private final FileChannel channel;
+
+    public ChannelStream(FileChannel channel, long length) {
+      super(length);
+      this.channel = channel;
+    }
+
+    @Override
+    protected int readAt(long filePosition, byte[] buffer, int offset, int len) throws IOException {
+      return channel.read(ByteBuffer.wrap(buffer, offset, len), filePosition);
+    }
+
+    @Override
+    public int read(ByteBuffer byteBuffer) throws IOException {
+      // Read straight into direct buffers without an intermediate copy
+      //
+      if (position >= length) {
+        return -1;
+      }
+      int read = channel.read(byteBuffer, position);
+      if (read > 0) {
+        position += read;
+      }
+      return read;
+    }
+
+    @Override
+    public void close() throws IOException {
+      channel.close();
+    }
+  }
+
+  /** Reads on VFS file systems which support random access reads. */
+  public static class RandomAccessStream extends ParquetSeekableInputStream {
+    private final RandomAccessContent content;
+
+    public RandomAccessStream(RandomAccessContent content, long length) {
+      super(length);
+      this.content = content;
+    }
+
+    @Override
+    protected int readAt(long filePosition, byte[] buffer, int offset, int len) throws IOException {
+      if (content.getFilePointer() != filePosition) {
+        content.seek(filePosition);
+      }
+      content.readFully(buffer, offset, len);
+      return len;
+    }
+
+    @Override
+    public void close() throws IOException {
+      content.close();
+    }
+  }
+
+  /**
+   * Fallback for file systems without random access: reads forward on a regular input stream and
+   * only re-opens the stream when the reader seeks backwards.
+   */
+  public static class ReopeningStream extends ParquetSeekableInputStream {
+    private final FileObject fileObject;
+    private InputStream inputStream;
+    private long streamPosition;
+
+    public ReopeningStream(FileObject fileObject, long length) {
+      super(length);
+      this.fileObject = fileObject;
+    }
+
+    @Override
+    protected int readAt(long filePosition, byte[] buffer, int offset, int len) throws IOException {
+      if (inputStream == null || filePosition < streamPosition) {
+        closeStream();
+        inputStream = fileObject.getContent().getInputStream();
+        streamPosition = 0L;
+      }
+      while (streamPosition < filePosition) {
+        long skipped = inputStream.skip(filePosition - streamPosition);
+        if (skipped <= 0) {
+          if (inputStream.read() < 0) {
+            throw new EOFException("Unable to skip to position " + filePosition);
+          }
+          skipped = 1;
+        }
+        streamPosition += skipped;
+      }
+      int read = inputStream.read(buffer, offset, len);
+      if (read > 0) {
+        streamPosition += read;
+      }
+      return read;
+    }
+
+    private void closeStream() throws IOException {
+      if (inputStream != null) {
+        inputStream.close();
+        inputStream = null;
+      }
+    }
+
+    @Override
+    public void close() throws IOException {
+      closeStream();
+    }
+  }
+}
@@ -0,0 +1,94 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.hop.parquet.transforms.input;
+
+import java.io.IOException;
+import java.net.URI;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import org.apache.commons.vfs2.Capability;
+import org.apache.commons.vfs2.FileObject;
+import org.apache.commons.vfs2.util.RandomAccessMode;
+import org.apache.parquet.io.InputFile;
+import org.apache.parquet.io.SeekableInputStream;
+
+/**
+ * A Parquet {@link InputFile} on top of a VFS {@link FileObject}. Instead of copying the whole file
+ * into memory the Parquet reader gets a seekable stream which only reads the byte ranges it asks
+ * for: the footer first and then one row group at a time.
+ *
+ * <ul>
+ *   <li>Local files (file://) are read with positioned reads on a NIO {@link FileChannel}
+ *   <li>VFS file systems with random access read support use {@link
+ *       org.apache.commons.vfs2.RandomAccessContent}
+ *   <li>Other file systems fall back to a plain input stream which is re-opened on backward seeks
+ * </ul>
+ */
+public class ParquetVfsInputFile implements InputFile {
+  private final FileObject fileObject;
+  private final String filename;
+  private final long length;
+
+  public ParquetVfsInputFile(FileObject fileObject, String filename) throws IOException {
+    this.fileObject = fileObject;
+    this.filename = filename;
+    this.length = fileObject.getContent().getSize();
+  }
+
+  @Override
+  public long getLength() throws IOException {
+    return length;
+  }
+
+  @Override
+  public SeekableInputStream newStream() throws IOException {
+    Path localPath = getLocalPath();
+    if (localPath != null) {
+      return new ParquetSeekableInputStream.ChannelStream(
+          FileChannel.open(localPath, StandardOpenOption.READ), length);
+    }
+    if (fileObject.getFileSystem().hasCapability(Capability.RANDOM_ACCESS_READ)) {
+      return new ParquetSeekableInputStream.RandomAccessStream(
+          fileObject.getContent().getRandomAccessContent(RandomAccessMode.READ), length);
+    }
+    return new ParquetSeekableInputStream.ReopeningStream(fileObject, length);
+  }
+
+  /**
+   * @return The local file system path of the file or null if the file isn't on the local file
+   *     system.
+   */
+  private Path getLocalPath() {
+    try {
+      if (!"file".equalsIgnoreCase(fileObject.getName().getScheme())) {
+        return null;
+      }
+      return Paths.get(new URI(fileObject.getName().getURI()));
+    } catch (Exception e) {
+      // Not something NIO understands, let VFS handle it
+      return null;
+    }
+  }
+
+  @Override
+  public String toString() {
+    return "ParquetVfsInputFile of file '" + filename + "'";
+  }
+}
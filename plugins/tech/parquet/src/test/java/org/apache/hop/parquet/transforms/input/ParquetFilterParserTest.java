@@ -0,0 +1,211 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.hop.parquet.transforms.input;
+
+import static org.apache.parquet.filter2.predicate.FilterApi.and;
+import static org.apache.parquet.filter2.predicate.FilterApi.binaryColumn;
+import static org.apache.parquet.filter2.predicate.FilterApi.booleanColumn;
+import static org.apache.parquet.filter2.predicate.FilterApi.doubleColumn;
+import static org.apache.parquet.filter2.predicate.FilterApi.eq;
+import static org.apache.parquet.filter2.predicate.FilterApi.gt;
+import static org.apache.parquet.filter2.predicate.FilterApi.gtEq;
+import static org.apache.parquet.filter2.predicate.FilterApi.intColumn;
+import static org.apache.parquet.filter2.predicate.FilterApi.longColumn;
+import static org.apache.parquet.filter2.predicate.FilterApi.lt;
+import static org.apache.parquet.filter2.predicate.FilterApi.ltEq;
+import static org.apache.parquet.filter2.predicate.FilterApi.not;
+import static org.apache.parquet.filter2.predicate.FilterApi.notEq;
+import static org.apache.parquet.filter2.predicate.FilterApi.or;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.fail;
+
+import java.util.List;
+import org.apache.hop.core.exception.HopException;
+import org.apache.parquet.filter2.predicate.FilterPredicate;
+import org.apache.parquet.io.api.Binary;
+import org.apache.parquet.schema.MessageType;
+import org.apache.parquet.schema.MessageTypeParser;
+import org.junit.Test;
+
+public class ParquetFilterParserTest {
+
+  private static final MessageType SCHEMA =
+      MessageTypeParser.parseMessageType(
+          "message test {"
+              + "  required binary country (UTF8);"
+              + "  required int64 amount;"
+              + "  optional int32 age;"
+              + "  optional double price;"
+              + "  optional boolean active;"
+              + "  optional binary name (UTF8);"
+              + "  optional int32 discount (DECIMAL(5,2));"
+              + "  optional int64 total (DECIMAL(18,4));"
+              + "  optional fixed_len_byte_array(4) balance (DECIMAL(9,2));"
+              + "  optional binary rate (DECIMAL(20,3));"
+              + "  optional int32 birthday (DATE);"
+              + "  optional int64 created (TIMESTAMP_MILLIS);"
+              + "  optional int64 updated (TIMESTAMP_MICROS);"
+              + "  optional int32 opening (TIME_MILLIS);"
+              + "  optional fixed_len_byte_array(12) waited (INTERVAL);"
+              + "  optional group address {"
+              + "    optional binary city (UTF8);"
+              + "  }"
+              + "}");
+
+  private static FilterPredicate parse(String expression) throws HopException {
+    return new ParquetFilterParser(SCHEMA).parse(expression);
+  }
+
+  private static void assertRejected(String expression) {
+    try {
+      FilterPredicate predicate = parse(expression);
+      fail("Expression '" + expression + "' should be rejected but gave " + predicate);
+    } catch (HopException e) {
+      // Expected
+    }
+  }
+
+  @Test
+  public void testComparisons() throws Exception {
+    assertEquals(eq(binaryColumn("country"), Binary.fromString("BE")), parse("country = 'BE'"));
+    assertEquals(notEq(longColumn("amount"), 5L), parse("amount != 5"));
+    assertEquals(notEq(longColumn("amount"), 5L), parse("amount <> 5"));
+    assertEquals(lt(intColumn("age"), 18), parse("age < 18"));
+    assertEquals(ltEq(intColumn("age"), 18), parse("age<=18"));
+    assertEquals(gt(doubleColumn("price"), 9.5), parse("price > 9.5"));
+    assertEquals(gtEq(doubleColumn("price"), -1.0), parse("price >= -1"));
+    assertEquals(eq(booleanColumn("active"), true), parse("active = true"));
+  }
+
+  @Test
+  public void testNullsQuotesAndNestedColumns() throws Exception {
+    assertEquals(eq(intColumn("age"), null), parse("age IS NULL"));
+    assertEquals(notEq(intColumn("age"), null), parse("age is not null"));
+    assertEquals(
+        eq(binaryColumn("name"), Binary.fromString("O'Neil")), parse("\"name\" = 'O''Neil'"));
+    assertEquals(
+        eq(binaryColumn("address.city"), Binary.fromString("Gent")),
+        parse("address.city = 'Gent'"));
+  }
+
+  @Test
+  public void testDecimals() throws Exception {
+    // Decimals are compared on their unscaled value
+    assertEquals(eq(intColumn("discount"), 1250), parse("discount = 12.5"));
+    assertEquals(lt(intColumn("discount"), -5), parse("discount < -0.05"));
+    assertEquals(gtEq(longColumn("total"), 1000000L), parse("total >= '100'"));
+    assertEquals(eq(intColumn("discount"), null), parse("discount IS NULL"));
+
+    // Big-endian two's complement, fixed length columns are padded with the sign
+    assertEquals(
+        eq(binaryColumn("balance"), Binary.fromConstantByteArray(new byte[] {0, 0, 0x01, 0x2C})),
+        parse("balance = 3"));
+    assertEquals(
+        gt(
+            binaryColumn("balance"),
+            Binary.fromConstantByteArray(new byte[] {-1, -1, -1, (byte) 0x9C})),
+        parse("balance > -1.00"));
+    assertEquals(
+        notEq(binaryColumn("rate"), Binary.fromConstantByteArray(new byte[] {0x04, (byte) 0xD2})),
+        parse("rate != 1.234"));
+
+    // More decimals than the scale or more digits than the column can hold
+    assertRejected("discount = 1.234");
+    assertRejected("discount = 123456789");
+    assertRejected("balance = 123456789012");
+    assertRejected("rate = 'abc'");
+  }
+
+  @Test
+  public void testDatesAndTimes() throws Exception {
+    // Days since the epoch
+    assertEquals(eq(intColumn("birthday"), 19753), parse("birthday = '2024-01-31'"));
+    assertEquals(lt(intColumn("birthday"), -1), parse("birthday < '1969-12-31'"));
+
+    // Timestamps in UTC in the unit of the column
+    assertEquals(
+        gtEq(longColumn("created"), 1706696130500L), parse("created >= '2024-01-31 10:15:30.5'"));
+    assertEquals(gtEq(longColumn("created"), 1706659200000L), parse("created >= '2024-01-31'"));
+    assertEquals(
+        lt(longColumn("updated"), 1706696130000001L),
+        parse("updated < '2024-01-31T10:15:30.000001'"));
+
+    // Milliseconds since midnight
+    assertEquals(gt(intColumn("opening"), 36930000), parse("opening > '10:15:30'"));
+
+    assertRejected("birthday = '31/01/2024'");
+    assertRejected("birthday = 19753");
+    assertRejected("created = 'yesterday'");
+    assertRejected("opening = '25:00'");
+  }
+
+  @Test
+  public void testUnsupportedLogicalTypes() {
+    assertRejected("waited = '1 day'");
+  }
+
+  @Test
+  public void testReferencedColumns() throws Exception {
+    ParquetFilterParser parser = new ParquetFilterParser(SCHEMA);
+    parser.parse("address.city = 'Gent' AND amount > 1 OR age IS NULL");
+    assertEquals(List.of("address", "amount", "age"), List.copyOf(parser.getReferencedColumns()));
+  }
+
+  @Test
+  public void testPrecedence() throws Exception {
+    FilterPredicate a = eq(binaryColumn("country"), Binary.fromString("BE"));
+    FilterPredicate b = gt(longColumn("amount"), 100L);
+    FilterPredicate c = lt(intColumn("age"), 18);
+
+    // AND binds stronger than OR
+    assertEquals(or(a, and(b, c)), parse("country = 'BE' OR amount > 100 AND age < 18"));
+    assertEquals(or(and(a, b), c), parse("country = 'BE' AND amount > 100 OR age < 18"));
+
+    // Parentheses override the precedence
+    assertEquals(and(or(a, b), c), parse("(country = 'BE' OR amount > 100) AND age < 18"));
+
+    // NOT applies to the next factor only
+    assertEquals(and(not(a), b), parse("NOT country = 'BE' AND amount > 100"));
+    assertEquals(not(and(a, b)), parse("not (country = 'BE' and amount > 100)"));
+
+    // Left associative
+    assertEquals(or(or(a, b), c), parse("country = 'BE' OR amount > 100 OR age < 18"));
+  }
+
+  @Test
+  public void testMalformedExpressions() {
+    assertRejected("");
+    assertRejected("country");
+    assertRejected("country =");
+    assertRejected("country = 'BE");
+    assertRejected("= 'BE'");
+    assertRejected("unknown = 1");
+    assertRejected("address = 'Gent'");
+    assertRejected("amount => 5");
+    assertRejected("amount ! 5");
+    assertRejected("amount = abc");
+    assertRejected("age = 1.5");
+    assertRejected("active > true");
+    assertRejected("age IS 5");
+    assertRejected("(age < 18");
+    assertRejected("age < 18)");
+    assertRejected("age < 18 AND");
+    assertRejected("age < 18 amount > 1");
+    assertRejected("NOT");
+  }
+}
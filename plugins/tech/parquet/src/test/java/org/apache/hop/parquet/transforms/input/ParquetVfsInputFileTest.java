@@ -0,0 +1,132 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.hop.parquet.transforms.input;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertThrows;
+import static org.junit.Assert.assertTrue;
+
+import java.io.EOFException;
+import java.io.File;
+import java.nio.ByteBuffer;
+import java.nio.file.Files;
+import java.util.Arrays;
+import org.apache.commons.vfs2.FileObject;
+import org.apache.commons.vfs2.util.RandomAccessMode;
+import org.apache.hop.core.vfs.HopVfs;
+import org.apache.parquet.io.SeekableInputStream;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+public class ParquetVfsInputFileTest {
+
+  /** Larger than the 64k chunks used to fill direct buffers */
+  private static final int LENGTH = 200000;
+
+  @Rule public TemporaryFolder temporaryFolder = new TemporaryFolder();
+
+  private byte[] content;
+  private FileObject fileObject;
+
+  @Before
+  public void setUp() throws Exception {
+    content = new byte[LENGTH];
+    for (int i = 0; i < LENGTH; i++) {
+      content[i] = (byte) (i * 31 + i / 256);
+    }
+    File file = temporaryFolder.newFile("test.parquet");
+    Files.write(file.toPath(), content);
+    fileObject = HopVfs.getFileObject(file.getAbsolutePath());
+  }
+
+  @Test
+  public void testLocalFile() throws Exception {
+    ParquetVfsInputFile inputFile = new ParquetVfsInputFile(fileObject, "test.parquet");
+    assertEquals(LENGTH, inputFile.getLength());
+    try (SeekableInputStream stream = inputFile.newStream()) {
+      assertTrue(stream instanceof ParquetSeekableInputStream.ChannelStream);
+      checkStream(stream);
+    }
+  }
+
+  @Test
+  public void testRandomAccessContent() throws Exception {
+    try (SeekableInputStream stream =
+        new ParquetSeekableInputStream.RandomAccessStream(
+            fileObject.getContent().getRandomAccessContent(RandomAccessMode.READ), LENGTH)) {
+      checkStream(stream);
+    }
+  }
+
+  @Test
+  public void testReopeningStream() throws Exception {
+    try (SeekableInputStream stream =
+        new ParquetSeekableInputStream.ReopeningStream(fileObject, LENGTH)) {
+      checkStream(stream);
+    }
+  }
+
+  private void checkStream(SeekableInputStream stream) throws Exception {
+    assertEquals(0L, stream.getPos());
+
+    // The footer is read first: the last bytes of the file
+    //
+    stream.seek(LENGTH - 8L);
+    byte[] footer = new byte[8];
+    stream.readFully(footer);
+    assertArrayEquals(Arrays.copyOfRange(content, LENGTH - 8, LENGTH), footer);
+    assertEquals(LENGTH, stream.getPos());
+
+    // Then a row group: seek backwards and read across the 64k chunks into a direct buffer
+    //
+    stream.seek(1000L);
+    ByteBuffer direct = ByteBuffer.allocateDirect(150000);
+    stream.readFully(direct);
+    direct.flip();
+    byte[] bytes = new byte[direct.remaining()];
+    direct.get(bytes);
+    assertArrayEquals(Arrays.copyOfRange(content, 1000, 151000), bytes);
+    assertEquals(151000L, stream.getPos());
+
+    // A heap buffer and an array, continuing where we left off
+    //
+    ByteBuffer heap = ByteBuffer.allocate(100);
+    stream.readFully(heap);
+    assertArrayEquals(Arrays.copyOfRange(content, 151000, 151100), heap.array());
+    byte[] array = new byte[10];
+    stream.readFully(array, 2, 8);
+    assertArrayEquals(
+        Arrays.copyOfRange(content, 151100, 151108), Arrays.copyOfRange(array, 2, 10));
+    assertEquals(content[151108] & 0xFF, stream.read());
+    assertEquals(151109L, stream.getPos());
+
+    // The end of the file
+    //
+    stream.seek(LENGTH - 4L);
+    assertThrows(EOFException.class, () -> stream.readFully(new byte[8]));
+    stream.seek(LENGTH);
+    assertEquals(-1, stream.read());
+    assertEquals(-1, stream.read(new byte[8], 0, 8));
+    assertEquals(-1, stream.read(ByteBuffer.allocateDirect(8)));
+    assertThrows(EOFException.class, () -> stream.seek(LENGTH + 1L));
+    assertThrows(EOFException.class, () -> stream.seek(-1L));
+  }
+}
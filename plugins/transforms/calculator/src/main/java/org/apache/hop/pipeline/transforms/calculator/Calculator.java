@@ -62,6 +62,15 @@ public class Calculator extends BaseTransform<CalculatorMeta, CalculatorData> {
 
   @Override
   public boolean processRow() throws HopException {
+    if (!first) {
+      // Calculate the fields of batches of rows, see processRows()
+      //
+      if (processRowBatch()) {
+        return true;
+      }
+      data.clearValuesMetaMapping();
+      return false;
+    }
 
     Object[] r = getRow(); // get row, set busy!
     if (r == null) { // no more input to be expected...
@@ -198,6 +207,47 @@ public class Calculator extends BaseTransform<CalculatorMeta, CalculatorData> {
     return true;
   }
 
+  @Override
+  protected boolean processRows(Object[][] rows, int count) throws HopException {
+    long linesRead = getLinesRead() - count;
+    int nrOutput = 0;
+    try {
+      for (int i = 0; i < count; i++) {
+        linesRead++;
+        if (isRowLevel()) {
+          logRowlevel(
+              BaseMessages.getString(PKG, "Calculator.Log.ReadRow")
+                  + linesRead
+                  + " : "
+                  + getInputRowMeta().getString(rows[i]));
+        }
+        try {
+          rows[nrOutput] = calcFields(getInputRowMeta(), rows[i]);
+          nrOutput++;
+        } catch (HopFileNotFoundException e) {
+          if (meta.isFailIfNoFile()) {
+            putRows(data.getOutputRowMeta(), rows, nrOutput);
+            logError(
+                BaseMessages.getString(PKG, "Calculator.Log.NoFile") + " : " + e.getFilepath());
+            setErrors(getErrors() + 1);
+            return false;
+          }
+        }
+        if (checkFeedback(linesRead) && isBasic()) {
+          logBasic(BaseMessages.getString(PKG, "Calculator.Log.Linenr", "" + linesRead));
+        }
+      }
+      putRows(data.getOutputRowMeta(), rows, nrOutput); // copy rows to possible alternate rowsets
+    } catch (HopException e) {
+      logError(
+          BaseMessages.getString(
+              PKG, "Calculator.ErrorInTransformRunning" + " : " + e.getMessage()));
+      throw new HopTransformException(
+          BaseMessages.getString(PKG, "Calculator.ErrorInTransformRunning"), e);
+    }
+    return true;
+  }
+
   /**
    * @param inputRowMeta the input row metadata
    * @param r the input row (data)
@@ -18,6 +18,7 @@
 package org.apache.hop.pipeline.transforms.calculator;
 
 import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
 import static org.junit.Assert.fail;
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.mockito.ArgumentMatchers.any;
@@ -49,8 +50,17 @@ import org.apache.hop.core.row.value.ValueMetaInteger;
 import org.apache.hop.core.row.value.ValueMetaNumber;
 import org.apache.hop.core.row.value.ValueMetaString;
 import org.apache.hop.junit.rules.RestoreHopEngineEnvironment;
+import org.apache.hop.pipeline.PipelineHopMeta;
+import org.apache.hop.pipeline.PipelineMeta;
+import org.apache.hop.pipeline.RowProducer;
+import org.apache.hop.pipeline.SingleThreadedPipelineExecutor;
+import org.apache.hop.pipeline.engines.local.LocalPipelineEngine;
+import org.apache.hop.pipeline.transform.ITransformMeta;
 import org.apache.hop.pipeline.transform.RowAdapter;
+import org.apache.hop.pipeline.transform.TransformMeta;
 import org.apache.hop.pipeline.transforms.calculator.CalculatorMetaFunction.CalculationType;
+import org.apache.hop.pipeline.transforms.dummy.DummyMeta;
+import org.apache.hop.pipeline.transforms.injector.InjectorMeta;
 import org.apache.hop.pipeline.transforms.mock.TransformMockHelper;
 import org.junit.After;
 import org.junit.Before;
@@ -1058,4 +1068,80 @@ public class CalculatorUnitTest {
       fail();
     }
   }
+
+  private static TransformMeta createTransform(
+      String pluginId, String name, ITransformMeta transform) {
+    TransformMeta transformMeta = new TransformMeta(name, transform);
+    transformMeta.setTransformPluginId(pluginId);
+    return transformMeta;
+  }
+
+  /** Calculate in a single threaded pipeline, giving it a few rows per iteration. */
+  @Test(timeout = 30000)
+  public void testSingleThreadedExecution() throws Exception {
+    CalculatorMeta meta = new CalculatorMeta();
+    meta.getFunctions()
+        .add(
+            new CalculatorMetaFunction(
+                "double",
+                CalculationType.ADD,
+                "id",
+                "id",
+                null,
+                "Integer",
+                0,
+                0,
+                "",
+                "",
+                "",
+                "",
+                false));
+
+    PipelineMeta pipelineMeta = new PipelineMeta();
+    pipelineMeta.setName("single threaded calculator");
+    pipelineMeta.setPipelineType(PipelineMeta.PipelineType.SingleThreaded);
+    TransformMeta injector = createTransform("Injector", "Injector", new InjectorMeta());
+    TransformMeta calculator = createTransform("Calculator", "Calculator", meta);
+    TransformMeta output = createTransform("Dummy", "Output", new DummyMeta());
+    pipelineMeta.addTransform(injector);
+    pipelineMeta.addTransform(calculator);
+    pipelineMeta.addTransform(output);
+    pipelineMeta.addPipelineHop(new PipelineHopMeta(injector, calculator));
+    pipelineMeta.addPipelineHop(new PipelineHopMeta(calculator, output));
+
+    LocalPipelineEngine pipeline = new LocalPipelineEngine(pipelineMeta);
+    pipeline.prepareExecution();
+    RowProducer rowProducer = pipeline.addRowProducer("Injector", 0);
+    List<Object> results = new ArrayList<>();
+    pipeline
+        .getTransform("Output", 0)
+        .addRowListener(
+            new RowAdapter() {
+              @Override
+              public void rowWrittenEvent(IRowMeta rowMeta, Object[] row) {
+                results.add(row[1]);
+              }
+            });
+    pipeline.startThreads();
+
+    SingleThreadedPipelineExecutor executor = new SingleThreadedPipelineExecutor(pipeline);
+    assertTrue(executor.init());
+
+    // The input isn't done between the iterations, reading must not wait for more rows
+    //
+    IRowMeta rowMeta = new RowMeta();
+    rowMeta.addValueMeta(new ValueMetaInteger("id"));
+    for (long id = 0; id < 6; id++) {
+      rowProducer.putRow(rowMeta, new Object[] {id});
+      if (id % 3 == 2) {
+        assertTrue(executor.oneIteration());
+      }
+    }
+    assertEquals(List.of(0L, 2L, 4L, 6L, 8L, 10L), results);
+
+    rowProducer.finished();
+    executor.oneIteration();
+    assertEquals(0, pipeline.getErrors());
+    executor.dispose();
+  }
 }
@@ -59,9 +59,11 @@ public class DefaultCache implements DatabaseLookupData.ICache {
       }
     } else { // special handling of conditions <,>, <> etc.
       if (!data.hasDBCondition) { // e.g. LIKE not handled by this routine, yet
-        // TODO: find an alternative way to look up the data based on the condition.
-        // Not all conditions are "=" so we are going to have to evaluate row by row
-        // A sorted list or index might be a good solution here...
+        // Not all conditions are "=" so we are going to have to evaluate row by row.
+        // The transform only stores rows in this cache when all conditions are "=": range
+        // lookups go to the database or, when all data is loaded, to ReadAllCache and its
+        // indexes. Don't add an index here: the keys are the input values of earlier lookups,
+        // a range lookup through them would return the wrong rows.
         //
         for (RowMetaAndData key : map.keySet()) {
           // Now verify that the key is matching our conditions...
@@ -63,6 +63,12 @@ public class FilterRows extends BaseTransform<FilterRowsMeta, FilterRowsData> {
 
   @Override
   public boolean processRow() throws HopException {
+    if (!first && !data.chosesTargetTransforms) {
+      // Filter the rows in batches, see processRows()
+      //
+      return processRowBatch();
+    }
+
     Object[] r = getRow(); // Get next usable row from input rowset(s)!
     if (r == null) {
       setOutputDone();
@@ -156,6 +162,24 @@ public class FilterRows extends BaseTransform<FilterRowsMeta, FilterRowsData> {
     return true;
   }
 
+  @Override
+  protected boolean processRows(Object[][] rows, int count) throws HopException {
+    long linesRead = getLinesRead() - count;
+    int kept = 0;
+    for (int i = 0; i < count; i++) {
+      if (keepRow(getInputRowMeta(), rows[i])) {
+        rows[kept++] = rows[i];
+      }
+      linesRead++;
+      if (checkFeedback(linesRead) && isBasic()) {
+        logBasic(BaseMessages.getString(PKG, "FilterRows.Log.LineNumber") + linesRead);
+      }
+    }
+    putRows(data.outputRowMeta, rows, kept); // copy the kept rows to output rowset(s)
+
+    return true;
+  }
+
   @Override
   public boolean init() {
 
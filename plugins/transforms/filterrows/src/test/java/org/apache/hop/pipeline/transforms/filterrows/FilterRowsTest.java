@@ -0,0 +1,116 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.hop.pipeline.transforms.filterrows;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.util.ArrayList;
+import java.util.List;
+import org.apache.hop.core.Condition;
+import org.apache.hop.core.HopEnvironment;
+import org.apache.hop.core.exception.HopException;
+import org.apache.hop.core.row.IRowMeta;
+import org.apache.hop.core.row.RowMeta;
+import org.apache.hop.core.row.ValueMetaAndData;
+import org.apache.hop.core.row.value.ValueMetaInteger;
+import org.apache.hop.junit.rules.RestoreHopEngineEnvironment;
+import org.apache.hop.pipeline.PipelineHopMeta;
+import org.apache.hop.pipeline.PipelineMeta;
+import org.apache.hop.pipeline.RowProducer;
+import org.apache.hop.pipeline.SingleThreadedPipelineExecutor;
+import org.apache.hop.pipeline.engines.local.LocalPipelineEngine;
+import org.apache.hop.pipeline.transform.ITransformMeta;
+import org.apache.hop.pipeline.transform.RowAdapter;
+import org.apache.hop.pipeline.transform.TransformMeta;
+import org.apache.hop.pipeline.transforms.dummy.DummyMeta;
+import org.apache.hop.pipeline.transforms.injector.InjectorMeta;
+import org.junit.BeforeClass;
+import org.junit.ClassRule;
+import org.junit.Test;
+
+public class FilterRowsTest {
+  @ClassRule public static RestoreHopEngineEnvironment env = new RestoreHopEngineEnvironment();
+
+  @BeforeClass
+  public static void init() throws HopException {
+    HopEnvironment.init();
+  }
+
+  private static TransformMeta createTransform(
+      String pluginId, String name, ITransformMeta transform) {
+    TransformMeta transformMeta = new TransformMeta(name, transform);
+    transformMeta.setTransformPluginId(pluginId);
+    return transformMeta;
+  }
+
+  /** Filter rows in a single threaded pipeline, giving it a few rows per iteration. */
+  @Test(timeout = 30000)
+  public void testSingleThreadedExecution() throws Exception {
+    FilterRowsMeta filterRowsMeta = new FilterRowsMeta();
+    filterRowsMeta.setCondition(
+        new Condition("id", Condition.Function.SMALLER, null, new ValueMetaAndData("seven", 7L)));
+
+    PipelineMeta pipelineMeta = new PipelineMeta();
+    pipelineMeta.setName("single threaded filter");
+    pipelineMeta.setPipelineType(PipelineMeta.PipelineType.SingleThreaded);
+    TransformMeta injector = createTransform("Injector", "Injector", new InjectorMeta());
+    TransformMeta filter = createTransform("FilterRows", "Filter", filterRowsMeta);
+    TransformMeta output = createTransform("Dummy", "Output", new DummyMeta());
+    pipelineMeta.addTransform(injector);
+    pipelineMeta.addTransform(filter);
+    pipelineMeta.addTransform(output);
+    pipelineMeta.addPipelineHop(new PipelineHopMeta(injector, filter));
+    pipelineMeta.addPipelineHop(new PipelineHopMeta(filter, output));
+
+    LocalPipelineEngine pipeline = new LocalPipelineEngine(pipelineMeta);
+    pipeline.prepareExecution();
+    RowProducer rowProducer = pipeline.addRowProducer("Injector", 0);
+    List<Object> ids = new ArrayList<>();
+    pipeline
+        .getTransform("Output", 0)
+        .addRowListener(
+            new RowAdapter() {
+              @Override
+              public void rowWrittenEvent(IRowMeta rowMeta, Object[] row) {
+                ids.add(row[0]);
+              }
+            });
+    pipeline.startThreads();
+
+    SingleThreadedPipelineExecutor executor = new SingleThreadedPipelineExecutor(pipeline);
+    assertTrue(executor.init());
+
+    // The input isn't done between the iterations, reading must not wait for more rows
+    //
+    IRowMeta rowMeta = new RowMeta();
+    rowMeta.addValueMeta(new ValueMetaInteger("id"));
+    for (long id = 0; id < 10; id++) {
+      rowProducer.putRow(rowMeta, new Object[] {id});
+      if (id % 5 == 4) {
+        assertTrue(executor.oneIteration());
+      }
+    }
+    assertEquals(List.of(0L, 1L, 2L, 3L, 4L, 5L, 6L), ids);
+
+    rowProducer.finished();
+    executor.oneIteration();
+    assertEquals(0, pipeline.getErrors());
+    executor.dispose();
+  }
+}
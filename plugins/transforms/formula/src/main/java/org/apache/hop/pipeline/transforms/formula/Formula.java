@@ -31,8 +31,8 @@ import org.apache.hop.pipeline.Pipeline;
 import org.apache.hop.pipeline.PipelineMeta;
 import org.apache.hop.pipeline.transform.BaseTransform;
 import org.apache.hop.pipeline.transform.TransformMeta;
+import org.apache.hop.pipeline.transforms.formula.util.CompiledFormula;
 import org.apache.hop.pipeline.transforms.formula.util.FormulaParser;
-import org.apache.poi.ss.usermodel.CellType;
 import org.apache.poi.ss.usermodel.CellValue;
 import org.apache.poi.ss.usermodel.DateUtil;
 import org.apache.poi.ss.usermodel.Row;
@@ -112,6 +112,22 @@ public class Formula extends BaseTransform<FormulaMeta, FormulaData> {
           data.replaceIndex[j] = -1;
         }
       }
+
+      // Parse the formulas once, now that the layout of the rows is known
+      //
+      data.compiledFormulas = new CompiledFormula[meta.getFormulas().size()];
+      for (int j = 0; j < meta.getFormulas().size(); j++) {
+        FormulaMetaFunction fn = meta.getFormulas().get(j);
+        data.compiledFormulas[j] =
+            CompiledFormula.compile(resolve(fn.getFormula()), data.outputRowMeta, replaceMap);
+        if (isDetailed()) {
+          logDetailed(
+              "Formula '"
+                  + fn.getFormula()
+                  + "' is evaluated "
+                  + (data.compiledFormulas[j] == null ? "by a spreadsheet" : "directly"));
+        }
+      }
     }
 
     int tempIndex = getInputRowMeta().size();
@@ -120,72 +136,68 @@ public class Formula extends BaseTransform<FormulaMeta, FormulaData> {
       logRowlevel("Read row #" + getLinesRead() + " : " + Arrays.toString(r));
     }
 
-    if (sheetRow != null) {
-      workSheet.removeRow(sheetRow);
-    }
-    sheetRow = workSheet.createRow(0);
-
     Object[] outputRowData = RowDataUtil.resizeArray(r, data.outputRowMeta.size());
     Object outputValue = null;
+    boolean sheetRowCreated = false;
 
     for (int i = 0; i < meta.getFormulas().size(); i++) {
 
       FormulaMetaFunction formula = meta.getFormulas().get(i);
-      FormulaParser parser =
-          new FormulaParser(
-              formula, data.outputRowMeta, outputRowData, sheetRow, variables, replaceMap);
       try {
-        CellValue cellValue = parser.getFormulaValue();
-        CellType cellType = cellValue.getCellType();
+        // Evaluate the formula directly if we can, otherwise use the spreadsheet
+        //
+        Object formulaValue = null;
+        if (data.compiledFormulas[i] != null) {
+          formulaValue = data.compiledFormulas[i].evaluate(outputRowData);
+        }
+        if (formulaValue == null) {
+          if (!sheetRowCreated) {
+            if (sheetRow != null) {
+              workSheet.removeRow(sheetRow);
+            }
+            sheetRow = workSheet.createRow(0);
+            sheetRowCreated = true;
+          }
+          formulaValue = getSpreadsheetValue(formula, outputRowData);
+        }
 
         int outputValueType = formula.getValueType();
-        switch (cellType) {
-          case BLANK:
-            // should never happen.
-            break;
-          case NUMERIC:
-            outputValue = cellValue.getNumberValue();
-            switch (outputValueType) {
-              case IValueMeta.TYPE_NUMBER:
-                data.returnType[i] = FormulaData.RETURN_TYPE_NUMBER;
-                formula.setNeedDataConversion(outputValueType != IValueMeta.TYPE_NUMBER);
-                break;
-              case IValueMeta.TYPE_INTEGER:
-                data.returnType[i] = FormulaData.RETURN_TYPE_INTEGER;
-                formula.setNeedDataConversion(outputValueType != IValueMeta.TYPE_NUMBER);
-                break;
-              case IValueMeta.TYPE_BIGNUMBER:
-                data.returnType[i] = FormulaData.RETURN_TYPE_BIGDECIMAL;
-                formula.setNeedDataConversion(outputValueType != IValueMeta.TYPE_NUMBER);
-                break;
-              case IValueMeta.TYPE_DATE:
-                outputValue = DateUtil.getJavaDate(cellValue.getNumberValue());
-                data.returnType[i] = FormulaData.RETURN_TYPE_DATE;
-                formula.setNeedDataConversion(outputValueType != IValueMeta.TYPE_NUMBER);
-                break;
-              case IValueMeta.TYPE_TIMESTAMP:
-                outputValue =
-                    Timestamp.from(DateUtil.getJavaDate(cellValue.getNumberValue()).toInstant());
-                data.returnType[i] = FormulaData.RETURN_TYPE_TIMESTAMP;
-                formula.setNeedDataConversion(outputValueType != IValueMeta.TYPE_NUMBER);
-                break;
-              default:
-                break;
-            }
-            // get cell value
-            break;
-          case BOOLEAN:
-            outputValue = cellValue.getBooleanValue();
-            data.returnType[i] = FormulaData.RETURN_TYPE_BOOLEAN;
-            formula.setNeedDataConversion(outputValueType != IValueMeta.TYPE_BOOLEAN);
-            break;
-          case STRING:
-            outputValue = cellValue.getStringValue();
-            data.returnType[i] = FormulaData.RETURN_TYPE_STRING;
-            formula.setNeedDataConversion(outputValueType != IValueMeta.TYPE_STRING);
-            break;
-          default:
-            break;
+        if (formulaValue instanceof Double numberValue) {
+          outputValue = numberValue;
+          switch (outputValueType) {
+            case IValueMeta.TYPE_NUMBER:
+              data.returnType[i] = FormulaData.RETURN_TYPE_NUMBER;
+              formula.setNeedDataConversion(outputValueType != IValueMeta.TYPE_NUMBER);
+              break;
+            case IValueMeta.TYPE_INTEGER:
+              data.returnType[i] = FormulaData.RETURN_TYPE_INTEGER;
+              formula.setNeedDataConversion(outputValueType != IValueMeta.TYPE_NUMBER);
+              break;
+            case IValueMeta.TYPE_BIGNUMBER:
+              data.returnType[i] = FormulaData.RETURN_TYPE_BIGDECIMAL;
+              formula.setNeedDataConversion(outputValueType != IValueMeta.TYPE_NUMBER);
+              break;
+            case IValueMeta.TYPE_DATE:
+              outputValue = DateUtil.getJavaDate(numberValue);
+              data.returnType[i] = FormulaData.RETURN_TYPE_DATE;
+              formula.setNeedDataConversion(outputValueType != IValueMeta.TYPE_NUMBER);
+              break;
+            case IValueMeta.TYPE_TIMESTAMP:
+              outputValue = Timestamp.from(DateUtil.getJavaDate(numberValue).toInstant());
+              data.returnType[i] = FormulaData.RETURN_TYPE_TIMESTAMP;
+              formula.setNeedDataConversion(outputValueType != IValueMeta.TYPE_NUMBER);
+              break;
+            default:
+              break;
+          }
+        } else if (formulaValue instanceof Boolean) {
+          outputValue = formulaValue;
+          data.returnType[i] = FormulaData.RETURN_TYPE_BOOLEAN;
+          formula.setNeedDataConversion(outputValueType != IValueMeta.TYPE_BOOLEAN);
+        } else if (formulaValue instanceof String) {
+          outputValue = formulaValue;
+          data.returnType[i] = FormulaData.RETURN_TYPE_STRING;
+          formula.setNeedDataConversion(outputValueType != IValueMeta.TYPE_STRING);
         }
 
         int realIndex = (data.replaceIndex[i] < 0) ? tempIndex++ : data.replaceIndex[i];
@@ -232,6 +244,32 @@ public class Formula extends BaseTransform<FormulaMeta, FormulaData> {
     super(transformMeta, meta, data, copyNr, pipelineMeta, pipeline);
   }
 
+  /**
+   * Evaluate a formula on a row with the spreadsheet of this transform.
+   *
+   * @param formula The formula to evaluate
+   * @param outputRowData The row to evaluate the formula on
+   * @return The resulting Double, Boolean or String, null for a blank or an error
+   * @throws HopException in case the formula can't be evaluated
+   */
+  protected Object getSpreadsheetValue(FormulaMetaFunction formula, Object[] outputRowData)
+      throws HopException {
+    FormulaParser parser =
+        new FormulaParser(
+            formula, data.outputRowMeta, outputRowData, sheetRow, variables, replaceMap);
+    CellValue cellValue = parser.getFormulaValue();
+    switch (cellValue.getCellType()) {
+      case NUMERIC:
+        return cellValue.getNumberValue();
+      case BOOLEAN:
+        return cellValue.getBooleanValue();
+      case STRING:
+        return cellValue.getStringValue();
+      default:
+        return null;
+    }
+  }
+
   protected Object getReturnValue(
       Object formulaResult, int returnType, int realIndex, FormulaMetaFunction fn)
       throws HopException {
@@ -0,0 +1,688 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.hop.pipeline.transforms.formula.util;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import org.apache.hop.core.exception.HopValueException;
+import org.apache.hop.core.row.IRowMeta;
+import org.apache.hop.core.row.IValueMeta;
+
+/**
+ * A formula parsed once into an expression tree which is evaluated directly against the rows of a
+ * pipeline, without going through a spreadsheet.
+ *
+ * <p>Only a subset of the formula language is compiled: number, string and boolean literals,
+ * references to String, Integer, Number and Boolean fields, the arithmetic, concatenation and
+ * comparison operators and a number of common functions. The results follow the spreadsheet
+ * semantics of {@link FormulaParser}. Whenever a row can't be evaluated with exactly the same
+ * result (a null field, a division by zero, a type coercion, ...) {@link #evaluate(Object[])}
+ * returns null and the caller should evaluate the formula with {@link FormulaParser} instead.
+ */
+public final class CompiledFormula {
+
+  /** The longest text a spreadsheet cell can hold */
+  private static final int MAX_TEXT_LENGTH = 32767;
+
+  /** Whole numbers below this value are converted to text without any rounding */
+  private static final double MAX_PLAIN_WHOLE_NUMBER = 1e15;
+
+  /** Numbers closer than this (relative) are compared by the spreadsheet with rounding */
+  private static final double COMPARE_PRECISION = 1e-9;
+
+  private final String formula;
+  private final Node root;
+
+  @FunctionalInterface
+  private interface Node {
+    /**
+     * @return a Double, String or Boolean or null if the value can't be calculated here
+     */
+    Object evaluate(Object[] row) throws HopValueException;
+  }
+
+  private static final class UnsupportedFormulaException extends Exception {
+    UnsupportedFormulaException() {
+      super(null, null, false, false);
+    }
+  }
+
+  private CompiledFormula(String formula, Node root) {
+    this.formula = formula;
+    this.root = root;
+  }
+
+  /**
+   * Compile a formula against the layout of the rows it's going to be evaluated on.
+   *
+   * @param formula The formula with the variables resolved
+   * @param rowMeta The layout of the rows
+   * @param replaceMap The formula field names mapped to the fields they replace
+   * @return The compiled formula or null if the formula can't be compiled
+   */
+  public static CompiledFormula compile(
+      String formula, IRowMeta rowMeta, Map<String, String> replaceMap) {
+    if (formula == null) {
+      return null;
+    }
+    try {
+      Parser parser = new Parser(formula, rowMeta, replaceMap);
+      Node root = parser.parseFormula();
+      return new CompiledFormula(formula, root);
+    } catch (UnsupportedFormulaException e) {
+      return null;
+    }
+  }
+
+  /**
+   * Evaluate the formula on a row.
+   *
+   * @param row The row to evaluate the formula on
+   * @return The result as a Double, String or Boolean or null if the formula needs to be evaluated
+   *     by the spreadsheet for this row.
+   * @throws HopValueException in case a field value can't be read
+   */
+  public Object evaluate(Object[] row) throws HopValueException {
+    return root.evaluate(row);
+  }
+
+  /**
+   * Gets formula
+   *
+   * @return value of formula
+   */
+  public String getFormula() {
+    return formula;
+  }
+
+  // The operations on values
+  //
+
+  private static Double number(double value) {
+    if (Double.isNaN(value) || Double.isInfinite(value)) {
+      return null;
+    }
+    // Don't hand out negative zero
+    return value == 0.0 ? 0.0 : value;
+  }
+
+  private static String text(Object value) {
+    if (value instanceof String string) {
+      return string;
+    }
+    if (value instanceof Boolean bool) {
+      return bool ? "TRUE" : "FALSE";
+    }
+    if (value instanceof Double number
+        && Math.abs(number) < MAX_PLAIN_WHOLE_NUMBER
+        && number == Math.rint(number)) {
+      return Long.toString(number.longValue());
+    }
+    return null;
+  }
+
+  private static String checkText(String text) {
+    return text != null && text.length() <= MAX_TEXT_LENGTH ? text : null;
+  }
+
+  private static Boolean bool(Object value) {
+    if (value instanceof Boolean bool) {
+      return bool;
+    }
+    if (value instanceof Double number) {
+      return number != 0.0;
+    }
+    return null;
+  }
+
+  private static Integer integer(Object value) {
+    if (value instanceof Double number
+        && number == Math.rint(number)
+        && Math.abs(number) <= Integer.MAX_VALUE) {
+      return number.intValue();
+    }
+    return null;
+  }
+
+  /**
+   * @return the comparison of both values or null if they can't be compared here
+   */
+  private static Integer compare(Object left, Object right) {
+    if (left instanceof Double a && right instanceof Double b) {
+      if (a.doubleValue() == b.doubleValue()) {
+        return 0;
+      }
+      if (Math.abs(a - b) <= COMPARE_PRECISION * Math.max(Math.abs(a), Math.abs(b))) {
+        return null;
+      }
+      return a < b ? -1 : 1;
+    }
+    if (left instanceof String a && right instanceof String b) {
+      return a.compareToIgnoreCase(b);
+    }
+    if (left instanceof Boolean a && right instanceof Boolean b) {
+      return Boolean.compare(a, b);
+    }
+    return null;
+  }
+
+  /** A recursive descent parser following the operator precedence of the spreadsheet. */
+  private static final class Parser {
+    private final String formula;
+    private final IRowMeta rowMeta;
+    private final Map<String, String> replaceMap;
+    private int position;
+
+    private Parser(String formula, IRowMeta rowMeta, Map<String, String> replaceMap) {
+      this.formula = formula;
+      this.rowMeta = rowMeta;
+      this.replaceMap = replaceMap;
+    }
+
+    private Node parseFormula() throws UnsupportedFormulaException {
+      Node node = parseComparison();
+      skipSpaces();
+      if (position < formula.length()) {
+        throw new UnsupportedFormulaException();
+      }
+      return node;
+    }
+
+    private Node parseComparison() throws UnsupportedFormulaException {
+      Node node = parseConcatenation();
+      while (true) {
+        skipSpaces();
+        String operator;
+        if (consume("<=")) {
+          operator = "<=";
+        } else if (consume(">=")) {
+          operator = ">=";
+        } else if (consume("<>")) {
+          operator = "<>";
+        } else if (consume("<")) {
+          operator = "<";
+        } else if (consume(">")) {
+          operator = ">";
+        } else if (consume("=")) {
+          operator = "=";
+        } else {
+          return node;
+        }
+        node = comparison(operator, node, parseConcatenation());
+      }
+    }
+
+    private Node parseConcatenation() throws UnsupportedFormulaException {
+      Node node = parseAdditive();
+      while (true) {
+        skipSpaces();
+        if (!consume("&")) {
+          return node;
+        }
+        Node left = node;
+        Node right = parseAdditive();
+        node =
+            row -> {
+              Object a = left.evaluate(row);
+              Object b = right.evaluate(row);
+              String textA = text(a);
+              String textB = text(b);
+              if (textA == null || textB == null) {
+                return null;
+              }
+              return checkText(textA + textB);
+            };
+      }
+    }
+
+    private Node parseAdditive() throws UnsupportedFormulaException {
+      Node node = parseMultiplicative();
+      while (true) {
+        skipSpaces();
+        if (consume("+")) {
+          node = arithmetic('+', node, parseMultiplicative());
+        } else if (consume("-")) {
+          node = arithmetic('-', node, parseMultiplicative());
+        } else {
+          return node;
+        }
+      }
+    }
+
+    private Node parseMultiplicative() throws UnsupportedFormulaException {
+      Node node = parsePower();
+      while (true) {
+        skipSpaces();
+        if (consume("*")) {
+          node = arithmetic('*', node, parsePower());
+        } else if (consume("/")) {
+          node = arithmetic('/', node, parsePower());
+        } else {
+          return node;
+        }
+      }
+    }
+
+    private Node parsePower() throws UnsupportedFormulaException {
+      Node node = parseUnary();
+      while (true) {
+        skipSpaces();
+        if (!consume("^")) {
+          return node;
+        }
+        node = arithmetic('^', node, parseUnary());
+      }
+    }
+
+    /** Like in the spreadsheet the sign binds stronger than the power operator: -2^2 = 4 */
+    private Node parseUnary() throws UnsupportedFormulaException {
+      skipSpaces();
+      if (consume("-")) {
+        Node operand = parseUnary();
+        return row -> operand.evaluate(row) instanceof Double value ? number(-value) : null;
+      }
+      if (consume("+")) {
+        Node operand = parseUnary();
+        return row -> operand.evaluate(row) instanceof Double value ? value : null;
+      }
+      return parsePrimary();
+    }
+
+    private Node parsePrimary() throws UnsupportedFormulaException {
+      skipSpaces();
+      if (position >= formula.length()) {
+        throw new UnsupportedFormulaException();
+      }
+      char c = formula.charAt(position);
+      if (c == '(') {
+        position++;
+        Node node = parseComparison();
+        skipSpaces();
+        expect(')');
+        return node;
+      }
+      if (c == '[') {
+        return parseField();
+      }
+      if (c == '"') {
+        return constant(parseString());
+      }
+      if (Character.isDigit(c) || c == '.') {
+        return constant(parseNumber());
+      }
+      if (Character.isLetter(c)) {
+        return parseFunction();
+      }
+      throw new UnsupportedFormulaException();
+    }
+
+    private Node parseField() throws UnsupportedFormulaException {
+      int end = formula.indexOf(']', position);
+      if (end < 0) {
+        throw new UnsupportedFormulaException();
+      }
+      String fieldName = formula.substring(position + 1, end);
+      position = end + 1;
+
+      String realFieldName = replaceMap.getOrDefault(fieldName, fieldName);
+      int index = rowMeta.indexOfValue(realFieldName);
+      if (index < 0) {
+        throw new UnsupportedFormulaException();
+      }
+      IValueMeta valueMeta = rowMeta.getValueMeta(index);
+      switch (valueMeta.getType()) {
+        case IValueMeta.TYPE_STRING:
+          return row -> {
+            if (row[index] == null) {
+              return null;
+            }
+            return checkText(valueMeta.getString(row[index]));
+          };
+        case IValueMeta.TYPE_INTEGER:
+          return row -> {
+            if (row[index] == null) {
+              return null;
+            }
+            Long value = valueMeta.getInteger(row[index]);
+            return value == null ? null : number(value.doubleValue());
+          };
+        case IValueMeta.TYPE_NUMBER:
+          return row -> {
+            if (row[index] == null) {
+              return null;
+            }
+            Double value = valueMeta.getNumber(row[index]);
+            return value == null ? null : number(value);
+          };
+        case IValueMeta.TYPE_BOOLEAN:
+          return row -> row[index] == null ? null : valueMeta.getBoolean(row[index]);
+        default:
+          // Dates, big numbers, ... are converted by the spreadsheet
+          throw new UnsupportedFormulaException();
+      }
+    }
+
+    private String parseString() throws UnsupportedFormulaException {
+      StringBuilder builder = new StringBuilder();
+      position++;
+      while (position < formula.length()) {
+        char c = formula.charAt(position++);
+        if (c == '"') {
+          if (position < formula.length() && formula.charAt(position) == '"') {
+            builder.append('"');
+            position++;
+          } else {
+            return builder.toString();
+          }
+        } else {
+          builder.append(c);
+        }
+      }
+      throw new UnsupportedFormulaException();
+    }
+
+    private Double parseNumber() throws UnsupportedFormulaException {
+      int start = position;
+      skipDigits();
+      if (position < formula.length() && formula.charAt(position) == '.') {
+        position++;
+        skipDigits();
+      }
+      if (position < formula.length() && Character.toUpperCase(formula.charAt(position)) == 'E') {
+        position++;
+        if (position < formula.length() && "+-".indexOf(formula.charAt(position)) >= 0) {
+          position++;
+        }
+        int exponentStart = position;
+        skipDigits();
+        if (position == exponentStart) {
+          throw new UnsupportedFormulaException();
+        }
+      }
+      String literal = formula.substring(start, position);
+      // Percentages and anything else glued to the number are left to the spreadsheet
+      if (literal.equals(".")
+          || (position < formula.length() && !isDelimiter(formula.charAt(position)))) {
+        throw new UnsupportedFormulaException();
+      }
+      Double value = number(Double.parseDouble(literal));
+      if (value == null) {
+        throw new UnsupportedFormulaException();
+      }
+      return value;
+    }
+
+    private Node parseFunction() throws UnsupportedFormulaException {
+      int start = position;
+      while (position < formula.length()
+          && (Character.isLetterOrDigit(formula.charAt(position))
+              || formula.charAt(position) == '.')) {
+        position++;
+      }
+      String name = formula.substring(start, position).toUpperCase(Locale.ROOT);
+      skipSpaces();
+      if (position >= formula.length() || formula.charAt(position) != '(') {
+        // Only the boolean constants, no cell references or named ranges
+        switch (name) {
+          case "TRUE":
+            return constant(Boolean.TRUE);
+          case "FALSE":
+            return constant(Boolean.FALSE);
+          default:
+            throw new UnsupportedFormulaException();
+        }
+      }
+      position++;
+      List<Node> arguments = new ArrayList<>();
+      skipSpaces();
+      if (!consume(")")) {
+        do {
+          arguments.add(parseComparison());
+          skipSpaces();
+        } while (consume(","));
+        expect(')');
+      }
+      return function(name, arguments.toArray(new Node[0]));
+    }
+
+    private void skipSpaces() {
+      while (position < formula.length() && Character.isWhitespace(formula.charAt(position))) {
+        position++;
+      }
+    }
+
+    private void skipDigits() {
+      while (position < formula.length() && Character.isDigit(formula.charAt(position))) {
+        position++;
+      }
+    }
+
+    private boolean isDelimiter(char c) {
+      return Character.isWhitespace(c) || "+-*/^&=<>(),".indexOf(c) >= 0;
+    }
+
+    private boolean consume(String token) {
+      if (formula.startsWith(token, position)) {
+        position += token.length();
+        return true;
+      }
+      return false;
+    }
+
+    private void expect(char c) throws UnsupportedFormulaException {
+      if (position >= formula.length() || formula.charAt(position) != c) {
+        throw new UnsupportedFormulaException();
+      }
+      position++;
+    }
+  }
+
+  // The nodes of the expression tree
+  //
+
+  private static Node constant(Object value) {
+    return row -> value;
+  }
+
+  private static Node arithmetic(char operator, Node left, Node right) {
+    return row -> {
+      Object a = left.evaluate(row);
+      Object b = right.evaluate(row);
+      if (!(a instanceof Double x) || !(b instanceof Double y)) {
+        return null;
+      }
+      switch (operator) {
+        case '+':
+          return number(x + y);
+        case '-':
+          return number(x - y);
+        case '*':
+          return number(x * y);
+        case '/':
+          return y == 0.0 ? null : number(x / y);
+        default:
+          return x == 0.0 && y == 0.0 ? null : number(Math.pow(x, y));
+      }
+    };
+  }
+
+  private static Node comparison(String operator, Node left, Node right) {
+    return row -> {
+      Integer comparison = compare(left.evaluate(row), right.evaluate(row));
+      if (comparison == null) {
+        return null;
+      }
+      switch (operator) {
+        case "<":
+          return comparison < 0;
+        case "<=":
+          return comparison <= 0;
+        case ">":
+          return comparison > 0;
+        case ">=":
+          return comparison >= 0;
+        case "<>":
+          return comparison != 0;
+        default:
+          return comparison == 0;
+      }
+    };
+  }
+
+  private static Node function(String name, Node[] arguments) throws UnsupportedFormulaException {
+    int count = arguments.length;
+    switch (name) {
+      case "TRUE":
+        checkArguments(count, 0, 0);
+        return constant(Boolean.TRUE);
+      case "FALSE":
+        checkArguments(count, 0, 0);
+        return constant(Boolean.FALSE);
+      case "IF":
+        checkArguments(count, 2, 3);
+        return row -> {
+          Boolean condition = bool(arguments[0].evaluate(row));
+          if (condition == null) {
+            return null;
+          }
+          if (condition) {
+            return arguments[1].evaluate(row);
+          }
+          return count == 3 ? arguments[2].evaluate(row) : Boolean.FALSE;
+        };
+      case "AND", "OR":
+        checkArguments(count, 1, Integer.MAX_VALUE);
+        boolean and = name.equals("AND");
+        return row -> {
+          boolean result = and;
+          for (Node argument : arguments) {
+            Boolean value = bool(argument.evaluate(row));
+            if (value == null) {
+              return null;
+            }
+            result = and ? result && value : result || value;
+          }
+          return result;
+        };
+      case "NOT":
+        checkArguments(count, 1, 1);
+        return row -> {
+          Boolean value = bool(arguments[0].evaluate(row));
+          return value == null ? null : !value;
+        };
+      case "ABS":
+        checkArguments(count, 1, 1);
+        return row -> arguments[0].evaluate(row) instanceof Double n ? number(Math.abs(n)) : null;
+      case "SUM", "MIN", "MAX":
+        checkArguments(count, 1, Integer.MAX_VALUE);
+        return row -> {
+          double result = 0;
+          for (int i = 0; i < count; i++) {
+            if (!(arguments[i].evaluate(row) instanceof Double value)) {
+              return null;
+            }
+            if (i == 0) {
+              result = value;
+            } else if (name.equals("SUM")) {
+              result += value;
+            } else if (name.equals("MIN")) {
+              result = Math.min(result, value);
+            } else {
+              result = Math.max(result, value);
+            }
+          }
+          return number(result);
+        };
+      case "CONCATENATE":
+        checkArguments(count, 1, Integer.MAX_VALUE);
+        return row -> {
+          StringBuilder builder = new StringBuilder();
+          for (Node argument : arguments) {
+            String text = text(argument.evaluate(row));
+            if (text == null) {
+              return null;
+            }
+            builder.append(text);
+          }
+          return checkText(builder.toString());
+        };
+      case "LEN":
+        checkArguments(count, 1, 1);
+        return row -> {
+          String text = text(arguments[0].evaluate(row));
+          return text == null ? null : (double) text.length();
+        };
+      case "UPPER", "LOWER":
+        checkArguments(count, 1, 1);
+        boolean upper = name.equals("UPPER");
+        return row -> {
+          String text = text(arguments[0].evaluate(row));
+          if (text == null) {
+            return null;
+          }
+          Locale locale = Locale.getDefault();
+          return upper ? text.toUpperCase(locale) : text.toLowerCase(locale);
+        };
+      case "EXACT":
+        checkArguments(count, 2, 2);
+        return row -> {
+          String a = text(arguments[0].evaluate(row));
+          String b = text(arguments[1].evaluate(row));
+          return a == null || b == null ? null : a.equals(b);
+        };
+      case "LEFT", "RIGHT":
+        checkArguments(count, 1, 2);
+        boolean left = name.equals("LEFT");
+        return row -> {
+          String text = text(arguments[0].evaluate(row));
+          Integer length = count == 2 ? integer(arguments[1].evaluate(row)) : Integer.valueOf(1);
+          if (text == null || length == null || length < 0) {
+            return null;
+          }
+          int size = Math.min(length, text.length());
+          return left ? text.substring(0, size) : text.substring(text.length() - size);
+        };
+      case "MID":
+        checkArguments(count, 3, 3);
+        return row -> {
+          String text = text(arguments[0].evaluate(row));
+          Integer start = integer(arguments[1].evaluate(row));
+          Integer length = integer(arguments[2].evaluate(row));
+          if (text == null || start == null || length == null || start < 1 || length < 0) {
+            return null;
+          }
+          if (start > text.length()) {
+            return "";
+          }
+          int begin = start - 1;
+          return text.substring(begin, (int) Math.min((long) begin + length, text.length()));
+        };
+      default:
+        throw new UnsupportedFormulaException();
+    }
+  }
+
+  private static void checkArguments(int count, int minimum, int maximum)
+      throws UnsupportedFormulaException {
+    if (count < minimum || count > maximum) {
+      throw new UnsupportedFormulaException();
+    }
+  }
+}
@@ -0,0 +1,200 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.hop.pipeline.transforms.formula.util;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+import java.util.Arrays;
+import java.util.HashMap;
+import org.apache.hop.core.row.IRowMeta;
+import org.apache.hop.core.row.IValueMeta;
+import org.apache.hop.core.row.RowMeta;
+import org.apache.hop.core.row.value.ValueMetaBoolean;
+import org.apache.hop.core.row.value.ValueMetaDate;
+import org.apache.hop.core.row.value.ValueMetaInteger;
+import org.apache.hop.core.row.value.ValueMetaNumber;
+import org.apache.hop.core.row.value.ValueMetaString;
+import org.apache.hop.core.variables.Variables;
+import org.apache.hop.pipeline.transforms.formula.FormulaMetaFunction;
+import org.apache.poi.ss.usermodel.CellValue;
+import org.apache.poi.ss.usermodel.Row;
+import org.apache.poi.xssf.usermodel.XSSFSheet;
+import org.apache.poi.xssf.usermodel.XSSFWorkbook;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+/** Compares the compiled formulas with the evaluation of the same formulas by the spreadsheet. */
+public class CompiledFormulaTest {
+
+  private static final String[] FORMULAS = {
+    "[i]+[n]*2",
+    "([i]-[n])/[z]",
+    "[n]/[i]",
+    "-[i]^2",
+    "2^3^2",
+    "1.5E2 - .5",
+    "[s]&\"-\"&[i]",
+    "[s]&[b]&[n]",
+    "CONCATENATE([s], \" \", [t])",
+    "[s]=[t]",
+    "[s]<>\"abc\"",
+    "[s]<[t]",
+    "[i]>=[n]",
+    "[b]=TRUE",
+    "IF([i]>10, \"big\", \"small\")",
+    "IF([b], [i], [n])",
+    "IF([n]<0, 1)",
+    "AND([b], [i]>0)",
+    "OR([b], NOT([b]), FALSE())",
+    "ABS([n])",
+    "SUM([i], [n], 1)",
+    "MIN([i], [n])",
+    "MAX([i], [n])",
+    "LEN([s])",
+    "UPPER([s])&LOWER([t])",
+    "LEFT([s], 2)&RIGHT([t])",
+    "MID([s], 2, 3)",
+    "MID([s], 10, 3)",
+    "EXACT([s], [t])",
+    "[s]+1",
+    "[i]&\"\"",
+  };
+
+  private XSSFWorkbook workBook;
+  private XSSFSheet workSheet;
+  private IRowMeta rowMeta;
+
+  @Before
+  public void setUp() {
+    workBook = new XSSFWorkbook();
+    workSheet = workBook.createSheet();
+
+    rowMeta = new RowMeta();
+    rowMeta.addValueMeta(new ValueMetaString("s"));
+    rowMeta.addValueMeta(new ValueMetaString("t"));
+    rowMeta.addValueMeta(new ValueMetaInteger("i"));
+    rowMeta.addValueMeta(new ValueMetaNumber("n"));
+    rowMeta.addValueMeta(new ValueMetaBoolean("b"));
+    rowMeta.addValueMeta(new ValueMetaInteger("z"));
+    rowMeta.addValueMeta(new ValueMetaDate("d"));
+  }
+
+  @After
+  public void tearDown() throws Exception {
+    workBook.close();
+  }
+
+  private static Object[][] rows() {
+    return new Object[][] {
+      {"abcdef", "ABCDEF", 5L, 2.5, true, 0L, null},
+      {"abc", "abd", -12L, -0.25, false, 3L, null},
+      {"Hop", "hop", 100L, 100.0, true, 4L, null},
+      {"x", "", 0L, 0.0, false, 0L, null},
+      {"12", "a\"b", 7L, 1e20, true, -2L, null},
+      {null, "t", null, 1.0, null, 1L, null},
+    };
+  }
+
+  private Object evaluateWithSpreadsheet(String formula, Object[] row) throws Exception {
+    Row sheetRow = workSheet.getRow(0);
+    if (sheetRow != null) {
+      workSheet.removeRow(sheetRow);
+    }
+    sheetRow = workSheet.createRow(0);
+    FormulaMetaFunction function =
+        new FormulaMetaFunction("result", formula, IValueMeta.TYPE_STRING, -1, -1, null, false);
+    FormulaParser parser =
+        new FormulaParser(function, rowMeta, row, sheetRow, new Variables(), new HashMap<>());
+    CellValue cellValue = parser.getFormulaValue();
+    switch (cellValue.getCellType()) {
+      case NUMERIC:
+        return cellValue.getNumberValue();
+      case BOOLEAN:
+        return cellValue.getBooleanValue();
+      case STRING:
+        return cellValue.getStringValue();
+      default:
+        return cellValue.formatAsString();
+    }
+  }
+
+  @Test
+  public void testSameResultsAsSpreadsheet() throws Exception {
+    int compiledResults = 0;
+    for (String formula : FORMULAS) {
+      CompiledFormula compiledFormula = CompiledFormula.compile(formula, rowMeta, new HashMap<>());
+      assertNotNull("Formula should compile: " + formula, compiledFormula);
+      for (Object[] row : rows()) {
+        Object compiled = compiledFormula.evaluate(row);
+        if (compiled == null) {
+          // Evaluated by the spreadsheet
+          continue;
+        }
+        compiledResults++;
+        Object expected = evaluateWithSpreadsheet(formula, row);
+        String message = formula + " on " + Arrays.toString(row);
+        if (expected instanceof Double expectedNumber) {
+          assertEquals(message, expectedNumber, (Double) compiled, 0.0);
+        } else {
+          assertEquals(message, expected, compiled);
+        }
+      }
+    }
+    // Most of the combinations are evaluated directly
+    //
+    assertTrue(
+        "Only " + compiledResults + " results were evaluated directly",
+        compiledResults > FORMULAS.length * 3);
+  }
+
+  @Test
+  public void testUnsupportedFormulas() {
+    assertNull(CompiledFormula.compile("A1+1", rowMeta, new HashMap<>()));
+    assertNull(CompiledFormula.compile("[d]+1", rowMeta, new HashMap<>()));
+    assertNull(CompiledFormula.compile("[unknown]", rowMeta, new HashMap<>()));
+    assertNull(CompiledFormula.compile("50%", rowMeta, new HashMap<>()));
+    assertNull(CompiledFormula.compile("ROUND([n], 1)", rowMeta, new HashMap<>()));
+    assertNull(CompiledFormula.compile("([i]+1", rowMeta, new HashMap<>()));
+    assertNull(CompiledFormula.compile("IF([b])", rowMeta, new HashMap<>()));
+  }
+
+  @Test
+  public void testFallbackRows() throws Exception {
+    CompiledFormula division = CompiledFormula.compile("[i]/[z]", rowMeta, new HashMap<>());
+    assertNull(division.evaluate(new Object[] {"a", "b", 1L, 1.0, true, 0L, null}));
+    assertEquals(0.5, division.evaluate(new Object[] {"a", "b", 1L, 1.0, true, 2L, null}));
+
+    CompiledFormula nulls = CompiledFormula.compile("[s]&[t]", rowMeta, new HashMap<>());
+    assertNull(nulls.evaluate(new Object[] {null, "b", 1L, 1.0, true, 0L, null}));
+
+    CompiledFormula coercion = CompiledFormula.compile("[s]*2", rowMeta, new HashMap<>());
+    assertNull(coercion.evaluate(new Object[] {"21", "b", 1L, 1.0, true, 0L, null}));
+  }
+
+  @Test
+  public void testReplacedFields() throws Exception {
+    HashMap<String, String> replaceMap = new HashMap<>();
+    replaceMap.put("result", "i");
+    CompiledFormula formula = CompiledFormula.compile("[result]*2", rowMeta, replaceMap);
+    assertEquals(10.0, formula.evaluate(new Object[] {"a", "b", 5L, 1.0, true, 0L, null}));
+  }
+}
@@ -30,6 +30,7 @@ import org.apache.hop.core.exception.HopTransformException;
 import org.apache.hop.core.row.IRowMeta;
 import org.apache.hop.core.row.RowDataUtil;
 import org.apache.hop.core.row.RowMeta;
+import org.apache.hop.core.util.AsyncRequestExecutor;
 import org.apache.hop.core.util.HttpClientManager;
 import org.apache.hop.core.util.Utils;
 import org.apache.hop.i18n.BaseMessages;
@@ -60,6 +61,7 @@ public class Http extends BaseTransform<HttpMeta, HttpData> {
   private static final Class<?> PKG = HttpMeta.class;
   public static final String CONST_HTTP_EXCEPTION_ERROR_FINDING_FIELD =
       "HTTP.Exception.ErrorFindingField";
+  private static final long ASYNC_WAIT_MILLIS = 100L;
 
   public Http(
       TransformMeta transformMeta,
@@ -74,25 +76,29 @@ public class Http extends BaseTransform<HttpMeta, HttpData> {
   private Object[] execHttp(IRowMeta rowMeta, Object[] row) throws HopException {
     if (first) {
       first = false;
-      data.argnrs = new int[meta.getArgumentField().length];
-
-      for (int i = 0; i < meta.getArgumentField().length; i++) {
-        data.argnrs[i] = rowMeta.indexOfValue(meta.getArgumentField()[i]);
-        if (data.argnrs[i] < 0) {
-          logError(
-              BaseMessages.getString(PKG, "HTTP.Log.ErrorFindingField")
-                  + meta.getArgumentField()[i]
-                  + "]");
-          throw new HopTransformException(
-              BaseMessages.getString(
-                  PKG, "HTTP.Exception.CouldnotFindField", meta.getArgumentField()[i]));
-        }
-      }
+      lookupArgumentFields(rowMeta);
     }
 
     return callHttpService(rowMeta, row);
   }
 
+  private void lookupArgumentFields(IRowMeta rowMeta) throws HopException {
+    data.argnrs = new int[meta.getArgumentField().length];
+
+    for (int i = 0; i < meta.getArgumentField().length; i++) {
+      data.argnrs[i] = rowMeta.indexOfValue(meta.getArgumentField()[i]);
+      if (data.argnrs[i] < 0) {
+        logError(
+            BaseMessages.getString(PKG, "HTTP.Log.ErrorFindingField")
+                + meta.getArgumentField()[i]
+                + "]");
+        throw new HopTransformException(
+            BaseMessages.getString(
+                PKG, "HTTP.Exception.CouldnotFindField", meta.getArgumentField()[i]));
+      }
+    }
+  }
+
   @VisibleForTesting
   Object[] callHttpService(IRowMeta rowMeta, Object[] rowData) throws HopException {
     HttpClientManager.HttpClientBuilderFacade clientBuilder =
@@ -129,14 +135,14 @@ public class Http extends BaseTransform<HttpMeta, HttpData> {
         for (int i = 0; i < data.header_parameters_nrs.length; i++) {
           method.addHeader(
               data.headerParameters[i].getName(),
-              data.inputRowMeta.getString(rowData, data.header_parameters_nrs[i]));
+              rowMeta.getString(rowData, data.header_parameters_nrs[i]));
           if (isDebug()) {
             logDebug(
                 BaseMessages.getString(
                     PKG,
                     "HTTPDialog.Log.HeaderValue",
                     data.headerParameters[i].getName(),
-                    data.inputRowMeta.getString(rowData, data.header_parameters_nrs[i])));
+                    rowMeta.getString(rowData, data.header_parameters_nrs[i])));
           }
         }
       }
@@ -300,6 +306,9 @@ public class Http extends BaseTransform<HttpMeta, HttpData> {
 
     boolean firstWithoutPreviousTransforms = first && data.withoutPreviousTransforms;
     if (r == null && !firstWithoutPreviousTransforms) {
+      if (data.asyncExecutor != null && !putAllRequests()) {
+        return false;
+      }
       setOutputDone();
       return false;
     }
@@ -361,6 +370,10 @@ public class Http extends BaseTransform<HttpMeta, HttpData> {
       }
     } // end if first
 
+    if (data.asyncExecutor != null) {
+      return processRowAsync(r);
+    }
+
     try {
       Object[] outputRowData = execHttp(data.inputRowMeta, r); // add new values to the row
       putRow(data.outputRowMeta, outputRowData); // copy row to output rowset(s)
@@ -369,24 +382,87 @@ public class Http extends BaseTransform<HttpMeta, HttpData> {
         logDetailed(BaseMessages.getString(PKG, "HTTP.LineNumber") + getLinesRead());
       }
     } catch (HopException e) {
-      boolean sendToErrorRow = false;
-      String errorMessage = null;
+      return handleRequestError(r, e);
+    }
 
-      if (getTransformMeta().isDoingErrorHandling()) {
-        sendToErrorRow = true;
-        errorMessage = e.toString();
-      } else {
-        logError(BaseMessages.getString(PKG, "HTTP.ErrorInTransformRunning") + e.getMessage());
-        setErrors(1);
-        stopAll();
-        setOutputDone(); // signal end to receiver(s)
+    return true;
+  }
+
+  /**
+   * Submit the request for a row to the background executor and pass on the rows of the completed
+   * requests. Only waits if the maximum number of requests is in flight.
+   */
+  private boolean processRowAsync(Object[] r) throws HopException {
+    if (first) {
+      first = false;
+      lookupArgumentFields(data.inputRowMeta);
+    }
+    while (data.asyncExecutor.isFull() && !isStopped()) {
+      if (!putCompletedRequests(ASYNC_WAIT_MILLIS)) {
         return false;
       }
-      if (sendToErrorRow) {
-        // Simply add this row to the error row
-        putError(data.inputRowMeta, r, 1, errorMessage, null, "HTTP001");
+    }
+    // The value metas cache their formatters, every request gets its own copy
+    //
+    IRowMeta rowMeta = data.inputRowMeta.clone();
+    data.asyncExecutor.submit(r, () -> callHttpService(rowMeta, r));
+    return putCompletedRequests(0);
+  }
+
+  private boolean putAllRequests() throws HopException {
+    while (!data.asyncExecutor.isEmpty() && !isStopped()) {
+      if (!putCompletedRequests(ASYNC_WAIT_MILLIS)) {
+        return false;
+      }
+    }
+    return true;
+  }
+
+  private boolean putCompletedRequests(long waitMillis) throws HopException {
+    List<AsyncRequestExecutor.Request<Object[]>> completed;
+    try {
+      completed = data.asyncExecutor.takeCompleted(waitMillis);
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+      throw new HopException(e);
+    }
+    for (AsyncRequestExecutor.Request<Object[]> request : completed) {
+      if (request.getError() == null) {
+        putRow(data.outputRowMeta, request.getResult());
+        if (checkFeedback(getLinesRead()) && isDetailed()) {
+          logDetailed(BaseMessages.getString(PKG, "HTTP.LineNumber") + getLinesRead());
+        }
+      } else {
+        HopException e =
+            request.getError() instanceof HopException hopException
+                ? hopException
+                : new HopException(request.getError());
+        if (!handleRequestError(request.getRow(), e)) {
+          return false;
+        }
       }
     }
+    return true;
+  }
+
+  private boolean handleRequestError(Object[] r, HopException e) throws HopException {
+    boolean sendToErrorRow = false;
+    String errorMessage = null;
+
+    if (getTransformMeta().isDoingErrorHandling()) {
+      sendToErrorRow = true;
+      errorMessage = e.toString();
+    } else {
+      logError(BaseMessages.getString(PKG, "HTTP.ErrorInTransformRunning") + e.getMessage());
+      setErrors(1);
+      stopAll();
+      setOutputDone(); // signal end to receiver(s)
+      return false;
+    }
+    if (sendToErrorRow) {
+      // Simply add this row to the error row
+      putError(data.inputRowMeta, r, 1, errorMessage, null, "HTTP001");
+    }
 
     return true;
   }
@@ -407,8 +483,31 @@ public class Http extends BaseTransform<HttpMeta, HttpData> {
       data.withoutPreviousTransforms =
           getPipelineMeta().getPrevTransforms(getTransformMeta()).length == 0;
 
+      // The executor also retries the requests executed one by one
+      //
+      int maxInFlight = Const.toInt(resolve(meta.getMaxInFlight()), 1);
+      int maxRetries = Const.toInt(resolve(meta.getMaxRetries()), 0);
+      if (maxInFlight > 1 || maxRetries > 0) {
+        data.asyncExecutor =
+            new AsyncRequestExecutor<>(
+                getTransformName(),
+                maxInFlight,
+                !meta.isUnorderedOutput(),
+                maxRetries,
+                Const.toLong(resolve(meta.getRetryDelay()), 1000L));
+      }
+
       return true;
     }
     return false;
   }
+
+  @Override
+  public void dispose() {
+    if (data.asyncExecutor != null) {
+      data.asyncExecutor.cancel();
+      data.asyncExecutor = null;
+    }
+    super.dispose();
+  }
 }
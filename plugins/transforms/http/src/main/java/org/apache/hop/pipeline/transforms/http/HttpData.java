@@ -18,6 +18,7 @@
 package org.apache.hop.pipeline.transforms.http;
 
 import org.apache.hop.core.row.IRowMeta;
+import org.apache.hop.core.util.AsyncRequestExecutor;
 import org.apache.hop.pipeline.transform.BaseTransformData;
 import org.apache.hop.pipeline.transform.ITransformData;
 import org.apache.http.NameValuePair;
@@ -41,6 +42,9 @@ public class HttpData extends BaseTransformData implements ITransformData {
   public int realConnectionTimeout;
   public boolean withoutPreviousTransforms;
 
+  /** Executes the requests in the background, with more than one in flight or with retries */
+  public AsyncRequestExecutor<Object[]> asyncExecutor;
+
   /** Default constructor. */
   public HttpData() {
     super();
@@ -112,6 +112,14 @@ public class HttpDialog extends BaseTransformDialog {
 
   private TextVar wCloseIdleConnectionsTime;
 
+  private TextVar wMaxInFlight;
+
+  private Button wUnorderedOutput;
+
+  private TextVar wMaxRetries;
+
+  private TextVar wRetryDelay;
+
   public HttpDialog(
       Shell parent, IVariables variables, HttpMeta transformMeta, PipelineMeta pipelineMeta) {
     super(parent, variables, transformMeta, pipelineMeta);
@@ -173,6 +181,7 @@ public class HttpDialog extends BaseTransformDialog {
     setupConnectionTimeoutLine(lsMod, gSettings);
     setupSocketTimeoutLine(lsMod, gSettings);
     setupCloseWaitTimeLine(lsMod, gSettings);
+    setupAsyncLines(lsMod, gSettings);
 
     FormData fdSettings = new FormData();
     fdSettings.left = new FormAttachment(0, 0);
@@ -669,6 +678,68 @@ public class HttpDialog extends BaseTransformDialog {
     wCloseIdleConnectionsTime.setLayoutData(fdCloseIdleConnectionsTime);
   }
 
+  private void setupAsyncLines(ModifyListener lsMod, Group gSettings) {
+    int margin = PropsUi.getMargin();
+    int middle = props.getMiddlePct();
+
+    wMaxInFlight =
+        addTextVarLine(lsMod, gSettings, wCloseIdleConnectionsTime, "HTTPDialog.MaxInFlight");
+
+    Label wlUnorderedOutput = new Label(gSettings, SWT.RIGHT);
+    wlUnorderedOutput.setText(BaseMessages.getString(PKG, "HTTPDialog.UnorderedOutput.Label"));
+    wlUnorderedOutput.setToolTipText(
+        BaseMessages.getString(PKG, "HTTPDialog.UnorderedOutput.Tooltip"));
+    PropsUi.setLook(wlUnorderedOutput);
+    FormData fdlUnorderedOutput = new FormData();
+    fdlUnorderedOutput.top = new FormAttachment(wMaxInFlight, margin);
+    fdlUnorderedOutput.left = new FormAttachment(0, 0);
+    fdlUnorderedOutput.right = new FormAttachment(middle, -margin);
+    wlUnorderedOutput.setLayoutData(fdlUnorderedOutput);
+    wUnorderedOutput = new Button(gSettings, SWT.CHECK);
+    wUnorderedOutput.setToolTipText(
+        BaseMessages.getString(PKG, "HTTPDialog.UnorderedOutput.Tooltip"));
+    PropsUi.setLook(wUnorderedOutput);
+    FormData fdUnorderedOutput = new FormData();
+    fdUnorderedOutput.top = new FormAttachment(wlUnorderedOutput, 0, SWT.CENTER);
+    fdUnorderedOutput.left = new FormAttachment(middle, 0);
+    fdUnorderedOutput.right = new FormAttachment(100, 0);
+    wUnorderedOutput.setLayoutData(fdUnorderedOutput);
+    wUnorderedOutput.addSelectionListener(
+        new SelectionAdapter() {
+          @Override
+          public void widgetSelected(SelectionEvent e) {
+            input.setChanged();
+          }
+        });
+
+    wMaxRetries = addTextVarLine(lsMod, gSettings, wUnorderedOutput, "HTTPDialog.MaxRetries");
+    wRetryDelay = addTextVarLine(lsMod, gSettings, wMaxRetries, "HTTPDialog.RetryDelay");
+  }
+
+  private TextVar addTextVarLine(
+      ModifyListener lsMod, Group gSettings, Control lastControl, String messageKey) {
+    int margin = PropsUi.getMargin();
+    int middle = props.getMiddlePct();
+    Label wLabel = new Label(gSettings, SWT.RIGHT);
+    wLabel.setText(BaseMessages.getString(PKG, messageKey + ".Label"));
+    PropsUi.setLook(wLabel);
+    FormData fdLabel = new FormData();
+    fdLabel.top = new FormAttachment(lastControl, margin);
+    fdLabel.left = new FormAttachment(0, 0);
+    fdLabel.right = new FormAttachment(middle, -margin);
+    wLabel.setLayoutData(fdLabel);
+    TextVar wText = new TextVar(variables, gSettings, SWT.SINGLE | SWT.LEFT | SWT.BORDER);
+    wText.addModifyListener(lsMod);
+    wText.setToolTipText(BaseMessages.getString(PKG, messageKey + ".Tooltip"));
+    PropsUi.setLook(wText);
+    FormData fdText = new FormData();
+    fdText.top = new FormAttachment(lastControl, margin);
+    fdText.left = new FormAttachment(middle, 0);
+    fdText.right = new FormAttachment(100, 0);
+    wText.setLayoutData(fdText);
+    return wText;
+  }
+
   private void setupSocketTimeoutLine(ModifyListener lsMod, Group gSettings) {
     int margin = PropsUi.getMargin();
     int middle = props.getMiddlePct();
@@ -1001,6 +1072,10 @@ public class HttpDialog extends BaseTransformDialog {
     wSocketTimeOut.setText(Const.NVL(input.getSocketTimeout(), ""));
     wConnectionTimeOut.setText(Const.NVL(input.getConnectionTimeout(), ""));
     wCloseIdleConnectionsTime.setText(Const.NVL(input.getCloseIdleConnectionsTime(), ""));
+    wMaxInFlight.setText(Const.NVL(input.getMaxInFlight(), ""));
+    wUnorderedOutput.setSelection(input.isUnorderedOutput());
+    wMaxRetries.setText(Const.NVL(input.getMaxRetries(), ""));
+    wRetryDelay.setText(Const.NVL(input.getRetryDelay(), ""));
 
     wUrl.setText(Const.NVL(input.getUrl(), ""));
     wUrlInField.setSelection(input.isUrlInField());
@@ -1092,6 +1167,10 @@ public class HttpDialog extends BaseTransformDialog {
     input.setSocketTimeout(wSocketTimeOut.getText());
     input.setConnectionTimeout(wConnectionTimeOut.getText());
     input.setCloseIdleConnectionsTime(wCloseIdleConnectionsTime.getText());
+    input.setMaxInFlight(wMaxInFlight.getText());
+    input.setUnorderedOutput(wUnorderedOutput.getSelection());
+    input.setMaxRetries(wMaxRetries.getText());
+    input.setRetryDelay(wRetryDelay.getText());
 
     transformName = wTransformName.getText(); // return value
 
@@ -104,6 +104,18 @@ public class HttpMeta extends BaseTransformMeta<Http, HttpData> {
   private String[] headerParameter;
   private String[] headerField;
 
+  /** The maximum number of requests in flight, 1 or empty to execute the requests one by one */
+  private String maxInFlight;
+
+  /** Pass the rows on in the order the requests complete rather than the order of the input */
+  private boolean unorderedOutput;
+
+  /** The number of times a request failing with an I/O error is retried */
+  private String maxRetries;
+
+  /** The delay in milliseconds before the first retry, doubled for every next retry */
+  private String retryDelay;
+
   public HttpMeta() {
     super(); // allocate BaseTransformMeta
   }
@@ -264,6 +276,70 @@ public class HttpMeta extends BaseTransformMeta<Http, HttpData> {
     this.urlField = urlField;
   }
 
+  /**
+   * Gets maxInFlight
+   *
+   * @return value of maxInFlight
+   */
+  public String getMaxInFlight() {
+    return maxInFlight;
+  }
+
+  /**
+   * @param maxInFlight The maxInFlight to set
+   */
+  public void setMaxInFlight(String maxInFlight) {
+    this.maxInFlight = maxInFlight;
+  }
+
+  /**
+   * Gets unorderedOutput
+   *
+   * @return value of unorderedOutput
+   */
+  public boolean isUnorderedOutput() {
+    return unorderedOutput;
+  }
+
+  /**
+   * @param unorderedOutput The unorderedOutput to set
+   */
+  public void setUnorderedOutput(boolean unorderedOutput) {
+    this.unorderedOutput = unorderedOutput;
+  }
+
+  /**
+   * Gets maxRetries
+   *
+   * @return value of maxRetries
+   */
+  public String getMaxRetries() {
+    return maxRetries;
+  }
+
+  /**
+   * @param maxRetries The maxRetries to set
+   */
+  public void setMaxRetries(String maxRetries) {
+    this.maxRetries = maxRetries;
+  }
+
+  /**
+   * Gets retryDelay
+   *
+   * @return value of retryDelay
+   */
+  public String getRetryDelay() {
+    return retryDelay;
+  }
+
+  /**
+   * @param retryDelay The retryDelay to set
+   */
+  public void setRetryDelay(String retryDelay) {
+    this.retryDelay = retryDelay;
+  }
+
   @Override
   public void loadXml(Node transformNode, IHopMetadataProvider metadataProvider)
       throws HopXmlException {
@@ -321,6 +397,10 @@ public class HttpMeta extends BaseTransformMeta<Http, HttpData> {
     responseTimeFieldName = "";
     responseHeaderFieldName = "";
     encoding = "UTF-8";
+    maxInFlight = "1";
+    unorderedOutput = false;
+    maxRetries = "0";
+    retryDelay = "1000";
   }
 
   @Override
@@ -375,6 +455,10 @@ public class HttpMeta extends BaseTransformMeta<Http, HttpData> {
     retval.append("    " + XmlHandler.addTagValue("connectionTimeout", connectionTimeout));
     retval.append(
         "    " + XmlHandler.addTagValue("closeIdleConnectionsTime", closeIdleConnectionsTime));
+    retval.append("    " + XmlHandler.addTagValue("maxInFlight", maxInFlight));
+    retval.append("    " + XmlHandler.addTagValue("unorderedOutput", unorderedOutput));
+    retval.append("    " + XmlHandler.addTagValue("maxRetries", maxRetries));
+    retval.append("    " + XmlHandler.addTagValue("retryDelay", retryDelay));
 
     retval.append("    <lookup>").append(Const.CR);
 
@@ -429,6 +513,11 @@ public class HttpMeta extends BaseTransformMeta<Http, HttpData> {
       socketTimeout = XmlHandler.getTagValue(transformNode, "socketTimeout");
       connectionTimeout = XmlHandler.getTagValue(transformNode, "connectionTimeout");
       closeIdleConnectionsTime = XmlHandler.getTagValue(transformNode, "closeIdleConnectionsTime");
+      maxInFlight = XmlHandler.getTagValue(transformNode, "maxInFlight");
+      unorderedOutput =
+          "Y".equalsIgnoreCase(XmlHandler.getTagValue(transformNode, "unorderedOutput"));
+      maxRetries = XmlHandler.getTagValue(transformNode, "maxRetries");
+      retryDelay = XmlHandler.getTagValue(transformNode, "retryDelay");
 
       Node lookup = XmlHandler.getSubNode(transformNode, "lookup");
       nrargs = XmlHandler.countNodes(lookup, "arg");
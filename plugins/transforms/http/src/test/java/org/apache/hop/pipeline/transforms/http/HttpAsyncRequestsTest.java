@@ -0,0 +1,188 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.hop.pipeline.transforms.http;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import com.sun.net.httpserver.HttpServer;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.apache.hop.core.HopEnvironment;
+import org.apache.hop.core.exception.HopException;
+import org.apache.hop.core.row.IRowMeta;
+import org.apache.hop.core.row.RowMeta;
+import org.apache.hop.core.row.value.ValueMetaInteger;
+import org.apache.hop.core.row.value.ValueMetaString;
+import org.apache.hop.junit.rules.RestoreHopEngineEnvironment;
+import org.apache.hop.pipeline.PipelineHopMeta;
+import org.apache.hop.pipeline.PipelineMeta;
+import org.apache.hop.pipeline.RowProducer;
+import org.apache.hop.pipeline.engines.local.LocalPipelineEngine;
+import org.apache.hop.pipeline.transform.ITransformMeta;
+import org.apache.hop.pipeline.transform.RowAdapter;
+import org.apache.hop.pipeline.transform.TransformErrorMeta;
+import org.apache.hop.pipeline.transform.TransformMeta;
+import org.apache.hop.pipeline.transforms.dummy.DummyMeta;
+import org.apache.hop.pipeline.transforms.injector.InjectorMeta;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.BeforeClass;
+import org.junit.ClassRule;
+import org.junit.Test;
+
+/** Executes the requests of a pipeline in the background against a stub server. */
+public class HttpAsyncRequestsTest {
+  @ClassRule public static RestoreHopEngineEnvironment env = new RestoreHopEngineEnvironment();
+
+  private HttpServer server;
+  private final AtomicInteger inFlight = new AtomicInteger();
+  private final AtomicInteger maxInFlight = new AtomicInteger();
+
+  @BeforeClass
+  public static void init() throws HopException {
+    HopEnvironment.init();
+  }
+
+  @Before
+  public void setUp() throws Exception {
+    // The later the request, the faster the answer: the responses complete out of order
+    //
+    server = HttpServer.create(new InetSocketAddress("localhost", 0), 0);
+    server.setExecutor(Executors.newCachedThreadPool());
+    server.createContext(
+        "/echo",
+        exchange -> {
+          int current = inFlight.incrementAndGet();
+          maxInFlight.accumulateAndGet(current, Math::max);
+          try {
+            String query = exchange.getRequestURI().getQuery();
+            long id = Long.parseLong(query.substring(query.indexOf('=') + 1));
+            Thread.sleep(100 - id * 10);
+            byte[] body = query.getBytes(StandardCharsets.UTF_8);
+            exchange.sendResponseHeaders(200, body.length);
+            try (OutputStream outputStream = exchange.getResponseBody()) {
+              outputStream.write(body);
+            }
+          } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+          } finally {
+            inFlight.decrementAndGet();
+            exchange.close();
+          }
+        });
+    server.createContext(
+        "/unauthorized",
+        exchange -> {
+          exchange.sendResponseHeaders(401, -1);
+          exchange.close();
+        });
+    server.start();
+  }
+
+  @After
+  public void tearDown() {
+    server.stop(0);
+  }
+
+  private static TransformMeta createTransform(
+      String pluginId, String name, ITransformMeta transform) {
+    TransformMeta transformMeta = new TransformMeta(name, transform);
+    transformMeta.setTransformPluginId(pluginId);
+    return transformMeta;
+  }
+
+  @Test(timeout = 30000)
+  public void testOrderedOutputAndErrorHandling() throws Exception {
+    HttpMeta httpMeta = new HttpMeta();
+    httpMeta.setDefault();
+    httpMeta.setUrlInField(true);
+    httpMeta.setUrlField("url");
+    httpMeta.setFieldName("body");
+    httpMeta.setMaxInFlight("4");
+
+    PipelineMeta pipelineMeta = new PipelineMeta();
+    pipelineMeta.setName("async http");
+    TransformMeta injector = createTransform("Injector", "Injector", new InjectorMeta());
+    TransformMeta http = createTransform("Http", "Http", httpMeta);
+    TransformMeta output = createTransform("Dummy", "Output", new DummyMeta());
+    TransformMeta errors = createTransform("Dummy", "Errors", new DummyMeta());
+    TransformErrorMeta errorMeta = new TransformErrorMeta(http, errors);
+    errorMeta.setEnabled(true);
+    http.setTransformErrorMeta(errorMeta);
+    pipelineMeta.addTransform(injector);
+    pipelineMeta.addTransform(http);
+    pipelineMeta.addTransform(output);
+    pipelineMeta.addTransform(errors);
+    pipelineMeta.addPipelineHop(new PipelineHopMeta(injector, http));
+    pipelineMeta.addPipelineHop(new PipelineHopMeta(http, output));
+    pipelineMeta.addPipelineHop(new PipelineHopMeta(http, errors));
+
+    LocalPipelineEngine pipeline = new LocalPipelineEngine(pipelineMeta);
+    pipeline.prepareExecution();
+    RowProducer rowProducer = pipeline.addRowProducer("Injector", 0);
+    List<String> bodies = Collections.synchronizedList(new ArrayList<>());
+    List<Object> errorIds = Collections.synchronizedList(new ArrayList<>());
+    pipeline
+        .getTransform("Output", 0)
+        .addRowListener(
+            new RowAdapter() {
+              @Override
+              public void rowWrittenEvent(IRowMeta rowMeta, Object[] row) {
+                bodies.add((String) row[rowMeta.indexOfValue("body")]);
+              }
+            });
+    pipeline
+        .getTransform("Errors", 0)
+        .addRowListener(
+            new RowAdapter() {
+              @Override
+              public void rowWrittenEvent(IRowMeta rowMeta, Object[] row) {
+                errorIds.add(row[rowMeta.indexOfValue("id")]);
+              }
+            });
+    pipeline.startThreads();
+
+    IRowMeta rowMeta = new RowMeta();
+    rowMeta.addValueMeta(new ValueMetaString("url"));
+    rowMeta.addValueMeta(new ValueMetaInteger("id"));
+    String baseUrl = "http://localhost:" + server.getAddress().getPort();
+    List<String> expected = new ArrayList<>();
+    for (long id = 0; id < 10; id++) {
+      String url = id == 3 ? baseUrl + "/unauthorized" : baseUrl + "/echo?id=" + id;
+      rowProducer.putRow(rowMeta, new Object[] {url, id});
+      if (id != 3) {
+        expected.add("id=" + id);
+      }
+    }
+    rowProducer.finished();
+    pipeline.waitUntilFinished();
+
+    assertEquals(0, pipeline.getErrors());
+    assertEquals(expected, bodies);
+    assertEquals(List.of(3L), errorIds);
+    assertTrue(maxInFlight.get() > 1);
+    assertTrue(maxInFlight.get() <= 4);
+  }
+}
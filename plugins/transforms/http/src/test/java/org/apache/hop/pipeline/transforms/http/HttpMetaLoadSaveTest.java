@@ -62,7 +62,11 @@ public class HttpMetaLoadSaveTest {
             "fieldName",
             "resultCodeFieldName",
             "responseTimeFieldName",
-            "responseHeaderFieldName");
+            "responseHeaderFieldName",
+            "maxInFlight",
+            "unorderedOutput",
+            "maxRetries",
+            "retryDelay");
     Map<String, IFieldLoadSaveValidator<?>> fieldLoadSaveValidatorAttributeMap = new HashMap<>();
 
     // Arrays need to be consistent length
@@ -33,7 +33,9 @@ import org.apache.commons.lang.StringUtils;
 import org.apache.hop.core.Const;
 import org.apache.hop.core.exception.HopException;
 import org.apache.hop.core.exception.HopTransformException;
+import org.apache.hop.core.row.IRowMeta;
 import org.apache.hop.core.row.RowDataUtil;
+import org.apache.hop.core.util.AsyncRequestExecutor;
 import org.apache.hop.core.util.HttpClientManager;
 import org.apache.hop.core.util.StringUtil;
 import org.apache.hop.core.util.Utils;
@@ -73,6 +75,7 @@ public class HttpPost extends BaseTransform<HttpPostMeta, HttpPostData> {
   private static final String CONTENT_TYPE_TEXT_XML = "text/xml";
   private static final String PKG_HEADER_VALUE = "HTTPPOST.Log.HeaderValue";
   private static final String PKG_ERROR_FINDING_FIELD = "HTTPPOST.Log.ErrorFindingField";
+  private static final long ASYNC_WAIT_MILLIS = 100L;
 
   public HttpPost(
       TransformMeta transformMeta,
@@ -84,7 +87,7 @@ public class HttpPost extends BaseTransform<HttpPostMeta, HttpPostData> {
     super(transformMeta, meta, data, copyNr, pipelineMeta, pipeline);
   }
 
-  private Object[] callHttpPOST(Object[] rowData) throws HopException {
+  private Object[] callHttpPOST(IRowMeta rowMeta, Object[] rowData) throws HopException {
     HttpClientManager.HttpClientBuilderFacade clientBuilder =
         HttpClientManager.getInstance().createBuilder();
 
@@ -107,15 +110,17 @@ public class HttpPost extends BaseTransform<HttpPostMeta, HttpPostData> {
     CloseableHttpClient httpClient = clientBuilder.build();
 
     // get dynamic url ?
+    // The requests can be executed in parallel: keep the values for this row in local variables
+    String realUrl = data.realUrl;
     if (meta.isUrlInField()) {
-      data.realUrl = data.inputRowMeta.getString(rowData, data.indexOfUrlField);
+      realUrl = rowMeta.getString(rowData, data.indexOfUrlField);
     }
     // Prepare HTTP POST
     try {
       if (isDetailed()) {
-        logDetailed(BaseMessages.getString(PKG, "HTTPPOST.Log.ConnectingToURL", data.realUrl));
+        logDetailed(BaseMessages.getString(PKG, "HTTPPOST.Log.ConnectingToURL", realUrl));
       }
-      URIBuilder uriBuilder = new URIBuilder(data.realUrl);
+      URIBuilder uriBuilder = new URIBuilder(realUrl);
       URI uri = uriBuilder.build();
       org.apache.http.client.methods.HttpPost post =
           new org.apache.http.client.methods.HttpPost(uri);
@@ -151,14 +156,14 @@ public class HttpPost extends BaseTransform<HttpPostMeta, HttpPostData> {
         for (int i = 0; i < data.header_parameters_nrs.length; i++) {
           post.addHeader(
               data.headerParameters[i].getName(),
-              data.inputRowMeta.getString(rowData, data.header_parameters_nrs[i]));
+              rowMeta.getString(rowData, data.header_parameters_nrs[i]));
           if (isDebug()) {
             logDebug(
                 BaseMessages.getString(
                     PKG,
                     PKG_HEADER_VALUE,
                     data.headerParameters[i].getName(),
-                    data.inputRowMeta.getString(rowData, data.header_parameters_nrs[i])));
+                    rowMeta.getString(rowData, data.header_parameters_nrs[i])));
           }
         }
       }
@@ -166,42 +171,42 @@ public class HttpPost extends BaseTransform<HttpPostMeta, HttpPostData> {
       // BODY PARAMETERS
       if (data.useBodyParameters) {
         // set body parameters that we want to send
+        NameValuePair[] bodyParameters = new NameValuePair[data.bodyParameters.length];
         for (int i = 0; i < data.body_parameters_nrs.length; i++) {
           String bodyParameterName = data.bodyParameters[i].getName();
-          String bodyParameterValue =
-              data.inputRowMeta.getString(rowData, data.body_parameters_nrs[i]);
-          data.bodyParameters[i] = new BasicNameValuePair(bodyParameterName, bodyParameterValue);
+          String bodyParameterValue = rowMeta.getString(rowData, data.body_parameters_nrs[i]);
+          bodyParameters[i] = new BasicNameValuePair(bodyParameterName, bodyParameterValue);
           if (isDebug()) {
             logDebug(
                 BaseMessages.getString(
                     PKG, "HTTPPOST.Log.BodyValue", bodyParameterName, bodyParameterValue));
           }
         }
-        bodyParams = getRequestBodyParamsAsStr(data.bodyParameters, data.realEncoding);
+        bodyParams = getRequestBodyParamsAsStr(bodyParameters, data.realEncoding);
         post.setEntity(
             (new StringEntity(bodyParams, ContentType.TEXT_XML.withCharset("US-ASCII"))));
       }
 
       // QUERY PARAMETERS
       if (data.useQueryParameters) {
+        NameValuePair[] queryParameters = new NameValuePair[data.queryParameters.length];
         for (int i = 0; i < data.query_parameters_nrs.length; i++) {
           String queryParameterName = data.queryParameters[i].getName();
-          String queryParameterValue =
-              data.inputRowMeta.getString(rowData, data.query_parameters_nrs[i]);
-          data.queryParameters[i] = new BasicNameValuePair(queryParameterName, queryParameterValue);
+          String queryParameterValue = rowMeta.getString(rowData, data.query_parameters_nrs[i]);
+          queryParameters[i] = new BasicNameValuePair(queryParameterName, queryParameterValue);
           if (isDebug()) {
             logDebug(
                 BaseMessages.getString(
                     PKG, "HTTPPOST.Log.QueryValue", queryParameterName, queryParameterValue));
           }
         }
-        post.setEntity(new UrlEncodedFormEntity(Arrays.asList(data.queryParameters)));
+        post.setEntity(new UrlEncodedFormEntity(Arrays.asList(queryParameters)));
       }
 
       // Set request entity?
       if (data.indexOfRequestEntity >= 0) {
         MultipartEntityBuilder multipartEntityBuilder = MultipartEntityBuilder.create();
-        String tmp = data.inputRowMeta.getString(rowData, data.indexOfRequestEntity);
+        String tmp = rowMeta.getString(rowData, data.indexOfRequestEntity);
         HttpEntity entity = null;
         byte[] bytes = null;
         // Request content will be retrieved directly
@@ -269,7 +274,7 @@ public class HttpPost extends BaseTransform<HttpPostMeta, HttpPostData> {
 
         if (isDetailed()) {
           logDetailed(
-              BaseMessages.getString(PKG, "HTTPPOST.Log.ResponseTime", responseTime, data.realUrl));
+              BaseMessages.getString(PKG, "HTTPPOST.Log.ResponseTime", responseTime, realUrl));
         }
 
         // Display status code
@@ -283,10 +288,10 @@ public class HttpPost extends BaseTransform<HttpPostMeta, HttpPostData> {
         switch (statusCode) {
           case HttpURLConnection.HTTP_UNAUTHORIZED:
             throw new HopTransformException(
-                BaseMessages.getString(PKG, "HTTPPOST.Exception.Authentication", data.realUrl));
+                BaseMessages.getString(PKG, "HTTPPOST.Exception.Authentication", realUrl));
           case -1:
             throw new HopTransformException(
-                BaseMessages.getString(PKG, "HTTPPOST.Exception.IllegalStatusCode", data.realUrl));
+                BaseMessages.getString(PKG, "HTTPPOST.Exception.IllegalStatusCode", realUrl));
           case HttpURLConnection.HTTP_NO_CONTENT:
             body = "";
             break;
@@ -322,7 +327,7 @@ public class HttpPost extends BaseTransform<HttpPostMeta, HttpPostData> {
           logDebug(BaseMessages.getString(PKG, "HTTPPOST.Log.ResponseBody", body));
         }
 
-        int returnFieldsOffset = data.inputRowMeta.size();
+        int returnFieldsOffset = rowMeta.size();
         if (!Utils.isEmpty(meta.getResultFields().get(0).getName())) {
           newRow = RowDataUtil.addValueData(newRow, returnFieldsOffset, body);
           returnFieldsOffset++;
@@ -352,7 +357,7 @@ public class HttpPost extends BaseTransform<HttpPostMeta, HttpPostData> {
           BaseMessages.getString(PKG, "HTTPPOST.Error.UnknownHostException", uhe.getMessage()));
     } catch (Exception e) {
       throw new HopException(
-          BaseMessages.getString(PKG, "HTTPPOST.Error.CanNotReadURL", data.realUrl), e);
+          BaseMessages.getString(PKG, "HTTPPOST.Error.CanNotReadURL", realUrl), e);
     }
   }
 
@@ -378,6 +383,9 @@ public class HttpPost extends BaseTransform<HttpPostMeta, HttpPostData> {
 
     Object[] r = getRow(); // Get row from input rowset & set row busy!
     if (r == null) { // no more input to be expected...
+      if (data.asyncExecutor != null && !putAllRequests()) {
+        return false;
+      }
       setOutputDone();
       return false;
     }
@@ -509,34 +517,97 @@ public class HttpPost extends BaseTransform<HttpPostMeta, HttpPostData> {
       data.realEncoding = resolve(meta.getEncoding());
     } // end if first
 
+    if (data.asyncExecutor != null) {
+      return processRowAsync(r);
+    }
+
     try {
-      Object[] outputRowData = callHttpPOST(r);
+      Object[] outputRowData = callHttpPOST(data.inputRowMeta, r);
       putRow(data.outputRowMeta, outputRowData); // copy row to output rowset(s)
 
       if (checkFeedback(getLinesRead()) && isDetailed()) {
         logDetailed(BaseMessages.getString(PKG, "HTTPPOST.LineNumber") + getLinesRead());
       }
     } catch (HopException e) {
-      boolean sendToErrorRow = false;
-      String errorMessage = null;
+      return handleRequestError(r, e);
+    }
 
-      if (getTransformMeta().isDoingErrorHandling()) {
-        sendToErrorRow = true;
-        errorMessage = e.toString();
-      } else {
-        logError(BaseMessages.getString(PKG, "HTTPPOST.ErrorInTransformRunning") + e.getMessage());
-        setErrors(1);
-        logError(Const.getStackTracker(e));
-        stopAll();
-        setOutputDone(); // signal end to receiver(s)
+    return true;
+  }
+
+  /**
+   * Submit the request for a row to the background executor and pass on the rows of the completed
+   * requests. Only waits if the maximum number of requests is in flight.
+   */
+  private boolean processRowAsync(Object[] r) throws HopException {
+    while (data.asyncExecutor.isFull() && !isStopped()) {
+      if (!putCompletedRequests(ASYNC_WAIT_MILLIS)) {
         return false;
       }
+    }
+    // The value metas cache their formatters, every request gets its own copy
+    //
+    IRowMeta rowMeta = data.inputRowMeta.clone();
+    data.asyncExecutor.submit(r, () -> callHttpPOST(rowMeta, r));
+    return putCompletedRequests(0);
+  }
 
-      if (sendToErrorRow) {
-        // Simply add this row to the error row
-        putError(getInputRowMeta(), r, 1, errorMessage, null, "HTTPPOST001");
+  private boolean putAllRequests() throws HopException {
+    while (!data.asyncExecutor.isEmpty() && !isStopped()) {
+      if (!putCompletedRequests(ASYNC_WAIT_MILLIS)) {
+        return false;
       }
     }
+    return true;
+  }
+
+  private boolean putCompletedRequests(long waitMillis) throws HopException {
+    List<AsyncRequestExecutor.Request<Object[]>> completed;
+    try {
+      completed = data.asyncExecutor.takeCompleted(waitMillis);
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+      throw new HopException(e);
+    }
+    for (AsyncRequestExecutor.Request<Object[]> request : completed) {
+      if (request.getError() == null) {
+        putRow(data.outputRowMeta, request.getResult());
+        if (checkFeedback(getLinesRead()) && isDetailed()) {
+          logDetailed(BaseMessages.getString(PKG, "HTTPPOST.LineNumber") + getLinesRead());
+        }
+      } else {
+        HopException e =
+            request.getError() instanceof HopException hopException
+                ? hopException
+                : new HopException(request.getError());
+        if (!handleRequestError(request.getRow(), e)) {
+          return false;
+        }
+      }
+    }
+    return true;
+  }
+
+  private boolean handleRequestError(Object[] r, HopException e) throws HopException {
+    boolean sendToErrorRow = false;
+    String errorMessage = null;
+
+    if (getTransformMeta().isDoingErrorHandling()) {
+      sendToErrorRow = true;
+      errorMessage = e.toString();
+    } else {
+      logError(BaseMessages.getString(PKG, "HTTPPOST.ErrorInTransformRunning") + e.getMessage());
+      setErrors(1);
+      logError(Const.getStackTracker(e));
+      stopAll();
+      setOutputDone(); // signal end to receiver(s)
+      return false;
+    }
+
+    if (sendToErrorRow) {
+      // Simply add this row to the error row
+      putError(getInputRowMeta(), r, 1, errorMessage, null, "HTTPPOST001");
+    }
 
     return true;
   }
@@ -584,8 +655,31 @@ public class HttpPost extends BaseTransform<HttpPostMeta, HttpPostData> {
       data.realcloseIdleConnectionsTime =
           Const.toInt(resolve(meta.getCloseIdleConnectionsTime()), -1);
 
+      // The executor also retries the requests executed one by one
+      //
+      int maxInFlight = Const.toInt(resolve(meta.getMaxInFlight()), 1);
+      int maxRetries = Const.toInt(resolve(meta.getMaxRetries()), 0);
+      if (maxInFlight > 1 || maxRetries > 0) {
+        data.asyncExecutor =
+            new AsyncRequestExecutor<>(
+                getTransformName(),
+                maxInFlight,
+                !meta.isUnorderedOutput(),
+                maxRetries,
+                Const.toLong(resolve(meta.getRetryDelay()), 1000L));
+      }
+
       return true;
     }
     return false;
   }
+
+  @Override
+  public void dispose() {
+    if (data.asyncExecutor != null) {
+      data.asyncExecutor.cancel();
+      data.asyncExecutor = null;
+    }
+    super.dispose();
+  }
 }
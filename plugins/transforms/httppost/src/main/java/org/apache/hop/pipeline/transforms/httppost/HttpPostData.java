@@ -18,6 +18,7 @@
 package org.apache.hop.pipeline.transforms.httppost;
 
 import org.apache.hop.core.row.IRowMeta;
+import org.apache.hop.core.util.AsyncRequestExecutor;
 import org.apache.hop.pipeline.transform.BaseTransformData;
 import org.apache.hop.pipeline.transform.ITransformData;
 import org.apache.http.NameValuePair;
@@ -50,6 +51,9 @@ public class HttpPostData extends BaseTransformData implements ITransformData {
   public int realConnectionTimeout;
   public int realcloseIdleConnectionsTime;
 
+  /** Executes the requests in the background, with more than one in flight or with retries */
+  public AsyncRequestExecutor<Object[]> asyncExecutor;
+
   public HttpPostData() {
     super();
     indexOfUrlField = -1;
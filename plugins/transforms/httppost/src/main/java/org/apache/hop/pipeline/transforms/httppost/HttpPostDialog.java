@@ -57,6 +57,7 @@ import org.eclipse.swt.layout.FormData;
 import org.eclipse.swt.layout.FormLayout;
 import org.eclipse.swt.widgets.Button;
 import org.eclipse.swt.widgets.Composite;
+import org.eclipse.swt.widgets.Control;
 import org.eclipse.swt.widgets.Group;
 import org.eclipse.swt.widgets.Label;
 import org.eclipse.swt.widgets.Shell;
@@ -129,6 +130,14 @@ public class HttpPostDialog extends BaseTransformDialog {
 
   private TextVar wCloseIdleConnectionsTime;
 
+  private TextVar wMaxInFlight;
+
+  private Button wUnorderedOutput;
+
+  private TextVar wMaxRetries;
+
+  private TextVar wRetryDelay;
+
   public HttpPostDialog(
       Shell parent, IVariables variables, HttpPostMeta transformMeta, PipelineMeta pipelineMeta) {
     super(parent, variables, transformMeta, pipelineMeta);
@@ -193,6 +202,7 @@ public class HttpPostDialog extends BaseTransformDialog {
     setupConnectionTimeoutLine(lsMod, gSettings);
     setupSocketTimeout(lsMod, gSettings);
     setupCloseWaitConnectionLine(lsMod, gSettings);
+    setupAsyncLines(lsMod, gSettings);
 
     FormData fdSettings = new FormData();
     fdSettings.left = new FormAttachment(0, 0);
@@ -700,6 +710,68 @@ public class HttpPostDialog extends BaseTransformDialog {
     wCloseIdleConnectionsTime.setLayoutData(fdCloseIdleConnectionsTime);
   }
 
+  private void setupAsyncLines(ModifyListener lsMod, Group gSettings) {
+    int middle = props.getMiddlePct();
+    int margin = PropsUi.getMargin();
+
+    wMaxInFlight =
+        addTextVarLine(lsMod, gSettings, wCloseIdleConnectionsTime, "HTTPPOSTDialog.MaxInFlight");
+
+    Label wlUnorderedOutput = new Label(gSettings, SWT.RIGHT);
+    wlUnorderedOutput.setText(BaseMessages.getString(PKG, "HTTPPOSTDialog.UnorderedOutput.Label"));
+    wlUnorderedOutput.setToolTipText(
+        BaseMessages.getString(PKG, "HTTPPOSTDialog.UnorderedOutput.Tooltip"));
+    PropsUi.setLook(wlUnorderedOutput);
+    FormData fdlUnorderedOutput = new FormData();
+    fdlUnorderedOutput.top = new FormAttachment(wMaxInFlight, margin);
+    fdlUnorderedOutput.left = new FormAttachment(0, 0);
+    fdlUnorderedOutput.right = new FormAttachment(middle, -margin);
+    wlUnorderedOutput.setLayoutData(fdlUnorderedOutput);
+    wUnorderedOutput = new Button(gSettings, SWT.CHECK);
+    wUnorderedOutput.setToolTipText(
+        BaseMessages.getString(PKG, "HTTPPOSTDialog.UnorderedOutput.Tooltip"));
+    PropsUi.setLook(wUnorderedOutput);
+    FormData fdUnorderedOutput = new FormData();
+    fdUnorderedOutput.top = new FormAttachment(wlUnorderedOutput, 0, SWT.CENTER);
+    fdUnorderedOutput.left = new FormAttachment(middle, 0);
+    fdUnorderedOutput.right = new FormAttachment(100, 0);
+    wUnorderedOutput.setLayoutData(fdUnorderedOutput);
+    wUnorderedOutput.addSelectionListener(
+        new SelectionAdapter() {
+          @Override
+          public void widgetSelected(SelectionEvent e) {
+            input.setChanged();
+          }
+        });
+
+    wMaxRetries = addTextVarLine(lsMod, gSettings, wUnorderedOutput, "HTTPPOSTDialog.MaxRetries");
+    wRetryDelay = addTextVarLine(lsMod, gSettings, wMaxRetries, "HTTPPOSTDialog.RetryDelay");
+  }
+
+  private TextVar addTextVarLine(
+      ModifyListener lsMod, Group gSettings, Control lastControl, String messageKey) {
+    int middle = props.getMiddlePct();
+    int margin = PropsUi.getMargin();
+    Label wLabel = new Label(gSettings, SWT.RIGHT);
+    wLabel.setText(BaseMessages.getString(PKG, messageKey + ".Label"));
+    PropsUi.setLook(wLabel);
+    FormData fdLabel = new FormData();
+    fdLabel.top = new FormAttachment(lastControl, margin);
+    fdLabel.left = new FormAttachment(0, 0);
+    fdLabel.right = new FormAttachment(middle, -margin);
+    wLabel.setLayoutData(fdLabel);
+    TextVar wText = new TextVar(variables, gSettings, SWT.SINGLE | SWT.LEFT | SWT.BORDER);
+    wText.addModifyListener(lsMod);
+    wText.setToolTipText(BaseMessages.getString(PKG, messageKey + ".Tooltip"));
+    PropsUi.setLook(wText);
+    FormData fdText = new FormData();
+    fdText.top = new FormAttachment(lastControl, margin);
+    fdText.left = new FormAttachment(middle, 0);
+    fdText.right = new FormAttachment(100, 0);
+    wText.setLayoutData(fdText);
+    return wText;
+  }
+
   private void setupSocketTimeout(ModifyListener lsMod, Group gSettings) {
     int middle = props.getMiddlePct();
     int margin = PropsUi.getMargin();
@@ -1167,6 +1239,10 @@ public class HttpPostDialog extends BaseTransformDialog {
     wSocketTimeOut.setText(Const.NVL(input.getSocketTimeout(), ""));
     wConnectionTimeOut.setText(Const.NVL(input.getConnectionTimeout(), ""));
     wCloseIdleConnectionsTime.setText(Const.NVL(input.getCloseIdleConnectionsTime(), ""));
+    wMaxInFlight.setText(Const.NVL(input.getMaxInFlight(), ""));
+    wUnorderedOutput.setSelection(input.isUnorderedOutput());
+    wMaxRetries.setText(Const.NVL(input.getMaxRetries(), ""));
+    wRetryDelay.setText(Const.NVL(input.getRetryDelay(), ""));
 
     wFields.setRowNums();
     wFields.optWidth(true);
@@ -1245,6 +1321,10 @@ public class HttpPostDialog extends BaseTransformDialog {
     input.setSocketTimeout(wSocketTimeOut.getText());
     input.setConnectionTimeout(wConnectionTimeOut.getText());
     input.setCloseIdleConnectionsTime(wCloseIdleConnectionsTime.getText());
+    input.setMaxInFlight(wMaxInFlight.getText());
+    input.setUnorderedOutput(wUnorderedOutput.getSelection());
+    input.setMaxRetries(wMaxRetries.getText());
+    input.setRetryDelay(wRetryDelay.getText());
 
     transformName = wTransformName.getText(); // return value
 
@@ -114,6 +114,22 @@ public class HttpPostMeta extends BaseTransformMeta<HttpPost, HttpPostData> {
       injectionGroupDescription = "HTTPPOST.Injection.httpPostResultField")
   private List<HttpPostResultField> resultFields = new ArrayList<>();
 
+  /** The maximum number of requests in flight, 1 or empty to execute the requests one by one */
+  @HopMetadataProperty(injectionKeyDescription = "HTTPPOST.Injection.maxInFlight")
+  private String maxInFlight;
+
+  /** Pass the rows on in the order the requests complete rather than the order of the input */
+  @HopMetadataProperty(injectionKeyDescription = "HTTPPOST.Injection.unorderedOutput")
+  private boolean unorderedOutput;
+
+  /** The number of times a request failing with an I/O error is retried */
+  @HopMetadataProperty(injectionKeyDescription = "HTTPPOST.Injection.maxRetries")
+  private String maxRetries;
+
+  /** The delay in milliseconds before the first retry, doubled for every next retry */
+  @HopMetadataProperty(injectionKeyDescription = "HTTPPOST.Injection.retryDelay")
+  private String retryDelay;
+
   public HttpPostMeta() {
     super(); // allocate BaseTransformMeta
   }
@@ -154,6 +170,70 @@ public class HttpPostMeta extends BaseTransformMeta<HttpPost, HttpPostData> {
     this.closeIdleConnectionsTime = closeIdleConnectionsTime;
   }
 
+  /**
+   * Gets maxInFlight
+   *
+   * @return value of maxInFlight
+   */
+  public String getMaxInFlight() {
+    return maxInFlight;
+  }
+
+  /**
+   * @param maxInFlight The maxInFlight to set
+   */
+  public void setMaxInFlight(String maxInFlight) {
+    this.maxInFlight = maxInFlight;
+  }
+
+  /**
+   * Gets unorderedOutput
+   *
+   * @return value of unorderedOutput
+   */
+  public boolean isUnorderedOutput() {
+    return unorderedOutput;
+  }
+
+  /**
+   * @param unorderedOutput The unorderedOutput to set
+   */
+  public void setUnorderedOutput(boolean unorderedOutput) {
+    this.unorderedOutput = unorderedOutput;
+  }
+
+  /**
+   * Gets maxRetries
+   *
+   * @return value of maxRetries
+   */
+  public String getMaxRetries() {
+    return maxRetries;
+  }
+
+  /**
+   * @param maxRetries The maxRetries to set
+   */
+  public void setMaxRetries(String maxRetries) {
+    this.maxRetries = maxRetries;
+  }
+
+  /**
+   * Gets retryDelay
+   *
+   * @return value of retryDelay
+   */
+  public String getRetryDelay() {
+    return retryDelay;
+  }
+
+  /**
+   * @param retryDelay The retryDelay to set
+   */
+  public void setRetryDelay(String retryDelay) {
+    this.retryDelay = retryDelay;
+  }
+
   /**
    * @return Returns the socketTimeout.
    */
@@ -273,6 +353,10 @@ public class HttpPostMeta extends BaseTransformMeta<HttpPost, HttpPostData> {
     socketTimeout = String.valueOf(DEFAULT_SOCKET_TIMEOUT);
     connectionTimeout = String.valueOf(DEFAULT_CONNECTION_TIMEOUT);
     closeIdleConnectionsTime = String.valueOf(DEFAULT_CLOSE_CONNECTIONS_TIME);
+    maxInFlight = "1";
+    unorderedOutput = false;
+    maxRetries = "0";
+    retryDelay = "1000";
   }
 
   @Override
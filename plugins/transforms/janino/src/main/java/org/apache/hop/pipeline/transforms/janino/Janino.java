@@ -36,6 +36,7 @@ import org.apache.hop.pipeline.PipelineMeta;
 import org.apache.hop.pipeline.transform.BaseTransform;
 import org.apache.hop.pipeline.transform.TransformMeta;
 import org.apache.hop.pipeline.transforms.janino.function.FunctionLib;
+import org.apache.hop.pipeline.transforms.util.JaninoCache;
 import org.apache.hop.pipeline.transforms.util.JaninoCheckerUtil;
 import org.codehaus.janino.ExpressionEvaluator;
 
@@ -44,6 +45,8 @@ public class Janino extends BaseTransform<JaninoMeta, JaninoData> {
 
   private static final Class<?> PKG = JaninoMeta.class;
 
+  private static String[] importPackages;
+
   public Janino(
       TransformMeta transformMeta,
       JaninoMeta meta,
@@ -165,15 +168,6 @@ public class Janino extends BaseTransform<JaninoMeta, JaninoData> {
             PluginRegistry registry = PluginRegistry.getInstance();
             IPlugin plugin = registry.getPlugin(TransformPluginType.class, "Janino");
             ClassLoader loader = registry.getClassLoader(plugin);
-            FunctionLib functionLib = new FunctionLib();
-            data.expressionEvaluators[m] = new ExpressionEvaluator();
-            data.expressionEvaluators[m].setParameters(
-                parameterNames.toArray(new String[parameterNames.size()]),
-                parameterTypes.toArray(new Class<?>[parameterTypes.size()]));
-            data.expressionEvaluators[m].setReturnType(Object.class);
-            data.expressionEvaluators[m].setThrownExceptions(new Class<?>[] {Exception.class});
-            data.expressionEvaluators[m].setParentClassLoader(loader);
-            data.expressionEvaluators[m].setDefaultImports(functionLib.getImportPackages());
 
             // Validate Formula
             JaninoCheckerUtil janinoCheckerUtil = new JaninoCheckerUtil();
@@ -182,7 +176,18 @@ public class Janino extends BaseTransform<JaninoMeta, JaninoData> {
               throw new HopException("Script contains code that is not allowed : " + codeCheck);
             }
 
-            data.expressionEvaluators[m].cook(fn.getFormula());
+            // The cooked evaluators are shared by all copies and pipelines using the formula
+            //
+            data.expressionEvaluators[m] =
+                JaninoCache.getExpressionEvaluator(
+                    fn.getFormula(),
+                    parameterNames.toArray(new String[parameterNames.size()]),
+                    parameterTypes.toArray(new Class<?>[parameterTypes.size()]),
+                    Object.class,
+                    new Class<?>[] {Exception.class},
+                    loader,
+                    getImportPackages());
+            JaninoCache.logStats(getLogChannel());
           } else {
             throw new HopException(
                 "Unable to find field name for formula ["
@@ -243,6 +248,19 @@ public class Janino extends BaseTransform<JaninoMeta, JaninoData> {
     }
   }
 
+  /**
+   * Gets the packages of the Janino functions, looked up once for all copies.
+   *
+   * @return the import packages
+   * @throws HopException in case the functions can't be found
+   */
+  private static synchronized String[] getImportPackages() throws HopException {
+    if (importPackages == null) {
+      importPackages = new FunctionLib().getImportPackages();
+    }
+    return importPackages;
+  }
+
   @Override
   public boolean init() {
 
@@ -32,8 +32,8 @@ import org.apache.hop.pipeline.PipelineMeta;
 import org.apache.hop.pipeline.transform.BaseTransform;
 import org.apache.hop.pipeline.transform.TransformMeta;
 import org.apache.hop.pipeline.transform.stream.IStream;
+import org.apache.hop.pipeline.transforms.util.JaninoCache;
 import org.apache.hop.pipeline.transforms.util.JaninoCheckerUtil;
-import org.codehaus.janino.ExpressionEvaluator;
 
 /** Calculate new field values using pre-defined functions. */
 public class JavaFilter extends BaseTransform<JavaFilterMeta, JavaFilterData> {
@@ -209,13 +209,6 @@ public class JavaFilter extends BaseTransform<JavaFilterMeta, JavaFilterData> {
 
         // Create the expression evaluator: is relatively slow so we do it only for the first row...
         //
-        data.expressionEvaluator = new ExpressionEvaluator();
-        data.expressionEvaluator.setParameters(
-            parameterNames.toArray(new String[parameterNames.size()]),
-            parameterTypes.toArray(new Class<?>[parameterTypes.size()]));
-        data.expressionEvaluator.setReturnType(Object.class);
-        data.expressionEvaluator.setThrownExceptions(new Class<?>[] {Exception.class});
-
         // Validate Formula
         JaninoCheckerUtil janinoCheckerUtil = new JaninoCheckerUtil();
         List<String> codeCheck = janinoCheckerUtil.checkCode(realCondition);
@@ -223,7 +216,16 @@ public class JavaFilter extends BaseTransform<JavaFilterMeta, JavaFilterData> {
           throw new HopException("Script contains code that is not allowed : " + codeCheck);
         }
 
-        data.expressionEvaluator.cook(realCondition);
+        data.expressionEvaluator =
+            JaninoCache.getExpressionEvaluator(
+                realCondition,
+                parameterNames.toArray(new String[parameterNames.size()]),
+                parameterTypes.toArray(new Class<?>[parameterTypes.size()]),
+                Object.class,
+                new Class<?>[] {Exception.class},
+                null,
+                null);
+        JaninoCache.logStats(getLogChannel());
 
         // Also create the argument data structure once...
         //
@@ -34,6 +34,7 @@ import org.apache.hop.pipeline.transform.IRowListener;
 import org.apache.hop.pipeline.transform.ITransform;
 import org.apache.hop.pipeline.transform.ITransformData;
 import org.apache.hop.pipeline.transform.TransformMeta;
+import org.apache.hop.pipeline.transforms.util.JaninoCache;
 
 public class UserDefinedJavaClass
     extends BaseTransform<UserDefinedJavaClassMeta, UserDefinedJavaClassData> {
@@ -52,6 +53,7 @@ public class UserDefinedJavaClass
     if (copyNr == 0) {
       try {
         meta.cookClasses();
+        JaninoCache.logStats(getLogChannel());
       } catch (HopException e) {
         throw new RuntimeException(e);
       }
@@ -18,10 +18,7 @@
 package org.apache.hop.pipeline.transforms.userdefinedjavaclass;
 
 import com.google.common.annotations.VisibleForTesting;
-import com.google.common.cache.Cache;
-import com.google.common.cache.CacheBuilder;
 import java.io.IOException;
-import java.io.StringReader;
 import java.lang.reflect.Method;
 import java.util.ArrayList;
 import java.util.Collections;
@@ -43,7 +40,6 @@ import org.apache.hop.core.row.IRowMeta;
 import org.apache.hop.core.row.IValueMeta;
 import org.apache.hop.core.row.value.ValueMetaFactory;
 import org.apache.hop.core.variables.IVariables;
-import org.apache.hop.core.variables.Variables;
 import org.apache.hop.core.xml.XmlHandler;
 import org.apache.hop.i18n.BaseMessages;
 import org.apache.hop.metadata.api.IHopMetadataProvider;
@@ -51,10 +47,9 @@ import org.apache.hop.pipeline.PipelineMeta;
 import org.apache.hop.pipeline.transform.BaseTransformMeta;
 import org.apache.hop.pipeline.transform.ITransformIOMeta;
 import org.apache.hop.pipeline.transform.TransformMeta;
+import org.apache.hop.pipeline.transforms.util.JaninoCache;
 import org.apache.hop.pipeline.transforms.util.JaninoCheckerUtil;
 import org.codehaus.commons.compiler.CompileException;
-import org.codehaus.janino.ClassBodyEvaluator;
-import org.codehaus.janino.Scanner;
 import org.w3c.dom.Node;
 
 @InjectionSupported(
@@ -112,7 +107,6 @@ public class UserDefinedJavaClassMeta
 
   public Class<TransformClassBase> cookedTransformClass;
   public List<Exception> cookErrors = new ArrayList<>(0);
-  private static final Cache<String, Class<?>> classCache;
 
   @Injection(name = "CLEAR_RESULT_FIELDS")
   private boolean clearingResultFields;
@@ -123,20 +117,6 @@ public class UserDefinedJavaClassMeta
   @InjectionDeep private List<TargetTransformDefinition> targetTransformDefinitions;
   @InjectionDeep private List<UsageParameter> usageParameters;
 
-  static {
-    IVariables vs = new Variables();
-    vs.initializeFrom(null); // sets up the default variables
-    String maxSizeStr = vs.getVariable(UserDefinedJavaClass.HOP_DEFAULT_CLASS_CACHE_SIZE, "100");
-    int maxCacheSize = -1;
-    try {
-      maxCacheSize = Integer.parseInt(maxSizeStr);
-    } catch (Exception ignored) {
-      maxCacheSize = 100; // default to 100 if property not set
-    }
-    // Initialize Class ICache
-    classCache = CacheBuilder.newBuilder().maximumSize(maxCacheSize).build();
-  }
-
   public static class FieldInfo implements Cloneable {
     @Injection(name = "FIELD_NAME", group = "FIELD_INFO")
     public final String name;
@@ -192,34 +172,17 @@ public class UserDefinedJavaClassMeta
   Class<?> cookClass(UserDefinedJavaClassDef def, ClassLoader clsloader)
       throws CompileException, IOException, RuntimeException, HopTransformException {
 
-    String checksum = def.getChecksum();
-    Class<?> rtn = UserDefinedJavaClassMeta.classCache.getIfPresent(checksum);
-    if (rtn != null) {
-      return rtn;
-    }
-
     if (Thread.currentThread().getContextClassLoader() == null) {
       Thread.currentThread().setContextClassLoader(this.getClass().getClassLoader());
     }
 
-    ClassBodyEvaluator cbe = new ClassBodyEvaluator();
-    if (clsloader == null) {
-      cbe.setParentClassLoader(Thread.currentThread().getContextClassLoader());
-    } else {
-      cbe.setParentClassLoader(clsloader);
-    }
-
-    cbe.setClassName(def.getClassName());
-
-    StringReader sr;
-    if (def.isTransformClass()) {
-      cbe.setExtendedType(TransformClassBase.class);
-      sr = new StringReader(def.getTransformedSource());
-    } else {
-      sr = new StringReader(def.getSource());
-    }
-
-    cbe.setDefaultImports(
+    // The compiled classes are shared by all transforms and pipelines using the same source
+    //
+    return JaninoCache.getCookedClass(
+        def.getClassName(),
+        def.isTransformClass() ? def.getTransformedSource() : def.getSource(),
+        def.isTransformClass() ? TransformClassBase.class : null,
+        clsloader,
         new String[] {
           "org.apache.hop.pipeline.transforms.userdefinedjavaclass.*",
           "org.apache.hop.pipeline.transform.*",
@@ -233,11 +196,6 @@ public class UserDefinedJavaClassMeta
           "org.apache.hop.core.variables.*",
           "java.util.*",
         });
-
-    cbe.cook(new Scanner(null, sr));
-    rtn = cbe.getClazz();
-    UserDefinedJavaClassMeta.classCache.put(checksum, rtn);
-    return rtn;
   }
 
   public void cookClasses() throws HopException {
@@ -0,0 +1,294 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.hop.pipeline.transforms.util;
+
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import com.google.common.cache.CacheStats;
+import java.io.StringReader;
+import java.lang.ref.WeakReference;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import org.apache.hop.core.logging.ILogChannel;
+import org.apache.hop.core.variables.IVariables;
+import org.apache.hop.core.variables.Variables;
+import org.apache.hop.pipeline.transforms.userdefinedjavaclass.UserDefinedJavaClass;
+import org.codehaus.commons.compiler.CompileException;
+import org.codehaus.janino.ClassBodyEvaluator;
+import org.codehaus.janino.ExpressionEvaluator;
+import org.codehaus.janino.Scanner;
+
+/**
+ * A process-wide cache of the classes and expression evaluators compiled by Janino. Compiling is
+ * slow so the transform copies and pipelines (for example the child pipelines of a Pipeline
+ * Executor) using the same source share the compiled result.
+ *
+ * <p>The cache key contains the complete source, the imports, the signature and the parent class
+ * loader so a change to any of them compiles again. The size of the cache is limited by the
+ * HOP_DEFAULT_CLASS_CACHE_SIZE variable (default 100).
+ *
+ * <p>The cache doesn't keep class loaders alive: the key only holds a weak reference to the parent
+ * class loader and the names of the classes in the signature. The compiled classes and evaluators
+ * do refer to the parent class loader, so they are held softly and can be collected when memory
+ * gets short.
+ */
+public final class JaninoCache {
+
+  private static final int DEFAULT_CACHE_SIZE = 100;
+
+  private static final Cache<Key, Object> cache;
+
+  static {
+    IVariables vs = new Variables();
+    vs.initializeFrom(null); // sets up the default variables
+    String maxSizeStr = vs.getVariable(UserDefinedJavaClass.HOP_DEFAULT_CLASS_CACHE_SIZE);
+    int maxCacheSize;
+    try {
+      maxCacheSize = Integer.parseInt(maxSizeStr);
+    } catch (Exception ignored) {
+      maxCacheSize = DEFAULT_CACHE_SIZE;
+    }
+    cache = CacheBuilder.newBuilder().maximumSize(maxCacheSize).softValues().recordStats().build();
+  }
+
+  /** What is compiled: a class body or an expression */
+  private record Key(
+      String type,
+      String source,
+      String className,
+      String extendedType,
+      List<String> parameterNames,
+      List<String> parameterTypes,
+      String returnType,
+      List<String> thrownExceptions,
+      List<String> defaultImports,
+      LoaderReference parentClassLoader) {}
+
+  /**
+   * A weak reference to a class loader which is equal to another reference to the same class
+   * loader. Once the class loader is collected, the reference is only equal to itself.
+   */
+  private static final class LoaderReference extends WeakReference<ClassLoader> {
+    private final int hashCode;
+
+    LoaderReference(ClassLoader classLoader) {
+      super(classLoader);
+      hashCode = System.identityHashCode(classLoader);
+    }
+
+    @Override
+    public boolean equals(Object other) {
+      if (this == other) {
+        return true;
+      }
+      if (!(other instanceof LoaderReference reference)) {
+        return false;
+      }
+      ClassLoader classLoader = get();
+      return classLoader != null && classLoader == reference.get();
+    }
+
+    @Override
+    public int hashCode() {
+      return hashCode;
+    }
+  }
+
+  private JaninoCache() {
+    // Static methods only
+  }
+
+  /**
+   * Get a cooked expression evaluator. The evaluator is shared so only use it to evaluate.
+   *
+   * @param expression The expression to compile
+   * @param parameterNames The names of the parameters of the expression
+   * @param parameterTypes The types of the parameters of the expression
+   * @param returnType The type of the result of the expression
+   * @param thrownExceptions The exceptions the expression can throw
+   * @param parentClassLoader The class loader to resolve classes with, null for the context class
+   *     loader
+   * @param defaultImports The default imports or null for none
+   * @return The cooked expression evaluator
+   * @throws CompileException in case the expression doesn't compile
+   */
+  public static ExpressionEvaluator getExpressionEvaluator(
+      String expression,
+      String[] parameterNames,
+      Class<?>[] parameterTypes,
+      Class<?> returnType,
+      Class<?>[] thrownExceptions,
+      ClassLoader parentClassLoader,
+      String[] defaultImports)
+      throws CompileException {
+    ClassLoader loader = getParentClassLoader(parentClassLoader);
+    Key key =
+        new Key(
+            "expression",
+            expression,
+            null,
+            null,
+            toList(parameterNames),
+            toNames(parameterTypes),
+            toName(returnType),
+            toNames(thrownExceptions),
+            toList(defaultImports),
+            new LoaderReference(loader));
+    return (ExpressionEvaluator)
+        get(
+            key,
+            () -> {
+              ExpressionEvaluator evaluator = new ExpressionEvaluator();
+              evaluator.setParameters(parameterNames, parameterTypes);
+              evaluator.setReturnType(returnType);
+              evaluator.setThrownExceptions(thrownExceptions);
+              evaluator.setParentClassLoader(loader);
+              if (defaultImports != null) {
+                evaluator.setDefaultImports(defaultImports);
+              }
+              evaluator.cook(expression);
+              return evaluator;
+            });
+  }
+
+  /**
+   * Get a cooked class from a class body.
+   *
+   * @param className The name of the class
+   * @param classBody The body of the class
+   * @param extendedType The class to extend or null
+   * @param parentClassLoader The class loader to resolve classes with, null for the context class
+   *     loader
+   * @param defaultImports The default imports or null for none
+   * @return The cooked class
+   * @throws CompileException in case the class body doesn't compile
+   */
+  public static Class<?> getCookedClass(
+      String className,
+      String classBody,
+      Class<?> extendedType,
+      ClassLoader parentClassLoader,
+      String[] defaultImports)
+      throws CompileException {
+    ClassLoader loader = getParentClassLoader(parentClassLoader);
+    Key key =
+        new Key(
+            "class",
+            classBody,
+            className,
+            toName(extendedType),
+            null,
+            null,
+            null,
+            null,
+            toList(defaultImports),
+            new LoaderReference(loader));
+    return (Class<?>)
+        get(
+            key,
+            () -> {
+              ClassBodyEvaluator cbe = new ClassBodyEvaluator();
+              cbe.setParentClassLoader(loader);
+              cbe.setClassName(className);
+              if (extendedType != null) {
+                cbe.setExtendedType(extendedType);
+              }
+              if (defaultImports != null) {
+                cbe.setDefaultImports(defaultImports);
+              }
+              cbe.cook(new Scanner(null, new StringReader(classBody)));
+              return cbe.getClazz();
+            });
+  }
+
+  private static Object get(Key key, Callable<Object> compiler) throws CompileException {
+    try {
+      // Copies starting at the same time wait for a single compilation
+      return cache.get(key, compiler);
+    } catch (ExecutionException e) {
+      if (e.getCause() instanceof CompileException compileException) {
+        throw compileException;
+      }
+      throw new CompileException(e.getCause().getMessage(), null, e.getCause());
+    }
+  }
+
+  private static ClassLoader getParentClassLoader(ClassLoader parentClassLoader) {
+    if (parentClassLoader != null) {
+      return parentClassLoader;
+    }
+    return Thread.currentThread().getContextClassLoader();
+  }
+
+  private static <T> List<T> toList(T[] array) {
+    return array == null ? null : Arrays.asList(array.clone());
+  }
+
+  private static String toName(Class<?> type) {
+    return type == null ? null : type.getName();
+  }
+
+  private static List<String> toNames(Class<?>[] types) {
+    if (types == null) {
+      return null;
+    }
+    List<String> names = new ArrayList<>(types.length);
+    for (Class<?> type : types) {
+      names.add(toName(type));
+    }
+    return names;
+  }
+
+  /**
+   * Gets the statistics of the cache: the number of hits, misses, compilations and evictions.
+   *
+   * @return value of the cache statistics
+   */
+  public static CacheStats getStats() {
+    return cache.stats();
+  }
+
+  /**
+   * Log the statistics of the cache at the detailed level.
+   *
+   * @param log The log channel to write to
+   */
+  public static void logStats(ILogChannel log) {
+    if (log.isDetailed()) {
+      CacheStats stats = cache.stats();
+      log.logDetailed(
+          "Janino cache: "
+              + stats.hitCount()
+              + " hits, "
+              + stats.missCount()
+              + " misses, "
+              + stats.evictionCount()
+              + " evictions, "
+              + cache.size()
+              + " compiled classes and expressions");
+    }
+  }
+
+  /** Remove all compiled classes and expressions from the cache. */
+  public static void clear() {
+    cache.invalidateAll();
+  }
+}
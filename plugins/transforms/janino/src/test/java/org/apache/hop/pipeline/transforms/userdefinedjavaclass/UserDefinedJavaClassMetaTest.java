@@ -84,12 +84,16 @@ public class UserDefinedJavaClassMetaTest {
 
     UserDefinedJavaClassMeta userDefinedJavaClassMetaSpy = Mockito.spy(userDefinedJavaClassMeta1);
 
-    // Added classloader
+    // Same source and class loader
     Class<?> clazz1 = userDefinedJavaClassMetaSpy.cookClass(userDefinedJavaClassDef1, null);
-    Class<?> clazz2 =
-        userDefinedJavaClassMetaSpy.cookClass(userDefinedJavaClassDef1, clazz1.getClassLoader());
+    Class<?> clazz2 = userDefinedJavaClassMetaSpy.cookClass(userDefinedJavaClassDef1, null);
     Assert.assertSame(clazz1, clazz2); // Caching should work here and return exact same class
 
+    // Another parent class loader can resolve other classes: compile again
+    Class<?> clazz2b =
+        userDefinedJavaClassMetaSpy.cookClass(userDefinedJavaClassDef1, clazz1.getClassLoader());
+    Assert.assertNotSame(clazz1, clazz2b);
+
     UserDefinedJavaClassMeta userDefinedJavaClassMeta2 = new UserDefinedJavaClassMeta();
     UserDefinedJavaClassDef userDefinedJavaClassDef2 =
         new UserDefinedJavaClassDef(
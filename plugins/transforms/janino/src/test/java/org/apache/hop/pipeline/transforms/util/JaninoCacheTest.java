@@ -0,0 +1,117 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.hop.pipeline.transforms.util;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import com.google.common.cache.CacheStats;
+import org.apache.hop.core.logging.ILogChannel;
+import org.codehaus.commons.compiler.CompileException;
+import org.codehaus.janino.ExpressionEvaluator;
+import org.junit.Before;
+import org.junit.Test;
+import org.mockito.ArgumentCaptor;
+
+public class JaninoCacheTest {
+
+  @Before
+  public void setUp() {
+    JaninoCache.clear();
+  }
+
+  private static ExpressionEvaluator getEvaluator(String expression, String parameterName)
+      throws CompileException {
+    return JaninoCache.getExpressionEvaluator(
+        expression,
+        new String[] {parameterName},
+        new Class<?>[] {Long.class},
+        Object.class,
+        new Class<?>[] {Exception.class},
+        null,
+        null);
+  }
+
+  @Test
+  public void testExpressionEvaluatorIsShared() throws Exception {
+    CacheStats before = JaninoCache.getStats();
+
+    ExpressionEvaluator evaluator1 = getEvaluator("a + 1", "a");
+    ExpressionEvaluator evaluator2 = getEvaluator("a + 1", "a");
+    assertSame(evaluator1, evaluator2);
+    assertEquals(42L, evaluator2.evaluate(new Object[] {41L}));
+
+    CacheStats stats = JaninoCache.getStats().minus(before);
+    assertEquals(1, stats.missCount());
+    assertEquals(1, stats.hitCount());
+  }
+
+  @Test
+  public void testSignatureIsPartOfTheKey() throws Exception {
+    ExpressionEvaluator evaluator1 = getEvaluator("1", "a");
+    ExpressionEvaluator evaluator2 = getEvaluator("1", "b");
+    assertNotSame(evaluator1, evaluator2);
+  }
+
+  @Test
+  public void testClassIsShared() throws Exception {
+    String body = "public int getValue() { return 42; }";
+    Class<?> class1 = JaninoCache.getCookedClass("Test", body, null, null, null);
+    Class<?> class2 = JaninoCache.getCookedClass("Test", body, null, null, null);
+    assertSame(class1, class2);
+
+    Class<?> class3 = JaninoCache.getCookedClass("Test", body, null, class1.getClassLoader(), null);
+    assertNotSame(class1, class3);
+  }
+
+  @Test
+  public void testStatsAreLogged() throws Exception {
+    getEvaluator("a * 2", "a");
+    getEvaluator("a * 2", "a");
+
+    ILogChannel log = mock(ILogChannel.class);
+    when(log.isDetailed()).thenReturn(true);
+    JaninoCache.logStats(log);
+
+    ArgumentCaptor<String> message = ArgumentCaptor.forClass(String.class);
+    verify(log).logDetailed(message.capture());
+    assertTrue(message.getValue().contains(JaninoCache.getStats().hitCount() + " hits"));
+    assertTrue(message.getValue().contains(JaninoCache.getStats().missCount() + " misses"));
+
+    ILogChannel basicLog = mock(ILogChannel.class);
+    JaninoCache.logStats(basicLog);
+    verify(basicLog, never()).logDetailed(anyString());
+  }
+
+  @Test(expected = CompileException.class)
+  public void testCompileErrorIsNotCached() throws Exception {
+    try {
+      getEvaluator("a +", "a");
+    } catch (CompileException e) {
+      // Expected, try again
+    }
+    getEvaluator("a +", "a");
+  }
+}
@@ -44,6 +44,7 @@ import org.apache.hop.pipeline.transforms.jsoninput.exception.JsonInputException
 import org.apache.hop.pipeline.transforms.jsoninput.reader.FastJsonReader;
 import org.apache.hop.pipeline.transforms.jsoninput.reader.InputsReader;
 import org.apache.hop.pipeline.transforms.jsoninput.reader.RowOutputConverter;
+import org.apache.hop.pipeline.transforms.jsoninput.reader.StreamingJsonReader;
 
 /**
  * Read Json files, parse them and convert them to rows and writes these to one or more output
@@ -264,7 +265,9 @@ public class JsonInput extends BaseFileInputTransform<JsonInputMeta, JsonInputDa
       logInputError(e);
       throw new JsonInputException(e);
     } finally {
-      closeQuietly(input);
+      if (!data.reader.isStreaming()) {
+        closeQuietly(input);
+      }
     }
   }
 
@@ -328,8 +331,14 @@ public class JsonInput extends BaseFileInputTransform<JsonInputMeta, JsonInputDa
       return null;
     }
     Object[] rawReaderRow = null;
-    while ((rawReaderRow = data.readerRowSet.getRow()) == null) {
+    while ((rawReaderRow = data.reader.getRow(data.readerRowSet)) == null) {
       if (data.inputs.hasNext() && data.readerRowSet.isDone()) {
+        if (data.reader.isStreaming()) {
+          // The row set reads the input while the rows are taken and closes it
+          InputStream nextIn = data.inputs.next();
+          parseNextInputToRowSet(nextIn != null ? nextIn : new ByteArrayInputStream(EMPTY_JSON));
+          continue;
+        }
         try (InputStream nextIn = data.inputs.next()) {
 
           if (nextIn != null) {
@@ -454,7 +463,12 @@ public class JsonInput extends BaseFileInputTransform<JsonInputMeta, JsonInputDa
       inputFields[i] = field;
     }
     // Instead of putting in the meta.inputFields, we put in our json path resolved input fields
-    data.reader = new FastJsonReader(inputFields, meta.isDefaultPathLeafToNull(), getLogChannel());
+    if (meta.isStreamingRead()) {
+      data.reader = new StreamingJsonReader(inputFields, getLogChannel());
+    } else {
+      data.reader =
+          new FastJsonReader(inputFields, meta.isDefaultPathLeafToNull(), getLogChannel());
+    }
     data.reader.setIgnoreMissingPath(meta.isIgnoreMissingPath());
   }
 
@@ -465,6 +479,10 @@ public class JsonInput extends BaseFileInputTransform<JsonInputMeta, JsonInputDa
     }
     data.inputs = null;
     data.reader = null;
+    if (data.readerRowSet != null) {
+      // Closes the input of a streaming reader stopped before the end
+      data.readerRowSet.clear();
+    }
     data.readerRowSet = null;
     data.repeatedFields = null;
     super.dispose();
@@ -137,6 +137,8 @@ public class JsonInputDialog extends BaseTransformDialog {
 
   private Button wDefaultPathLeafToNull;
 
+  private Button wStreamingRead;
+
   private Button wDoNotFailIfNoFile;
 
   private TextVar wShortFileFieldName;
@@ -627,12 +629,38 @@ public class JsonInputDialog extends BaseTransformDialog {
     wDefaultPathLeafToNull.setLayoutData(fdDefaultPathLeafToNull);
     // default path leaf to null - end
 
+    // streaming read
+    //
+    Label wlStreamingRead = new Label(wConf, SWT.RIGHT);
+    wlStreamingRead.setText(BaseMessages.getString(PKG, "JsonInputDialog.StreamingRead.Label"));
+    PropsUi.setLook(wlStreamingRead);
+    FormData fdlStreamingRead = new FormData();
+    fdlStreamingRead.left = new FormAttachment(0, 0);
+    fdlStreamingRead.top = new FormAttachment(wlDefaultPathLeafToNull, margin);
+    fdlStreamingRead.right = new FormAttachment(middle, -margin);
+    wlStreamingRead.setLayoutData(fdlStreamingRead);
+    wStreamingRead = new Button(wConf, SWT.CHECK);
+    PropsUi.setLook(wStreamingRead);
+    wStreamingRead.addSelectionListener(
+        new SelectionAdapter() {
+          @Override
+          public void widgetSelected(SelectionEvent e) {
+            input.setChanged();
+          }
+        });
+    wStreamingRead.setToolTipText(
+        BaseMessages.getString(PKG, "JsonInputDialog.StreamingRead.Tooltip"));
+    FormData fdStreamingRead = new FormData();
+    fdStreamingRead.left = new FormAttachment(middle, 0);
+    fdStreamingRead.top = new FormAttachment(wlStreamingRead, 0, SWT.CENTER);
+    wStreamingRead.setLayoutData(fdStreamingRead);
+
     wlLimit = new Label(wConf, SWT.RIGHT);
     wlLimit.setText(BaseMessages.getString(PKG, "JsonInputDialog.Limit.Label"));
     PropsUi.setLook(wlLimit);
     FormData fdlLimit = new FormData();
     fdlLimit.left = new FormAttachment(0, 0);
-    fdlLimit.top = new FormAttachment(wlDefaultPathLeafToNull, margin);
+    fdlLimit.top = new FormAttachment(wlStreamingRead, margin);
     fdlLimit.right = new FormAttachment(middle, -margin);
     wlLimit.setLayoutData(fdlLimit);
     wLimit = new Text(wConf, SWT.SINGLE | SWT.LEFT | SWT.BORDER);
@@ -640,7 +668,7 @@ public class JsonInputDialog extends BaseTransformDialog {
     wLimit.addModifyListener(lsMod);
     FormData fdLimit = new FormData();
     fdLimit.left = new FormAttachment(middle, 0);
-    fdLimit.top = new FormAttachment(wlDefaultPathLeafToNull, margin);
+    fdLimit.top = new FormAttachment(wlStreamingRead, margin);
     fdLimit.right = new FormAttachment(100, 0);
     wLimit.setLayoutData(fdLimit);
 
@@ -1265,6 +1293,7 @@ public class JsonInputDialog extends BaseTransformDialog {
     wDoNotFailIfNoFile.setSelection(in.isDoNotFailIfNoFile());
     wIgnoreMissingPath.setSelection(in.isIgnoreMissingPath());
     wDefaultPathLeafToNull.setSelection(in.isDefaultPathLeafToNull());
+    wStreamingRead.setSelection(in.isStreamingRead());
     wRemoveSourceField.setSelection(in.isRemoveSourceField());
     wSourceStreamField.setSelection(in.isInFields());
     wSourceIsAFile.setSelection(in.getIsAFile());
@@ -1408,6 +1437,7 @@ public class JsonInputDialog extends BaseTransformDialog {
     in.setDoNotFailIfNoFile(wDoNotFailIfNoFile.getSelection());
     in.setIgnoreMissingPath(wIgnoreMissingPath.getSelection());
     in.setDefaultPathLeafToNull(wDefaultPathLeafToNull.getSelection());
+    in.setStreamingRead(wStreamingRead.getSelection());
     in.setRemoveSourceField(wRemoveSourceField.getSelection());
     in.setInFields(wSourceStreamField.getSelection());
     in.setIsAFile(wSourceIsAFile.getSelection());
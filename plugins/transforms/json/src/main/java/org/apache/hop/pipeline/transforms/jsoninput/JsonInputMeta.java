@@ -253,6 +253,10 @@ public class JsonInputMeta
 
   private boolean defaultPathLeafToNull;
 
+  /** Flag : read the input as a stream of JSON values, one row per element of the path with [*] */
+  @Injection(name = "STREAMING_READ")
+  private boolean streamingRead;
+
   public JsonInputMeta() {
     additionalOutputFields = new AdditionalFileOutputFields();
     inputFiles = new InputFiles();
@@ -561,6 +565,24 @@ public class JsonInputMeta
     this.ignoreMissingPath = ignoreMissingPath;
   }
 
+  /**
+   * Returns the streamingRead.
+   *
+   * @return streamingRead
+   */
+  public boolean isStreamingRead() {
+    return streamingRead;
+  }
+
+  /**
+   * Set the streamingRead
+   *
+   * @param streamingRead the streamingRead to set.
+   */
+  public void setStreamingRead(boolean streamingRead) {
+    this.streamingRead = streamingRead;
+  }
+
   public String getRowNumberField() {
     return rowNumberField;
   }
@@ -617,6 +639,7 @@ public class JsonInputMeta
     retval.append("    " + XmlHandler.addTagValue("ignoreMissingPath", ignoreMissingPath));
     retval.append(
         "    " + XmlHandler.addTagValue(CONST_DEFAULT_PATH_LEAF_TO_NULL, defaultPathLeafToNull));
+    retval.append("    ").append(XmlHandler.addTagValue("streamingRead", streamingRead));
     retval.append("    ").append(XmlHandler.addTagValue("rownum_field", rowNumberField));
 
     retval.append("    <file>").append(Const.CR);
@@ -690,6 +713,7 @@ public class JsonInputMeta
       ignoreMissingPath =
           "Y".equalsIgnoreCase(XmlHandler.getTagValue(transformNode, "ignoreMissingPath"));
       defaultPathLeafToNull = getDefaultPathLeafToNull(transformNode);
+      streamingRead = "Y".equalsIgnoreCase(XmlHandler.getTagValue(transformNode, "streamingRead"));
       doNotFailIfNoFile =
           "Y".equalsIgnoreCase(XmlHandler.getTagValue(transformNode, "doNotFailIfNoFile"));
       includeRowNumber = "Y".equalsIgnoreCase(XmlHandler.getTagValue(transformNode, "rownum"));
@@ -780,6 +804,7 @@ public class JsonInputMeta
     isIgnoreEmptyFile = false;
     ignoreMissingPath = true;
     defaultPathLeafToNull = true;
+    streamingRead = false;
     doNotFailIfNoFile = true;
     includeFilename = false;
     filenameField = "";
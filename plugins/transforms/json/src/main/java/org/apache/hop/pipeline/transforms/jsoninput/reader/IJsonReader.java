@@ -21,6 +21,7 @@ import java.io.InputStream;
 import org.apache.hop.core.IRowSet;
 import org.apache.hop.core.exception.HopException;
 import org.apache.hop.pipeline.transforms.jsoninput.JsonInputField;
+import org.apache.hop.pipeline.transforms.jsoninput.exception.JsonInputException;
 
 public interface IJsonReader {
 
@@ -38,4 +39,26 @@ public interface IJsonReader {
 
   /** parse compiled fields into a rowset */
   public IRowSet parse(InputStream in) throws HopException;
+
+  /**
+   * A streaming reader produces the rows while they are taken from the row set returned by {@link
+   * #parse(InputStream)}. The row set closes the input once it is read completely or cleared.
+   *
+   * @return true if the input needs to stay open after parsing
+   */
+  default boolean isStreaming() {
+    return false;
+  }
+
+  /**
+   * Take the next row from a row set returned by {@link #parse(InputStream)}. A streaming reader
+   * reads the input here and reports the problems it finds.
+   *
+   * @param rowSet The row set to take the row from
+   * @return The next row or null if there are no more rows
+   * @throws JsonInputException in case the input can't be read or a path can't be found
+   */
+  default Object[] getRow(IRowSet rowSet) throws JsonInputException {
+    return rowSet.getRow();
+  }
 }
@@ -0,0 +1,467 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.hop.pipeline.transforms.jsoninput.reader;
+
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.List;
+import org.apache.hop.core.Const;
+import org.apache.hop.core.IRowSet;
+import org.apache.hop.core.SingleRowRowSet;
+import org.apache.hop.core.exception.HopException;
+import org.apache.hop.core.logging.ILogChannel;
+import org.apache.hop.i18n.BaseMessages;
+import org.apache.hop.pipeline.transform.BaseTransform;
+import org.apache.hop.pipeline.transforms.jsoninput.JsonInputField;
+import org.apache.hop.pipeline.transforms.jsoninput.JsonInputMeta;
+import org.apache.hop.pipeline.transforms.jsoninput.exception.JsonInputException;
+
+/**
+ * Reads the input as a stream of JSON tokens instead of parsing the complete document first. The
+ * rows are produced while they are taken from the row set so the memory use doesn't depend on the
+ * size of the input.
+ *
+ * <p>The input can contain any number of JSON values, for example one per line (JSON Lines or
+ * NDJSON). Only a subset of JsonPath is supported: names (<code>.name</code> or <code>['name']
+ * </code>), array indexes (<code>[0]</code>) and at most one wildcard (<code>[*]</code>). The part
+ * of the paths up to the wildcard must be the same for all fields, for example <code>
+ * $.items[*].id</code> and <code>$.items[*].name</code>. Every element of that array becomes a row.
+ * Without a wildcard every JSON value of the input becomes a row.
+ *
+ * <p>Unless missing paths are ignored, the rows are held back until every path was found once. A
+ * missing path then fails the transform before any row is passed on, like it does with the
+ * in-memory reader.
+ */
+public class StreamingJsonReader implements IJsonReader {
+  private static final Class<?> PKG = JsonInputMeta.class;
+
+  private static final ObjectMapper MAPPER = new ObjectMapper();
+
+  private final ILogChannel log;
+
+  private boolean ignoreMissingPath;
+
+  private JsonInputField[] fields;
+
+  /** The path to the elements to iterate over or null to take every JSON value of the input */
+  private List<Segment> iteratedPath;
+
+  /** The path of every field, relative to the iterated element */
+  private List<List<Segment>> fieldPaths;
+
+  /** A part of a path: the name of a property, an array index or the wildcard */
+  record Segment(String name, int index) {
+    static final Segment WILDCARD = new Segment(null, -1);
+  }
+
+  public StreamingJsonReader(JsonInputField[] fields, ILogChannel log) throws HopException {
+    this.log = log;
+    setFields(fields);
+  }
+
+  @Override
+  public void setFields(JsonInputField[] fields) throws HopException {
+    List<Segment> iterated = null;
+    List<List<Segment>> relativePaths = new ArrayList<>(fields.length);
+    for (int i = 0; i < fields.length; i++) {
+      List<Segment> path = parsePath(fields[i].getPath());
+      int wildcard = path.indexOf(Segment.WILDCARD);
+      List<Segment> prefix = wildcard < 0 ? null : path.subList(0, wildcard);
+      if (i > 0 && !(prefix == null ? iterated == null : prefix.equals(iterated))) {
+        throw new HopException(
+            BaseMessages.getString(
+                PKG,
+                "JsonReader.Error.Streaming.DifferentIteration",
+                fields[i].getPath(),
+                fields[0].getPath()));
+      }
+      iterated = prefix;
+      relativePaths.add(new ArrayList<>(path.subList(wildcard + 1, path.size())));
+    }
+    this.fields = fields;
+    this.iteratedPath = iterated == null ? null : new ArrayList<>(iterated);
+    this.fieldPaths = relativePaths;
+  }
+
+  /**
+   * Parse a path of the supported subset of JsonPath.
+   *
+   * @param path The path to parse
+   * @return The segments of the path
+   * @throws HopException in case the path is not supported
+   */
+  static List<Segment> parsePath(String path) throws HopException {
+    List<Segment> segments = new ArrayList<>();
+    String p = Const.NVL(path, "").trim();
+    if (!p.startsWith("$")) {
+      throw unsupportedPath(path);
+    }
+    int pos = 1;
+    while (pos < p.length()) {
+      char c = p.charAt(pos);
+      if (c == '.') {
+        int end = pos + 1;
+        while (end < p.length() && p.charAt(end) != '.' && p.charAt(end) != '[') {
+          end++;
+        }
+        String name = p.substring(pos + 1, end);
+        if (name.isEmpty() || "*".equals(name)) {
+          throw unsupportedPath(path);
+        }
+        segments.add(new Segment(name, -1));
+        pos = end;
+      } else if (c == '[') {
+        int end = p.indexOf(']', pos);
+        if (end < 0) {
+          throw unsupportedPath(path);
+        }
+        String content = p.substring(pos + 1, end).trim();
+        if ("*".equals(content)) {
+          if (segments.contains(Segment.WILDCARD)) {
+            throw unsupportedPath(path);
+          }
+          segments.add(Segment.WILDCARD);
+        } else if (content.length() >= 2
+            && (content.charAt(0) == '\'' || content.charAt(0) == '"')
+            && content.charAt(content.length() - 1) == content.charAt(0)) {
+          segments.add(new Segment(content.substring(1, content.length() - 1), -1));
+        } else {
+          try {
+            int index = Integer.parseInt(content);
+            if (index < 0) {
+              throw unsupportedPath(path);
+            }
+            segments.add(new Segment(null, index));
+          } catch (NumberFormatException e) {
+            throw unsupportedPath(path);
+          }
+        }
+        pos = end + 1;
+      } else {
+        throw unsupportedPath(path);
+      }
+    }
+    return segments;
+  }
+
+  private static HopException unsupportedPath(String path) {
+    return new HopException(
+        BaseMessages.getString(PKG, "JsonReader.Error.Streaming.UnsupportedPath", path));
+  }
+
+  @Override
+  public boolean isIgnoreMissingPath() {
+    return ignoreMissingPath;
+  }
+
+  @Override
+  public void setIgnoreMissingPath(boolean value) {
+    this.ignoreMissingPath = value;
+  }
+
+  @Override
+  public boolean isStreaming() {
+    return true;
+  }
+
+  @Override
+  public Object[] getRow(IRowSet rowSet) throws JsonInputException {
+    if (rowSet instanceof StreamingRowSet streamingRowSet) {
+      return streamingRowSet.readRow();
+    }
+    return rowSet.getRow();
+  }
+
+  @Override
+  public IRowSet parse(InputStream in) throws HopException {
+    try {
+      return new StreamingRowSet(MAPPER.getFactory().createParser(in));
+    } catch (IOException e) {
+      BaseTransform.closeQuietly(in);
+      throw new HopException(e);
+    }
+  }
+
+  private static Object getValue(JsonNode element, List<Segment> path) {
+    JsonNode node = element;
+    for (Segment segment : path) {
+      if (node == null) {
+        return null;
+      }
+      node = segment.name() != null ? node.get(segment.name()) : node.get(segment.index());
+    }
+    if (node == null || node.isNull() || node.isMissingNode()) {
+      return null;
+    }
+    if (node.isTextual()) {
+      return node.textValue();
+    }
+    if (node.isBoolean()) {
+      return node.booleanValue();
+    }
+    if (node.isIntegralNumber()) {
+      return node.canConvertToLong() ? (Object) node.longValue() : node.bigIntegerValue();
+    }
+    if (node.isNumber()) {
+      return node.isBigDecimal() ? (Object) node.decimalValue() : node.doubleValue();
+    }
+    // Objects and arrays are passed on as JSON
+    return node.toString();
+  }
+
+  /** Takes the rows from the parser one by one. */
+  private class StreamingRowSet extends SingleRowRowSet {
+    private final JsonParser parser;
+    private final boolean includeNulls =
+        "Y"
+            .equalsIgnoreCase(
+                System.getProperty(
+                    Const.HOP_JSON_INPUT_INCLUDE_NULLS, Const.JSON_INPUT_INCLUDE_NULLS));
+    private final boolean[] found = new boolean[fields.length];
+
+    /** The rows read but not yet passed on */
+    private final Deque<Object[]> pending = new ArrayDeque<>();
+
+    /** The type of the container being iterated, null if not inside the iterated container */
+    private JsonToken container;
+
+    private long nrRows;
+    private boolean done;
+
+    StreamingRowSet(JsonParser parser) {
+      super();
+      this.parser = parser;
+    }
+
+    /**
+     * The rows are read with {@link StreamingJsonReader#getRow(IRowSet)}, which can report the
+     * problems found in the input.
+     */
+    @Override
+    public Object[] getRow() {
+      throw new UnsupportedOperationException(
+          "Use StreamingJsonReader.getRow(IRowSet) to read the rows");
+    }
+
+    Object[] readRow() throws JsonInputException {
+      try {
+        while (!done && (pending.isEmpty() || !isAllFound())) {
+          JsonNode element = nextElement();
+          if (element == null) {
+            finish();
+          } else {
+            addRow(element);
+          }
+        }
+        return pending.poll();
+      } catch (IOException e) {
+        close();
+        pending.clear();
+        throw new JsonInputException(e);
+      }
+    }
+
+    private void addRow(JsonNode element) {
+      Object[] row = new Object[fields.length];
+      boolean allNulls = true;
+      for (int i = 0; i < fields.length; i++) {
+        row[i] = getValue(element, fieldPaths.get(i));
+        if (row[i] != null) {
+          found[i] = true;
+          allNulls = false;
+        }
+      }
+      if (!allNulls || includeNulls) {
+        nrRows++;
+        pending.add(row);
+      }
+    }
+
+    private void finish() throws JsonInputException {
+      close();
+      if (!isAllFound()) {
+        pending.clear();
+        checkMissingPaths();
+      }
+      if (log.isDetailed()) {
+        log.logDetailed(BaseMessages.getString(PKG, "JsonInput.Log.NrRecords", nrRows));
+      }
+      if (nrRows == 0) {
+        // Same as the in-memory reader: a single empty row
+        nrRows++;
+        pending.add(new Object[fields.length]);
+      }
+    }
+
+    /**
+     * @return true if the rows can be passed on: every path was found or missing paths are ignored
+     */
+    private boolean isAllFound() {
+      if (ignoreMissingPath) {
+        return true;
+      }
+      for (boolean f : found) {
+        if (!f) {
+          return false;
+        }
+      }
+      return true;
+    }
+
+    private void checkMissingPaths() throws JsonInputException {
+      if (ignoreMissingPath) {
+        return;
+      }
+      for (int i = 0; i < fields.length; i++) {
+        if (!found[i]) {
+          throw new JsonInputException(
+              BaseMessages.getString(PKG, "JsonReader.Error.CanNotFindPath", fields[i].getPath()));
+        }
+      }
+    }
+
+    /**
+     * @return The next element to convert to a row or null at the end of the input
+     */
+    private JsonNode nextElement() throws IOException {
+      while (true) {
+        if (container != null) {
+          JsonToken token = parser.nextToken();
+          if (token == JsonToken.END_ARRAY || token == JsonToken.END_OBJECT) {
+            container = null;
+            skipToRootLevel();
+            continue;
+          }
+          if (token == JsonToken.FIELD_NAME) {
+            parser.nextToken();
+          }
+          return readElement();
+        }
+        if (parser.nextToken() == null) {
+          return null;
+        }
+        if (iteratedPath == null) {
+          return readElement();
+        }
+        if (moveTo(iteratedPath)
+            && (parser.currentToken() == JsonToken.START_ARRAY
+                || parser.currentToken() == JsonToken.START_OBJECT)) {
+          container = parser.currentToken();
+        } else {
+          skipToRootLevel();
+        }
+      }
+    }
+
+    private JsonNode readElement() throws IOException {
+      JsonNode node = MAPPER.readTree(parser);
+      return node == null ? MAPPER.nullNode() : node;
+    }
+
+    /**
+     * Move the parser from the start of a value to the value at the given path.
+     *
+     * @return true if the value is found
+     */
+    private boolean moveTo(List<Segment> path) throws IOException {
+      for (Segment segment : path) {
+        if (segment.name() != null) {
+          if (parser.currentToken() != JsonToken.START_OBJECT) {
+            return false;
+          }
+          while (true) {
+            if (parser.nextToken() != JsonToken.FIELD_NAME) {
+              return false;
+            }
+            String name = parser.currentName();
+            parser.nextToken();
+            if (segment.name().equals(name)) {
+              break;
+            }
+            parser.skipChildren();
+          }
+        } else {
+          if (parser.currentToken() != JsonToken.START_ARRAY) {
+            return false;
+          }
+          for (int i = 0; ; i++) {
+            JsonToken token = parser.nextToken();
+            if (token == null || token == JsonToken.END_ARRAY) {
+              return false;
+            }
+            if (i == segment.index()) {
+              break;
+            }
+            parser.skipChildren();
+          }
+        }
+      }
+      return true;
+    }
+
+    /** Skip the rest of the current JSON value of the input. */
+    private void skipToRootLevel() throws IOException {
+      while (!parser.getParsingContext().inRoot()) {
+        JsonToken token = parser.currentToken();
+        if (token == JsonToken.START_OBJECT || token == JsonToken.START_ARRAY) {
+          parser.skipChildren();
+          if (parser.getParsingContext().inRoot()) {
+            break;
+          }
+        }
+        if (parser.nextToken() == null) {
+          break;
+        }
+      }
+    }
+
+    private void close() {
+      done = true;
+      try {
+        parser.close();
+      } catch (IOException e) {
+        if (log.isDebug()) {
+          log.logDebug(e.getLocalizedMessage(), e);
+        }
+      }
+    }
+
+    @Override
+    public int size() {
+      return done ? pending.size() : 1;
+    }
+
+    @Override
+    public boolean isDone() {
+      return done && pending.isEmpty();
+    }
+
+    @Override
+    public void clear() {
+      close();
+      pending.clear();
+    }
+  }
+}
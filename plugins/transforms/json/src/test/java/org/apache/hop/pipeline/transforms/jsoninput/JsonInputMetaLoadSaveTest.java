@@ -51,6 +51,7 @@ public class JsonInputMetaLoadSaveTest implements IInitializer<ITransformMeta> {
             "doNotFailIfNoFile",
             "ignoreMissingPath",
             "defaultPathLeafToNull",
+            "streamingRead",
             "rowNumberField",
             "FileName",
             "FileMask",
@@ -0,0 +1,170 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.hop.pipeline.transforms.jsoninput.reader;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+import static org.mockito.Mockito.mock;
+
+import java.io.ByteArrayInputStream;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import org.apache.hop.core.IRowSet;
+import org.apache.hop.core.exception.HopException;
+import org.apache.hop.core.logging.ILogChannel;
+import org.apache.hop.pipeline.transforms.jsoninput.JsonInputField;
+import org.apache.hop.pipeline.transforms.jsoninput.exception.JsonInputException;
+import org.junit.Test;
+
+public class StreamingJsonReaderTest {
+  private final ILogChannel logMock = mock(ILogChannel.class);
+
+  private static JsonInputField[] fields(String... paths) {
+    JsonInputField[] fields = new JsonInputField[paths.length];
+    for (int i = 0; i < paths.length; i++) {
+      fields[i] = new JsonInputField("field" + i);
+      fields[i].setPath(paths[i]);
+    }
+    return fields;
+  }
+
+  private static InputStream input(String json) {
+    return new ByteArrayInputStream(json.getBytes(StandardCharsets.UTF_8));
+  }
+
+  private List<Object[]> read(String json, String... paths) throws HopException {
+    StreamingJsonReader reader = new StreamingJsonReader(fields(paths), logMock);
+    reader.setIgnoreMissingPath(true);
+    IRowSet rowSet = reader.parse(input(json));
+    List<Object[]> rows = new ArrayList<>();
+    Object[] row;
+    while ((row = reader.getRow(rowSet)) != null) {
+      rows.add(row);
+    }
+    assertTrue(rowSet.isDone());
+    return rows;
+  }
+
+  @Test
+  public void testJsonLines() throws Exception {
+    List<Object[]> rows =
+        read(
+            "{\"id\":1,\"name\":\"a\"}\n{\"id\":2,\"name\":\"b\",\"tags\":[1,2]}\n",
+            "$.id",
+            "$.name",
+            "$.tags");
+
+    assertEquals(2, rows.size());
+    assertArrayEquals(new Object[] {1L, "a", null}, rows.get(0));
+    assertArrayEquals(new Object[] {2L, "b", "[1,2]"}, rows.get(1));
+  }
+
+  @Test
+  public void testArrayInDocument() throws Exception {
+    String json =
+        "{\"meta\":{\"items\":[0]},\"items\":[{\"id\":1,\"sub\":{\"v\":\"x\"},\"ok\":true},"
+            + "{\"id\":2.5,\"list\":[\"p\",\"q\"]}],\"after\":1}";
+
+    List<Object[]> rows = read(json, "$.items[*].id", "$.items[*].sub.v", "$.items[*]['list'][1]");
+
+    assertEquals(2, rows.size());
+    assertArrayEquals(new Object[] {1L, "x", null}, rows.get(0));
+    assertArrayEquals(new Object[] {2.5, null, "q"}, rows.get(1));
+  }
+
+  @Test
+  public void testTopLevelArray() throws Exception {
+    List<Object[]> rows =
+        read("[{\"a\":{\"b\":\"1\"}},{\"a\":{\"b\":\"2\"}}]", "$[*].a.b", "$[*].a");
+
+    assertEquals(2, rows.size());
+    assertArrayEquals(new Object[] {"1", "{\"b\":\"1\"}"}, rows.get(0));
+    assertArrayEquals(new Object[] {"2", "{\"b\":\"2\"}"}, rows.get(1));
+  }
+
+  @Test
+  public void testNoMatchGivesEmptyRow() throws Exception {
+    List<Object[]> rows = read("{\"other\":[1,2,3]}", "$.items[*].id");
+
+    assertEquals(1, rows.size());
+    assertArrayEquals(new Object[] {null}, rows.get(0));
+  }
+
+  @Test
+  public void testRowsBeforeEndOfInput() throws Exception {
+    StreamingJsonReader reader = new StreamingJsonReader(fields("$.items[*].id"), logMock);
+    IRowSet rowSet = reader.parse(input("{\"items\":[{\"id\":1},{\"id\":2},{\"id\":"));
+
+    // The first rows are available before the broken end of the input is read
+    assertArrayEquals(new Object[] {1L}, reader.getRow(rowSet));
+    assertArrayEquals(new Object[] {2L}, reader.getRow(rowSet));
+    try {
+      reader.getRow(rowSet);
+      fail("The broken input should fail");
+    } catch (JsonInputException e) {
+      // Expected
+    }
+    assertTrue(rowSet.isDone());
+    assertNull(reader.getRow(rowSet));
+  }
+
+  @Test
+  public void testMissingPath() throws Exception {
+    StreamingJsonReader reader = new StreamingJsonReader(fields("$.id", "$.missing"), logMock);
+    reader.setIgnoreMissingPath(false);
+    IRowSet rowSet = reader.parse(input("{\"id\":1}\n{\"id\":2}\n"));
+
+    // No row is passed on before the missing path is reported
+    try {
+      reader.getRow(rowSet);
+      fail("The missing path should fail");
+    } catch (JsonInputException e) {
+      assertTrue(e.getMessage().contains("$.missing"));
+    }
+    assertTrue(rowSet.isDone());
+    assertNull(reader.getRow(rowSet));
+  }
+
+  @Test
+  public void testRowsWaitForAllPaths() throws Exception {
+    StreamingJsonReader reader = new StreamingJsonReader(fields("$.id", "$.name"), logMock);
+    reader.setIgnoreMissingPath(false);
+    IRowSet rowSet = reader.parse(input("{\"id\":1}\n{\"id\":2,\"name\":\"b\"}\n{\"id\":3}\n"));
+
+    assertArrayEquals(new Object[] {1L, null}, reader.getRow(rowSet));
+    assertArrayEquals(new Object[] {2L, "b"}, reader.getRow(rowSet));
+    assertArrayEquals(new Object[] {3L, null}, reader.getRow(rowSet));
+    assertNull(reader.getRow(rowSet));
+    assertTrue(rowSet.isDone());
+  }
+
+  @Test(expected = HopException.class)
+  public void testUnsupportedPath() throws Exception {
+    new StreamingJsonReader(fields("$..id"), logMock);
+  }
+
+  @Test(expected = HopException.class)
+  public void testDifferentIteration() throws Exception {
+    new StreamingJsonReader(fields("$.a[*].id", "$.b[*].id"), logMock);
+  }
+}
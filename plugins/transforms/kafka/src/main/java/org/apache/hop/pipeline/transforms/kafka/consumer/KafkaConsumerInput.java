@@ -19,6 +19,7 @@ package org.apache.hop.pipeline.transforms.kafka.consumer;
 
 import java.time.Duration;
 import java.util.ArrayList;
+import java.util.List;
 import java.util.Properties;
 import java.util.Set;
 import java.util.stream.Collectors;
@@ -32,6 +33,7 @@ import org.apache.hop.core.row.RowDataUtil;
 import org.apache.hop.core.variables.IVariables;
 import org.apache.hop.pipeline.Pipeline;
 import org.apache.hop.pipeline.PipelineMeta;
+import org.apache.hop.pipeline.RowProducer;
 import org.apache.hop.pipeline.SingleThreadedPipelineExecutor;
 import org.apache.hop.pipeline.TransformWithMappingMeta;
 import org.apache.hop.pipeline.engines.local.LocalPipelineEngine;
@@ -54,6 +56,8 @@ public class KafkaConsumerInput
 
   private static final Class<?> PKG = KafkaConsumerInputMeta.class;
 
+  private final Object putRowLock = new Object();
+
   public KafkaConsumerInput(
       TransformMeta transformMeta,
       KafkaConsumerInputMeta meta,
@@ -83,29 +87,92 @@ public class KafkaConsumerInput
     data.batchDuration = Const.toInt(resolve(meta.getBatchDuration()), 0);
     data.batchSize = Const.toInt(resolve(meta.getBatchSize()), 0);
 
-    data.consumer = buildKafkaConsumer(this, meta);
+    data.parallelism = Const.toInt(resolve(meta.getParallelism()), 0);
 
-    // Subscribe to the topics...
-    //
-    Set<String> topics = meta.getTopics().stream().map(this::resolve).collect(Collectors.toSet());
-    data.consumer.subscribe(topics);
+    data.consumer = buildKafkaConsumer(this, meta);
 
     // Load and start the single threader transformation
     //
     try {
-      initSubPipeline();
+      if (data.parallelism > 0) {
+        initWorkerPool();
+      } else {
+        initSubPipeline();
+      }
     } catch (Exception e) {
       logError("Error initializing sub-transformation", e);
       return false;
     }
 
+    // Subscribe to the topics...
+    //
+    Set<String> topics = meta.getTopics().stream().map(this::resolve).collect(Collectors.toSet());
+    if (data.workerPool != null) {
+      // Finish and commit the batches of the partitions which are taken away from this consumer
+      data.consumer.subscribe(topics, data.workerPool);
+    } else {
+      data.consumer.subscribe(topics);
+    }
+
     // Set Kafka consumer is closing flag to false
     data.isKafkaConsumerClosing = false;
     return true;
   }
 
+  /** The injector and executor of a sub-pipeline */
+  private record SubPipeline(RowProducer rowProducer, SingleThreadedPipelineExecutor executor) {}
+
   private void initSubPipeline() throws HopException {
+    SubPipeline subPipeline = createSubPipeline(getTransformName());
+    data.rowProducer = subPipeline.rowProducer();
+    data.executor = subPipeline.executor();
+  }
+
+  /**
+   * Start a sub-pipeline for every worker. The records of a partition are always processed by the
+   * same sub-pipeline.
+   */
+  private void initWorkerPool() throws HopException {
+    data.subPipelineExecutors = new ArrayList<>();
+    List<KafkaPartitionWorkerPool.IBatchProcessor> processors = new ArrayList<>();
+    for (int i = 0; i < data.parallelism; i++) {
+      String name = i == 0 ? getTransformName() : getTransformName() + " #" + (i + 1);
+      SubPipeline subPipeline = createSubPipeline(name);
+      data.subPipelineExecutors.add(subPipeline.executor());
+      processors.add(records -> processBatch(subPipeline, records));
+    }
+    // Poll the next records while every worker is busy with a batch
+    //
+    data.workerPool =
+        new KafkaPartitionWorkerPool(
+            data.consumer, processors, 2 * data.parallelism, data.batchSize, data.batchDuration);
+  }
+
+  /**
+   * Pass a batch of records to a sub-pipeline and do an iteration. This runs in the thread of a
+   * worker.
+   */
+  private void processBatch(SubPipeline subPipeline, List<ConsumerRecord<Object, Object>> records)
+      throws HopException {
+    for (ConsumerRecord<Object, Object> record : records) {
+      subPipeline.rowProducer().putRow(data.outputRowMeta, processMessageAsRow(record));
+      incrementLinesInput();
+    }
+    SingleThreadedPipelineExecutor executor = subPipeline.executor();
+    executor.oneIteration();
+    if (executor.isStopped() || executor.getErrors() > 0) {
+      throw new HopException(
+          "An error occurred in the sub-pipeline processing "
+              + records.size()
+              + " Kafka records, errors: "
+              + executor.getErrors());
+    }
+    executor.buildExecutionSummary();
+  }
+
+  private SubPipeline createSubPipeline(String activeSubPipelineName) throws HopException {
     try {
+      RowProducer rowProducer = null;
 
       String realFilename = resolve(meta.getFilename());
       PipelineMeta subTransMeta = new PipelineMeta(realFilename, metadataProvider, this);
@@ -130,7 +197,7 @@ public class KafkaConsumerInput
       for (TransformMeta transformMeta : subTransMeta.getTransforms()) {
         ITransformMeta iTransform = transformMeta.getTransform();
         if (iTransform instanceof InjectorMeta) {
-          if (data.rowProducer != null) {
+          if (rowProducer != null) {
             throw new HopException(
                 "You can only have one copy of the injector transform '"
                     + transformMeta.getName()
@@ -138,11 +205,11 @@ public class KafkaConsumerInput
           }
           // Attach an injector to this transform
           //
-          data.rowProducer = kafkaPipeline.addRowProducer(transformMeta.getName(), 0);
+          rowProducer = kafkaPipeline.addRowProducer(transformMeta.getName(), 0);
         }
       }
 
-      if (data.rowProducer == null) {
+      if (rowProducer == null) {
         throw new HopException(
             "Unable to find an Injector transform in the Kafka pipeline. Such a transform is needed to accept data from this Kafka Consumer transform.");
       }
@@ -161,30 +228,35 @@ public class KafkaConsumerInput
               @Override
               public void rowWrittenEvent(IRowMeta rowMeta, Object[] row)
                   throws HopTransformException {
-                // Write this row to the next transform(s)
+                // Write this row to the next transform(s).
+                // With parallel workers, the sub-pipelines write rows at the same time.
                 //
-                KafkaConsumerInput.this.putRow(rowMeta, row);
+                synchronized (putRowLock) {
+                  KafkaConsumerInput.this.putRow(rowMeta, row);
+                }
               }
             });
       }
       kafkaPipeline.setLogChannel(getLogChannel());
       kafkaPipeline.startThreads();
 
+      SingleThreadedPipelineExecutor executor;
       if (errorHandlingConditionIsSatisfied()) {
-        data.executor = new SingleThreadedPipelineExecutor(kafkaPipeline, true);
+        executor = new SingleThreadedPipelineExecutor(kafkaPipeline, true);
       } else {
         // If the conditions for error handling are not met init SingleThreadedExecutor normally
-        data.executor = new SingleThreadedPipelineExecutor(kafkaPipeline);
+        executor = new SingleThreadedPipelineExecutor(kafkaPipeline);
       }
 
       // Initialize the sub-pipeline
       //
-      boolean ok = data.executor.init();
+      boolean ok = executor.init();
       if (!ok) {
         throw new HopException("Initialization of sub-pipeline failed");
       }
 
-      getPipeline().addActiveSubPipeline(getTransformName(), kafkaPipeline);
+      getPipeline().addActiveSubPipeline(activeSubPipelineName, kafkaPipeline);
+      return new SubPipeline(rowProducer, executor);
     } catch (Exception e) {
       throw new HopException("Unable to load and initialize sub pipeline", e);
     }
@@ -192,6 +264,14 @@ public class KafkaConsumerInput
 
   @Override
   public void dispose() {
+    if (data.workerPool != null) {
+      try {
+        data.workerPool.close();
+      } catch (Exception e) {
+        logError("Error committing the offsets of the processed Kafka records", e);
+      }
+      data.workerPool = null;
+    }
     if (data.consumer != null) {
       data.consumer.unsubscribe();
       data.consumer.close();
@@ -203,6 +283,19 @@ public class KafkaConsumerInput
 
     Thread.currentThread().setContextClassLoader(meta.getClass().getClassLoader());
 
+    return new KafkaConsumer(getConsumerConfig(variables, meta));
+  }
+
+  /**
+   * Build the configuration of the Kafka consumer. With parallel partition workers auto commit is
+   * always disabled: the offsets of a partition are committed once the batch with its records is
+   * processed. Auto commit would commit the offsets of records which are still waiting in a batch.
+   *
+   * @param variables The variables to resolve the options with
+   * @param meta The transform metadata
+   * @return The consumer configuration
+   */
+  static Properties getConsumerConfig(IVariables variables, KafkaConsumerInputMeta meta) {
     Properties config = new Properties();
 
     // Set all the configuration options...
@@ -222,7 +315,8 @@ public class KafkaConsumerInput
     config.put(
         ConsumerConfig.BOOTSTRAP_SERVERS_CONFIG,
         variables.resolve(meta.getDirectBootstrapServers()));
-    config.put(ConsumerConfig.ENABLE_AUTO_COMMIT_CONFIG, meta.isAutoCommit());
+    boolean parallel = Const.toInt(variables.resolve(meta.getParallelism()), 0) > 0;
+    config.put(ConsumerConfig.ENABLE_AUTO_COMMIT_CONFIG, meta.isAutoCommit() && !parallel);
 
     // Timeout : max batch wait
     //
@@ -248,7 +342,7 @@ public class KafkaConsumerInput
 
     // Other options?
 
-    return new KafkaConsumer(config);
+    return config;
   }
 
   @Override
@@ -260,6 +354,9 @@ public class KafkaConsumerInput
 
   @Override
   public boolean processRow() throws HopException {
+    if (data.workerPool != null) {
+      return processRowsInParallel();
+    }
 
     // Poll records...
     // If we get any, process them...
@@ -356,6 +453,44 @@ public class KafkaConsumerInput
     return true;
   }
 
+  /**
+   * Poll records and hand them to the workers in batches of the batch size and duration. The
+   * records are processed while the next ones are polled.
+   */
+  private boolean processRowsInParallel() {
+    try {
+      Duration duration =
+          Duration.ofMillis(data.batchDuration > 0 ? data.batchDuration : Long.MAX_VALUE);
+      data.workerPool.poll(duration);
+      if (!data.isKafkaConsumerClosing) {
+        return true;
+      }
+      // Finish and commit what was handed to the workers
+      drainWorkerPool();
+    } catch (WakeupException e) {
+      // We're going to close kafka consumer because of pipeline has been stopped
+      drainWorkerPool();
+    } catch (HopException e) {
+      logError("Error processing Kafka records in the sub-pipeline", e);
+      setErrors(1);
+    }
+    for (SingleThreadedPipelineExecutor executor : data.subPipelineExecutors) {
+      executor.getPipeline().stopAll();
+    }
+    setOutputDone();
+    stopAll();
+    return false;
+  }
+
+  private void drainWorkerPool() {
+    try {
+      data.workerPool.drain();
+    } catch (WakeupException e) {
+      // The wake-up of stopRunning() was meant for the poll: commit again
+      data.workerPool.drain();
+    }
+  }
+
   private boolean errorHandlingConditionIsSatisfied() {
     // Added a check to be sure that lines collecting for error handling is limited
     // to the case of batchSize = 1.
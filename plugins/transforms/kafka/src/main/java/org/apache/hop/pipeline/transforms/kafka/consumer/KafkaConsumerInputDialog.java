@@ -101,6 +101,8 @@ public class KafkaConsumerInputDialog extends BaseTransformDialog {
   protected TextVar wBatchSize;
   protected Label wlBatchDuration;
   protected TextVar wBatchDuration;
+  protected Label wlParallelism;
+  protected TextVar wParallelism;
 
   protected CTabFolder wTabFolder;
   protected CTabItem wSetupTab;
@@ -300,6 +302,7 @@ public class KafkaConsumerInputDialog extends BaseTransformDialog {
     m.setFilename(wFilename.getText());
     m.setBatchSize(wBatchSize.getText());
     m.setBatchDuration(wBatchDuration.getText());
+    m.setParallelism(wParallelism.getText());
     m.setSubTransform(wSubTransform.getText());
     setTopicsFromTable();
 
@@ -617,6 +620,28 @@ public class KafkaConsumerInputDialog extends BaseTransformDialog {
     fdBatchSize.top = new FormAttachment(wlBatchSize, 0, SWT.CENTER);
     wBatchSize.setLayoutData(fdBatchSize);
 
+    wlParallelism = new Label(wBatchComp, SWT.RIGHT);
+    PropsUi.setLook(wlParallelism);
+    wlParallelism.setText(BaseMessages.getString(PKG, "KafkaConsumerInputDialog.Parallelism"));
+    wlParallelism.setToolTipText(
+        BaseMessages.getString(PKG, "KafkaConsumerInputDialog.Parallelism.Tooltip"));
+    FormData fdlParallelism = new FormData();
+    fdlParallelism.left = new FormAttachment(0, 0);
+    fdlParallelism.top = new FormAttachment(wBatchSize, margin);
+    fdlParallelism.right = new FormAttachment(middle, -margin);
+    wlParallelism.setLayoutData(fdlParallelism);
+
+    wParallelism = new TextVar(variables, wBatchComp, SWT.SINGLE | SWT.LEFT | SWT.BORDER);
+    PropsUi.setLook(wParallelism);
+    wParallelism.setToolTipText(
+        BaseMessages.getString(PKG, "KafkaConsumerInputDialog.Parallelism.Tooltip"));
+    wParallelism.addModifyListener(lsMod);
+    FormData fdParallelism = new FormData();
+    fdParallelism.left = new FormAttachment(wlParallelism, margin);
+    fdParallelism.right = new FormAttachment(100, 0);
+    fdParallelism.top = new FormAttachment(wlParallelism, 0, SWT.CENTER);
+    wParallelism.setLayoutData(fdParallelism);
+
     wBatchComp.layout();
     wBatchTab.setControl(wBatchComp);
   }
@@ -822,6 +847,7 @@ public class KafkaConsumerInputDialog extends BaseTransformDialog {
     wConsumerGroup.setText(Const.NVL(meta.getConsumerGroup(), ""));
     wBatchSize.setText(Const.NVL(meta.getBatchSize(), ""));
     wBatchDuration.setText(Const.NVL(meta.getBatchDuration(), ""));
+    wParallelism.setText(Const.NVL(meta.getParallelism(), ""));
 
     wbAutoCommit.setSelection(meta.isAutoCommit());
     wbManualCommit.setSelection(!meta.isAutoCommit());
@@ -81,6 +81,7 @@ public class KafkaConsumerInputMeta
   public static final String PIPELINE_PATH = "pipelinePath";
   public static final String BATCH_SIZE = "batchSize";
   public static final String BATCH_DURATION = "batchDuration";
+  public static final String PARALLELISM = "parallelism";
   public static final String DIRECT_BOOTSTRAP_SERVERS = "directBootstrapServers";
   public static final String ADVANCED_CONFIG = "advancedConfig";
   public static final String CONFIG_OPTION = "option";
@@ -107,6 +108,10 @@ public class KafkaConsumerInputMeta
   @Injection(name = SUB_TRANSFORM)
   protected String subTransform = "";
 
+  /** The number of sub-pipelines to process the partitions in parallel, empty or 0 for one */
+  @Injection(name = "PARALLELISM")
+  protected String parallelism = "";
+
   @Injection(name = "DIRECT_BOOTSTRAP_SERVERS")
   private String directBootstrapServers;
 
@@ -215,6 +220,7 @@ public class KafkaConsumerInputMeta
     }
     setBatchSize(XmlHandler.getTagValue(transformNode, BATCH_SIZE));
     setBatchDuration(XmlHandler.getTagValue(transformNode, BATCH_DURATION));
+    setParallelism(XmlHandler.getTagValue(transformNode, PARALLELISM));
     setDirectBootstrapServers(XmlHandler.getTagValue(transformNode, DIRECT_BOOTSTRAP_SERVERS));
 
     String autoCommitValue = XmlHandler.getTagValue(transformNode, AUTO_COMMIT);
@@ -265,6 +271,7 @@ public class KafkaConsumerInputMeta
   public void setDefault() {
     batchSize = "1000";
     batchDuration = "1000";
+    parallelism = "";
   }
 
   public RowMeta getRowMeta(String origin, IVariables variables) throws HopTransformException {
@@ -308,6 +315,7 @@ public class KafkaConsumerInputMeta
     xml.append("    ").append(XmlHandler.addTagValue(SUB_TRANSFORM, getSubTransform()));
     xml.append("    ").append(XmlHandler.addTagValue(BATCH_SIZE, batchSize));
     xml.append("    ").append(XmlHandler.addTagValue(BATCH_DURATION, batchDuration));
+    xml.append("    ").append(XmlHandler.addTagValue(PARALLELISM, parallelism));
     xml.append("    ")
         .append(XmlHandler.addTagValue(DIRECT_BOOTSTRAP_SERVERS, directBootstrapServers));
     xml.append("    ").append(XmlHandler.addTagValue(AUTO_COMMIT, autoCommit));
@@ -510,6 +518,30 @@ public class KafkaConsumerInputMeta
               BaseMessages.getString(PKG, "KafkaConsumerInputMeta.CheckResult.NoBatchDefined"),
               transformMeta));
     }
+
+    String realParallelism = variables.resolve(getParallelism());
+    if (StringUtils.isNotEmpty(realParallelism)) {
+      try {
+        Integer.parseInt(realParallelism.trim());
+      } catch (NumberFormatException e) {
+        remarks.add(
+            new CheckResult(
+                ICheckResult.TYPE_RESULT_ERROR,
+                BaseMessages.getString(
+                    PKG,
+                    "KafkaConsumerInputMeta.CheckResult.NaN",
+                    BaseMessages.getString(PKG, "KafkaConsumerInputDialog.Parallelism")),
+                transformMeta));
+      }
+    }
+    if (isAutoCommit() && Const.toInt(realParallelism, 0) > 0) {
+      remarks.add(
+          new CheckResult(
+              ICheckResult.TYPE_RESULT_WARNING,
+              BaseMessages.getString(
+                  PKG, "KafkaConsumerInputMeta.CheckResult.NoAutoCommitWithParallelism"),
+              transformMeta));
+    }
   }
 
   @Override
@@ -583,6 +615,22 @@ public class KafkaConsumerInputMeta
     this.batchDuration = batchDuration;
   }
 
+  /**
+   * Gets parallelism
+   *
+   * @return value of parallelism
+   */
+  public String getParallelism() {
+    return parallelism;
+  }
+
+  /**
+   * @param parallelism The number of sub-pipelines to process the partitions in parallel to set
+   */
+  public void setParallelism(String parallelism) {
+    this.parallelism = parallelism;
+  }
+
   /**
    * Gets the name of the transform in the kafka pipeline to retrieve data from
    *
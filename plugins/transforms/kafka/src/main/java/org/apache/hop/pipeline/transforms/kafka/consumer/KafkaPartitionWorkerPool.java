@@ -0,0 +1,355 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.hop.pipeline.transforms.kafka.consumer;
+
+import java.time.Duration;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
+import org.apache.hop.core.exception.HopException;
+import org.apache.kafka.clients.consumer.Consumer;
+import org.apache.kafka.clients.consumer.ConsumerRebalanceListener;
+import org.apache.kafka.clients.consumer.ConsumerRecord;
+import org.apache.kafka.clients.consumer.ConsumerRecords;
+import org.apache.kafka.clients.consumer.OffsetAndMetadata;
+import org.apache.kafka.common.TopicPartition;
+
+/**
+ * Processes the records polled by a Kafka consumer on a number of workers. The records of a
+ * partition always go to the same worker, so they are processed in order. Every worker has its own
+ * thread and batch processor (a sub-pipeline), so the partitions are processed in parallel while
+ * the consumer polls the next records.
+ *
+ * <p>The records of a worker are collected over several polls until the batch size is reached or
+ * the first record waited for the batch duration. Without a batch duration the records of every
+ * poll are handed out right away, in batches of at most the batch size.
+ *
+ * <p>The offsets of a partition are committed once the worker finished the batch with its records.
+ *
+ * <p>The consumer is not thread-safe: it's only used by the thread calling {@link #poll(Duration)},
+ * {@link #drain()} and {@link #close()}. Register this pool as the rebalance listener of the
+ * subscription so the batches of revoked partitions are finished and committed first.
+ */
+public class KafkaPartitionWorkerPool implements ConsumerRebalanceListener {
+
+  /** Processes a batch of records. A processor is only used by one thread at a time. */
+  @FunctionalInterface
+  public interface IBatchProcessor {
+    void processBatch(List<ConsumerRecord<Object, Object>> records) throws HopException;
+  }
+
+  /** The longest time the offsets of completed batches wait to be committed while polling */
+  private static final Duration MAX_COMMIT_DELAY = Duration.ofSeconds(1);
+
+  private final Consumer<Object, Object> consumer;
+  private final List<IBatchProcessor> processors;
+  private final List<ExecutorService> workers;
+  private final int maxPendingBatches;
+  private final int batchSize;
+  private final long batchDuration;
+
+  /** The records of every worker which are not yet handed out in a batch */
+  private final List<List<ConsumerRecord<Object, Object>>> openBatches;
+
+  /** The time the oldest record was added to the open batch of every worker */
+  private final long[] openBatchStarts;
+
+  /** The batches which are handed to the workers, oldest first */
+  private final Deque<Future<?>> pendingBatches;
+
+  /** The offsets to commit of the batches which are completed */
+  private final Map<TopicPartition, OffsetAndMetadata> completedOffsets;
+
+  private final AtomicReference<HopException> error;
+
+  /**
+   * @param consumer The consumer to poll
+   * @param processors The batch processor of every worker
+   * @param maxPendingBatches The maximum number of batches handed to the workers before polling
+   *     waits for the oldest one to complete
+   */
+  public KafkaPartitionWorkerPool(
+      Consumer<Object, Object> consumer, List<IBatchProcessor> processors, int maxPendingBatches) {
+    this(consumer, processors, maxPendingBatches, 0, 0L);
+  }
+
+  /**
+   * @param consumer The consumer to poll
+   * @param processors The batch processor of every worker
+   * @param maxPendingBatches The maximum number of batches handed to the workers before polling
+   *     waits for the oldest one to complete
+   * @param batchSize The maximum number of records in a batch, 0 for no limit
+   * @param batchDuration The maximum time in milliseconds a record waits for its batch to fill up,
+   *     0 to hand out the records of every poll right away
+   */
+  public KafkaPartitionWorkerPool(
+      Consumer<Object, Object> consumer,
+      List<IBatchProcessor> processors,
+      int maxPendingBatches,
+      int batchSize,
+      long batchDuration) {
+    if (processors.isEmpty()) {
+      throw new IllegalArgumentException("At least one batch processor is needed");
+    }
+    this.consumer = consumer;
+    this.processors = new ArrayList<>(processors);
+    this.maxPendingBatches = Math.max(1, maxPendingBatches);
+    this.batchSize = Math.max(0, batchSize);
+    this.batchDuration = Math.max(0L, batchDuration);
+    this.workers = new ArrayList<>();
+    this.openBatches = new ArrayList<>();
+    for (int i = 0; i < processors.size(); i++) {
+      workers.add(Executors.newSingleThreadExecutor());
+      openBatches.add(new ArrayList<>());
+    }
+    this.openBatchStarts = new long[processors.size()];
+    this.pendingBatches = new ArrayDeque<>();
+    this.completedOffsets = new HashMap<>();
+    this.error = new AtomicReference<>();
+  }
+
+  /**
+   * Commit the offsets of the completed batches, poll the next records and hand the batches which
+   * are full or waited long enough to the workers. The poll waits less than the timeout when a
+   * batch has to be handed out or completed offsets have to be committed earlier.
+   *
+   * @param timeout The maximum time to wait for records
+   * @return The number of records polled
+   * @throws HopException in case a worker failed to process a batch
+   */
+  public int poll(Duration timeout) throws HopException {
+    checkError();
+    commitCompletedOffsets(false);
+
+    // Don't run ahead of the workers too far
+    //
+    while (!pendingBatches.isEmpty()
+        && (pendingBatches.peekFirst().isDone() || pendingBatches.size() >= maxPendingBatches)) {
+      waitFor(pendingBatches.pollFirst());
+    }
+    checkError();
+
+    ConsumerRecords<Object, Object> records = consumer.poll(getPollTimeout(timeout));
+
+    // Group the records by worker, keeping the order of the records of every partition
+    //
+    long now = System.currentTimeMillis();
+    for (TopicPartition partition : records.partitions()) {
+      int index = getWorkerIndex(partition);
+      List<ConsumerRecord<Object, Object>> openBatch = openBatches.get(index);
+      if (openBatch.isEmpty()) {
+        openBatchStarts[index] = now;
+      }
+      openBatch.addAll(records.records(partition));
+    }
+    submitBatches(false);
+    return records.count();
+  }
+
+  private Duration getPollTimeout(Duration timeout) {
+    Duration pollTimeout = timeout;
+    if (!pendingBatches.isEmpty() && pollTimeout.compareTo(MAX_COMMIT_DELAY) > 0) {
+      pollTimeout = MAX_COMMIT_DELAY;
+    }
+    if (batchDuration > 0) {
+      long now = System.currentTimeMillis();
+      for (int index = 0; index < openBatches.size(); index++) {
+        if (!openBatches.get(index).isEmpty()) {
+          long remaining = Math.max(0L, openBatchStarts[index] + batchDuration - now);
+          if (pollTimeout.toMillis() > remaining) {
+            pollTimeout = Duration.ofMillis(remaining);
+          }
+        }
+      }
+    }
+    return pollTimeout;
+  }
+
+  /**
+   * Hand the open batches to the workers: the full ones, the ones which waited for the batch
+   * duration and without a batch duration all of them.
+   *
+   * @param all true to hand out all open batches
+   */
+  private void submitBatches(boolean all) {
+    long now = System.currentTimeMillis();
+    for (int index = 0; index < openBatches.size(); index++) {
+      List<ConsumerRecord<Object, Object>> openBatch = openBatches.get(index);
+      while (batchSize > 0 && openBatch.size() >= batchSize) {
+        List<ConsumerRecord<Object, Object>> batch = openBatch.subList(0, batchSize);
+        submitBatch(index, new ArrayList<>(batch));
+        batch.clear();
+      }
+      if (!openBatch.isEmpty()
+          && (all || batchDuration <= 0 || now - openBatchStarts[index] >= batchDuration)) {
+        submitBatch(index, new ArrayList<>(openBatch));
+        openBatch.clear();
+      }
+    }
+  }
+
+  private void submitBatch(int index, List<ConsumerRecord<Object, Object>> batch) {
+    pendingBatches.addLast(
+        workers.get(index).submit(() -> processBatch(processors.get(index), batch)));
+  }
+
+  /**
+   * @param partition The partition
+   * @return The index of the worker which processes the records of the partition
+   */
+  public int getWorkerIndex(TopicPartition partition) {
+    return Math.floorMod(partition.hashCode(), workers.size());
+  }
+
+  private void processBatch(IBatchProcessor processor, List<ConsumerRecord<Object, Object>> batch) {
+    if (error.get() != null) {
+      // Don't continue after an error, these offsets are not committed either
+      return;
+    }
+    try {
+      processor.processBatch(batch);
+    } catch (Exception e) {
+      HopException exception =
+          e instanceof HopException hopException
+              ? hopException
+              : new HopException("Error processing a batch of Kafka records", e);
+      error.compareAndSet(null, exception);
+      return;
+    }
+
+    // The records of a partition are in order so the last one has the highest offset
+    //
+    Map<TopicPartition, OffsetAndMetadata> offsets = new HashMap<>();
+    for (ConsumerRecord<Object, Object> record : batch) {
+      offsets.put(
+          new TopicPartition(record.topic(), record.partition()),
+          new OffsetAndMetadata(record.offset() + 1));
+    }
+    synchronized (completedOffsets) {
+      completedOffsets.putAll(offsets);
+    }
+  }
+
+  private void waitFor(Future<?> batch) throws HopException {
+    try {
+      batch.get();
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+      throw new HopException("Interrupted while waiting for a batch of Kafka records", e);
+    } catch (ExecutionException e) {
+      throw new HopException("Error processing a batch of Kafka records", e.getCause());
+    }
+  }
+
+  private void checkError() throws HopException {
+    HopException exception = error.get();
+    if (exception != null) {
+      throw exception;
+    }
+  }
+
+  private void commitCompletedOffsets(boolean sync) {
+    Map<TopicPartition, OffsetAndMetadata> offsets;
+    synchronized (completedOffsets) {
+      if (completedOffsets.isEmpty()) {
+        return;
+      }
+      offsets = new HashMap<>(completedOffsets);
+    }
+    if (sync) {
+      consumer.commitSync(offsets);
+    } else {
+      consumer.commitAsync(offsets, null);
+    }
+    // Keep the offsets of the batches completed in the meantime
+    //
+    synchronized (completedOffsets) {
+      completedOffsets
+          .entrySet()
+          .removeIf(entry -> entry.getValue().equals(offsets.get(entry.getKey())));
+    }
+  }
+
+  /**
+   * Hand out the open batches, wait until the workers processed all the batches handed to them and
+   * commit their offsets. The offsets of the batches after a failed one are not committed.
+   */
+  public void drain() {
+    submitBatches(true);
+    while (!pendingBatches.isEmpty()) {
+      try {
+        waitFor(pendingBatches.pollFirst());
+      } catch (HopException e) {
+        // Reported by the next poll
+        if (Thread.currentThread().isInterrupted()) {
+          pendingBatches.clear();
+        }
+      }
+    }
+    commitCompletedOffsets(true);
+  }
+
+  /** Finish and commit the batches handed to the workers, then stop the workers. */
+  public void close() {
+    try {
+      drain();
+    } finally {
+      for (ExecutorService worker : workers) {
+        worker.shutdownNow();
+      }
+      for (ExecutorService worker : workers) {
+        try {
+          worker.awaitTermination(1, TimeUnit.MINUTES);
+        } catch (InterruptedException e) {
+          Thread.currentThread().interrupt();
+        }
+      }
+    }
+  }
+
+  @Override
+  public void onPartitionsRevoked(Collection<TopicPartition> partitions) {
+    // Another consumer continues with these partitions: commit what was processed so far
+    //
+    drain();
+  }
+
+  @Override
+  public void onPartitionsAssigned(Collection<TopicPartition> partitions) {
+    // Nothing to do
+  }
+
+  /**
+   * Gets the number of workers
+   *
+   * @return value of the number of workers
+   */
+  public int getWorkerCount() {
+    return workers.size();
+  }
+}
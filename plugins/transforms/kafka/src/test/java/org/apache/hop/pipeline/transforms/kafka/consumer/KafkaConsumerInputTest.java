@@ -0,0 +1,65 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.hop.pipeline.transforms.kafka.consumer;
+
+import static org.junit.Assert.assertEquals;
+
+import java.util.Map;
+import java.util.Properties;
+import org.apache.hop.core.variables.IVariables;
+import org.apache.hop.core.variables.Variables;
+import org.apache.kafka.clients.consumer.ConsumerConfig;
+import org.junit.Before;
+import org.junit.Test;
+
+public class KafkaConsumerInputTest {
+
+  private KafkaConsumerInputMeta meta;
+  private IVariables variables;
+
+  @Before
+  public void setUp() {
+    meta = new KafkaConsumerInputMeta();
+    meta.setDefault();
+    meta.setDirectBootstrapServers("localhost:9092");
+    variables = new Variables();
+    variables.setVariable("WORKERS", "2");
+  }
+
+  @Test
+  public void testAutoCommitWithoutParallelism() {
+    meta.setAutoCommit(true);
+    Properties config = KafkaConsumerInput.getConsumerConfig(variables, meta);
+    assertEquals(true, config.get(ConsumerConfig.ENABLE_AUTO_COMMIT_CONFIG));
+
+    meta.setAutoCommit(false);
+    config = KafkaConsumerInput.getConsumerConfig(variables, meta);
+    assertEquals(false, config.get(ConsumerConfig.ENABLE_AUTO_COMMIT_CONFIG));
+  }
+
+  @Test
+  public void testNoAutoCommitWithParallelism() {
+    // The partition workers commit the offsets of the completed batches themselves
+    //
+    meta.setAutoCommit(true);
+    meta.setParallelism("${WORKERS}");
+    meta.setConfig(Map.of(ConsumerConfig.ENABLE_AUTO_COMMIT_CONFIG, "true"));
+    Properties config = KafkaConsumerInput.getConsumerConfig(variables, meta);
+    assertEquals(false, config.get(ConsumerConfig.ENABLE_AUTO_COMMIT_CONFIG));
+  }
+}
@@ -0,0 +1,274 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.hop.pipeline.transforms.kafka.consumer;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CountDownLatch;
+import org.apache.hop.core.exception.HopException;
+import org.apache.kafka.clients.consumer.ConsumerRecord;
+import org.apache.kafka.clients.consumer.MockConsumer;
+import org.apache.kafka.clients.consumer.OffsetAndMetadata;
+import org.apache.kafka.clients.consumer.OffsetResetStrategy;
+import org.apache.kafka.common.TopicPartition;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+public class KafkaPartitionWorkerPoolTest {
+
+  private static final String TOPIC = "topic";
+  private static final Duration TIMEOUT = Duration.ofMillis(10);
+
+  private MockConsumer<Object, Object> consumer;
+  private List<TopicPartition> partitions;
+  private KafkaPartitionWorkerPool pool;
+
+  /** The records processed by every worker */
+  private List<List<ConsumerRecord<Object, Object>>> processed;
+
+  /** The size of every batch handed to the workers */
+  private List<Integer> batchSizes;
+
+  @Before
+  public void setUp() {
+    consumer = new MockConsumer<>(OffsetResetStrategy.EARLIEST);
+    partitions = new ArrayList<>();
+    Map<TopicPartition, Long> beginningOffsets = new HashMap<>();
+    for (int p = 0; p < 4; p++) {
+      TopicPartition partition = new TopicPartition(TOPIC, p);
+      partitions.add(partition);
+      beginningOffsets.put(partition, 0L);
+    }
+    consumer.assign(partitions);
+    consumer.updateBeginningOffsets(beginningOffsets);
+    processed = new ArrayList<>();
+    batchSizes = Collections.synchronizedList(new ArrayList<>());
+  }
+
+  @After
+  public void tearDown() {
+    if (pool != null) {
+      pool.close();
+    }
+  }
+
+  /**
+   * @param failingWorker The worker which fails on the records from offset 3, -1 for none
+   */
+  private KafkaPartitionWorkerPool createPool(int workers, int failingWorker) {
+    return createPool(workers, failingWorker, 0, 0L);
+  }
+
+  private KafkaPartitionWorkerPool createPool(
+      int workers, int failingWorker, int batchSize, long batchDuration) {
+    List<KafkaPartitionWorkerPool.IBatchProcessor> processors = new ArrayList<>();
+    for (int i = 0; i < workers; i++) {
+      List<ConsumerRecord<Object, Object>> records =
+          Collections.synchronizedList(new ArrayList<>());
+      processed.add(records);
+      boolean fail = i == failingWorker;
+      processors.add(
+          batch -> {
+            if (fail && batch.get(0).offset() >= 3) {
+              throw new HopException("Sub-pipeline error");
+            }
+            batchSizes.add(batch.size());
+            records.addAll(batch);
+          });
+    }
+    return new KafkaPartitionWorkerPool(
+        consumer, processors, 2 * workers, batchSize, batchDuration);
+  }
+
+  private int getProcessedCount() {
+    int count = 0;
+    for (List<ConsumerRecord<Object, Object>> records : processed) {
+      count += records.size();
+    }
+    return count;
+  }
+
+  private void addRecords(int count) {
+    for (TopicPartition partition : partitions) {
+      long offset = consumer.position(partition);
+      for (int i = 0; i < count; i++) {
+        consumer.addRecord(
+            new ConsumerRecord<>(TOPIC, partition.partition(), offset + i, "key", "value"));
+      }
+    }
+  }
+
+  @Test
+  public void testPartitionsAreProcessedInOrderByTheirWorker() throws Exception {
+    pool = createPool(2, -1);
+
+    addRecords(5);
+    assertEquals(20, pool.poll(TIMEOUT));
+    addRecords(5);
+    assertEquals(20, pool.poll(TIMEOUT));
+    assertEquals(0, pool.poll(TIMEOUT));
+    pool.drain();
+
+    for (TopicPartition partition : partitions) {
+      int worker = pool.getWorkerIndex(partition);
+      List<Long> offsets = new ArrayList<>();
+      for (int i = 0; i < processed.size(); i++) {
+        for (ConsumerRecord<Object, Object> record : processed.get(i)) {
+          if (record.partition() == partition.partition()) {
+            assertEquals(worker, i);
+            offsets.add(record.offset());
+          }
+        }
+      }
+      assertEquals(List.of(0L, 1L, 2L, 3L, 4L, 5L, 6L, 7L, 8L, 9L), offsets);
+    }
+
+    Map<TopicPartition, OffsetAndMetadata> committed = consumer.committed(Set.copyOf(partitions));
+    for (TopicPartition partition : partitions) {
+      assertEquals(10L, committed.get(partition).offset());
+    }
+  }
+
+  @Test
+  public void testFailedBatchIsNotCommitted() throws Exception {
+    pool = createPool(2, 1);
+
+    // Both workers get partitions
+    //
+    assertNotEquals(pool.getWorkerIndex(partitions.get(0)), pool.getWorkerIndex(partitions.get(1)));
+
+    addRecords(3);
+    pool.poll(TIMEOUT);
+    pool.drain();
+    addRecords(3);
+    pool.poll(TIMEOUT);
+    pool.drain();
+
+    try {
+      pool.poll(TIMEOUT);
+      fail("The error of the worker should be reported");
+    } catch (HopException e) {
+      assertTrue(e.getMessage().contains("Sub-pipeline error"));
+    }
+
+    Map<TopicPartition, OffsetAndMetadata> committed = consumer.committed(Set.copyOf(partitions));
+    for (TopicPartition partition : partitions) {
+      if (pool.getWorkerIndex(partition) == 1) {
+        // Only the first batch is committed
+        assertEquals(3L, committed.get(partition).offset());
+      }
+    }
+  }
+
+  @Test
+  public void testOffsetsAreCommittedOnceTheBatchIsProcessed() throws Exception {
+    CountDownLatch release = new CountDownLatch(1);
+    KafkaPartitionWorkerPool.IBatchProcessor processor =
+        batch -> {
+          try {
+            release.await();
+          } catch (InterruptedException e) {
+            throw new HopException(e);
+          }
+        };
+    pool = new KafkaPartitionWorkerPool(consumer, List.of(processor), 2);
+
+    // The records are polled but their batch is still being processed: nothing is committed
+    //
+    addRecords(2);
+    assertEquals(8, pool.poll(TIMEOUT));
+    assertEquals(0, pool.poll(TIMEOUT));
+    Map<TopicPartition, OffsetAndMetadata> committed = consumer.committed(Set.copyOf(partitions));
+    for (TopicPartition partition : partitions) {
+      assertNull(committed.get(partition));
+    }
+
+    release.countDown();
+    pool.drain();
+    committed = consumer.committed(Set.copyOf(partitions));
+    for (TopicPartition partition : partitions) {
+      assertEquals(2L, committed.get(partition).offset());
+    }
+  }
+
+  @Test
+  public void testRevokedPartitionsAreCommitted() throws Exception {
+    pool = createPool(3, -1);
+
+    addRecords(4);
+    pool.poll(TIMEOUT);
+    pool.onPartitionsRevoked(partitions);
+
+    Map<TopicPartition, OffsetAndMetadata> committed = consumer.committed(Set.copyOf(partitions));
+    for (TopicPartition partition : partitions) {
+      assertEquals(4L, committed.get(partition).offset());
+    }
+  }
+
+  @Test
+  public void testBatchesAreSplitByBatchSize() throws Exception {
+    pool = createPool(2, -1, 3, 0L);
+
+    // Every worker gets the 10 records of 2 partitions
+    //
+    addRecords(5);
+    assertEquals(20, pool.poll(TIMEOUT));
+    pool.drain();
+
+    assertEquals(20, getProcessedCount());
+    List<Integer> sizes = new ArrayList<>(batchSizes);
+    Collections.sort(sizes);
+    assertEquals(List.of(1, 1, 3, 3, 3, 3, 3, 3), sizes);
+  }
+
+  @Test
+  public void testRecordsWaitForTheBatchDuration() throws Exception {
+    pool = createPool(2, -1, 100, 500L);
+
+    // The records of both polls end up in one batch per worker
+    //
+    addRecords(2);
+    pool.poll(TIMEOUT);
+    addRecords(2);
+    pool.poll(TIMEOUT);
+    assertEquals(0, getProcessedCount());
+
+    // The batches are handed out once the first records waited for the batch duration
+    //
+    Thread.sleep(600);
+    pool.poll(TIMEOUT);
+    long deadline = System.currentTimeMillis() + 10000;
+    while (getProcessedCount() < 16 && System.currentTimeMillis() < deadline) {
+      Thread.sleep(10);
+    }
+    assertEquals(16, getProcessedCount());
+    assertEquals(List.of(8, 8), batchSizes);
+  }
+}
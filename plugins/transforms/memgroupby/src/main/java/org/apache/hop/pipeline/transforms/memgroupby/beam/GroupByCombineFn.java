@@ -0,0 +1,366 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.hop.pipeline.transforms.memgroupby.beam;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.math.BigDecimal;
+import java.math.MathContext;
+import org.apache.beam.sdk.coders.Coder;
+import org.apache.beam.sdk.coders.CoderRegistry;
+import org.apache.beam.sdk.coders.CustomCoder;
+import org.apache.beam.sdk.coders.VarLongCoder;
+import org.apache.beam.sdk.transforms.Combine;
+import org.apache.hop.beam.core.BeamHop;
+import org.apache.hop.beam.core.HopRow;
+import org.apache.hop.beam.core.coder.HopRowSchemaCoder;
+import org.apache.hop.core.exception.HopException;
+import org.apache.hop.core.exception.HopValueException;
+import org.apache.hop.core.row.IRowMeta;
+import org.apache.hop.core.row.IValueMeta;
+import org.apache.hop.core.row.JsonRowMeta;
+
+/**
+ * Calculates the aggregations of a group with mergeable accumulators. Since the accumulators of
+ * partial groups can be merged, Beam can aggregate the rows before they are shuffled (combiner
+ * lifting). Only one accumulator per key and worker is sent over the network instead of all the
+ * rows of the group.
+ *
+ * <p>The input of the function is the subject row, the output is the row with the aggregation
+ * results, in the same order as the subjects.
+ */
+public class GroupByCombineFn
+    extends Combine.CombineFn<HopRow, GroupByCombineFn.Accumulator, HopRow> {
+
+  private String subjectRowMetaJson; // The data types of the subject fields
+  private String[] aggregations; // The aggregation types
+
+  private transient IRowMeta subjectRowMeta;
+  private transient AggregationType[] aggregationTypes;
+
+  public GroupByCombineFn() {}
+
+  public GroupByCombineFn(String subjectRowMetaJson, String[] aggregations) {
+    this.subjectRowMetaJson = subjectRowMetaJson;
+    this.aggregations = aggregations;
+  }
+
+  private void init() {
+    if (aggregationTypes != null) {
+      return;
+    }
+    try {
+      BeamHop.init();
+      IRowMeta rowMeta = JsonRowMeta.fromJson(subjectRowMetaJson);
+      AggregationType[] types = new AggregationType[aggregations.length];
+      for (int i = 0; i < types.length; i++) {
+        types[i] = AggregationType.getTypeFromName(aggregations[i]);
+      }
+      subjectRowMeta = rowMeta;
+      aggregationTypes = types;
+    } catch (Exception e) {
+      throw new RuntimeException("Unable to set up the group by aggregations", e);
+    }
+  }
+
+  @Override
+  public Accumulator createAccumulator() {
+    init();
+    return new Accumulator(aggregationTypes.length);
+  }
+
+  @Override
+  public Accumulator addInput(Accumulator accumulator, HopRow input) {
+    init();
+    try {
+      Object[] subjectRow = input.getRow();
+      for (int i = 0; i < aggregationTypes.length; i++) {
+        IValueMeta subjectValueMeta = subjectRowMeta.getValueMeta(i);
+        Object subject = subjectRow[i];
+        boolean isNull = subjectValueMeta.isNull(subject);
+
+        switch (aggregationTypes[i]) {
+          case SUM:
+            if (!isNull) {
+              accumulator.results[i] = add(subjectValueMeta, accumulator.results[i], subject);
+            }
+            break;
+          case AVERAGE:
+            // Keep the sum and the count, the average is calculated at the end
+            //
+            if (!isNull) {
+              accumulator.results[i] = add(subjectValueMeta, accumulator.results[i], subject);
+              accumulator.counts[i]++;
+            }
+            break;
+          case COUNT_ALL:
+            if (subject != null) {
+              accumulator.results[i] = add(accumulator.results[i], 1L);
+            }
+            break;
+          case MIN:
+            accumulator.results[i] = min(subjectValueMeta, accumulator.results[i], subject);
+            break;
+          case MAX:
+            accumulator.results[i] = max(subjectValueMeta, accumulator.results[i], subject);
+            break;
+          case FIRST_INCL_NULL:
+            if (accumulator.counts[i] == 0) {
+              accumulator.results[i] = subject;
+              accumulator.counts[i] = 1;
+            }
+            break;
+          case FIRST:
+            if (!isNull && accumulator.counts[i] == 0) {
+              accumulator.results[i] = subject;
+              accumulator.counts[i] = 1;
+            }
+            break;
+          case LAST_INCL_NULL:
+            accumulator.results[i] = subject;
+            accumulator.counts[i] = 1;
+            break;
+          case LAST:
+            if (!isNull) {
+              accumulator.results[i] = subject;
+              accumulator.counts[i] = 1;
+            }
+            break;
+          default:
+            throw new HopException(
+                "Sorry, aggregation type " + aggregationTypes[i].name() + " isn't implemented yet");
+        }
+      }
+      return accumulator;
+    } catch (Exception e) {
+      throw new RuntimeException("Error aggregating subject row", e);
+    }
+  }
+
+  @Override
+  public Accumulator mergeAccumulators(Iterable<Accumulator> accumulators) {
+    init();
+    try {
+      Accumulator merged = createAccumulator();
+      for (Accumulator accumulator : accumulators) {
+        for (int i = 0; i < aggregationTypes.length; i++) {
+          IValueMeta subjectValueMeta = subjectRowMeta.getValueMeta(i);
+          Object result = accumulator.results[i];
+
+          switch (aggregationTypes[i]) {
+            case SUM:
+              merged.results[i] = add(subjectValueMeta, merged.results[i], result);
+              break;
+            case AVERAGE:
+              merged.results[i] = add(subjectValueMeta, merged.results[i], result);
+              merged.counts[i] += accumulator.counts[i];
+              break;
+            case COUNT_ALL:
+              merged.results[i] = add(merged.results[i], (Long) result);
+              break;
+            case MIN:
+              merged.results[i] = min(subjectValueMeta, merged.results[i], result);
+              break;
+            case MAX:
+              merged.results[i] = max(subjectValueMeta, merged.results[i], result);
+              break;
+            case FIRST_INCL_NULL, FIRST:
+              if (merged.counts[i] == 0 && accumulator.counts[i] != 0) {
+                merged.results[i] = result;
+                merged.counts[i] = 1;
+              }
+              break;
+            case LAST_INCL_NULL, LAST:
+              if (accumulator.counts[i] != 0) {
+                merged.results[i] = result;
+                merged.counts[i] = 1;
+              }
+              break;
+            default:
+              throw new HopException(
+                  "Sorry, aggregation type "
+                      + aggregationTypes[i].name()
+                      + " isn't implemented yet");
+          }
+        }
+      }
+      return merged;
+    } catch (Exception e) {
+      throw new RuntimeException("Error merging group by aggregations", e);
+    }
+  }
+
+  @Override
+  public HopRow extractOutput(Accumulator accumulator) {
+    init();
+    try {
+      Object[] results = new Object[aggregationTypes.length];
+      for (int i = 0; i < results.length; i++) {
+        results[i] = accumulator.results[i];
+        if (aggregationTypes[i] == AggregationType.AVERAGE && results[i] != null) {
+          results[i] = average(subjectRowMeta.getValueMeta(i), results[i], accumulator.counts[i]);
+        }
+      }
+      return new HopRow(results);
+    } catch (Exception e) {
+      throw new RuntimeException("Error calculating group by results", e);
+    }
+  }
+
+  @Override
+  public Coder<Accumulator> getAccumulatorCoder(CoderRegistry registry, Coder<HopRow> inputCoder) {
+    init();
+    return new AccumulatorCoder(HopRowSchemaCoder.of(subjectRowMeta));
+  }
+
+  private static Object add(IValueMeta subjectValueMeta, Object result, Object subject)
+      throws HopException {
+    if (subject == null) {
+      return result;
+    }
+    if (result == null) {
+      return subject;
+    }
+    switch (subjectValueMeta.getType()) {
+      case IValueMeta.TYPE_INTEGER:
+        return (Long) result + (Long) subject;
+      case IValueMeta.TYPE_NUMBER:
+        return (Double) result + (Double) subject;
+      case IValueMeta.TYPE_BIGNUMBER:
+        return ((BigDecimal) result).add((BigDecimal) subject);
+      default:
+        throw new HopException(
+            "SUM aggregation not yet implemented for field and data type : "
+                + subjectValueMeta.toString());
+    }
+  }
+
+  private static Long add(Object count, Long increment) {
+    if (increment == null) {
+      return (Long) count;
+    }
+    return count == null ? increment : (Long) count + increment;
+  }
+
+  private static Object min(IValueMeta subjectValueMeta, Object result, Object subject)
+      throws HopValueException {
+    if (subjectValueMeta.isNull(result)) {
+      return subject;
+    }
+    if (!subjectValueMeta.isNull(subject) && subjectValueMeta.compare(subject, result) < 0) {
+      return subject;
+    }
+    return result;
+  }
+
+  private static Object max(IValueMeta subjectValueMeta, Object result, Object subject)
+      throws HopValueException {
+    if (subjectValueMeta.isNull(result)) {
+      return subject;
+    }
+    if (!subjectValueMeta.isNull(subject) && subjectValueMeta.compare(subject, result) > 0) {
+      return subject;
+    }
+    return result;
+  }
+
+  private static Object average(IValueMeta subjectValueMeta, Object sum, long count)
+      throws HopException {
+    switch (subjectValueMeta.getType()) {
+      case IValueMeta.TYPE_NUMBER:
+        return count == 0 ? sum : (Double) sum / count;
+      case IValueMeta.TYPE_INTEGER:
+        return count == 0 ? sum : (Long) sum / count;
+      case IValueMeta.TYPE_BIGNUMBER:
+        return count == 0
+            ? sum
+            : ((BigDecimal) sum).divide(BigDecimal.valueOf(count), MathContext.DECIMAL128);
+      default:
+        throw new HopException(
+            "Unable to calculate average on data type : " + subjectValueMeta.getTypeDesc());
+    }
+  }
+
+  /**
+   * Gets subjectRowMetaJson
+   *
+   * @return value of subjectRowMetaJson
+   */
+  public String getSubjectRowMetaJson() {
+    return subjectRowMetaJson;
+  }
+
+  /**
+   * Gets aggregations
+   *
+   * @return value of aggregations
+   */
+  public String[] getAggregations() {
+    return aggregations;
+  }
+
+  /**
+   * The partial aggregation results of a group. For the average we keep the sum in the result and
+   * the number of values in the count. For first and last the count tells us if we saw a value.
+   */
+  public static class Accumulator {
+    final Object[] results;
+    final long[] counts;
+
+    Accumulator(int size) {
+      this.results = new Object[size];
+      this.counts = new long[size];
+    }
+  }
+
+  /** Encodes the accumulators when Beam sends them from the partial to the final combine. */
+  public static class AccumulatorCoder extends CustomCoder<Accumulator> {
+    private final HopRowSchemaCoder resultsCoder;
+
+    public AccumulatorCoder(HopRowSchemaCoder resultsCoder) {
+      this.resultsCoder = resultsCoder;
+    }
+
+    @Override
+    public void encode(Accumulator accumulator, OutputStream out) throws IOException {
+      resultsCoder.encode(new HopRow(accumulator.results), out);
+      for (long count : accumulator.counts) {
+        VarLongCoder.of().encode(count, out);
+      }
+    }
+
+    @Override
+    public Accumulator decode(InputStream in) throws IOException {
+      Object[] results = resultsCoder.decode(in).getRow();
+      Accumulator accumulator = new Accumulator(results.length);
+      System.arraycopy(results, 0, accumulator.results, 0, results.length);
+      for (int i = 0; i < results.length; i++) {
+        accumulator.counts[i] = VarLongCoder.of().decode(in);
+      }
+      return accumulator;
+    }
+
+    /** The counts are variable length longs, the results are as deterministic as their coder. */
+    @Override
+    public void verifyDeterministic() throws NonDeterministicException {
+      verifyDeterministic(
+          this, "The aggregation results aren't encoded deterministically", resultsCoder);
+    }
+  }
+}
@@ -0,0 +1,76 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.hop.pipeline.transforms.memgroupby.beam;
+
+import org.apache.beam.sdk.metrics.Counter;
+import org.apache.beam.sdk.metrics.Metrics;
+import org.apache.beam.sdk.transforms.DoFn;
+import org.apache.beam.sdk.values.KV;
+import org.apache.hop.beam.core.HopRow;
+import org.apache.hop.core.row.RowDataUtil;
+import org.apache.hop.pipeline.Pipeline;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/** Concatenates the group fields and the aggregation results into the output row. */
+public class GroupByResultFn extends DoFn<KV<HopRow, HopRow>, HopRow> {
+
+  private String counterName;
+  private int groupSize;
+  private int resultSize;
+
+  private static final Logger LOG = LoggerFactory.getLogger(GroupByResultFn.class);
+
+  private transient Counter writtenCounter;
+  private transient Counter errorCounter;
+
+  public GroupByResultFn() {}
+
+  public GroupByResultFn(String counterName, int groupSize, int resultSize) {
+    this.counterName = counterName;
+    this.groupSize = groupSize;
+    this.resultSize = resultSize;
+  }
+
+  @Setup
+  public void setUp() {
+    writtenCounter = Metrics.counter(Pipeline.METRIC_NAME_WRITTEN, counterName);
+    errorCounter = Metrics.counter(Pipeline.METRIC_NAME_ERROR, counterName);
+    Metrics.counter(Pipeline.METRIC_NAME_INIT, counterName).inc();
+  }
+
+  @ProcessElement
+  public void processElement(ProcessContext processContext) {
+    try {
+      KV<HopRow, HopRow> inputElement = processContext.element();
+      Object[] groupRow = inputElement.getKey().getRow();
+      Object[] results = inputElement.getValue().getRow();
+
+      Object[] resultRow = RowDataUtil.allocateRowData(groupSize + resultSize);
+      System.arraycopy(groupRow, 0, resultRow, 0, groupSize);
+      System.arraycopy(results, 0, resultRow, groupSize, resultSize);
+
+      processContext.output(new HopRow(resultRow));
+      writtenCounter.inc();
+    } catch (Exception e) {
+      errorCounter.inc();
+      LOG.error("Error grouping by ", e);
+      throw new RuntimeException("Unable to combine group and aggregation results ", e);
+    }
+  }
+}
@@ -17,15 +17,17 @@
 
 package org.apache.hop.pipeline.transforms.memgroupby.beam;
 
+import org.apache.beam.sdk.coders.KvCoder;
 import org.apache.beam.sdk.metrics.Counter;
 import org.apache.beam.sdk.metrics.Metrics;
-import org.apache.beam.sdk.transforms.GroupByKey;
+import org.apache.beam.sdk.transforms.Combine;
 import org.apache.beam.sdk.transforms.PTransform;
 import org.apache.beam.sdk.transforms.ParDo;
 import org.apache.beam.sdk.values.KV;
 import org.apache.beam.sdk.values.PCollection;
 import org.apache.hop.beam.core.BeamHop;
 import org.apache.hop.beam.core.HopRow;
+import org.apache.hop.beam.core.coder.HopRowSchemaCoder;
 import org.apache.hop.beam.core.fn.HopKeyValueFn;
 import org.apache.hop.core.row.IRowMeta;
 import org.apache.hop.core.row.JsonRowMeta;
@@ -93,26 +95,27 @@ public class GroupByTransform extends PTransform<PCollection<HopRow>, PCollectio
           input.apply(
               ParDo.of(new HopKeyValueFn(rowMetaJson, groupFields, subjects, transformName)));
 
-      // Now we need to aggregate the groups with a Combine
-      GroupByKey<HopRow, HopRow> byKey = GroupByKey.<HopRow, HopRow>create();
-      PCollection<KV<HopRow, Iterable<HopRow>>> grouped = groupSubjects.apply(byKey);
+      // The layout of the keys and values is known: shuffle them with a compact encoding
+      //
+      groupSubjects.setCoder(
+          KvCoder.of(HopRowSchemaCoder.ofKey(groupRowMeta), HopRowSchemaCoder.of(subjectRowMeta)));
+
+      // Aggregate the subject rows per group with a combine function.
+      // Since the partial results can be merged, Beam calculates them before the shuffle.
+      // This way a group with a lot of rows doesn't end up on a single worker.
+      //
+      PCollection<KV<HopRow, HopRow>> aggregated =
+          groupSubjects.apply(
+              Combine.perKey(
+                  new GroupByCombineFn(JsonRowMeta.toJson(subjectRowMeta), aggregations)));
 
-      // Aggregate the rows in the grouped PCollection
-      //   Input: KV<HopRow>, Iterable<HopRow>>
-      //   This means that The group rows is in HopRow.  For every one of these, you get a list of
-      // subject rows.
-      //   We need to calculate the aggregation of these subject lists
-      //   Then we output group values with result values behind it.
+      // Then we output group values with result values behind it.
       //
       String counterName = transformName + " AGG";
       PCollection<HopRow> output =
-          grouped.apply(
+          aggregated.apply(
               ParDo.of(
-                  new GroupByFn(
-                      counterName,
-                      JsonRowMeta.toJson(groupRowMeta),
-                      JsonRowMeta.toJson(subjectRowMeta),
-                      aggregations)));
+                  new GroupByResultFn(counterName, groupRowMeta.size(), subjectRowMeta.size())));
 
       return output;
     } catch (Exception e) {
@@ -0,0 +1,130 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.hop.pipeline.transforms.memgroupby.beam;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertThrows;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.util.Arrays;
+import org.apache.beam.sdk.coders.Coder;
+import org.apache.hop.beam.core.HopRow;
+import org.apache.hop.beam.core.coder.HopRowSchemaCoder;
+import org.apache.hop.core.row.IRowMeta;
+import org.apache.hop.core.row.JsonRowMeta;
+import org.apache.hop.core.row.RowMeta;
+import org.apache.hop.core.row.value.ValueMetaInteger;
+import org.apache.hop.core.row.value.ValueMetaNumber;
+import org.apache.hop.core.row.value.ValueMetaString;
+import org.apache.hop.junit.rules.RestoreHopEngineEnvironment;
+import org.junit.ClassRule;
+import org.junit.Test;
+
+public class GroupByCombineFnTest {
+  @ClassRule public static RestoreHopEngineEnvironment env = new RestoreHopEngineEnvironment();
+
+  private static final String[] AGGREGATIONS = {
+    "SUM", "AVERAGE", "COUNT_ALL", "MIN", "MAX", "FIRST", "LAST"
+  };
+
+  private static final Object[] EXPECTED = {10L, 2.5, 3L, 1L, 4L, "a", "d"};
+
+  private GroupByCombineFn createCombineFn() throws Exception {
+    IRowMeta subjectRowMeta = new RowMeta();
+    subjectRowMeta.addValueMeta(new ValueMetaInteger("sum"));
+    subjectRowMeta.addValueMeta(new ValueMetaNumber("average"));
+    subjectRowMeta.addValueMeta(new ValueMetaString("count"));
+    subjectRowMeta.addValueMeta(new ValueMetaInteger("min"));
+    subjectRowMeta.addValueMeta(new ValueMetaInteger("max"));
+    subjectRowMeta.addValueMeta(new ValueMetaString("first"));
+    subjectRowMeta.addValueMeta(new ValueMetaString("last"));
+    return new GroupByCombineFn(JsonRowMeta.toJson(subjectRowMeta), AGGREGATIONS);
+  }
+
+  private static HopRow row(long value, String string) {
+    return new HopRow(new Object[] {value, (double) value, string, value, value, string, string});
+  }
+
+  @Test
+  public void testAddInput() throws Exception {
+    GroupByCombineFn fn = createCombineFn();
+
+    GroupByCombineFn.Accumulator accumulator = fn.createAccumulator();
+    fn.addInput(accumulator, row(1, "a"));
+    fn.addInput(accumulator, row(2, null));
+    fn.addInput(accumulator, row(3, "c"));
+    fn.addInput(accumulator, row(4, "d"));
+
+    assertArrayEquals(EXPECTED, fn.extractOutput(accumulator).getRow());
+  }
+
+  @Test
+  public void testMergeAccumulators() throws Exception {
+    GroupByCombineFn fn = createCombineFn();
+
+    GroupByCombineFn.Accumulator first = fn.createAccumulator();
+    fn.addInput(first, row(1, "a"));
+    fn.addInput(first, row(2, null));
+    GroupByCombineFn.Accumulator empty = fn.createAccumulator();
+    GroupByCombineFn.Accumulator second = fn.createAccumulator();
+    fn.addInput(second, row(3, "c"));
+    fn.addInput(second, row(4, "d"));
+
+    // The accumulators travel between workers
+    //
+    Coder<GroupByCombineFn.Accumulator> coder = fn.getAccumulatorCoder(null, null);
+    ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
+    coder.encode(first, outputStream);
+    coder.encode(empty, outputStream);
+    coder.encode(second, outputStream);
+    ByteArrayInputStream inputStream = new ByteArrayInputStream(outputStream.toByteArray());
+    GroupByCombineFn.Accumulator merged =
+        fn.mergeAccumulators(
+            Arrays.asList(
+                coder.decode(inputStream), coder.decode(inputStream), coder.decode(inputStream)));
+
+    assertArrayEquals(EXPECTED, fn.extractOutput(merged).getRow());
+  }
+
+  @Test
+  public void testEmptyGroup() throws Exception {
+    GroupByCombineFn fn = createCombineFn();
+
+    Object[] results = fn.extractOutput(fn.createAccumulator()).getRow();
+    assertEquals(AGGREGATIONS.length, results.length);
+    for (Object result : results) {
+      assertNull(result);
+    }
+  }
+
+  @Test
+  public void testAccumulatorCoderDeterminism() throws Exception {
+    // The sum of the doubles is written as it is
+    //
+    Coder<GroupByCombineFn.Accumulator> coder = createCombineFn().getAccumulatorCoder(null, null);
+    assertThrows(Coder.NonDeterministicException.class, coder::verifyDeterministic);
+
+    IRowMeta rowMeta = new RowMeta();
+    rowMeta.addValueMeta(new ValueMetaInteger("count"));
+    rowMeta.addValueMeta(new ValueMetaString("first"));
+    new GroupByCombineFn.AccumulatorCoder(HopRowSchemaCoder.of(rowMeta)).verifyDeterministic();
+  }
+}
@@ -30,26 +30,40 @@ import org.apache.hop.core.Result;
 import org.apache.hop.core.ResultFile;
 import org.apache.hop.core.RowMetaAndData;
 import org.apache.hop.core.exception.HopException;
+import org.apache.hop.core.exception.HopTransformException;
 import org.apache.hop.core.logging.HopLogStore;
 import org.apache.hop.core.logging.LoggingRegistry;
 import org.apache.hop.core.row.IRowMeta;
+import org.apache.hop.core.row.IValueMeta;
 import org.apache.hop.core.row.RowDataUtil;
 import org.apache.hop.core.row.RowMeta;
 import org.apache.hop.core.util.Utils;
 import org.apache.hop.i18n.BaseMessages;
 import org.apache.hop.pipeline.Pipeline;
 import org.apache.hop.pipeline.PipelineMeta;
+import org.apache.hop.pipeline.RowProducer;
+import org.apache.hop.pipeline.SingleThreadedPipelineExecutor;
 import org.apache.hop.pipeline.TransformWithMappingMeta;
 import org.apache.hop.pipeline.engine.IPipelineEngine;
 import org.apache.hop.pipeline.engine.PipelineEngineFactory;
+import org.apache.hop.pipeline.engines.local.LocalPipelineEngine;
 import org.apache.hop.pipeline.transform.BaseTransform;
+import org.apache.hop.pipeline.transform.ITransform;
+import org.apache.hop.pipeline.transform.RowAdapter;
 import org.apache.hop.pipeline.transform.TransformMeta;
+import org.apache.hop.pipeline.transform.TransformMetaDataCombi;
+import org.apache.hop.pipeline.transforms.dummy.DummyMeta;
+import org.apache.hop.pipeline.transforms.injector.InjectorField;
+import org.apache.hop.pipeline.transforms.injector.InjectorMeta;
 
 /** Execute a pipeline for every input row, set parameters. */
 public class PipelineExecutor extends BaseTransform<PipelineExecutorMeta, PipelineExecutorData> {
 
   private static final Class<?> PKG = PipelineExecutorMeta.class;
 
+  private static final String ROWS_FROM_RESULT_PLUGIN_ID = "RowsFromResult";
+  private static final String ROWS_TO_RESULT_PLUGIN_ID = "RowsToResult";
+
   public PipelineExecutor(
       TransformMeta transformMeta,
       PipelineExecutorMeta meta,
@@ -104,6 +118,7 @@ public class PipelineExecutor extends BaseTransform<PipelineExecutorMeta, Pipeli
           logDetailed("Identified a new pipeline to execute: '" + filename + "'");
           meta.setFilename(filename);
           pipelineExecutorData.prevFilename = filename;
+          disposeReusableChildPipeline();
           initPipeline(pipelineExecutorData);
           initOnFirstProcessingIteration();
         }
@@ -226,6 +241,17 @@ public class PipelineExecutor extends BaseTransform<PipelineExecutorMeta, Pipeli
       discardLogLines(pipelineExecutorData);
     }
 
+    if (meta.isReusingChildPipeline() && pipelineExecutorData.childPipelineReusable) {
+      if (pipelineExecutorData.childExecutor == null) {
+        initReusableChildPipeline(incomingFieldValues);
+      }
+      if (pipelineExecutorData.childExecutor != null) {
+        executeReusableChildPipeline();
+        pipelineExecutorData.groupBuffer.clear();
+        return;
+      }
+    }
+
     IPipelineEngine<PipelineMeta> executorPipeline = createInternalPipeline();
     pipelineExecutorData.setExecutorPipeline(executorPipeline);
     if (incomingFieldValues != null) {
@@ -272,6 +298,184 @@ public class PipelineExecutor extends BaseTransform<PipelineExecutorMeta, Pipeli
     pipelineExecutorData.groupBuffer.clear();
   }
 
+  /**
+   * Prepare the child pipeline once so that it can be kept alive between groups. The "Get rows from
+   * result" transforms are replaced by injectors and the "Copy rows to result" transforms by dummy
+   * transforms of which the rows are captured. The child pipeline runs single threaded: every group
+   * is passed as one batch so that transforms like Sort rows handle every group separately. When
+   * the child pipeline can't be kept alive it is executed for every group.
+   */
+  private void initReusableChildPipeline(List<String> incomingFieldValues) throws HopException {
+    PipelineExecutorData pipelineExecutorData = getData();
+
+    // Load a private copy of the child pipeline since we're replacing transforms
+    //
+    PipelineMeta childPipelineMeta = loadExecutorPipelineMeta();
+    String reason = getChildPipelineNotReusableReason(childPipelineMeta);
+    IPipelineEngine<PipelineMeta> childPipeline = null;
+    if (reason == null) {
+      childPipeline = createInternalPipeline(childPipelineMeta);
+      if (!(childPipeline instanceof LocalPipelineEngine)) {
+        reason = BaseMessages.getString(PKG, "PipelineExecutor.ChildPipelineNotReusable.NotLocal");
+      }
+    }
+    if (reason != null) {
+      logBasic(
+          BaseMessages.getString(PKG, "PipelineExecutor.Log.ChildPipelineNotReusable", reason));
+      pipelineExecutorData.childPipelineReusable = false;
+      return;
+    }
+
+    List<String> injectorNames = new ArrayList<>();
+    List<String> resultTransformNames = new ArrayList<>();
+    for (TransformMeta transformMeta : childPipelineMeta.getTransforms()) {
+      if (ROWS_FROM_RESULT_PLUGIN_ID.equals(transformMeta.getTransformPluginId())) {
+        InjectorMeta injectorMeta = new InjectorMeta();
+        for (IValueMeta valueMeta : pipelineExecutorData.getInputRowMeta().getValueMetaList()) {
+          injectorMeta
+              .getInjectorFields()
+              .add(
+                  new InjectorField(
+                      valueMeta.getName(),
+                      valueMeta.getTypeDesc(),
+                      Integer.toString(valueMeta.getLength()),
+                      Integer.toString(valueMeta.getPrecision())));
+        }
+        transformMeta.setTransform(injectorMeta);
+        transformMeta.setTransformPluginId("Injector");
+        transformMeta.setCopies(1);
+        injectorNames.add(transformMeta.getName());
+      } else if (ROWS_TO_RESULT_PLUGIN_ID.equals(transformMeta.getTransformPluginId())) {
+        transformMeta.setTransform(new DummyMeta());
+        transformMeta.setTransformPluginId("Dummy");
+        resultTransformNames.add(transformMeta.getName());
+      }
+    }
+    childPipelineMeta.setPipelineType(PipelineMeta.PipelineType.SingleThreaded);
+
+    pipelineExecutorData.setExecutorPipeline(childPipeline);
+    passParametersToPipeline(incomingFieldValues);
+    childPipeline.setPreviousResult(new Result());
+    childPipeline.prepareExecution();
+
+    LocalPipelineEngine localPipeline = (LocalPipelineEngine) childPipeline;
+    pipelineExecutorData.childRowProducers = new ArrayList<>();
+    for (String injectorName : injectorNames) {
+      pipelineExecutorData.childRowProducers.add(localPipeline.addRowProducer(injectorName, 0));
+    }
+    pipelineExecutorData.childResultRows = new ArrayList<>();
+    for (String resultTransformName : resultTransformNames) {
+      for (ITransform transform : localPipeline.getTransforms(resultTransformName)) {
+        transform.addRowListener(
+            new RowAdapter() {
+              @Override
+              public void rowReadEvent(IRowMeta rowMeta, Object[] row)
+                  throws HopTransformException {
+                getData().childResultRows.add(new RowMetaAndData(rowMeta, row));
+              }
+            });
+      }
+    }
+    localPipeline.startThreads();
+
+    SingleThreadedPipelineExecutor childExecutor =
+        new SingleThreadedPipelineExecutor(localPipeline);
+    if (!childExecutor.init()) {
+      childExecutor.dispose();
+      throw new HopException("Initialization of the child pipeline failed");
+    }
+    pipelineExecutorData.childExecutor = childExecutor;
+
+    // keep track for drill down in HopGui...
+    getPipeline().addActiveSubPipeline(getTransformName(), childPipeline);
+  }
+
+  private String getChildPipelineNotReusableReason(PipelineMeta childPipelineMeta) {
+    String[] fields = meta.getParameters().getField();
+    for (int i = 0; fields != null && i < fields.length; i++) {
+      if (!Utils.isEmpty(Const.trim(fields[i]))) {
+        return BaseMessages.getString(
+            PKG,
+            "PipelineExecutor.ChildPipelineNotReusable.ParameterField",
+            meta.getParameters().getVariable()[i]);
+      }
+    }
+    boolean rowsFromResultFound = false;
+    for (TransformMeta transformMeta : childPipelineMeta.getTransforms()) {
+      if (ROWS_FROM_RESULT_PLUGIN_ID.equals(transformMeta.getTransformPluginId())) {
+        rowsFromResultFound = true;
+      } else if (childPipelineMeta.findPreviousTransforms(transformMeta).isEmpty()) {
+        // This transform would only read its input for the first group
+        //
+        return BaseMessages.getString(
+            PKG, "PipelineExecutor.ChildPipelineNotReusable.OtherSource", transformMeta.getName());
+      }
+    }
+    if (!rowsFromResultFound) {
+      return BaseMessages.getString(
+          PKG, "PipelineExecutor.ChildPipelineNotReusable.NoRowsFromResult");
+    }
+    return null;
+  }
+
+  /**
+   * Pass the rows of the current group to the child pipeline which is kept alive and process them
+   * as a single batch. Afterwards only the counters and the result rows are reset.
+   */
+  private void executeReusableChildPipeline() throws HopException {
+    PipelineExecutorData pipelineExecutorData = getData();
+    SingleThreadedPipelineExecutor childExecutor = pipelineExecutorData.childExecutor;
+
+    Result result;
+    try {
+      pipelineExecutorData.childResultRows.clear();
+      for (RowMetaAndData rowMetaAndData : pipelineExecutorData.groupBuffer) {
+        for (RowProducer rowProducer : pipelineExecutorData.childRowProducers) {
+          rowProducer.putRow(rowMetaAndData.getRowMeta(), rowMetaAndData.getData());
+        }
+      }
+      childExecutor.oneIteration();
+
+      result = childExecutor.getResult();
+      result.setNrErrors(Math.max(result.getNrErrors(), childExecutor.getErrors()));
+      result.setResult(result.getNrErrors() == 0);
+      result.setRows(new ArrayList<>(pipelineExecutorData.childResultRows));
+    } catch (HopException e) {
+      logError("An error occurred executing the pipeline: ", e);
+      result = new Result();
+      result.setResult(false);
+      result.setNrErrors(1);
+    }
+
+    collectPipelineResults(result);
+    collectExecutionResults(result);
+    collectExecutionResultFiles(result);
+
+    if (result.getNrErrors() > 0) {
+      // Start over with a fresh child pipeline for the next group
+      //
+      disposeReusableChildPipeline();
+    } else {
+      childExecutor.resetCounters();
+      for (TransformMetaDataCombi combi : childExecutor.getPipeline().getTransforms()) {
+        combi.transform.getResultFiles().clear();
+      }
+    }
+  }
+
+  private void disposeReusableChildPipeline() {
+    PipelineExecutorData pipelineExecutorData = getData();
+    if (pipelineExecutorData.childExecutor != null) {
+      for (RowProducer rowProducer : pipelineExecutorData.childRowProducers) {
+        rowProducer.finished();
+      }
+      pipelineExecutorData.childExecutor.dispose();
+      pipelineExecutorData.childExecutor = null;
+      pipelineExecutorData.childRowProducers = null;
+      pipelineExecutorData.childResultRows = null;
+    }
+  }
+
   @VisibleForTesting
   void discardLogLines(PipelineExecutorData pipelineExecutorData) {
     // Keep the strain on the logging back-end conservative.
@@ -285,11 +489,17 @@ public class PipelineExecutor extends BaseTransform<PipelineExecutorMeta, Pipeli
 
   @VisibleForTesting
   IPipelineEngine<PipelineMeta> createInternalPipeline() throws HopException {
+    return createInternalPipeline(getData().getExecutorPipelineMeta());
+  }
+
+  @VisibleForTesting
+  IPipelineEngine<PipelineMeta> createInternalPipeline(PipelineMeta executorPipelineMeta)
+      throws HopException {
 
     String runConfigurationName = resolve(meta.getRunConfigurationName());
     IPipelineEngine<PipelineMeta> executorPipeline =
         PipelineEngineFactory.createPipelineEngine(
-            this, runConfigurationName, metadataProvider, getData().getExecutorPipelineMeta());
+            this, runConfigurationName, metadataProvider, executorPipelineMeta);
     executorPipeline.setParentPipeline(getPipeline());
     executorPipeline.setParent(this);
     executorPipeline.setLogLevel(getLogLevel());
@@ -570,6 +780,7 @@ public class PipelineExecutor extends BaseTransform<PipelineExecutorMeta, Pipeli
   @Override
   public void dispose() {
     PipelineExecutorData pipelineExecutorData = getData();
+    disposeReusableChildPipeline();
     pipelineExecutorData.groupBuffer = null;
     super.dispose();
   }
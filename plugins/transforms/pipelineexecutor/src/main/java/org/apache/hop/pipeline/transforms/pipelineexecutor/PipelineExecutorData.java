@@ -23,6 +23,8 @@ import org.apache.hop.core.RowMetaAndData;
 import org.apache.hop.core.row.IRowMeta;
 import org.apache.hop.core.row.IValueMeta;
 import org.apache.hop.pipeline.PipelineMeta;
+import org.apache.hop.pipeline.RowProducer;
+import org.apache.hop.pipeline.SingleThreadedPipelineExecutor;
 import org.apache.hop.pipeline.engine.IPipelineEngine;
 import org.apache.hop.pipeline.transform.BaseTransformData;
 import org.apache.hop.pipeline.transform.ITransformData;
@@ -50,6 +52,18 @@ public class PipelineExecutorData extends BaseTransformData implements ITransfor
 
   public Object prevGroupFieldData;
 
+  /** The executor of the child pipeline which is kept alive between groups */
+  public SingleThreadedPipelineExecutor childExecutor;
+
+  /** The row producers feeding the groups to the child pipeline that is kept alive */
+  public List<RowProducer> childRowProducers;
+
+  /** The result rows of the current group of the child pipeline that is kept alive */
+  public List<RowMetaAndData> childResultRows;
+
+  /** False if the child pipeline can't be kept alive, executed for every group instead */
+  public boolean childPipelineReusable = true;
+
   private IRowSet executorTransformOutputRowSet;
   private IRowSet resultRowsRowSet;
   private IRowSet resultFilesRowSet;
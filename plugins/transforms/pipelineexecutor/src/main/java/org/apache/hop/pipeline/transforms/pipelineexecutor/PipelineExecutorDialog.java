@@ -108,6 +108,7 @@ public class PipelineExecutorDialog extends BaseTransformDialog {
   private CCombo wGroupField;
   private Label wlGroupTime;
   private TextVar wGroupTime;
+  private Button wReuseChildPipeline;
 
   private CCombo wExecutionResultTarget;
   private TableItem tiExecutionTimeField;
@@ -503,6 +504,7 @@ public class PipelineExecutorDialog extends BaseTransformDialog {
     wGroupSize.setText(Const.NVL(pipelineExecutorMeta.getGroupSize(), ""));
     wGroupTime.setText(Const.NVL(pipelineExecutorMeta.getGroupTime(), ""));
     wGroupField.setText(Const.NVL(pipelineExecutorMeta.getGroupField(), ""));
+    wReuseChildPipeline.setSelection(pipelineExecutorMeta.isReusingChildPipeline());
 
     wExecutionResultTarget.setText(
         pipelineExecutorMeta.getExecutionResultTargetTransformMeta() == null
@@ -864,6 +866,19 @@ public class PipelineExecutorDialog extends BaseTransformDialog {
     fdGroupTime.left = new FormAttachment(middle, 0);
     wGroupTime.setLayoutData(fdGroupTime);
 
+    // Keep the child pipeline alive between groups
+    //
+    wReuseChildPipeline = new Button(wInputComposite, SWT.CHECK);
+    wReuseChildPipeline.setText(
+        BaseMessages.getString(PKG, "PipelineExecutorDialog.ReuseChildPipeline.Label"));
+    wReuseChildPipeline.setToolTipText(
+        BaseMessages.getString(PKG, "PipelineExecutorDialog.ReuseChildPipeline.Tooltip"));
+    PropsUi.setLook(wReuseChildPipeline);
+    FormData fdReuseChildPipeline = new FormData();
+    fdReuseChildPipeline.top = new FormAttachment(wGroupTime, 15);
+    fdReuseChildPipeline.left = new FormAttachment(middle, 0);
+    wReuseChildPipeline.setLayoutData(fdReuseChildPipeline);
+
     wTab.setControl(wInputComposite);
     wTabFolder.setSelection(wTab);
   }
@@ -1303,6 +1318,7 @@ public class PipelineExecutorDialog extends BaseTransformDialog {
     pipelineExecutorMeta.setGroupSize(wGroupSize.getText());
     pipelineExecutorMeta.setGroupField(wGroupField.getText());
     pipelineExecutorMeta.setGroupTime(wGroupTime.getText());
+    pipelineExecutorMeta.setReusingChildPipeline(wReuseChildPipeline.getSelection());
 
     pipelineExecutorMeta.setExecutionResultTargetTransform(wExecutionResultTarget.getText());
     pipelineExecutorMeta.setExecutionResultTargetTransformMeta(
@@ -102,6 +102,12 @@ public class PipelineExecutorMeta
    */
   private String groupTime;
 
+  /**
+   * Keep the child pipeline running between groups of rows: it's prepared once and every group is
+   * passed to it as a batch.
+   */
+  private boolean reusingChildPipeline;
+
   private PipelineExecutorParameters parameters;
 
   private String executionResultTargetTransform;
@@ -240,6 +246,9 @@ public class PipelineExecutorMeta
     retval.append("    ").append(XmlHandler.addTagValue("group_size", groupSize));
     retval.append("    ").append(XmlHandler.addTagValue("group_field", groupField));
     retval.append("    ").append(XmlHandler.addTagValue("group_time", groupTime));
+    retval
+        .append("    ")
+        .append(XmlHandler.addTagValue("reuse_child_pipeline", reusingChildPipeline));
 
     // Add the mapping parameters too
     //
@@ -361,6 +370,8 @@ public class PipelineExecutorMeta
       groupSize = XmlHandler.getTagValue(transformNode, "group_size");
       groupField = XmlHandler.getTagValue(transformNode, "group_field");
       groupTime = XmlHandler.getTagValue(transformNode, "group_time");
+      reusingChildPipeline =
+          "Y".equalsIgnoreCase(XmlHandler.getTagValue(transformNode, "reuse_child_pipeline"));
 
       // Load the mapping parameters too..
       //
@@ -436,6 +447,7 @@ public class PipelineExecutorMeta
     groupSize = "1";
     groupField = "";
     groupTime = "";
+    reusingChildPipeline = false;
 
     executionTimeField = "ExecutionTime";
     executionResultField = "ExecutionResult";
@@ -971,6 +983,22 @@ public class PipelineExecutorMeta
     this.groupTime = groupTime;
   }
 
+  /**
+   * Gets reusingChildPipeline
+   *
+   * @return value of reusingChildPipeline
+   */
+  public boolean isReusingChildPipeline() {
+    return reusingChildPipeline;
+  }
+
+  /**
+   * @param reusingChildPipeline The reusingChildPipeline to set
+   */
+  public void setReusingChildPipeline(boolean reusingChildPipeline) {
+    this.reusingChildPipeline = reusingChildPipeline;
+  }
+
   @Override
   public boolean excludeFromCopyDistributeVerification() {
     return true;
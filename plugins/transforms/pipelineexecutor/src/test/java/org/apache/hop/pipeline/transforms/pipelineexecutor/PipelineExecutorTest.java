@@ -0,0 +1,348 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.hop.pipeline.transforms.pipelineexecutor;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.contains;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.util.ArrayList;
+import java.util.List;
+import org.apache.hop.core.HopEnvironment;
+import org.apache.hop.core.IRowSet;
+import org.apache.hop.core.QueueRowSet;
+import org.apache.hop.core.Result;
+import org.apache.hop.core.RowMetaAndData;
+import org.apache.hop.core.exception.HopException;
+import org.apache.hop.core.logging.ILoggingObject;
+import org.apache.hop.core.row.IRowMeta;
+import org.apache.hop.core.row.RowMeta;
+import org.apache.hop.core.row.value.ValueMetaInteger;
+import org.apache.hop.core.row.value.ValueMetaString;
+import org.apache.hop.junit.rules.RestoreHopEngineEnvironment;
+import org.apache.hop.pipeline.Pipeline;
+import org.apache.hop.pipeline.PipelineHopMeta;
+import org.apache.hop.pipeline.PipelineMeta;
+import org.apache.hop.pipeline.engine.IPipelineEngine;
+import org.apache.hop.pipeline.engines.local.LocalPipelineEngine;
+import org.apache.hop.pipeline.transform.BaseTransform;
+import org.apache.hop.pipeline.transform.BaseTransformMeta;
+import org.apache.hop.pipeline.transform.ITransformMeta;
+import org.apache.hop.pipeline.transform.TransformMeta;
+import org.apache.hop.pipeline.transforms.dummy.DummyData;
+import org.apache.hop.pipeline.transforms.dummy.DummyMeta;
+import org.apache.hop.pipeline.transforms.mock.TransformMockHelper;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.BeforeClass;
+import org.junit.ClassRule;
+import org.junit.Test;
+
+public class PipelineExecutorTest {
+  @ClassRule public static RestoreHopEngineEnvironment env = new RestoreHopEngineEnvironment();
+
+  private TransformMockHelper<PipelineExecutorMeta, PipelineExecutorData> smh;
+
+  /** Marks an error when it reads a row with name "fail" */
+  public static class FailOnValueMeta extends BaseTransformMeta<FailOnValue, DummyData> {}
+
+  public static class FailOnValue extends BaseTransform<FailOnValueMeta, DummyData> {
+    public FailOnValue(
+        TransformMeta transformMeta,
+        FailOnValueMeta meta,
+        DummyData data,
+        int copyNr,
+        PipelineMeta pipelineMeta,
+        Pipeline pipeline) {
+      super(transformMeta, meta, data, copyNr, pipelineMeta, pipeline);
+    }
+
+    @Override
+    public boolean processRow() throws HopException {
+      Object[] row = getRow();
+      if (row == null) {
+        setOutputDone();
+        return false;
+      }
+      if ("fail".equals(getInputRowMeta().getString(row, "name", null))) {
+        logError("Failing on purpose");
+        setErrors(1);
+        return false;
+      }
+      putRow(getInputRowMeta(), row);
+      return true;
+    }
+  }
+
+  /** Uses a child pipeline built in code and captures the results of every group */
+  private class TestPipelineExecutor extends PipelineExecutor {
+    private final boolean extraSource;
+    private final boolean local;
+    private final List<IPipelineEngine<PipelineMeta>> childPipelines = new ArrayList<>();
+    private final List<Result> results = new ArrayList<>();
+
+    TestPipelineExecutor(
+        PipelineExecutorMeta meta, PipelineExecutorData data, boolean extraSource, boolean local) {
+      super(smh.transformMeta, meta, data, 0, smh.pipelineMeta, smh.pipeline);
+      this.extraSource = extraSource;
+      this.local = local;
+    }
+
+    @Override
+    PipelineMeta loadExecutorPipelineMeta() {
+      return createChildPipelineMeta(extraSource);
+    }
+
+    @Override
+    IPipelineEngine<PipelineMeta> createInternalPipeline(PipelineMeta executorPipelineMeta)
+        throws HopException {
+      IPipelineEngine<PipelineMeta> childPipeline;
+      if (local) {
+        childPipeline = new LocalPipelineEngine(executorPipelineMeta, this, this);
+      } else {
+        childPipeline = mock(IPipelineEngine.class);
+        when(childPipeline.listParameters()).thenReturn(new String[0]);
+        when(childPipeline.getResult()).thenReturn(new Result());
+      }
+      childPipelines.add(childPipeline);
+      return childPipeline;
+    }
+
+    @Override
+    void collectPipelineResults(Result result) throws HopException {
+      results.add(result);
+      super.collectPipelineResults(result);
+    }
+  }
+
+  @BeforeClass
+  public static void init() throws HopException {
+    HopEnvironment.init();
+  }
+
+  @Before
+  public void setUp() {
+    smh =
+        new TransformMockHelper<>(
+            "Pipeline executor", PipelineExecutorMeta.class, PipelineExecutorData.class);
+    when(smh.logChannelFactory.create(any(), any(ILoggingObject.class)))
+        .thenReturn(smh.iLogChannel);
+    when(smh.pipeline.isRunning()).thenReturn(true);
+  }
+
+  @After
+  public void cleanUp() {
+    smh.cleanUp();
+  }
+
+  private static TransformMeta createTransform(
+      String pluginId, String name, ITransformMeta transform) {
+    TransformMeta transformMeta = new TransformMeta(name, transform);
+    transformMeta.setTransformPluginId(pluginId);
+    return transformMeta;
+  }
+
+  /**
+   * Get rows from result - Fail on value - Copy rows to result
+   *
+   * @param extraSource Also read rows from a transform without input
+   */
+  private static PipelineMeta createChildPipelineMeta(boolean extraSource) {
+    PipelineMeta pipelineMeta = new PipelineMeta();
+    pipelineMeta.setName("child");
+
+    TransformMeta getRows = createTransform("RowsFromResult", "Get rows", new DummyMeta());
+    TransformMeta fail = createTransform("FailOnValue", "Fail", new FailOnValueMeta());
+    TransformMeta copyRows = createTransform("RowsToResult", "Copy rows", new DummyMeta());
+    pipelineMeta.addTransform(getRows);
+    pipelineMeta.addTransform(fail);
+    pipelineMeta.addTransform(copyRows);
+    pipelineMeta.addPipelineHop(new PipelineHopMeta(getRows, fail));
+    pipelineMeta.addPipelineHop(new PipelineHopMeta(fail, copyRows));
+
+    if (extraSource) {
+      TransformMeta source = createTransform("Dummy", "Source", new DummyMeta());
+      pipelineMeta.addTransform(source);
+      pipelineMeta.addPipelineHop(new PipelineHopMeta(source, copyRows));
+    }
+    return pipelineMeta;
+  }
+
+  private static PipelineExecutorMeta createMeta() {
+    PipelineExecutorMeta meta = new PipelineExecutorMeta();
+    meta.setDefault();
+    meta.setFilename("child.hpl");
+    meta.setGroupSize("");
+    meta.setGroupField("group");
+    meta.setReusingChildPipeline(true);
+    return meta;
+  }
+
+  /**
+   * @param groups The names of the rows of every group
+   */
+  private static void executeGroups(TestPipelineExecutor executor, String[]... groups)
+      throws HopException {
+    IRowMeta rowMeta = new RowMeta();
+    rowMeta.addValueMeta(new ValueMetaInteger("group"));
+    rowMeta.addValueMeta(new ValueMetaString("name"));
+
+    IRowSet inputRowSet = new QueueRowSet();
+    for (int group = 0; group < groups.length; group++) {
+      for (String name : groups[group]) {
+        inputRowSet.putRow(rowMeta, new Object[] {(long) group, name});
+      }
+    }
+    inputRowSet.setDone();
+    executor.addRowSetToInputRowSets(inputRowSet);
+
+    assertTrue(executor.init());
+    while (executor.processRow()) {
+      // Keep on executing
+    }
+  }
+
+  private static List<String> names(Result result) throws HopException {
+    List<String> names = new ArrayList<>();
+    for (RowMetaAndData row : result.getRows()) {
+      names.add(row.getString("name", null));
+    }
+    return names;
+  }
+
+  @Test
+  public void testResultsPerGroup() throws Exception {
+    PipelineExecutorData data = new PipelineExecutorData();
+    TestPipelineExecutor executor = new TestPipelineExecutor(createMeta(), data, false, true);
+
+    executeGroups(executor, new String[] {"a", "b"}, new String[] {"c"}, new String[] {"d", "e"});
+
+    // One child pipeline is kept alive for all the groups
+    //
+    assertEquals(1, executor.childPipelines.size());
+    assertNotNull(data.childExecutor);
+    assertEquals(3, executor.results.size());
+    assertEquals(List.of("a", "b"), names(executor.results.get(0)));
+    assertEquals(List.of("c"), names(executor.results.get(1)));
+    assertEquals(List.of("d", "e"), names(executor.results.get(2)));
+    for (Result result : executor.results) {
+      assertEquals(0, result.getNrErrors());
+      assertTrue(result.getResult());
+    }
+
+    executor.dispose();
+    assertNull(data.childExecutor);
+  }
+
+  @Test
+  public void testChildPipelineRecreatedAfterError() throws Exception {
+    PipelineExecutorData data = new PipelineExecutorData();
+    TestPipelineExecutor executor = new TestPipelineExecutor(createMeta(), data, false, true);
+
+    executeGroups(
+        executor,
+        new String[] {"a"},
+        new String[] {"fail", "b"},
+        new String[] {"c"},
+        new String[] {"d"});
+
+    // The failed child pipeline is disposed, the next groups use a new one
+    //
+    assertEquals(2, executor.childPipelines.size());
+    assertTrue(data.childPipelineReusable);
+    assertSame(executor.childPipelines.get(1), data.childExecutor.getPipeline());
+    assertEquals(4, executor.results.size());
+    assertEquals(0, executor.results.get(0).getNrErrors());
+    assertTrue(executor.results.get(1).getNrErrors() > 0);
+    assertFalse(executor.results.get(1).getResult());
+    assertEquals(List.of("c"), names(executor.results.get(2)));
+    assertEquals(0, executor.results.get(2).getNrErrors());
+    assertEquals(List.of("d"), names(executor.results.get(3)));
+    assertEquals(0, executor.results.get(3).getNrErrors());
+
+    executor.dispose();
+    assertNull(data.childExecutor);
+  }
+
+  @Test
+  public void testNotReusedWithParameterField() throws Exception {
+    PipelineExecutorMeta meta = createMeta();
+    meta.getParameters().allocate(1);
+    meta.getParameters().getVariable()[0] = "NAME";
+    meta.getParameters().getField()[0] = "name";
+    meta.getParameters().getInput()[0] = "";
+    PipelineExecutorData data = new PipelineExecutorData();
+    TestPipelineExecutor executor = new TestPipelineExecutor(meta, data, false, true);
+
+    executeGroups(executor, new String[] {"a"}, new String[] {"b"}, new String[] {"c"});
+
+    // The child pipeline is executed for every group
+    //
+    verify(smh.iLogChannel).logBasic(contains("parameter 'NAME'"));
+    assertFalse(data.childPipelineReusable);
+    assertNull(data.childExecutor);
+    assertEquals(3, executor.childPipelines.size());
+    assertEquals(3, executor.results.size());
+    executor.dispose();
+  }
+
+  @Test
+  public void testNotReusedWithOtherSource() throws Exception {
+    PipelineExecutorData data = new PipelineExecutorData();
+    TestPipelineExecutor executor = new TestPipelineExecutor(createMeta(), data, true, true);
+
+    executeGroups(executor, new String[] {"a"}, new String[] {"b"}, new String[] {"c"});
+
+    verify(smh.iLogChannel).logBasic(contains("transform 'Source'"));
+    assertFalse(data.childPipelineReusable);
+    assertNull(data.childExecutor);
+    assertEquals(3, executor.childPipelines.size());
+    assertEquals(3, executor.results.size());
+    executor.dispose();
+  }
+
+  @Test
+  public void testNotReusedWithNonLocalEngine() throws Exception {
+    PipelineExecutorData data = new PipelineExecutorData();
+    TestPipelineExecutor executor = new TestPipelineExecutor(createMeta(), data, false, false);
+
+    executeGroups(executor, new String[] {"a"}, new String[] {"b"}, new String[] {"c"});
+
+    // The engine created to check the run configuration isn't used
+    //
+    verify(smh.iLogChannel).logBasic(contains("doesn't execute it locally"));
+    assertFalse(data.childPipelineReusable);
+    assertNull(data.childExecutor);
+    assertEquals(4, executor.childPipelines.size());
+    assertEquals(3, executor.results.size());
+    verify(executor.childPipelines.get(0), never()).startThreads();
+    for (int i = 1; i < executor.childPipelines.size(); i++) {
+      verify(executor.childPipelines.get(i)).startThreads();
+    }
+    executor.dispose();
+  }
+}
@@ -39,7 +39,9 @@ import javax.ws.rs.core.UriBuilder;
 import org.apache.hop.core.Const;
 import org.apache.hop.core.encryption.Encr;
 import org.apache.hop.core.exception.HopException;
+import org.apache.hop.core.row.IRowMeta;
 import org.apache.hop.core.row.RowDataUtil;
+import org.apache.hop.core.util.AsyncRequestExecutor;
 import org.apache.hop.core.util.HttpClientManager;
 import org.apache.hop.core.util.Utils;
 import org.apache.hop.i18n.BaseMessages;
@@ -48,6 +50,13 @@ import org.apache.hop.pipeline.Pipeline;
 import org.apache.hop.pipeline.PipelineMeta;
 import org.apache.hop.pipeline.transform.BaseTransform;
 import org.apache.hop.pipeline.transform.TransformMeta;
+import org.apache.http.config.RegistryBuilder;
+import org.apache.http.conn.socket.ConnectionSocketFactory;
+import org.apache.http.conn.socket.PlainConnectionSocketFactory;
+import org.apache.http.conn.ssl.NoopHostnameVerifier;
+import org.apache.http.conn.ssl.SSLConnectionSocketFactory;
+import org.apache.http.impl.conn.PoolingHttpClientConnectionManager;
+import org.glassfish.jersey.apache.connector.ApacheClientProperties;
 import org.glassfish.jersey.apache.connector.ApacheConnectorProvider;
 import org.glassfish.jersey.client.ClientConfig;
 import org.glassfish.jersey.client.ClientProperties;
@@ -61,6 +70,7 @@ public class Rest extends BaseTransform<RestMeta, RestData> {
   private static final Class<?> PKG = RestMeta.class;
   public static final String CONST_REST_EXCEPTION_ERROR_FINDING_FIELD =
       "Rest.Exception.ErrorFindingField";
+  private static final long ASYNC_WAIT_MILLIS = 100L;
   private String baseUrl = "";
   private RestConnection connection;
 
@@ -84,26 +94,31 @@ public class Rest extends BaseTransform<RestMeta, RestData> {
   /**
    * Perform the rest call Ignore Sonar SSL warning, SSL can be disabled by a user action
    *
+   * @param rowMeta The metadata of the row, not shared with the requests executed in parallel
    * @param rowData
    * @return
    * @throws HopException
    */
   @SuppressWarnings("java:S5527")
-  protected Object[] callRest(Object[] rowData) throws HopException {
+  protected Object[] callRest(IRowMeta rowMeta, Object[] rowData) throws HopException {
+
+    // The requests can be executed in parallel: keep the values for this row in local variables
+    String realUrl = data.realUrl;
+    String method = data.method;
 
     // get dynamic url ?
     if (meta.isUrlInField()) {
       if (!Utils.isEmpty(meta.getConnectionName())) {
-        data.realUrl = baseUrl + data.inputRowMeta.getString(rowData, data.indexOfUrlField);
+        realUrl = baseUrl + rowMeta.getString(rowData, data.indexOfUrlField);
       } else {
-        data.realUrl = data.inputRowMeta.getString(rowData, data.indexOfUrlField);
+        realUrl = rowMeta.getString(rowData, data.indexOfUrlField);
       }
     }
 
     // get dynamic method?
     if (meta.isDynamicMethod()) {
-      data.method = data.inputRowMeta.getString(rowData, data.indexOfMethod);
-      if (Utils.isEmpty(data.method)) {
+      method = rowMeta.getString(rowData, data.indexOfMethod);
+      if (Utils.isEmpty(method)) {
         throw new HopException(BaseMessages.getString(PKG, "Rest.Error.MethodMissing"));
       }
     }
@@ -115,24 +130,12 @@ public class Rest extends BaseTransform<RestMeta, RestData> {
     }
     try {
       if (isDetailed()) {
-        logDetailed(BaseMessages.getString(PKG, "Rest.Log.ConnectingToURL", data.realUrl));
-      }
-      ClientBuilder clientBuilder = ClientBuilder.newBuilder();
-      clientBuilder
-          .withConfig(data.config)
-          .property(HttpUrlConnectorProvider.SET_METHOD_WORKAROUND, true);
-
-      if (meta.isIgnoreSsl() || !Utils.isEmpty(data.trustStoreFile)) {
-        clientBuilder.hostnameVerifier((s1, s2) -> true);
-        clientBuilder.sslContext(data.sslContext);
-      }
-
-      client = clientBuilder.build();
-      if (data.basicAuthentication != null) {
-        client.register(data.basicAuthentication);
+        logDetailed(BaseMessages.getString(PKG, "Rest.Log.ConnectingToURL", realUrl));
       }
+      // The requests executed in parallel share a client and its connection pool
+      client = data.client != null ? data.client : createClient(data.config);
       // create a WebResource object, which encapsulates a web resource for the client
-      webResource = client.target(data.realUrl);
+      webResource = client.target(realUrl);
 
       // used for calculating the responseTime
       long startTime = System.currentTimeMillis();
@@ -141,7 +144,7 @@ public class Rest extends BaseTransform<RestMeta, RestData> {
         // Add matrix parameters
         UriBuilder builder = webResource.getUriBuilder();
         for (int i = 0; i < data.nrMatrixParams; i++) {
-          String value = data.inputRowMeta.getString(rowData, data.indexOfMatrixParamFields[i]);
+          String value = rowMeta.getString(rowData, data.indexOfMatrixParamFields[i]);
           if (isDebug()) {
             logDebug(
                 BaseMessages.getString(
@@ -158,7 +161,7 @@ public class Rest extends BaseTransform<RestMeta, RestData> {
       if (data.useParams) {
         // Add query parameters
         for (int i = 0; i < data.nrParams; i++) {
-          String value = data.inputRowMeta.getString(rowData, data.indexOfParamFields[i]);
+          String value = rowMeta.getString(rowData, data.indexOfParamFields[i]);
           if (isDebug()) {
             logDebug(
                 BaseMessages.getString(
@@ -185,7 +188,7 @@ public class Rest extends BaseTransform<RestMeta, RestData> {
       if (data.useHeaders) {
         // Add headers
         for (int i = 0; i < data.nrheader; i++) {
-          String value = data.inputRowMeta.getString(rowData, data.indexOfHeaderFields[i]);
+          String value = rowMeta.getString(rowData, data.indexOfHeaderFields[i]);
 
           // unsure if an already set header will be returned to builder
           invocationBuilder.header(data.headerNames[i], value);
@@ -203,33 +206,33 @@ public class Rest extends BaseTransform<RestMeta, RestData> {
       String entityString = null;
       if (data.useBody) {
         // Set Http request entity
-        entityString = Const.NVL(data.inputRowMeta.getString(rowData, data.indexOfBodyField), null);
+        entityString = Const.NVL(rowMeta.getString(rowData, data.indexOfBodyField), null);
         if (isDebug()) {
           logDebug(BaseMessages.getString(PKG, "Rest.Log.BodyValue", entityString));
         }
       }
       try {
-        if (data.method.equals(RestMeta.HTTP_METHOD_GET)) {
+        if (method.equals(RestMeta.HTTP_METHOD_GET)) {
           response = invocationBuilder.get(Response.class);
-        } else if (data.method.equals(RestMeta.HTTP_METHOD_POST)) {
+        } else if (method.equals(RestMeta.HTTP_METHOD_POST)) {
           if (null != contentType) {
             response = invocationBuilder.post(Entity.entity(entityString, contentType));
           } else {
             response = invocationBuilder.post(Entity.entity(entityString, data.mediaType));
           }
-        } else if (data.method.equals(RestMeta.HTTP_METHOD_PUT)) {
+        } else if (method.equals(RestMeta.HTTP_METHOD_PUT)) {
           if (null != contentType) {
             response = invocationBuilder.put(Entity.entity(entityString, contentType));
           } else {
             response = invocationBuilder.put(Entity.entity(entityString, data.mediaType));
           }
-        } else if (data.method.equals(RestMeta.HTTP_METHOD_DELETE)) {
+        } else if (method.equals(RestMeta.HTTP_METHOD_DELETE)) {
           response = invocationBuilder.delete();
-        } else if (data.method.equals(RestMeta.HTTP_METHOD_HEAD)) {
+        } else if (method.equals(RestMeta.HTTP_METHOD_HEAD)) {
           response = invocationBuilder.head();
-        } else if (data.method.equals(RestMeta.HTTP_METHOD_OPTIONS)) {
+        } else if (method.equals(RestMeta.HTTP_METHOD_OPTIONS)) {
           response = invocationBuilder.options();
-        } else if (data.method.equals(RestMeta.HTTP_METHOD_PATCH)) {
+        } else if (method.equals(RestMeta.HTTP_METHOD_PATCH)) {
           if (null != contentType) {
             response =
                 invocationBuilder.method(
@@ -240,8 +243,7 @@ public class Rest extends BaseTransform<RestMeta, RestData> {
                     RestMeta.HTTP_METHOD_PATCH, Entity.entity(entityString, data.mediaType));
           }
         } else {
-          throw new HopException(
-              BaseMessages.getString(PKG, "Rest.Error.UnknownMethod", data.method));
+          throw new HopException(BaseMessages.getString(PKG, "Rest.Error.UnknownMethod", method));
         }
       } catch (Exception e) {
         throw new HopException("Request could not be processed", e);
@@ -251,7 +253,7 @@ public class Rest extends BaseTransform<RestMeta, RestData> {
       if (isDetailed()) {
         logDetailed(
             BaseMessages.getString(
-                PKG, "Rest.Log.ResponseTime", String.valueOf(responseTime), data.realUrl));
+                PKG, "Rest.Log.ResponseTime", String.valueOf(responseTime), realUrl));
       }
 
       // Get status
@@ -283,7 +285,7 @@ public class Rest extends BaseTransform<RestMeta, RestData> {
       }
       headerString = json.toJSONString();
       // for output
-      int returnFieldsOffset = data.inputRowMeta.size();
+      int returnFieldsOffset = rowMeta.size();
       // add response to output
       if (!Utils.isEmpty(data.resultFieldName)) {
         newRow = RowDataUtil.addValueData(newRow, returnFieldsOffset, body);
@@ -306,19 +308,61 @@ public class Rest extends BaseTransform<RestMeta, RestData> {
         newRow = RowDataUtil.addValueData(newRow, returnFieldsOffset, headerString);
       }
     } catch (Exception e) {
-      throw new HopException(
-          BaseMessages.getString(PKG, "Rest.Error.CanNotReadURL", data.realUrl), e);
+      throw new HopException(BaseMessages.getString(PKG, "Rest.Error.CanNotReadURL", realUrl), e);
     } finally {
       if (webResource != null) {
         webResource = null;
       }
-      if (client != null) {
+      if (client != null && client != data.client) {
         client.close();
       }
     }
     return newRow;
   }
 
+  @SuppressWarnings("java:S5527")
+  private Client createClient(ClientConfig config) {
+    ClientBuilder clientBuilder = ClientBuilder.newBuilder();
+    clientBuilder.withConfig(config).property(HttpUrlConnectorProvider.SET_METHOD_WORKAROUND, true);
+
+    if (meta.isIgnoreSsl() || !Utils.isEmpty(data.trustStoreFile)) {
+      clientBuilder.hostnameVerifier((s1, s2) -> true);
+      clientBuilder.sslContext(data.sslContext);
+    }
+
+    Client client = clientBuilder.build();
+    if (data.basicAuthentication != null) {
+      client.register(data.basicAuthentication);
+    }
+    return client;
+  }
+
+  /**
+   * Create the client shared by the requests executed in parallel. The connection manager of the
+   * client keeps as many connections open as there can be requests in flight.
+   */
+  @SuppressWarnings("java:S5527")
+  private Client createSharedClient(int maxConnections) {
+    RegistryBuilder<ConnectionSocketFactory> registryBuilder =
+        RegistryBuilder.<ConnectionSocketFactory>create()
+            .register("http", PlainConnectionSocketFactory.getSocketFactory());
+    if (data.sslContext != null) {
+      // The SSL context of the client builder is not used with a custom connection manager
+      registryBuilder.register(
+          "https", new SSLConnectionSocketFactory(data.sslContext, NoopHostnameVerifier.INSTANCE));
+    } else {
+      registryBuilder.register("https", SSLConnectionSocketFactory.getSocketFactory());
+    }
+    PoolingHttpClientConnectionManager connectionManager =
+        new PoolingHttpClientConnectionManager(registryBuilder.build());
+    connectionManager.setMaxTotal(maxConnections);
+    connectionManager.setDefaultMaxPerRoute(maxConnections);
+
+    ClientConfig config = new ClientConfig().loadFrom(data.config);
+    config.property(ApacheClientProperties.CONNECTION_MANAGER, connectionManager);
+    return createClient(config);
+  }
+
   private void setConfig() throws HopException {
     if (data.config == null) {
       // Use ApacheHttpClient for supporting proxy authentication.
@@ -399,6 +443,9 @@ public class Rest extends BaseTransform<RestMeta, RestData> {
 
     if (r == null) {
       // no more input to be expected...
+      if (data.asyncExecutor != null && !putAllRequests()) {
+        return false;
+      }
       setOutputDone();
       return false;
     }
@@ -523,34 +570,95 @@ public class Rest extends BaseTransform<RestMeta, RestData> {
         }
       }
     } // end if first
+    if (data.asyncExecutor != null) {
+      return processRowAsync(r);
+    }
     try {
-      Object[] outputRowData = callRest(r);
+      Object[] outputRowData = callRest(data.inputRowMeta, r);
       putRow(data.outputRowMeta, outputRowData); // copy row to output rowset(s)
       if (checkFeedback(getLinesRead()) && isDetailed()) {
         logDetailed(BaseMessages.getString(PKG, "Rest.LineNumber") + getLinesRead());
       }
     } catch (HopException e) {
-      boolean sendToErrorRow = false;
-      String errorMessage = null;
-      if (getTransformMeta().isDoingErrorHandling()) {
-        sendToErrorRow = true;
-        errorMessage = e.toString();
-      } else {
-        logError(BaseMessages.getString(PKG, "Rest.ErrorInTransformRunning") + e.getMessage());
-        setErrors(1);
-        logError(Const.getStackTracker(e));
-        stopAll();
-        setOutputDone(); // signal end to receiver(s)
+      return handleRequestError(r, e);
+    }
+    return true;
+  }
+
+  /**
+   * Submit the request for a row to the background executor and pass on the rows of the completed
+   * requests. Only waits if the maximum number of requests is in flight.
+   */
+  private boolean processRowAsync(Object[] r) throws HopException {
+    while (data.asyncExecutor.isFull() && !isStopped()) {
+      if (!putCompletedRequests(ASYNC_WAIT_MILLIS)) {
+        return false;
+      }
+    }
+    // The value metas cache their formatters, every request gets its own copy
+    //
+    IRowMeta rowMeta = data.inputRowMeta.clone();
+    data.asyncExecutor.submit(r, () -> callRest(rowMeta, r));
+    return putCompletedRequests(0);
+  }
+
+  private boolean putAllRequests() throws HopException {
+    while (!data.asyncExecutor.isEmpty() && !isStopped()) {
+      if (!putCompletedRequests(ASYNC_WAIT_MILLIS)) {
         return false;
       }
-      if (sendToErrorRow) {
-        // Simply add this row to the error row
-        putError(getInputRowMeta(), r, 1, errorMessage, null, "Rest001");
+    }
+    return true;
+  }
+
+  private boolean putCompletedRequests(long waitMillis) throws HopException {
+    List<AsyncRequestExecutor.Request<Object[]>> completed;
+    try {
+      completed = data.asyncExecutor.takeCompleted(waitMillis);
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+      throw new HopException(e);
+    }
+    for (AsyncRequestExecutor.Request<Object[]> request : completed) {
+      if (request.getError() == null) {
+        putRow(data.outputRowMeta, request.getResult());
+        if (checkFeedback(getLinesRead()) && isDetailed()) {
+          logDetailed(BaseMessages.getString(PKG, "Rest.LineNumber") + getLinesRead());
+        }
+      } else {
+        HopException e =
+            request.getError() instanceof HopException hopException
+                ? hopException
+                : new HopException(request.getError());
+        if (!handleRequestError(request.getRow(), e)) {
+          return false;
+        }
       }
     }
     return true;
   }
 
+  private boolean handleRequestError(Object[] r, HopException e) throws HopException {
+    boolean sendToErrorRow = false;
+    String errorMessage = null;
+    if (getTransformMeta().isDoingErrorHandling()) {
+      sendToErrorRow = true;
+      errorMessage = e.toString();
+    } else {
+      logError(BaseMessages.getString(PKG, "Rest.ErrorInTransformRunning") + e.getMessage());
+      setErrors(1);
+      logError(Const.getStackTracker(e));
+      stopAll();
+      setOutputDone(); // signal end to receiver(s)
+      return false;
+    }
+    if (sendToErrorRow) {
+      // Simply add this row to the error row
+      putError(getInputRowMeta(), r, 1, errorMessage, null, "Rest001");
+    }
+    return true;
+  }
+
   @Override
   public boolean init() {
 
@@ -624,6 +732,23 @@ public class Rest extends BaseTransform<RestMeta, RestData> {
         logError(BaseMessages.getString(PKG, "Rest.Error.Config"), e);
         return false;
       }
+
+      int maxInFlight = Const.toInt(resolve(meta.getMaxInFlight()), 1);
+      int maxRetries = Const.toInt(resolve(meta.getMaxRetries()), 0);
+      if (maxInFlight > 1) {
+        data.client = createSharedClient(maxInFlight);
+      }
+      // The executor also retries the requests executed one by one
+      //
+      if (maxInFlight > 1 || maxRetries > 0) {
+        data.asyncExecutor =
+            new AsyncRequestExecutor<>(
+                getTransformName(),
+                maxInFlight,
+                !meta.isUnorderedOutput(),
+                maxRetries,
+                Const.toLong(resolve(meta.getRetryDelay()), 1000L));
+      }
       return true;
     }
     return false;
@@ -632,6 +757,14 @@ public class Rest extends BaseTransform<RestMeta, RestData> {
   @Override
   public void dispose() {
 
+    if (data.asyncExecutor != null) {
+      data.asyncExecutor.cancel();
+      data.asyncExecutor = null;
+    }
+    if (data.client != null) {
+      data.client.close();
+      data.client = null;
+    }
     data.config = null;
     data.headerNames = null;
     data.indexOfHeaderFields = null;
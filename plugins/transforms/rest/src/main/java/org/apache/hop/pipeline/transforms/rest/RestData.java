@@ -18,8 +18,10 @@
 package org.apache.hop.pipeline.transforms.rest;
 
 import javax.net.ssl.SSLContext;
+import javax.ws.rs.client.Client;
 import javax.ws.rs.core.MediaType;
 import org.apache.hop.core.row.IRowMeta;
+import org.apache.hop.core.util.AsyncRequestExecutor;
 import org.apache.hop.pipeline.transform.BaseTransformData;
 import org.apache.hop.pipeline.transform.ITransformData;
 import org.glassfish.jersey.client.ClientConfig;
@@ -105,6 +107,12 @@ public class RestData extends BaseTransformData implements ITransformData {
 
   public SSLContext sslContext;
 
+  /** The client shared by the requests executed in parallel */
+  public Client client;
+
+  /** Executes the requests in the background, with more than one in flight or with retries */
+  public AsyncRequestExecutor<Object[]> asyncExecutor;
+
   public RestData() {
     super();
     this.indexOfUrlField = -1;
@@ -55,6 +55,7 @@ import org.eclipse.swt.layout.FormData;
 import org.eclipse.swt.layout.FormLayout;
 import org.eclipse.swt.widgets.Button;
 import org.eclipse.swt.widgets.Composite;
+import org.eclipse.swt.widgets.Control;
 import org.eclipse.swt.widgets.Group;
 import org.eclipse.swt.widgets.Label;
 import org.eclipse.swt.widgets.Shell;
@@ -112,6 +113,14 @@ public class RestDialog extends BaseTransformDialog {
 
   private TextVar wReadTimeout;
 
+  private TextVar wMaxInFlight;
+
+  private Button wUnorderedOutput;
+
+  private TextVar wMaxRetries;
+
+  private TextVar wRetryDelay;
+
   private TextVar wHttpLogin;
 
   private TextVar wHttpPassword;
@@ -210,6 +219,7 @@ public class RestDialog extends BaseTransformDialog {
     setupAppTypeLine(lsMod, middle, margin, gSettings);
     setupConnectionTimeoutLine(lsMod, gSettings);
     setupReadTimeoutLine(lsMod, gSettings);
+    setupAsyncLines(lsMod, gSettings);
 
     FormData fdSettings = new FormData();
     fdSettings.left = new FormAttachment(0, 0);
@@ -781,6 +791,67 @@ public class RestDialog extends BaseTransformDialog {
     wReadTimeout.setLayoutData(fdReadTimeout);
   }
 
+  private void setupAsyncLines(ModifyListener lsMod, Group gSettings) {
+    int margin = PropsUi.getMargin();
+    int middle = props.getMiddlePct();
+
+    wMaxInFlight = addTextVarLine(lsMod, gSettings, wReadTimeout, "RestDialog.MaxInFlight");
+
+    Label wlUnorderedOutput = new Label(gSettings, SWT.RIGHT);
+    wlUnorderedOutput.setText(BaseMessages.getString(PKG, "RestDialog.UnorderedOutput.Label"));
+    wlUnorderedOutput.setToolTipText(
+        BaseMessages.getString(PKG, "RestDialog.UnorderedOutput.Tooltip"));
+    PropsUi.setLook(wlUnorderedOutput);
+    FormData fdlUnorderedOutput = new FormData();
+    fdlUnorderedOutput.top = new FormAttachment(wMaxInFlight, margin);
+    fdlUnorderedOutput.left = new FormAttachment(0, 0);
+    fdlUnorderedOutput.right = new FormAttachment(middle, -margin);
+    wlUnorderedOutput.setLayoutData(fdlUnorderedOutput);
+    wUnorderedOutput = new Button(gSettings, SWT.CHECK);
+    wUnorderedOutput.setToolTipText(
+        BaseMessages.getString(PKG, "RestDialog.UnorderedOutput.Tooltip"));
+    PropsUi.setLook(wUnorderedOutput);
+    FormData fdUnorderedOutput = new FormData();
+    fdUnorderedOutput.top = new FormAttachment(wlUnorderedOutput, 0, SWT.CENTER);
+    fdUnorderedOutput.left = new FormAttachment(middle, 0);
+    fdUnorderedOutput.right = new FormAttachment(100, 0);
+    wUnorderedOutput.setLayoutData(fdUnorderedOutput);
+    wUnorderedOutput.addSelectionListener(
+        new SelectionAdapter() {
+          @Override
+          public void widgetSelected(SelectionEvent e) {
+            input.setChanged();
+          }
+        });
+
+    wMaxRetries = addTextVarLine(lsMod, gSettings, wUnorderedOutput, "RestDialog.MaxRetries");
+    wRetryDelay = addTextVarLine(lsMod, gSettings, wMaxRetries, "RestDialog.RetryDelay");
+  }
+
+  private TextVar addTextVarLine(
+      ModifyListener lsMod, Group gSettings, Control lastControl, String messageKey) {
+    int margin = PropsUi.getMargin();
+    int middle = props.getMiddlePct();
+    Label wLabel = new Label(gSettings, SWT.RIGHT);
+    wLabel.setText(BaseMessages.getString(PKG, messageKey + ".Label"));
+    PropsUi.setLook(wLabel);
+    FormData fdLabel = new FormData();
+    fdLabel.top = new FormAttachment(lastControl, margin);
+    fdLabel.left = new FormAttachment(0, 0);
+    fdLabel.right = new FormAttachment(middle, -margin);
+    wLabel.setLayoutData(fdLabel);
+    TextVar wText = new TextVar(variables, gSettings, SWT.SINGLE | SWT.LEFT | SWT.BORDER);
+    wText.addModifyListener(lsMod);
+    wText.setToolTipText(BaseMessages.getString(PKG, messageKey + ".Tooltip"));
+    PropsUi.setLook(wText);
+    FormData fdText = new FormData();
+    fdText.top = new FormAttachment(lastControl, margin);
+    fdText.left = new FormAttachment(middle, 0);
+    fdText.right = new FormAttachment(100, 0);
+    wText.setLayoutData(fdText);
+    return wText;
+  }
+
   private void setupProxyPortLine(ModifyListener lsMod, int middle, int margin, Group gProxy) {
     // Proxy Port
     Label wlProxyPort = new Label(gProxy, SWT.RIGHT);
@@ -1422,6 +1493,10 @@ public class RestDialog extends BaseTransformDialog {
     if (input.getReadTimeout() != null) {
       wReadTimeout.setText(input.getReadTimeout());
     }
+    wMaxInFlight.setText(Const.NVL(input.getMaxInFlight(), ""));
+    wUnorderedOutput.setSelection(input.isUnorderedOutput());
+    wMaxRetries.setText(Const.NVL(input.getMaxRetries(), ""));
+    wRetryDelay.setText(Const.NVL(input.getRetryDelay(), ""));
     if (input.getHttpLogin() != null) {
       wHttpLogin.setText(input.getHttpLogin());
     }
@@ -1516,6 +1591,10 @@ public class RestDialog extends BaseTransformDialog {
     input.getResultField().setResponseHeader(wResponseHeader.getText());
     input.setConnectionTimeout(wConnectionTimeout.getText());
     input.setReadTimeout(wReadTimeout.getText());
+    input.setMaxInFlight(wMaxInFlight.getText());
+    input.setUnorderedOutput(wUnorderedOutput.getSelection());
+    input.setMaxRetries(wMaxRetries.getText());
+    input.setRetryDelay(wRetryDelay.getText());
     input.setHttpLogin(wHttpLogin.getText());
     input.setHttpPassword(wHttpPassword.getText());
     input.setProxyHost(wProxyHost.getText());
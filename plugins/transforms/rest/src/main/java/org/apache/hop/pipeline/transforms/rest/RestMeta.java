@@ -167,6 +167,22 @@ public class RestMeta extends BaseTransformMeta<Rest, RestData> {
   @HopMetadataProperty(key = "ignoreSsl", injectionKey = "IGNORE_SSL")
   private boolean ignoreSsl;
 
+  /** The maximum number of requests executed at the same time, 1 to execute them one by one */
+  @HopMetadataProperty(key = "maxInFlight", injectionKey = "MAX_IN_FLIGHT")
+  private String maxInFlight;
+
+  /** Pass on the rows in the order the requests complete */
+  @HopMetadataProperty(key = "unorderedOutput", injectionKey = "UNORDERED_OUTPUT")
+  private boolean unorderedOutput;
+
+  /** The number of retries of a request failing with a connection error */
+  @HopMetadataProperty(key = "maxRetries", injectionKey = "MAX_RETRIES")
+  private String maxRetries;
+
+  /** The delay before the first retry (milliseconds), doubled for every retry */
+  @HopMetadataProperty(key = "retryDelay", injectionKey = "RETRY_DELAY")
+  private String retryDelay;
+
   /** headers name */
   @HopMetadataProperty(
       key = "header",
@@ -376,6 +392,10 @@ public class RestMeta extends BaseTransformMeta<Rest, RestData> {
     this.applicationType = APPLICATION_TYPE_TEXT_PLAIN;
     this.readTimeout = String.valueOf(DEFAULT_READ_TIMEOUT);
     this.connectionTimeout = String.valueOf(DEFAULT_CONNECTION_TIMEOUT);
+    this.maxInFlight = "1";
+    this.unorderedOutput = false;
+    this.maxRetries = "0";
+    this.retryDelay = "1000";
   }
 
   @Override
@@ -703,4 +723,68 @@ public class RestMeta extends BaseTransformMeta<Rest, RestData> {
   public void setConnectionName(String connectionName) {
     this.connectionName = connectionName;
   }
+
+  /**
+   * Gets maxInFlight
+   *
+   * @return value of maxInFlight
+   */
+  public String getMaxInFlight() {
+    return maxInFlight;
+  }
+
+  /**
+   * @param maxInFlight The maxInFlight to set
+   */
+  public void setMaxInFlight(String maxInFlight) {
+    this.maxInFlight = maxInFlight;
+  }
+
+  /**
+   * Gets unorderedOutput
+   *
+   * @return value of unorderedOutput
+   */
+  public boolean isUnorderedOutput() {
+    return unorderedOutput;
+  }
+
+  /**
+   * @param unorderedOutput The unorderedOutput to set
+   */
+  public void setUnorderedOutput(boolean unorderedOutput) {
+    this.unorderedOutput = unorderedOutput;
+  }
+
+  /**
+   * Gets maxRetries
+   *
+   * @return value of maxRetries
+   */
+  public String getMaxRetries() {
+    return maxRetries;
+  }
+
+  /**
+   * @param maxRetries The maxRetries to set
+   */
+  public void setMaxRetries(String maxRetries) {
+    this.maxRetries = maxRetries;
+  }
+
+  /**
+   * Gets retryDelay
+   *
+   * @return value of retryDelay
+   */
+  public String getRetryDelay() {
+    return retryDelay;
+  }
+
+  /**
+   * @param retryDelay The retryDelay to set
+   */
+  public void setRetryDelay(String retryDelay) {
+    this.retryDelay = retryDelay;
+  }
 }
@@ -94,6 +94,10 @@ public class RestMetaTest implements IInitializer<ITransformMeta> {
             "connectionTimeout",
             "readTimeout",
             "ignoreSsl",
+            "maxInFlight",
+            "unorderedOutput",
+            "maxRetries",
+            "retryDelay",
             "headerFields",
             "parameterFields",
             "matrixParameterFields",
@@ -129,6 +133,10 @@ public class RestMetaTest implements IInitializer<ITransformMeta> {
     getterMap.put("connectionTimeout", "getConnectionTimeout");
     getterMap.put("readTimeout", "getReadTimeout");
     getterMap.put("ignoreSsl", "isIgnoreSsl");
+    getterMap.put("maxInFlight", "getMaxInFlight");
+    getterMap.put("unorderedOutput", "isUnorderedOutput");
+    getterMap.put("maxRetries", "getMaxRetries");
+    getterMap.put("retryDelay", "getRetryDelay");
     getterMap.put("headerFields", "getHeaderFields");
     getterMap.put("parameterFields", "getParameterFields");
     getterMap.put("matrixParameterFields", "getMatrixParameterFields");
@@ -153,6 +161,10 @@ public class RestMetaTest implements IInitializer<ITransformMeta> {
     setterMap.put("connectionTimeout", "setConnectionTimeout");
     setterMap.put("readTimeout", "setReadTimeout");
     setterMap.put("ignoreSsl", "setIgnoreSsl");
+    setterMap.put("maxInFlight", "setMaxInFlight");
+    setterMap.put("unorderedOutput", "setUnorderedOutput");
+    setterMap.put("maxRetries", "setMaxRetries");
+    setterMap.put("retryDelay", "setRetryDelay");
     setterMap.put("headerFields", "setHeaderFields");
     setterMap.put("parameterFields", "setParameterFields");
     setterMap.put("matrixParameterFields", "setMatrixParameterFields");
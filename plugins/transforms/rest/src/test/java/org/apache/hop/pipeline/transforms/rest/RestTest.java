@@ -117,10 +117,10 @@ public class RestTest {
     data.resultHeaderFieldName = "headers";
 
     Rest rest = mock(Rest.class, Answers.RETURNS_DEFAULTS);
-    doCallRealMethod().when(rest).callRest(any());
+    doCallRealMethod().when(rest).callRest(any(), any());
     doCallRealMethod().when(rest).searchForHeaders(any());
 
-    Object[] output = rest.callRest(new Object[] {0});
+    Object[] output = rest.callRest(rmi, new Object[] {0});
 
     verify(builder, times(1)).delete(ClientResponse.class);
     assertEquals("true", output[1]);
@@ -360,6 +360,12 @@ public class SelectValues extends BaseTransform<SelectValuesMeta, SelectValuesDa
 
   @Override
   public boolean processRow() throws HopException {
+    if (!first && !getTransformMeta().isDoingErrorHandling()) {
+      // Without error handling we can work on batches of rows, see processRows()
+      //
+      return processRowBatch();
+    }
+
     Object[] rowData = getRow(); // get row from rowset, wait for our turn, indicate busy!
     if (rowData == null) { // no more input to be expected...
 
@@ -438,6 +444,49 @@ public class SelectValues extends BaseTransform<SelectValuesMeta, SelectValuesDa
     return true;
   }
 
+  @Override
+  protected boolean processRows(Object[][] rows, int count) throws HopException {
+    long linesRead = getLinesRead() - count;
+    for (int i = 0; i < count; i++) {
+      Object[] outputData = rows[i];
+
+      if (data.select) {
+        outputData = selectValues(getInputRowMeta(), outputData);
+      }
+      if (data.deselect) {
+        outputData = removeValues(data.selectRowMeta, outputData);
+      }
+      if (data.metadata) {
+        outputData = metadataValues(data.deselectRowMeta, outputData);
+      }
+
+      if (outputData == null) {
+        putRows(data.metadataRowMeta, rows, i);
+        setOutputDone(); // signal end to receiver(s)
+        return false;
+      }
+      rows[i] = outputData;
+
+      linesRead++;
+      if (checkFeedback(linesRead)) {
+        logBasic(BaseMessages.getString(PKG, "SelectValues.Log.LineNumber") + linesRead);
+      }
+    }
+
+    // Send the rows on their way
+    //
+    putRows(data.metadataRowMeta, rows, count);
+    if (isRowLevel()) {
+      for (int i = 0; i < count; i++) {
+        logRowlevel(
+            BaseMessages.getString(PKG, "SelectValues.Log.WroteRowToNextTransform")
+                + data.metadataRowMeta.getString(rows[i]));
+      }
+    }
+
+    return true;
+  }
+
   @Override
   public boolean init() {
 
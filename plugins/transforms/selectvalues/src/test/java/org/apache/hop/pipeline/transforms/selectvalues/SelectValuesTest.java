@@ -30,6 +30,8 @@ import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
 import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
 import org.apache.hop.core.HopEnvironment;
 import org.apache.hop.core.IRowSet;
 import org.apache.hop.core.exception.HopConversionException;
@@ -43,8 +45,16 @@ import org.apache.hop.core.row.value.ValueMetaInteger;
 import org.apache.hop.core.row.value.ValueMetaString;
 import org.apache.hop.junit.rules.RestoreHopEngineEnvironment;
 import org.apache.hop.pipeline.Pipeline;
+import org.apache.hop.pipeline.PipelineHopMeta;
 import org.apache.hop.pipeline.PipelineMeta;
+import org.apache.hop.pipeline.RowProducer;
+import org.apache.hop.pipeline.SingleThreadedPipelineExecutor;
+import org.apache.hop.pipeline.engines.local.LocalPipelineEngine;
+import org.apache.hop.pipeline.transform.ITransformMeta;
+import org.apache.hop.pipeline.transform.RowAdapter;
 import org.apache.hop.pipeline.transform.TransformMeta;
+import org.apache.hop.pipeline.transforms.dummy.DummyMeta;
+import org.apache.hop.pipeline.transforms.injector.InjectorMeta;
 import org.apache.hop.pipeline.transforms.mock.TransformMockHelper;
 import org.apache.hop.pipeline.transforms.selectvalues.SelectValuesMeta.SelectField;
 import org.junit.After;
@@ -101,6 +111,71 @@ public class SelectValuesTest {
     helper.cleanUp();
   }
 
+  private static TransformMeta createTransform(
+      String pluginId, String name, ITransformMeta transform) {
+    TransformMeta transformMeta = new TransformMeta(name, transform);
+    transformMeta.setTransformPluginId(pluginId);
+    return transformMeta;
+  }
+
+  /** Select values in a single threaded pipeline, giving it a few rows per iteration. */
+  @Test(timeout = 30000)
+  public void testSingleThreadedExecution() throws Exception {
+    SelectValuesMeta meta = new SelectValuesMeta();
+    meta.allocate(1, 0, 0);
+    meta.getSelectFields()[0] = new SelectField();
+    meta.getSelectFields()[0].setName("id");
+    meta.getSelectFields()[0].setRename("nr");
+
+    PipelineMeta pipelineMeta = new PipelineMeta();
+    pipelineMeta.setName("single threaded select values");
+    pipelineMeta.setPipelineType(PipelineMeta.PipelineType.SingleThreaded);
+    TransformMeta injector = createTransform("Injector", "Injector", new InjectorMeta());
+    TransformMeta select = createTransform("SelectValues", "Select", meta);
+    TransformMeta output = createTransform("Dummy", "Output", new DummyMeta());
+    pipelineMeta.addTransform(injector);
+    pipelineMeta.addTransform(select);
+    pipelineMeta.addTransform(output);
+    pipelineMeta.addPipelineHop(new PipelineHopMeta(injector, select));
+    pipelineMeta.addPipelineHop(new PipelineHopMeta(select, output));
+
+    LocalPipelineEngine pipeline = new LocalPipelineEngine(pipelineMeta);
+    pipeline.prepareExecution();
+    RowProducer rowProducer = pipeline.addRowProducer("Injector", 0);
+    List<String> results = new ArrayList<>();
+    pipeline
+        .getTransform("Output", 0)
+        .addRowListener(
+            new RowAdapter() {
+              @Override
+              public void rowWrittenEvent(IRowMeta rowMeta, Object[] row) {
+                results.add(rowMeta.getValueMeta(0).getName() + "=" + row[0]);
+              }
+            });
+    pipeline.startThreads();
+
+    SingleThreadedPipelineExecutor executor = new SingleThreadedPipelineExecutor(pipeline);
+    assertTrue(executor.init());
+
+    // The input isn't done between the iterations, reading must not wait for more rows
+    //
+    IRowMeta rowMeta = new RowMeta();
+    rowMeta.addValueMeta(new ValueMetaString("name"));
+    rowMeta.addValueMeta(new ValueMetaInteger("id"));
+    for (long id = 0; id < 6; id++) {
+      rowProducer.putRow(rowMeta, new Object[] {"row " + id, id});
+      if (id % 3 == 2) {
+        assertTrue(executor.oneIteration());
+      }
+    }
+    assertEquals(List.of("nr=0", "nr=1", "nr=2", "nr=3", "nr=4", "nr=5"), results);
+
+    rowProducer.finished();
+    executor.oneIteration();
+    assertEquals(0, pipeline.getErrors());
+    executor.dispose();
+  }
+
   @Test
   public void testPDI16368() throws Exception {
     SelectValuesHandler transform2 = null;
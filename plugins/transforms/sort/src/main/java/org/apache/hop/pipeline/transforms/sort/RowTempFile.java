@@ -21,9 +21,15 @@ package org.apache.hop.pipeline.transforms.sort;
 public class RowTempFile {
   public Object[] row;
   public int fileNumber;
+  public long keyPrefix;
 
   public RowTempFile(Object[] row, int fileNumber) {
+    this(row, fileNumber, 0L);
+  }
+
+  public RowTempFile(Object[] row, int fileNumber, long keyPrefix) {
     this.row = row;
     this.fileNumber = fileNumber;
+    this.keyPrefix = keyPrefix;
   }
 }
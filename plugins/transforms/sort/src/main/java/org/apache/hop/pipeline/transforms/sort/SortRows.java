@@ -17,29 +17,22 @@
 
 package org.apache.hop.pipeline.transforms.sort;
 
-import java.io.BufferedInputStream;
-import java.io.BufferedOutputStream;
-import java.io.DataInputStream;
-import java.io.DataOutputStream;
 import java.io.IOException;
-import java.io.InputStream;
-import java.io.OutputStream;
-import java.net.SocketTimeoutException;
 import java.util.ArrayList;
-import java.util.Collections;
+import java.util.Arrays;
 import java.util.Comparator;
 import java.util.List;
-import java.util.zip.GZIPInputStream;
-import java.util.zip.GZIPOutputStream;
+import java.util.PriorityQueue;
+import java.util.concurrent.ExecutionException;
 import org.apache.commons.collections4.CollectionUtils;
 import org.apache.commons.vfs2.FileObject;
 import org.apache.commons.vfs2.FileSystemException;
 import org.apache.hop.core.Const;
 import org.apache.hop.core.exception.HopException;
-import org.apache.hop.core.exception.HopFileException;
 import org.apache.hop.core.exception.HopValueException;
 import org.apache.hop.core.row.IRowMeta;
 import org.apache.hop.core.row.IValueMeta;
+import org.apache.hop.core.util.ExecutorUtil;
 import org.apache.hop.core.vfs.HopVfs;
 import org.apache.hop.i18n.BaseMessages;
 import org.apache.hop.pipeline.Pipeline;
@@ -74,10 +67,10 @@ public class SortRows extends BaseTransform<SortRowsMeta, SortRowsData> {
     // Save row
     data.buffer.add(r);
 
-    // Check the free memory every 1000 rows...
+    // Check the free memory every 1000 rows, also when a sort size is set next to the memory limit
     //
     data.freeCounter++;
-    if (data.sortSize <= 0 && data.freeCounter >= 1000) {
+    if (data.freeMemoryPctLimit > 0 && data.freeCounter >= 1000) {
       data.freeMemoryPct = Const.getPercentageFreeMemory();
       data.freeCounter = 0;
 
@@ -119,160 +112,146 @@ public class SortRows extends BaseTransform<SortRowsMeta, SortRowsData> {
       return;
     }
 
-    // First sort the rows in buffer[]
-    quickSort(data.buffer);
-
-    // Then write them to disk...
-    DataOutputStream dos;
-    GZIPOutputStream gzos;
-    int p;
+    // Only one run is sorted and written in the background at any given time.
+    // This keeps the memory usage at most at two buffers.
+    //
+    waitForPendingRun();
 
+    final List<Object[]> run = data.buffer;
+    final FileObject fileObject;
     try {
-      FileObject fileObject =
+      fileObject =
           HopVfs.createTempFile(meta.getPrefix(), ".tmp", resolve(meta.getDirectory()), variables);
+    } catch (Exception e) {
+      throw new HopException("Error processing temp-file!", e);
+    }
+    data.files.add(fileObject); // Remember the files!
 
-      data.files.add(fileObject); // Remember the files!
-      OutputStream outputStream = HopVfs.getOutputStream(fileObject, false);
-      if (data.compressFiles) {
-        gzos = new GZIPOutputStream(new BufferedOutputStream(outputStream));
-        dos = new DataOutputStream(gzos);
-      } else {
-        dos = new DataOutputStream(new BufferedOutputStream(outputStream, 500000));
-        gzos = null;
-      }
-
-      // Just write the data, nothing else
-      List<Integer> duplicates = new ArrayList<>();
-      Object[] previousRow = null;
-      if (meta.isOnlyPassingUniqueRows()) {
-        int index = 0;
-        while (index < data.buffer.size()) {
-          Object[] row = data.buffer.get(index);
-          if (previousRow != null) {
-            int result = data.outputRowMeta.compare(row, previousRow, data.fieldnrs);
-            if (result == 0) {
-              duplicates.add(index);
-              if (isRowLevel()) {
-                logRowlevel(
-                    BaseMessages.getString(
-                        PKG,
-                        "SortRows.RowLevel.DuplicateRowRemoved",
-                        data.outputRowMeta.getString(row)));
-              }
-            }
-          }
-          index++;
-          previousRow = row;
-        }
-      }
-
-      // How many records do we have left?
-      data.bufferSizes.add(data.buffer.size() - duplicates.size());
-
-      int duplicatesIndex = 0;
-      for (p = 0; p < data.buffer.size(); p++) {
-        boolean skip = false;
-        if (duplicatesIndex < duplicates.size() && p == duplicates.get(duplicatesIndex)) {
-          skip = true;
-          duplicatesIndex++;
-        }
-        if (!skip) {
-          data.outputRowMeta.writeData(dos, data.buffer.get(p));
-        }
-      }
+    if (data.sortSize < 0 && run.size() > data.minSortSize) {
+      data.minSortSize = run.size(); // if we did it once, we can do
+      // it again.
 
-      if (data.sortSize < 0 && data.buffer.size() > data.minSortSize) {
-        data.minSortSize = data.buffer.size(); // if we did it once, we can do
-        // it again.
+      // Memory usage goes up over time, even with garbage collection
+      // We need pointers, file handles, etc.
+      // As such, we're going to lower the min sort size a bit
+      //
+      data.minSortSize = (int) Math.round(data.minSortSize * 0.90);
+    }
 
-        // Memory usage goes up over time, even with garbage collection
-        // We need pointers, file handles, etc.
-        // As such, we're going to lower the min sort size a bit
-        //
-        data.minSortSize = (int) Math.round(data.minSortSize * 0.90);
-      }
+    // Sort and write the run in the background while we continue to fill the next buffer
+    //
+    data.buffer = new ArrayList<>(run.size());
+    data.pendingRun = ExecutorUtil.getExecutor().submit(() -> writeRun(run, fileObject));
+    data.getBufferIndex = 0;
+  }
 
-      // Clear the list
-      data.buffer.clear();
+  /**
+   * Sort the given run of rows and write it to the temporary file.
+   *
+   * @return The number of rows written to the file
+   */
+  private int writeRun(List<Object[]> run, FileObject fileObject) throws HopException {
+    // First sort the rows in the run
+    quickSort(run);
 
-      // Close temp-file
-      dos.close(); // close data stream
-      if (gzos != null) {
-        gzos.close(); // close gzip stream
-      }
-      outputStream.close(); // close file stream
+    // Then write them to disk...
+    try (SortRowsTempFileWriter writer =
+        new SortRowsTempFileWriter(
+            HopVfs.getOutputStream(fileObject, false),
+            data.rowCodec,
+            data.keyPrefix,
+            data.compressFiles)) {
 
-      // How much memory do we have left?
-      //
-      data.freeMemoryPct = Const.getPercentageFreeMemory();
-      data.freeCounter = 0;
-      if (data.sortSize <= 0 && isDetailed()) {
-        logDetailed(
-            BaseMessages.getString(PKG, "SortRows.Detailed.AvailableMemory", data.freeMemoryPct));
+      // Just write the data, nothing else
+      int written = 0;
+      Object[] previousRow = null;
+      for (Object[] row : run) {
+        if (meta.isOnlyPassingUniqueRows()
+            && previousRow != null
+            && data.outputRowMeta.compare(row, previousRow, data.fieldnrs) == 0) {
+          if (isRowLevel()) {
+            logRowlevel(
+                BaseMessages.getString(
+                    PKG,
+                    "SortRows.RowLevel.DuplicateRowRemoved",
+                    data.outputRowMeta.getString(row)));
+          }
+        } else {
+          writer.writeRow(row);
+          written++;
+        }
+        previousRow = row;
       }
-
+      return written;
     } catch (Exception e) {
       throw new HopException("Error processing temp-file!", e);
     }
-
-    data.getBufferIndex = 0;
   }
 
-  private DataInputStream getDataInputStream(GZIPInputStream gzipInputStream) {
-    DataInputStream result = new DataInputStream(gzipInputStream);
-    data.gzis.add(gzipInputStream);
-    return result;
+  /** Wait until the run which is being sorted and written in the background is on disk. */
+  private void waitForPendingRun() throws HopException {
+    if (data.pendingRun == null) {
+      return;
+    }
+    try {
+      // How many records do we have in the file?
+      data.bufferSizes.add(data.pendingRun.get());
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+      throw new HopException("Interrupted while writing temp-file!", e);
+    } catch (ExecutionException e) {
+      throw new HopException("Error processing temp-file!", e.getCause());
+    } finally {
+      data.pendingRun = null;
+    }
+
+    // How much memory do we have left?
+    //
+    data.freeMemoryPct = Const.getPercentageFreeMemory();
+    data.freeCounter = 0;
+    if (data.sortSize <= 0 && isDetailed()) {
+      logDetailed(
+          BaseMessages.getString(PKG, "SortRows.Detailed.AvailableMemory", data.freeMemoryPct));
+    }
   }
 
   // get sorted rows from available files in iterative manner.
   // that means call to this method will continue to return rows
   // till all temp files will not be read to the end.
-  Object[] getBuffer() throws HopValueException {
+  Object[] getBuffer() throws HopException {
     Object[] retval;
 
     // Open all files at once and read one row from each file...
-    if (CollectionUtils.isNotEmpty(data.files) && (data.dis.isEmpty() || data.fis.isEmpty())) {
+    if (CollectionUtils.isNotEmpty(data.files) && data.readers.isEmpty()) {
       if (isBasic()) {
         logBasic(BaseMessages.getString(PKG, "SortRows.Basic.OpeningTempFiles", data.files.size()));
       }
 
-      try {
-        for (int f = 0; f < data.files.size() && !isStopped(); f++) {
-          FileObject fileObject = data.files.get(f);
-          String filename = HopVfs.getFilename(fileObject);
-          if (isDetailed()) {
-            logDetailed(BaseMessages.getString(PKG, "SortRows.Detailed.OpeningTempFile", filename));
-          }
-          InputStream fi = HopVfs.getInputStream(fileObject);
-          DataInputStream di;
-          data.fis.add(fi);
-          if (data.compressFiles) {
-            di = getDataInputStream(new GZIPInputStream(new BufferedInputStream(fi)));
-          } else {
-            di = new DataInputStream(new BufferedInputStream(fi, 50000));
-          }
-          data.dis.add(di);
+      for (int f = 0; f < data.files.size() && !isStopped(); f++) {
+        FileObject fileObject = data.files.get(f);
+        String filename = HopVfs.getFilename(fileObject);
+        if (isDetailed()) {
+          logDetailed(BaseMessages.getString(PKG, "SortRows.Detailed.OpeningTempFile", filename));
+        }
 
-          // How long is the buffer?
-          int buffersize = data.bufferSizes.get(f);
+        // How long is the buffer?
+        int buffersize = data.bufferSizes.get(f);
 
-          if (isDetailed()) {
-            logDetailed(
-                BaseMessages.getString(
-                    PKG, "SortRows.Detailed.FromFileExpectingRows", filename, buffersize));
-          }
-
-          if (buffersize > 0) {
-            Object[] row = data.outputRowMeta.readData(di);
-            data.rowbuffer.add(row); // new row from input stream
-            data.tempRows.add(new RowTempFile(row, f));
-          }
+        if (isDetailed()) {
+          logDetailed(
+              BaseMessages.getString(
+                  PKG, "SortRows.Detailed.FromFileExpectingRows", filename, buffersize));
         }
 
-        // Sort the data row buffer
-        Collections.sort(data.tempRows, data.comparator);
-      } catch (Exception e) {
-        logError(BaseMessages.getString(PKG, "SortRows.Error.ErrorReadingBackTempFiles"), e);
+        SortRowsTempFileReader reader =
+            new SortRowsTempFileReader(
+                fileObject, data.rowCodec, data.compressFiles, ExecutorUtil.getExecutor());
+        data.readers.add(reader);
+
+        Object[] row = reader.next();
+        if (row != null) {
+          data.tempRows.add(new RowTempFile(row, f, reader.getKeyPrefix()));
+        }
       }
     }
 
@@ -286,50 +265,29 @@ public class SortRows extends BaseTransform<SortRowsMeta, SortRowsData> {
         retval = null;
       }
     } else {
-      // read from disk processing
-
-      if (data.rowbuffer.isEmpty()) {
+      // read from disk processing: the head of the queue has the smallest row of all files
+      //
+      RowTempFile rowTempFile = data.tempRows.poll();
+      if (rowTempFile == null) {
         retval = null;
       } else {
-        // We now have "filenr" rows waiting: which one is the smallest?
-        //
-        if (isRowLevel()) {
-          for (int i = 0; i < data.rowbuffer.size() && !isStopped(); i++) {
-            Object[] b = data.rowbuffer.get(i);
-            logRowlevel(
-                BaseMessages.getString(
-                    PKG, "SortRows.RowLevel.PrintRow", i, data.outputRowMeta.getString(b)));
-          }
-        }
-
-        RowTempFile rowTempFile = data.tempRows.remove(0);
         retval = rowTempFile.row;
         int smallest = rowTempFile.fileNumber;
 
         // now get another Row for position smallest
-
-        FileObject file = data.files.get(smallest);
-        DataInputStream di = data.dis.get(smallest);
-        InputStream fi = data.fis.get(smallest);
-
-        try {
-          Object[] row2 = data.outputRowMeta.readData(di);
-          RowTempFile extra = new RowTempFile(row2, smallest);
-
-          int index = Collections.binarySearch(data.tempRows, extra, data.comparator);
-          if (index < 0) {
-            data.tempRows.add(index * (-1) - 1, extra);
-          } else {
-            data.tempRows.add(index, extra);
-          }
-        } catch (HopFileException fe) { // empty file or EOF mostly
-          GZIPInputStream gzfi = (data.compressFiles) ? data.gzis.get(smallest) : null;
+        //
+        SortRowsTempFileReader reader = data.readers.get(smallest);
+        Object[] row2 = reader.next();
+        if (row2 != null) {
+          rowTempFile.row = row2;
+          rowTempFile.keyPrefix = reader.getKeyPrefix();
+          data.tempRows.add(rowTempFile);
+        } else {
+          // This file is exhausted, we can get rid of it
+          //
+          FileObject file = reader.getFileObject();
           try {
-            di.close();
-            fi.close();
-            if (gzfi != null) {
-              gzfi.close();
-            }
+            reader.close();
             file.delete();
           } catch (IOException e) {
             logError(
@@ -339,25 +297,7 @@ public class SortRows extends BaseTransform<SortRowsMeta, SortRowsData> {
             stopAll();
             return null;
           }
-
-          data.files.remove(smallest);
-          data.dis.remove(smallest);
-          data.fis.remove(smallest);
-
-          if (gzfi != null) {
-            data.gzis.remove(smallest);
-          }
-
-          // Also update all file numbers in in data.tempRows if they are larger
-          // than smallest.
-          //
-          for (RowTempFile rtf : data.tempRows) {
-            if (rtf.fileNumber > smallest) {
-              rtf.fileNumber--;
-            }
-          }
-        } catch (SocketTimeoutException e) {
-          throw new HopValueException(e); // should never happen on local files
+          data.readers.set(smallest, null);
         }
       }
     }
@@ -417,7 +357,6 @@ public class SortRows extends BaseTransform<SortRowsMeta, SortRowsData> {
       // Metadata
       data.outputRowMeta = inputRowMeta.clone();
       meta.getFields(data.outputRowMeta, getTransformName(), null, null, this, metadataProvider);
-      data.comparator = new RowTemapFileComparator(data.outputRowMeta, data.fieldnrs);
 
       for (int i = 0; i < meta.getSortFields().size(); i++) {
         data.fieldnrs[i] = inputRowMeta.indexOfValue(meta.getSortFields().get(i).getFieldName());
@@ -442,6 +381,12 @@ public class SortRows extends BaseTransform<SortRowsMeta, SortRowsData> {
         i++;
       }
       data.rowComparator = new RowObjectArrayComparator(data.outputRowMeta, data.fieldnrs);
+      data.comparator = new RowTemapFileComparator(data.outputRowMeta, data.fieldnrs);
+      data.tempRows = new PriorityQueue<>(data.comparator);
+
+      // The format of the temporary files
+      data.rowCodec = new SortRowsRowCodec(data.outputRowMeta);
+      data.keyPrefix = new SortRowsKeyPrefix(data.outputRowMeta, data.fieldnrs);
     } // end if first
 
     // it is not first row and it is null
@@ -562,20 +507,16 @@ public class SortRows extends BaseTransform<SortRowsMeta, SortRowsData> {
       //
       data.freeMemoryPctLimit = 25;
     }
+    data.freeMemoryPct = Const.getPercentageFreeMemory();
+    data.freeCounter = 0;
 
     // In memory buffer
     //
     data.buffer = new ArrayList<>(5000);
 
-    // Buffer for reading from disk
-    //
-    data.rowbuffer = new ArrayList<>(5000);
-
     data.compressFiles =
         getVariableBoolean(meta.getCompressFilesVariable(), meta.isCompressFiles());
 
-    data.tempRows = new ArrayList<>();
-
     data.minSortSize = 5000;
 
     return true;
@@ -592,20 +533,28 @@ public class SortRows extends BaseTransform<SortRowsMeta, SortRowsData> {
     // Clean out the sort buffer
     data.buffer.clear();
     data.getBufferIndex = 0;
-    data.rowbuffer.clear();
+    if (data.tempRows != null) {
+      data.tempRows.clear();
+    }
 
-    // close any open DataInputStream objects
-    if (CollectionUtils.isNotEmpty(data.dis)) {
-      for (DataInputStream dis : data.dis) {
-        BaseTransform.closeQuietly(dis);
+    // Wait for a run which is still being written in the background
+    if (data.pendingRun != null) {
+      try {
+        data.pendingRun.get();
+      } catch (Exception e) {
+        // We're cleaning up, the error was already reported
       }
+      data.pendingRun = null;
     }
-    // close any open InputStream objects
-    if (CollectionUtils.isNotEmpty(data.fis)) {
-      for (InputStream is : data.fis) {
-        BaseTransform.closeQuietly(is);
+
+    // close any open temp file readers
+    for (SortRowsTempFileReader reader : data.readers) {
+      if (reader != null) {
+        BaseTransform.closeQuietly(reader);
       }
     }
+    data.readers.clear();
+
     // remove temp files
     for (int f = 0; f < data.files.size(); f++) {
       FileObject fileToDelete = data.files.get(f);
@@ -617,12 +566,18 @@ public class SortRows extends BaseTransform<SortRowsMeta, SortRowsData> {
         logError(e.getLocalizedMessage(), e);
       }
     }
+    data.files.clear();
+    data.bufferSizes.clear();
   }
 
-  /** Sort the entire vector, if it is not empty. */
+  /** Sort the entire vector, if it is not empty. Large vectors are sorted on the fork-join pool. */
   void quickSort(List<Object[]> elements) {
     if (CollectionUtils.isNotEmpty(elements)) {
-      Collections.sort(elements, data.rowComparator);
+      Object[][] rows = elements.toArray(new Object[0][]);
+      Arrays.parallelSort(rows, data.rowComparator);
+      for (int i = 0; i < rows.length; i++) {
+        elements.set(i, rows[i]);
+      }
 
       long nrConversions = 0L;
       for (IValueMeta valueMeta : data.outputRowMeta.getValueMetaList()) {
@@ -668,6 +623,7 @@ public class SortRows extends BaseTransform<SortRowsMeta, SortRowsData> {
     if (!data.files.isEmpty()) {
       // dump to dist and then read from disk
       sortExternalRows();
+      waitForPendingRun();
     } else {
       // sort in memory
       quickSort(data.buffer);
@@ -710,7 +666,17 @@ public class SortRows extends BaseTransform<SortRowsMeta, SortRowsData> {
     @Override
     public int compare(RowTempFile o1, RowTempFile o2) {
       try {
-        return rowMeta.compare(o1.row, o2.row, fieldNrs);
+        // Different normalized key prefixes decide the order without looking at the values
+        int cmp = Long.compareUnsigned(o1.keyPrefix, o2.keyPrefix);
+        if (cmp != 0) {
+          return cmp;
+        }
+        cmp = rowMeta.compare(o1.row, o2.row, fieldNrs);
+        if (cmp != 0) {
+          return cmp;
+        }
+        // Keep the merge stable: equal rows come out in the order of the files
+        return Integer.compare(o1.fileNumber, o2.fileNumber);
       } catch (HopValueException e) {
         logError("Error comparing rows: " + e.toString());
         return 0;
@@ -17,12 +17,11 @@
 
 package org.apache.hop.pipeline.transforms.sort;
 
-import java.io.DataInputStream;
-import java.io.InputStream;
 import java.util.ArrayList;
 import java.util.Comparator;
 import java.util.List;
-import java.util.zip.GZIPInputStream;
+import java.util.PriorityQueue;
+import java.util.concurrent.Future;
 import org.apache.commons.vfs2.FileObject;
 import org.apache.hop.core.row.IRowMeta;
 import org.apache.hop.pipeline.transform.BaseTransformData;
@@ -34,14 +33,14 @@ public class SortRowsData extends BaseTransformData implements ITransformData {
   public List<Object[]> buffer;
   public int getBufferIndex;
 
-  public List<InputStream> fis;
-  public List<GZIPInputStream> gzis;
-  public List<DataInputStream> dis;
-  public List<Object[]> rowbuffer;
+  public List<SortRowsTempFileReader> readers;
   public List<Integer> bufferSizes;
 
-  // To store rows and file references
-  public List<RowTempFile> tempRows;
+  // The run which is being sorted and written to disk in the background
+  public Future<Integer> pendingRun;
+
+  // To store rows and file references, the smallest row is at the head of the queue
+  public PriorityQueue<RowTempFile> tempRows;
 
   public int[] fieldnrs; // the corresponding field numbers
   public FileObject fil;
@@ -51,6 +50,10 @@ public class SortRowsData extends BaseTransformData implements ITransformData {
   public int[] convertKeysToNative;
   public boolean convertAnyKeysToNative;
 
+  // The format of the temporary files
+  public SortRowsRowCodec rowCodec;
+  public SortRowsKeyPrefix keyPrefix;
+
   Comparator<RowTempFile> comparator;
   Comparator<Object[]> rowComparator;
 
@@ -71,9 +74,7 @@ public class SortRowsData extends BaseTransformData implements ITransformData {
     super();
 
     files = new ArrayList<>();
-    fis = new ArrayList<>();
-    gzis = new ArrayList<>();
-    dis = new ArrayList<>();
+    readers = new ArrayList<>();
     bufferSizes = new ArrayList<>();
 
     previous = null; // Heroic
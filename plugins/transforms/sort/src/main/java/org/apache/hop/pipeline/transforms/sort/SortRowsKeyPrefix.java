@@ -0,0 +1,149 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.hop.pipeline.transforms.sort;
+
+import java.util.Date;
+import org.apache.hop.core.row.IRowMeta;
+import org.apache.hop.core.row.IValueMeta;
+import org.apache.hop.core.row.value.ValueMetaBase;
+import org.apache.hop.core.row.value.ValueMetaBoolean;
+import org.apache.hop.core.row.value.ValueMetaDate;
+import org.apache.hop.core.row.value.ValueMetaInteger;
+import org.apache.hop.core.row.value.ValueMetaNumber;
+import org.apache.hop.core.row.value.ValueMetaString;
+
+/**
+ * Normalizes the first sort key of a row into a 64-bit prefix which sorts the same way as the value
+ * itself when compared as an unsigned long. During the merge two rows with different prefixes can
+ * be ordered without calling {@link IRowMeta#compare(Object[], Object[], int[])}. Rows with equal
+ * prefixes still need a full comparison: the prefix of a string only contains the first 4
+ * characters and null shares its prefix with the smallest possible value.
+ *
+ * <p>If the first key has a data type, sort option, trim type or custom comparator we can't
+ * normalize, every prefix is 0.
+ */
+public class SortRowsKeyPrefix {
+  private static final int KIND_NONE = 0;
+  private static final int KIND_INTEGER = 1;
+  private static final int KIND_NUMBER = 2;
+  private static final int KIND_DATE = 3;
+  private static final int KIND_BOOLEAN = 4;
+  private static final int KIND_STRING = 5;
+
+  private final int keyIndex;
+  private final int kind;
+  private final boolean descending;
+
+  public SortRowsKeyPrefix(IRowMeta rowMeta, int[] fieldNrs) {
+    if (fieldNrs == null || fieldNrs.length == 0) {
+      this.keyIndex = -1;
+      this.kind = KIND_NONE;
+      this.descending = false;
+      return;
+    }
+    this.keyIndex = fieldNrs[0];
+    IValueMeta valueMeta = rowMeta.getValueMeta(keyIndex);
+    this.kind = getKind(valueMeta);
+    this.descending = valueMeta.isSortedDescending();
+  }
+
+  private static int getKind(IValueMeta valueMeta) {
+    if (!valueMeta.isStorageNormal()) {
+      return KIND_NONE;
+    }
+    // The values are compared after trimming or with a custom comparator: not the raw value order.
+    //
+    if (valueMeta.getTrimType() != IValueMeta.TRIM_TYPE_NONE
+        || !(valueMeta instanceof ValueMetaBase valueMetaBase)
+        || valueMetaBase.getComparator() != null) {
+      return KIND_NONE;
+    }
+    // Only the standard value types: subclasses and plugins can compare differently.
+    //
+    Class<?> valueMetaClass = valueMeta.getClass();
+    if (valueMetaClass == ValueMetaInteger.class) {
+      return KIND_INTEGER;
+    }
+    if (valueMetaClass == ValueMetaNumber.class) {
+      return KIND_NUMBER;
+    }
+    if (valueMetaClass == ValueMetaDate.class) {
+      return KIND_DATE;
+    }
+    if (valueMetaClass == ValueMetaBoolean.class) {
+      return KIND_BOOLEAN;
+    }
+    if (valueMetaClass == ValueMetaString.class
+        && valueMeta.isCollatorDisabled()
+        && !valueMeta.isCaseInsensitive()
+        && !valueMeta.isIgnoreWhitespace()) {
+      return KIND_STRING;
+    }
+    return KIND_NONE;
+  }
+
+  /**
+   * @return true if the prefixes can order rows, false if every prefix is 0
+   */
+  public boolean isEnabled() {
+    return kind != KIND_NONE;
+  }
+
+  /**
+   * Calculate the normalized prefix of the first key of the given row.
+   *
+   * @param row The row to calculate the prefix for
+   * @return The prefix, to be compared with {@link Long#compareUnsigned(long, long)}
+   */
+  public long getPrefix(Object[] row) {
+    if (kind == KIND_NONE) {
+      return 0L;
+    }
+    long prefix = normalize(row[keyIndex]);
+    return descending ? ~prefix : prefix;
+  }
+
+  private long normalize(Object value) {
+    if (value == null) {
+      return 0L;
+    }
+    switch (kind) {
+      case KIND_INTEGER:
+        return ((Long) value) ^ Long.MIN_VALUE;
+      case KIND_NUMBER:
+        long bits = Double.doubleToLongBits((Double) value);
+        return bits ^ ((bits >> 63) | Long.MIN_VALUE);
+      case KIND_DATE:
+        return ((Date) value).getTime() ^ Long.MIN_VALUE;
+      case KIND_BOOLEAN:
+        return Boolean.TRUE.equals(value) ? 2L : 1L;
+      case KIND_STRING:
+        String string = (String) value;
+        long prefix = 0L;
+        for (int i = 0; i < 4; i++) {
+          prefix <<= 16;
+          if (i < string.length()) {
+            prefix |= string.charAt(i);
+          }
+        }
+        return prefix;
+      default:
+        return 0L;
+    }
+  }
+}
@@ -0,0 +1,215 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.hop.pipeline.transforms.sort;
+
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.Date;
+import org.apache.hop.core.exception.HopException;
+import org.apache.hop.core.row.IRowMeta;
+import org.apache.hop.core.row.IValueMeta;
+import org.apache.hop.core.row.RowDataUtil;
+
+/**
+ * Compact binary encoding of the rows in the Sort Rows temporary files. The layout of the row is
+ * known up front so we only write a null bitmap followed by the non-null values: variable length
+ * integers, raw doubles and length-prefixed UTF-8 strings or bytes. Data types without a compact
+ * encoding are written with {@link IValueMeta#writeData(DataOutputStream, Object)}.
+ */
+public class SortRowsRowCodec {
+  private static final int ENCODING_DELEGATE = 0;
+  private static final int ENCODING_STRING = 1;
+  private static final int ENCODING_INTEGER = 2;
+  private static final int ENCODING_NUMBER = 3;
+  private static final int ENCODING_DATE = 4;
+  private static final int ENCODING_BOOLEAN = 5;
+  private static final int ENCODING_BYTES = 6;
+
+  private final IRowMeta rowMeta;
+  private final int[] encodings;
+  private final int bitmapLength;
+
+  public SortRowsRowCodec(IRowMeta rowMeta) {
+    this.rowMeta = rowMeta;
+    this.encodings = new int[rowMeta.size()];
+    for (int i = 0; i < encodings.length; i++) {
+      encodings[i] = getEncoding(rowMeta.getValueMeta(i));
+    }
+    this.bitmapLength = (encodings.length + 7) / 8;
+  }
+
+  private static int getEncoding(IValueMeta valueMeta) {
+    if (valueMeta.isStorageBinaryString()) {
+      return ENCODING_BYTES;
+    }
+    if (!valueMeta.isStorageNormal()) {
+      return ENCODING_DELEGATE;
+    }
+    switch (valueMeta.getType()) {
+      case IValueMeta.TYPE_STRING:
+        return ENCODING_STRING;
+      case IValueMeta.TYPE_INTEGER:
+        return ENCODING_INTEGER;
+      case IValueMeta.TYPE_NUMBER:
+        return ENCODING_NUMBER;
+      case IValueMeta.TYPE_DATE:
+        return ENCODING_DATE;
+      case IValueMeta.TYPE_BOOLEAN:
+        return ENCODING_BOOLEAN;
+      case IValueMeta.TYPE_BINARY:
+        return ENCODING_BYTES;
+      default:
+        return ENCODING_DELEGATE;
+    }
+  }
+
+  /**
+   * Write a row to the output stream.
+   *
+   * @param outputStream The stream to write to
+   * @param row The row to write
+   * @throws HopException In case of an I/O or serialization error
+   */
+  public void writeRow(DataOutputStream outputStream, Object[] row) throws HopException {
+    try {
+      byte[] nulls = new byte[bitmapLength];
+      for (int i = 0; i < encodings.length; i++) {
+        if (row[i] == null) {
+          nulls[i >> 3] |= (byte) (1 << (i & 7));
+        }
+      }
+      outputStream.write(nulls);
+
+      for (int i = 0; i < encodings.length; i++) {
+        Object value = row[i];
+        if (value == null) {
+          continue;
+        }
+        switch (encodings[i]) {
+          case ENCODING_STRING:
+            writeBytes(outputStream, ((String) value).getBytes(StandardCharsets.UTF_8));
+            break;
+          case ENCODING_INTEGER:
+            writeVarLong(outputStream, (Long) value);
+            break;
+          case ENCODING_NUMBER:
+            outputStream.writeDouble((Double) value);
+            break;
+          case ENCODING_DATE:
+            writeVarLong(outputStream, ((Date) value).getTime());
+            break;
+          case ENCODING_BOOLEAN:
+            outputStream.writeBoolean((Boolean) value);
+            break;
+          case ENCODING_BYTES:
+            writeBytes(outputStream, (byte[]) value);
+            break;
+          default:
+            rowMeta.getValueMeta(i).writeData(outputStream, value);
+            break;
+        }
+      }
+    } catch (IOException e) {
+      throw new HopException("Unable to write row to temporary sort file", e);
+    }
+  }
+
+  /**
+   * Read a row from the input stream.
+   *
+   * @param inputStream The stream to read from
+   * @return The row
+   * @throws HopException In case of an I/O or de-serialization error
+   */
+  public Object[] readRow(DataInputStream inputStream) throws HopException {
+    try {
+      byte[] nulls = new byte[bitmapLength];
+      inputStream.readFully(nulls);
+
+      Object[] row = RowDataUtil.allocateRowData(encodings.length);
+      for (int i = 0; i < encodings.length; i++) {
+        if ((nulls[i >> 3] & (1 << (i & 7))) != 0) {
+          continue;
+        }
+        switch (encodings[i]) {
+          case ENCODING_STRING:
+            row[i] = new String(readBytes(inputStream), StandardCharsets.UTF_8);
+            break;
+          case ENCODING_INTEGER:
+            row[i] = readVarLong(inputStream);
+            break;
+          case ENCODING_NUMBER:
+            row[i] = inputStream.readDouble();
+            break;
+          case ENCODING_DATE:
+            row[i] = new Date(readVarLong(inputStream));
+            break;
+          case ENCODING_BOOLEAN:
+            row[i] = inputStream.readBoolean();
+            break;
+          case ENCODING_BYTES:
+            row[i] = readBytes(inputStream);
+            break;
+          default:
+            row[i] = rowMeta.getValueMeta(i).readData(inputStream);
+            break;
+        }
+      }
+      return row;
+    } catch (IOException e) {
+      throw new HopException("Unable to read row from temporary sort file", e);
+    }
+  }
+
+  private static void writeBytes(DataOutputStream outputStream, byte[] bytes) throws IOException {
+    writeVarLong(outputStream, bytes.length);
+    outputStream.write(bytes);
+  }
+
+  private static byte[] readBytes(DataInputStream inputStream) throws IOException {
+    byte[] bytes = new byte[(int) readVarLong(inputStream)];
+    inputStream.readFully(bytes);
+    return bytes;
+  }
+
+  /** Zig-zag encoded variable length long: small positive and negative values take few bytes. */
+  static void writeVarLong(DataOutputStream outputStream, long value) throws IOException {
+    long zigzag = (value << 1) ^ (value >> 63);
+    while ((zigzag & ~0x7FL) != 0) {
+      outputStream.writeByte((int) ((zigzag & 0x7F) | 0x80));
+      zigzag >>>= 7;
+    }
+    outputStream.writeByte((int) zigzag);
+  }
+
+  static long readVarLong(DataInputStream inputStream) throws IOException {
+    long zigzag = 0;
+    int shift = 0;
+    while (true) {
+      int b = inputStream.readUnsignedByte();
+      zigzag |= (long) (b & 0x7F) << shift;
+      if ((b & 0x80) == 0) {
+        break;
+      }
+      shift += 7;
+    }
+    return (zigzag >>> 1) ^ -(zigzag & 1);
+  }
+}
@@ -0,0 +1,187 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.hop.pipeline.transforms.sort;
+
+import java.io.BufferedInputStream;
+import java.io.ByteArrayInputStream;
+import java.io.Closeable;
+import java.io.DataInputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+import org.apache.commons.vfs2.FileObject;
+import org.apache.hop.core.exception.HopException;
+import org.apache.hop.core.vfs.HopVfs;
+import org.xerial.snappy.Snappy;
+
+/**
+ * Reads the rows of a sorted temporary file back during the merge phase. The file is read one block
+ * at a time (see {@link SortRowsTempFileWriter}) and the next block is already read and decoded in
+ * the background while the merge consumes the current one.
+ */
+public class SortRowsTempFileReader implements Closeable {
+
+  /**
+   * The size of the read buffer. One reader per temporary file is open during the merge so keep it
+   * small, the next block is read ahead anyway.
+   */
+  private static final int BUFFER_SIZE = 50000;
+
+  private final FileObject fileObject;
+  private final SortRowsRowCodec codec;
+  private final boolean compressed;
+  private final ExecutorService executor;
+  private final InputStream inputStream;
+  private final DataInputStream dataInputStream;
+
+  private Block block;
+  private int blockIndex;
+  private Future<Block> nextBlock;
+  private long keyPrefix;
+
+  public SortRowsTempFileReader(
+      FileObject fileObject, SortRowsRowCodec codec, boolean compressed, ExecutorService executor)
+      throws HopException {
+    this.fileObject = fileObject;
+    this.codec = codec;
+    this.compressed = compressed;
+    this.executor = executor;
+    try {
+      this.inputStream = HopVfs.getInputStream(fileObject);
+      this.dataInputStream = new DataInputStream(new BufferedInputStream(inputStream, BUFFER_SIZE));
+    } catch (IOException e) {
+      throw new HopException("Unable to open temporary sort file " + fileObject, e);
+    }
+    this.block = Block.EMPTY;
+    this.blockIndex = 0;
+    this.nextBlock = executor.submit(this::readBlock);
+  }
+
+  /**
+   * Get the next row from the file.
+   *
+   * @return the next row or null if all rows in the file were read.
+   * @throws HopException in case there was an error reading from the file
+   */
+  public Object[] next() throws HopException {
+    if (blockIndex >= block.rows.length) {
+      if (nextBlock == null) {
+        return null;
+      }
+      try {
+        block = nextBlock.get();
+      } catch (InterruptedException e) {
+        Thread.currentThread().interrupt();
+        throw new HopException("Interrupted while reading temporary sort file " + fileObject, e);
+      } catch (ExecutionException e) {
+        throw new HopException("Error reading temporary sort file " + fileObject, e.getCause());
+      }
+      blockIndex = 0;
+      if (block == null) {
+        // End of the file
+        nextBlock = null;
+        block = Block.EMPTY;
+        return null;
+      }
+      nextBlock = executor.submit(this::readBlock);
+    }
+    keyPrefix = block.keyPrefixes[blockIndex];
+    return block.rows[blockIndex++];
+  }
+
+  /**
+   * @return The normalized key prefix of the last row returned by {@link #next()}
+   */
+  public long getKeyPrefix() {
+    return keyPrefix;
+  }
+
+  /**
+   * Read and decode the next block in the file.
+   *
+   * @return the block or null at the end of the file
+   */
+  private Block readBlock() throws IOException, HopException {
+    int nrRows;
+    try {
+      nrRows = dataInputStream.readInt();
+    } catch (EOFException e) {
+      return null;
+    }
+    int rawLength = dataInputStream.readInt();
+    int storedLength = dataInputStream.readInt();
+    byte[] stored = new byte[storedLength];
+    dataInputStream.readFully(stored);
+
+    byte[] raw;
+    if (compressed) {
+      raw = new byte[rawLength];
+      Snappy.uncompress(stored, 0, storedLength, raw, 0);
+    } else {
+      raw = stored;
+    }
+
+    DataInputStream rowInputStream = new DataInputStream(new ByteArrayInputStream(raw));
+    Block result = new Block(nrRows);
+    for (int i = 0; i < nrRows; i++) {
+      result.keyPrefixes[i] = rowInputStream.readLong();
+      result.rows[i] = codec.readRow(rowInputStream);
+    }
+    return result;
+  }
+
+  @Override
+  public void close() throws IOException {
+    if (nextBlock != null) {
+      // Don't close the stream underneath a running read
+      //
+      try {
+        nextBlock.get();
+      } catch (Exception e) {
+        // We're closing, ignore errors from the read
+      }
+      nextBlock = null;
+    }
+    dataInputStream.close();
+    inputStream.close();
+  }
+
+  /**
+   * Gets fileObject
+   *
+   * @return value of fileObject
+   */
+  public FileObject getFileObject() {
+    return fileObject;
+  }
+
+  private static class Block {
+    static final Block EMPTY = new Block(0);
+
+    final long[] keyPrefixes;
+    final Object[][] rows;
+
+    Block(int nrRows) {
+      this.keyPrefixes = new long[nrRows];
+      this.rows = new Object[nrRows][];
+    }
+  }
+}
@@ -0,0 +1,127 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.hop.pipeline.transforms.sort;
+
+import java.io.BufferedOutputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.Closeable;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import org.apache.hop.core.exception.HopException;
+import org.xerial.snappy.Snappy;
+
+/**
+ * Writes sorted rows to a temporary file in blocks. Every block starts with a header of 3 integers:
+ * the number of rows, the uncompressed length and the stored length of the block. The rows in a
+ * block are written as the normalized key prefix (see {@link SortRowsKeyPrefix}) followed by the
+ * row encoded with {@link SortRowsRowCodec}. When compression is enabled every block is compressed
+ * separately with Snappy.
+ */
+public class SortRowsTempFileWriter implements Closeable {
+
+  /** Once the uncompressed size of a block passes this size (in bytes) the block is written */
+  public static final int BLOCK_SIZE = 128 * 1024;
+
+  private final DataOutputStream fileOutputStream;
+  private final SortRowsRowCodec codec;
+  private final SortRowsKeyPrefix keyPrefix;
+  private final boolean compressed;
+
+  private final BlockBuffer block;
+  private final DataOutputStream blockOutputStream;
+  private int rowsInBlock;
+  private byte[] compressBuffer;
+
+  public SortRowsTempFileWriter(
+      OutputStream outputStream,
+      SortRowsRowCodec codec,
+      SortRowsKeyPrefix keyPrefix,
+      boolean compressed) {
+    this.fileOutputStream = new DataOutputStream(new BufferedOutputStream(outputStream, 500000));
+    this.codec = codec;
+    this.keyPrefix = keyPrefix;
+    this.compressed = compressed;
+    this.block = new BlockBuffer(BLOCK_SIZE + BLOCK_SIZE / 4);
+    this.blockOutputStream = new DataOutputStream(block);
+    this.rowsInBlock = 0;
+  }
+
+  /**
+   * Add a row to the file.
+   *
+   * @param row The row to write
+   * @throws HopException In case of an I/O or serialization error
+   */
+  public void writeRow(Object[] row) throws HopException {
+    try {
+      blockOutputStream.writeLong(keyPrefix.getPrefix(row));
+      codec.writeRow(blockOutputStream, row);
+      rowsInBlock++;
+      if (block.size() >= BLOCK_SIZE) {
+        writeBlock();
+      }
+    } catch (IOException e) {
+      throw new HopException("Unable to write to temporary sort file", e);
+    }
+  }
+
+  private void writeBlock() throws IOException {
+    if (rowsInBlock == 0) {
+      return;
+    }
+    blockOutputStream.flush();
+    int rawLength = block.size();
+    fileOutputStream.writeInt(rowsInBlock);
+    fileOutputStream.writeInt(rawLength);
+    if (compressed) {
+      int maxLength = Snappy.maxCompressedLength(rawLength);
+      if (compressBuffer == null || compressBuffer.length < maxLength) {
+        compressBuffer = new byte[maxLength];
+      }
+      int storedLength = Snappy.compress(block.getBuffer(), 0, rawLength, compressBuffer, 0);
+      fileOutputStream.writeInt(storedLength);
+      fileOutputStream.write(compressBuffer, 0, storedLength);
+    } else {
+      fileOutputStream.writeInt(rawLength);
+      fileOutputStream.write(block.getBuffer(), 0, rawLength);
+    }
+    block.reset();
+    rowsInBlock = 0;
+  }
+
+  @Override
+  public void close() throws IOException {
+    try {
+      writeBlock();
+    } finally {
+      fileOutputStream.close();
+    }
+  }
+
+  /** A byte array output stream which gives access to its buffer without copying it. */
+  static class BlockBuffer extends ByteArrayOutputStream {
+    BlockBuffer(int size) {
+      super(size);
+    }
+
+    byte[] getBuffer() {
+      return buf;
+    }
+  }
+}
@@ -0,0 +1,149 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.hop.pipeline.transforms.sort;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.math.BigDecimal;
+import java.util.Date;
+import org.apache.hop.core.row.IRowMeta;
+import org.apache.hop.core.row.IValueMeta;
+import org.apache.hop.core.row.RowMeta;
+import org.apache.hop.core.row.value.ValueMetaBigNumber;
+import org.apache.hop.core.row.value.ValueMetaBoolean;
+import org.apache.hop.core.row.value.ValueMetaDate;
+import org.apache.hop.core.row.value.ValueMetaInteger;
+import org.apache.hop.core.row.value.ValueMetaNumber;
+import org.apache.hop.core.row.value.ValueMetaString;
+import org.junit.Test;
+
+public class SortRowsRowCodecTest {
+
+  private IRowMeta createRowMeta() {
+    IRowMeta rowMeta = new RowMeta();
+    rowMeta.addValueMeta(new ValueMetaString("string"));
+    rowMeta.addValueMeta(new ValueMetaInteger("integer"));
+    rowMeta.addValueMeta(new ValueMetaNumber("number"));
+    rowMeta.addValueMeta(new ValueMetaDate("date"));
+    rowMeta.addValueMeta(new ValueMetaBoolean("boolean"));
+    rowMeta.addValueMeta(new ValueMetaBigNumber("bignumber"));
+    return rowMeta;
+  }
+
+  @Test
+  public void testRoundTrip() throws Exception {
+    IRowMeta rowMeta = createRowMeta();
+    SortRowsRowCodec codec = new SortRowsRowCodec(rowMeta);
+
+    Object[] row1 =
+        new Object[] {
+          "Hop éè", -123456789L, 3.14, new Date(1234567890L), true, new BigDecimal("1.5")
+        };
+    Object[] row2 = new Object[] {null, null, null, null, null, null};
+
+    ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+    DataOutputStream outputStream = new DataOutputStream(bytes);
+    codec.writeRow(outputStream, row1);
+    codec.writeRow(outputStream, row2);
+    outputStream.flush();
+
+    DataInputStream inputStream =
+        new DataInputStream(new ByteArrayInputStream(bytes.toByteArray()));
+    Object[] read1 = codec.readRow(inputStream);
+    Object[] read2 = codec.readRow(inputStream);
+
+    for (int i = 0; i < row1.length; i++) {
+      assertEquals(row1[i], read1[i]);
+      assertNull(read2[i]);
+    }
+  }
+
+  @Test
+  public void testVarLong() throws Exception {
+    long[] values = {0L, 1L, -1L, 63L, -64L, 1L << 40, Long.MIN_VALUE, Long.MAX_VALUE};
+    ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+    DataOutputStream outputStream = new DataOutputStream(bytes);
+    for (long value : values) {
+      SortRowsRowCodec.writeVarLong(outputStream, value);
+    }
+    DataInputStream inputStream =
+        new DataInputStream(new ByteArrayInputStream(bytes.toByteArray()));
+    long[] read = new long[values.length];
+    for (int i = 0; i < values.length; i++) {
+      read[i] = SortRowsRowCodec.readVarLong(inputStream);
+    }
+    assertArrayEquals(values, read);
+  }
+
+  @Test
+  public void testKeyPrefixOrder() throws Exception {
+    IRowMeta rowMeta = createRowMeta();
+    int[] fieldNrs = {1};
+    SortRowsKeyPrefix keyPrefix = new SortRowsKeyPrefix(rowMeta, fieldNrs);
+    assertTrue(keyPrefix.isEnabled());
+
+    long[] values = {Long.MIN_VALUE + 1, -5L, 0L, 7L, Long.MAX_VALUE};
+    for (int i = 1; i < values.length; i++) {
+      Object[] smaller = new Object[] {null, values[i - 1], null, null, null, null};
+      Object[] larger = new Object[] {null, values[i], null, null, null, null};
+      assertTrue(
+          Long.compareUnsigned(keyPrefix.getPrefix(smaller), keyPrefix.getPrefix(larger)) < 0);
+    }
+
+    // Null sorts first
+    Object[] nullRow = new Object[] {null, null, null, null, null, null};
+    Object[] valueRow = new Object[] {null, -5L, null, null, null, null};
+    assertTrue(
+        Long.compareUnsigned(keyPrefix.getPrefix(nullRow), keyPrefix.getPrefix(valueRow)) < 0);
+
+    // Strings: only the first characters are taken into account
+    SortRowsKeyPrefix stringPrefix = new SortRowsKeyPrefix(rowMeta, new int[] {0});
+    Object[] a = new Object[] {"abc", null, null, null, null, null};
+    Object[] b = new Object[] {"abd", null, null, null, null, null};
+    Object[] c = new Object[] {"abcdX", null, null, null, null, null};
+    Object[] d = new Object[] {"abcdY", null, null, null, null, null};
+    assertTrue(Long.compareUnsigned(stringPrefix.getPrefix(a), stringPrefix.getPrefix(b)) < 0);
+    assertEquals(stringPrefix.getPrefix(c), stringPrefix.getPrefix(d));
+  }
+
+  @Test
+  public void testKeyPrefixDisabledForTrimmedKeysAndComparators() {
+    for (int trimType :
+        new int[] {
+          IValueMeta.TRIM_TYPE_LEFT, IValueMeta.TRIM_TYPE_RIGHT, IValueMeta.TRIM_TYPE_BOTH
+        }) {
+      IRowMeta rowMeta = createRowMeta();
+      rowMeta.getValueMeta(0).setTrimType(trimType);
+      rowMeta.getValueMeta(1).setTrimType(trimType);
+      assertFalse(new SortRowsKeyPrefix(rowMeta, new int[] {0}).isEnabled());
+      assertFalse(new SortRowsKeyPrefix(rowMeta, new int[] {1}).isEnabled());
+    }
+
+    IRowMeta rowMeta = new RowMeta();
+    rowMeta.addValueMeta(new ValueMetaString("string", (o1, o2) -> 0));
+    assertFalse(new SortRowsKeyPrefix(rowMeta, new int[] {0}).isEnabled());
+  }
+}
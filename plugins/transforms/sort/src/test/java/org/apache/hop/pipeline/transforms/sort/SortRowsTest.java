@@ -0,0 +1,267 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.hop.pipeline.transforms.sort;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.when;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Random;
+import org.apache.hop.core.Const;
+import org.apache.hop.core.HopEnvironment;
+import org.apache.hop.core.IRowSet;
+import org.apache.hop.core.QueueRowSet;
+import org.apache.hop.core.exception.HopException;
+import org.apache.hop.core.logging.ILoggingObject;
+import org.apache.hop.core.row.IRowMeta;
+import org.apache.hop.core.row.IValueMeta;
+import org.apache.hop.core.row.RowMeta;
+import org.apache.hop.core.row.value.ValueMetaInteger;
+import org.apache.hop.core.row.value.ValueMetaString;
+import org.apache.hop.junit.rules.RestoreHopEngineEnvironment;
+import org.apache.hop.pipeline.transform.RowAdapter;
+import org.apache.hop.pipeline.transforms.mock.TransformMockHelper;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.BeforeClass;
+import org.junit.ClassRule;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+public class SortRowsTest {
+  @ClassRule public static RestoreHopEngineEnvironment env = new RestoreHopEngineEnvironment();
+
+  @Rule public TemporaryFolder temporaryFolder = new TemporaryFolder();
+
+  private TransformMockHelper<SortRowsMeta, SortRowsData> smh;
+
+  /** The largest number of temporary files used while passing the sorted rows */
+  private int maxFiles;
+
+  @BeforeClass
+  public static void init() throws HopException {
+    HopEnvironment.init();
+  }
+
+  @Before
+  public void setUp() {
+    smh = new TransformMockHelper<>("Sort rows", SortRowsMeta.class, SortRowsData.class);
+    when(smh.logChannelFactory.create(any(), any(ILoggingObject.class)))
+        .thenReturn(smh.iLogChannel);
+    when(smh.pipeline.isRunning()).thenReturn(true);
+    maxFiles = 0;
+  }
+
+  @After
+  public void cleanUp() {
+    smh.cleanUp();
+  }
+
+  private IRowMeta createRowMeta() {
+    IRowMeta rowMeta = new RowMeta();
+    rowMeta.addValueMeta(new ValueMetaInteger("group"));
+    rowMeta.addValueMeta(new ValueMetaString("name"));
+    rowMeta.addValueMeta(new ValueMetaInteger("id"));
+    return rowMeta;
+  }
+
+  /**
+   * @param groups The number of groups, the rows come sorted by group
+   * @param rowsPerGroup The number of rows in every group
+   */
+  private List<Object[]> createRows(int groups, int rowsPerGroup) {
+    Random random = new Random(42);
+    List<Object[]> rows = new ArrayList<>();
+    long id = 0;
+    for (long group = 0; group < groups; group++) {
+      for (int i = 0; i < rowsPerGroup; i++) {
+        String name = "name-" + random.nextInt(rowsPerGroup / 4);
+        rows.add(new Object[] {group, name, id++});
+      }
+    }
+    return rows;
+  }
+
+  private SortRowsMeta createMeta(String sortSize, SortRowsField... sortFields) {
+    SortRowsMeta meta = new SortRowsMeta();
+    meta.setDefault();
+    meta.setDirectory(temporaryFolder.getRoot().getAbsolutePath());
+    meta.setPrefix("sort");
+    meta.setSortSize(sortSize);
+    meta.setSortFields(new ArrayList<>(List.of(sortFields)));
+    return meta;
+  }
+
+  private List<Object[]> sortRows(SortRowsMeta meta, IRowMeta rowMeta, List<Object[]> rows)
+      throws HopException {
+    IRowSet inputRowSet = new QueueRowSet();
+    for (Object[] row : rows) {
+      inputRowSet.putRow(rowMeta, row);
+    }
+    inputRowSet.setDone();
+
+    SortRowsData data = new SortRowsData();
+    SortRows sortRows =
+        new SortRows(smh.transformMeta, meta, data, 0, smh.pipelineMeta, smh.pipeline);
+    sortRows.addRowSetToInputRowSets(inputRowSet);
+    assertTrue(sortRows.init());
+
+    List<Object[]> output = new ArrayList<>();
+    sortRows.addRowListener(
+        new RowAdapter() {
+          @Override
+          public void rowWrittenEvent(IRowMeta rowMeta, Object[] row) {
+            maxFiles = Math.max(maxFiles, data.files.size());
+            output.add(row);
+          }
+        });
+    while (sortRows.processRow()) {
+      // Keep on sorting
+    }
+    sortRows.dispose();
+    return output;
+  }
+
+  private static List<Object> values(List<Object[]> rows, int index) {
+    List<Object> values = new ArrayList<>();
+    for (Object[] row : rows) {
+      values.add(row[index]);
+    }
+    return values;
+  }
+
+  private void assertAllFilesDeleted() {
+    String[] files = temporaryFolder.getRoot().list();
+    assertEquals(0, files == null ? 0 : files.length);
+  }
+
+  @Test
+  public void testSortOverSeveralTempFiles() throws Exception {
+    IRowMeta rowMeta = createRowMeta();
+    List<Object[]> rows = createRows(1, 1000);
+    SortRowsMeta meta =
+        createMeta(
+            "100",
+            new SortRowsField("name", true, true, false, 0, false),
+            new SortRowsField("id", false, true, false, 0, false));
+
+    List<Object[]> output = sortRows(meta, rowMeta, rows);
+
+    assertTrue("The rows should be spilled to several files", maxFiles > 1);
+    List<Object[]> expected = new ArrayList<>(rows);
+    expected.sort(
+        Comparator.comparing((Object[] row) -> (String) row[1])
+            .thenComparing(row -> (Long) row[2], Comparator.reverseOrder()));
+    assertEquals(values(expected, 2), values(output, 2));
+    assertAllFilesDeleted();
+  }
+
+  @Test
+  public void testGroupSortOverSeveralTempFiles() throws Exception {
+    IRowMeta rowMeta = createRowMeta();
+    List<Object[]> rows = createRows(3, 500);
+    SortRowsMeta meta =
+        createMeta(
+            "100",
+            new SortRowsField("group", true, true, false, 0, true),
+            new SortRowsField("name", true, true, false, 0, false),
+            new SortRowsField("id", true, true, false, 0, false));
+
+    List<Object[]> output = sortRows(meta, rowMeta, rows);
+
+    // Every group is sorted on its own, the files of a group are removed before the next one
+    //
+    assertTrue("The rows should be spilled to several files", maxFiles > 1);
+    assertTrue("The files of a group should not be merged again", maxFiles <= 6);
+    List<Object[]> expected = new ArrayList<>(rows);
+    expected.sort(
+        Comparator.comparing((Object[] row) -> (Long) row[0])
+            .thenComparing(row -> (String) row[1])
+            .thenComparing(row -> (Long) row[2]));
+    assertEquals(values(expected, 2), values(output, 2));
+    assertAllFilesDeleted();
+  }
+
+  @Test
+  public void testSortWithSortSizeAndMemoryLimit() throws Exception {
+    IRowMeta rowMeta = createRowMeta();
+    List<Object[]> rows = createRows(1, 2000);
+    SortRowsMeta meta =
+        createMeta(
+            "300",
+            new SortRowsField("name", true, true, false, 0, false),
+            new SortRowsField("id", true, true, false, 0, false));
+    meta.setFreeMemoryLimit("1");
+
+    List<Object[]> output = sortRows(meta, rowMeta, rows);
+
+    assertTrue("The rows should be spilled to several files", maxFiles > 1);
+    List<Object[]> expected = new ArrayList<>(rows);
+    expected.sort(
+        Comparator.comparing((Object[] row) -> (String) row[1])
+            .thenComparing(row -> (Long) row[2]));
+    assertEquals(values(expected, 2), values(output, 2));
+    assertAllFilesDeleted();
+  }
+
+  @Test
+  public void testSortTrimmedKeysOverSeveralTempFiles() throws Exception {
+    String[] words = {"a", "a\tb", "ab", "b", "ba", "c"};
+    String[] paddings = {"", " ", "  "};
+    for (int trimType :
+        new int[] {
+          IValueMeta.TRIM_TYPE_LEFT, IValueMeta.TRIM_TYPE_RIGHT, IValueMeta.TRIM_TYPE_BOTH
+        }) {
+      IRowMeta rowMeta = createRowMeta();
+      rowMeta.getValueMeta(1).setTrimType(trimType);
+
+      // Padded keys: the raw values sort differently from the trimmed ones
+      //
+      Random random = new Random(trimType);
+      List<Object[]> rows = new ArrayList<>();
+      for (long id = 0; id < 1000; id++) {
+        String name =
+            paddings[random.nextInt(paddings.length)]
+                + words[random.nextInt(words.length)]
+                + paddings[random.nextInt(paddings.length)];
+        rows.add(new Object[] {0L, name, id});
+      }
+      SortRowsMeta meta =
+          createMeta(
+              "100",
+              new SortRowsField("name", true, true, false, 0, false),
+              new SortRowsField("id", true, true, false, 0, false));
+
+      maxFiles = 0;
+      List<Object[]> output = sortRows(meta, rowMeta, rows);
+
+      assertTrue("The rows should be spilled to several files", maxFiles > 1);
+      List<Object[]> expected = new ArrayList<>(rows);
+      expected.sort(
+          Comparator.comparing((Object[] row) -> Const.trimToType((String) row[1], trimType))
+              .thenComparing(row -> (Long) row[2]));
+      assertEquals("Trim type " + trimType, values(expected, 2), values(output, 2));
+      assertAllFilesDeleted();
+    }
+  }
+}
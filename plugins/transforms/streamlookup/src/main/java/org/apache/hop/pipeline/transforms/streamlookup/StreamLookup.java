@@ -17,15 +17,18 @@
 
 package org.apache.hop.pipeline.transforms.streamlookup;
 
+import java.io.IOException;
 import java.math.BigDecimal;
 import java.text.DateFormat;
 import java.util.Collections;
+import org.apache.hop.core.Const;
 import org.apache.hop.core.IRowSet;
 import org.apache.hop.core.RowMetaAndData;
 import org.apache.hop.core.exception.HopException;
 import org.apache.hop.core.exception.HopTransformException;
 import org.apache.hop.core.exception.HopValueException;
 import org.apache.hop.core.hash.ByteArrayHashIndex;
+import org.apache.hop.core.hash.OffHeapHashIndex;
 import org.apache.hop.core.row.IRowMeta;
 import org.apache.hop.core.row.IValueMeta;
 import org.apache.hop.core.row.RowDataUtil;
@@ -214,6 +217,15 @@ public class StreamLookup extends BaseTransform<StreamLookupMeta, StreamLookupDa
       rowData = getRowFrom(rowSet);
     }
 
+    if (data.offHeapIndex != null && data.offHeapIndex.isSpilled() && isBasic()) {
+      logBasic(
+          BaseMessages.getString(
+              PKG, "StreamLookup.Log.OffHeapIndexSpilled", meta.getOffHeapMemoryBudget()));
+    }
+    if (data.offHeapIndex != null && data.offHeapIndex.isDirectMemoryExhausted() && isBasic()) {
+      logBasic(BaseMessages.getString(PKG, "StreamLookup.Log.OffHeapIndexOnHeap"));
+    }
+
     return true;
   }
 
@@ -295,7 +307,7 @@ public class StreamLookup extends BaseTransform<StreamLookupMeta, StreamLookupDa
 
   private void addToCache(
       IRowMeta keyMeta, Object[] keyData, IRowMeta valueMeta, Object[] valueData)
-      throws HopValueException {
+      throws HopException {
     if (meta.isMemoryPreservationActive()) {
       if (meta.isUsingSortedList()) {
         KeyValue keyValue = new KeyValue(keyData, valueData);
@@ -324,6 +336,12 @@ public class StreamLookup extends BaseTransform<StreamLookupMeta, StreamLookupDa
           Long key = keyMeta.getInteger(keyData, 0);
           Long value = valueMeta.getInteger(valueData, 0);
           data.longIndex.put(key, value);
+        } else if (meta.isUsingOffHeapIndex()) {
+          if (data.offHeapIndex == null) {
+            long budget = Const.toLong(resolve(meta.getOffHeapMemoryBudget()), 512L);
+            data.offHeapIndex = new OffHeapHashIndex(keyMeta, valueMeta, budget * 1024 * 1024);
+          }
+          data.offHeapIndex.put(keyData, valueData);
         } else {
           if (data.hashIndex == null) {
             data.hashIndex = new ByteArrayHashIndex(keyMeta);
@@ -339,7 +357,7 @@ public class StreamLookup extends BaseTransform<StreamLookupMeta, StreamLookupDa
     }
   }
 
-  private Object[] getFromCache(IRowMeta keyMeta, Object[] keyData) throws HopValueException {
+  private Object[] getFromCache(IRowMeta keyMeta, Object[] keyData) throws HopException {
     if (meta.isMemoryPreservationActive()) {
       if (meta.isUsingSortedList()) {
         KeyValue keyValue = new KeyValue(keyData, null);
@@ -359,6 +377,8 @@ public class StreamLookup extends BaseTransform<StreamLookupMeta, StreamLookupDa
           return new Object[] {
             value,
           };
+        } else if (meta.isUsingOffHeapIndex()) {
+          return data.offHeapIndex.get(keyData);
         } else {
           try {
             byte[] value = data.hashIndex.get(RowMeta.extractData(keyMeta, keyData));
@@ -498,6 +518,14 @@ public class StreamLookup extends BaseTransform<StreamLookupMeta, StreamLookupDa
     data.list = null;
     data.hashIndex = null;
     data.longIndex = null;
+    if (data.offHeapIndex != null) {
+      try {
+        data.offHeapIndex.close();
+      } catch (IOException e) {
+        logError("Error closing the off-heap hash index", e);
+      }
+      data.offHeapIndex = null;
+    }
 
     super.dispose();
   }
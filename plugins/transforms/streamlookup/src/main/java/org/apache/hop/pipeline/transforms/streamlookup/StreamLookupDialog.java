@@ -36,6 +36,7 @@ import org.apache.hop.ui.core.dialog.ErrorDialog;
 import org.apache.hop.ui.core.dialog.MessageBox;
 import org.apache.hop.ui.core.widget.ColumnInfo;
 import org.apache.hop.ui.core.widget.TableView;
+import org.apache.hop.ui.core.widget.TextVar;
 import org.apache.hop.ui.pipeline.transform.BaseTransformDialog;
 import org.eclipse.swt.SWT;
 import org.eclipse.swt.events.ModifyListener;
@@ -64,6 +65,10 @@ public class StreamLookupDialog extends BaseTransformDialog {
 
   private Button wIntegerPair;
 
+  private Button wOffHeapIndex;
+
+  private TextVar wOffHeapMemoryBudget;
+
   private final StreamLookupMeta input;
 
   private ColumnInfo[] ciKey;
@@ -211,12 +216,53 @@ public class StreamLookupDialog extends BaseTransformDialog {
     fdKey.bottom = new FormAttachment(wlKey, (int) (props.getZoomFactor() * 120));
     wKey.setLayoutData(fdKey);
 
+    Label wlOffHeapMemoryBudget = new Label(shell, SWT.RIGHT);
+    wlOffHeapMemoryBudget.setText(
+        BaseMessages.getString(PKG, "StreamLookupDialog.OffHeapMemoryBudget.Label"));
+    PropsUi.setLook(wlOffHeapMemoryBudget);
+    FormData fdlOffHeapMemoryBudget = new FormData();
+    fdlOffHeapMemoryBudget.left = new FormAttachment(0, 0);
+    fdlOffHeapMemoryBudget.bottom = new FormAttachment(wOk, -2 * margin);
+    fdlOffHeapMemoryBudget.right = new FormAttachment(middle, -margin);
+    wlOffHeapMemoryBudget.setLayoutData(fdlOffHeapMemoryBudget);
+    wOffHeapMemoryBudget = new TextVar(variables, shell, SWT.SINGLE | SWT.LEFT | SWT.BORDER);
+    wOffHeapMemoryBudget.setToolTipText(
+        BaseMessages.getString(PKG, "StreamLookupDialog.OffHeapMemoryBudget.Tooltip"));
+    wOffHeapMemoryBudget.setEnabled(false);
+    PropsUi.setLook(wOffHeapMemoryBudget);
+    FormData fdOffHeapMemoryBudget = new FormData();
+    fdOffHeapMemoryBudget.left = new FormAttachment(middle, 0);
+    fdOffHeapMemoryBudget.top = new FormAttachment(wlOffHeapMemoryBudget, 0, SWT.CENTER);
+    fdOffHeapMemoryBudget.right = new FormAttachment(100, 0);
+    wOffHeapMemoryBudget.setLayoutData(fdOffHeapMemoryBudget);
+    wOffHeapMemoryBudget.addModifyListener(lsMod);
+
+    Label wlOffHeapIndex = new Label(shell, SWT.RIGHT);
+    wlOffHeapIndex.setText(BaseMessages.getString(PKG, "StreamLookupDialog.OffHeapIndex.Label"));
+    PropsUi.setLook(wlOffHeapIndex);
+    FormData fdlOffHeapIndex = new FormData();
+    fdlOffHeapIndex.left = new FormAttachment(0, 0);
+    fdlOffHeapIndex.bottom = new FormAttachment(wOffHeapMemoryBudget, -margin);
+    fdlOffHeapIndex.right = new FormAttachment(middle, -margin);
+    wlOffHeapIndex.setLayoutData(fdlOffHeapIndex);
+    wOffHeapIndex = new Button(shell, SWT.RADIO);
+    wOffHeapIndex.setToolTipText(
+        BaseMessages.getString(PKG, "StreamLookupDialog.OffHeapIndex.Tooltip"));
+    wOffHeapIndex.setEnabled(false);
+    PropsUi.setLook(wOffHeapIndex);
+    FormData fdOffHeapIndex = new FormData();
+    fdOffHeapIndex.left = new FormAttachment(middle, 0);
+    fdOffHeapIndex.top = new FormAttachment(wlOffHeapIndex, 0, SWT.CENTER);
+    fdOffHeapIndex.right = new FormAttachment(100, 0);
+    wOffHeapIndex.setLayoutData(fdOffHeapIndex);
+    wOffHeapIndex.addListener(SWT.Selection, e -> input.setChanged());
+
     Label wlSortedList = new Label(shell, SWT.RIGHT);
     wlSortedList.setText(BaseMessages.getString(PKG, "StreamLookupDialog.SortedList.Label"));
     PropsUi.setLook(wlSortedList);
     FormData fdlSortedList = new FormData();
     fdlSortedList.left = new FormAttachment(0, 0);
-    fdlSortedList.bottom = new FormAttachment(wOk, -2 * margin);
+    fdlSortedList.bottom = new FormAttachment(wOffHeapIndex, -margin);
     fdlSortedList.right = new FormAttachment(middle, -margin);
     wlSortedList.setLayoutData(fdlSortedList);
     wSortedList = new Button(shell, SWT.RADIO);
@@ -272,6 +318,8 @@ public class StreamLookupDialog extends BaseTransformDialog {
           boolean selection = wPreserveMemory.getSelection();
           wSortedList.setEnabled(selection);
           wIntegerPair.setEnabled(selection);
+          wOffHeapIndex.setEnabled(selection);
+          wOffHeapMemoryBudget.setEnabled(selection);
         });
 
     // THE UPDATE/INSERT TABLE
@@ -440,12 +488,16 @@ public class StreamLookupDialog extends BaseTransformDialog {
     if (isPreserveMemory) {
       wSortedList.setEnabled(true);
       wIntegerPair.setEnabled(true);
+      wOffHeapIndex.setEnabled(true);
+      wOffHeapMemoryBudget.setEnabled(true);
     }
     // usually this is sorted list or integer pair
     // for backward compatibility they can be set both
     // but user will be forced to choose only one option later.
     wSortedList.setSelection(input.isUsingSortedList());
     wIntegerPair.setSelection(input.isUsingIntegerPair());
+    wOffHeapIndex.setSelection(input.isUsingOffHeapIndex());
+    wOffHeapMemoryBudget.setText(Const.NVL(input.getOffHeapMemoryBudget(), ""));
 
     wKey.setRowNums();
     wKey.optWidth(true);
@@ -473,6 +525,8 @@ public class StreamLookupDialog extends BaseTransformDialog {
     input.setMemoryPreservationActive(wPreserveMemory.getSelection());
     input.setUsingSortedList(wSortedList.getSelection());
     input.setUsingIntegerPair(wIntegerPair.getSelection());
+    input.setUsingOffHeapIndex(wOffHeapIndex.getSelection());
+    input.setOffHeapMemoryBudget(wOffHeapMemoryBudget.getText());
 
     if (log.isDebug()) {
       logDebug(BaseMessages.getString(PKG, "StreamLookupDialog.Log.FoundKeys", nrkeys + ""));
@@ -97,6 +97,14 @@ public class StreamLookupMeta extends BaseTransformMeta<StreamLookup, StreamLook
   @Injection(name = "INTEGER_PAIR")
   private boolean usingIntegerPair;
 
+  /** Store the serialized keys and values in an off-heap hash index */
+  @Injection(name = "OFF_HEAP_INDEX")
+  private boolean usingOffHeapIndex;
+
+  /** The memory budget of the off-heap index in MB, after which it spills to a mapped file */
+  @Injection(name = "OFF_HEAP_MEMORY_BUDGET")
+  private String offHeapMemoryBudget;
+
   public StreamLookupMeta() {
     super(); // allocate BaseTransformMeta
   }
@@ -164,6 +172,9 @@ public class StreamLookupMeta extends BaseTransformMeta<StreamLookup, StreamLook
           "Y".equalsIgnoreCase(XmlHandler.getTagValue(transformNode, "sorted_list")));
       setUsingIntegerPair(
           "Y".equalsIgnoreCase(XmlHandler.getTagValue(transformNode, "integer_pair")));
+      setUsingOffHeapIndex(
+          "Y".equalsIgnoreCase(XmlHandler.getTagValue(transformNode, "off_heap_index")));
+      setOffHeapMemoryBudget(XmlHandler.getTagValue(transformNode, "off_heap_memory_budget"));
 
       Node lookup = XmlHandler.getSubNode(transformNode, "lookup");
       nrkeys = XmlHandler.countNodes(lookup, "key");
@@ -212,6 +223,8 @@ public class StreamLookupMeta extends BaseTransformMeta<StreamLookup, StreamLook
     setMemoryPreservationActive(true);
     setUsingSortedList(false);
     setUsingIntegerPair(false);
+    setUsingOffHeapIndex(false);
+    setOffHeapMemoryBudget("512");
 
     allocate(0, 0);
   }
@@ -265,6 +278,10 @@ public class StreamLookupMeta extends BaseTransformMeta<StreamLookup, StreamLook
         .append(XmlHandler.addTagValue("preserve_memory", isMemoryPreservationActive()));
     retval.append("    ").append(XmlHandler.addTagValue("sorted_list", isUsingSortedList()));
     retval.append("    ").append(XmlHandler.addTagValue("integer_pair", isUsingIntegerPair()));
+    retval.append("    ").append(XmlHandler.addTagValue("off_heap_index", isUsingOffHeapIndex()));
+    retval
+        .append("    ")
+        .append(XmlHandler.addTagValue("off_heap_memory_budget", getOffHeapMemoryBudget()));
 
     retval.append("    <lookup>").append(Const.CR);
     for (int i = 0; i < getKeystream().length; i++) {
@@ -658,6 +675,34 @@ public class StreamLookupMeta extends BaseTransformMeta<StreamLookup, StreamLook
     this.usingIntegerPair = usingIntegerPair;
   }
 
+  /**
+   * @return true if the keys and values are stored in an off-heap hash index
+   */
+  public boolean isUsingOffHeapIndex() {
+    return usingOffHeapIndex;
+  }
+
+  /**
+   * @param usingOffHeapIndex true to store the keys and values in an off-heap hash index
+   */
+  public void setUsingOffHeapIndex(boolean usingOffHeapIndex) {
+    this.usingOffHeapIndex = usingOffHeapIndex;
+  }
+
+  /**
+   * @return the memory budget of the off-heap index in MB
+   */
+  public String getOffHeapMemoryBudget() {
+    return offHeapMemoryBudget;
+  }
+
+  /**
+   * @param offHeapMemoryBudget the memory budget of the off-heap index in MB to set
+   */
+  public void setOffHeapMemoryBudget(String offHeapMemoryBudget) {
+    this.offHeapMemoryBudget = offHeapMemoryBudget;
+  }
+
   /**
    * If we use injection we can have different arrays lengths. We need synchronize them for
    * consistency behavior with UI
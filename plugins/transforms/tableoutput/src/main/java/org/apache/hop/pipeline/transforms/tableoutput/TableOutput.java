@@ -22,6 +22,7 @@ import java.sql.SQLException;
 import java.text.SimpleDateFormat;
 import java.util.Date;
 import java.util.List;
+import java.util.Map;
 import org.apache.hop.core.Const;
 import org.apache.hop.core.RowMetaAndData;
 import org.apache.hop.core.database.Database;
@@ -30,6 +31,7 @@ import org.apache.hop.core.exception.HopDatabaseBatchException;
 import org.apache.hop.core.exception.HopDatabaseException;
 import org.apache.hop.core.exception.HopException;
 import org.apache.hop.core.exception.HopTransformException;
+import org.apache.hop.core.exception.HopValueException;
 import org.apache.hop.core.row.IRowMeta;
 import org.apache.hop.core.row.IValueMeta;
 import org.apache.hop.core.row.RowDataUtil;
@@ -228,6 +230,13 @@ public class TableOutput extends BaseTransform<TableOutputMeta, TableOutputData>
       throw new HopTransformException("The tablename is not defined (empty)");
     }
 
+    if (data.asyncWriter != null) {
+      // The row is passed on once its batch is committed, see processWrittenBatch()
+      //
+      data.asyncWriter.addRow(tableName, insertRowData, outputRowData);
+      return null;
+    }
+
     insertStatement = data.preparedStatements.get(tableName);
     if (insertStatement == null) {
       String sql =
@@ -326,17 +335,7 @@ public class TableOutput extends BaseTransform<TableOutputMeta, TableOutputData>
       } else {
         data.db.clearBatch(insertStatement);
         data.db.rollback();
-        StringBuilder msg =
-            new StringBuilder("Error batch inserting rows into table [" + tableName + "].");
-        msg.append(Const.CR);
-        msg.append("Errors encountered (first 10):").append(Const.CR);
-        for (int x = 0; x < be.getExceptionsList().size() && x < 10; x++) {
-          Exception exception = be.getExceptionsList().get(x);
-          if (exception.getMessage() != null) {
-            msg.append(exception.getMessage()).append(Const.CR);
-          }
-        }
-        throw new HopException(msg.toString(), be);
+        throw createBatchInsertException(tableName, be);
       }
     } catch (HopDatabaseException dbe) {
       if (getTransformMeta().isDoingErrorHandling()) {
@@ -356,22 +355,7 @@ public class TableOutput extends BaseTransform<TableOutputMeta, TableOutputData>
         errorMessage = dbe.toString();
       } else {
         if (meta.isIgnoreErrors()) {
-          if (data.warnings < 20) {
-            if (isBasic()) {
-              logBasic(
-                  "WARNING: Couldn't insert row into table: "
-                      + rowMeta.getString(r)
-                      + Const.CR
-                      + dbe.getMessage());
-            }
-          } else if (data.warnings == 20 && isBasic()) {
-            logBasic(
-                "FINAL WARNING (no more then 20 displayed): Couldn't insert row into table: "
-                    + rowMeta.getString(r)
-                    + Const.CR
-                    + dbe.getMessage());
-          }
-          data.warnings++;
+          logIgnoredError(rowMeta, r, dbe);
         } else {
           setErrors(getErrors() + 1);
           data.db.rollback();
@@ -426,6 +410,75 @@ public class TableOutput extends BaseTransform<TableOutputMeta, TableOutputData>
     return outputRowData;
   }
 
+  private HopException createBatchInsertException(String tableName, HopDatabaseBatchException be) {
+    StringBuilder msg =
+        new StringBuilder("Error batch inserting rows into table [" + tableName + "].");
+    msg.append(Const.CR);
+    msg.append("Errors encountered (first 10):").append(Const.CR);
+    for (int x = 0; x < be.getExceptionsList().size() && x < 10; x++) {
+      Exception exception = be.getExceptionsList().get(x);
+      if (exception.getMessage() != null) {
+        msg.append(exception.getMessage()).append(Const.CR);
+      }
+    }
+    return new HopException(msg.toString(), be);
+  }
+
+  private void logIgnoredError(IRowMeta rowMeta, Object[] r, HopDatabaseException dbe)
+      throws HopValueException {
+    if (data.warnings < 20) {
+      if (isBasic()) {
+        logBasic(
+            "WARNING: Couldn't insert row into table: "
+                + rowMeta.getString(r)
+                + Const.CR
+                + dbe.getMessage());
+      }
+    } else if (data.warnings == 20 && isBasic()) {
+      logBasic(
+          "FINAL WARNING (no more then 20 displayed): Couldn't insert row into table: "
+              + rowMeta.getString(r)
+              + Const.CR
+              + dbe.getMessage());
+    }
+    data.warnings++;
+  }
+
+  /**
+   * Pass on the rows of a batch written by the background writer, the same way as the rows in the
+   * batch buffer are handled.
+   */
+  private void processWrittenBatch(TableOutputAsyncWriter.Batch batch) throws HopException {
+    if (batch.getException() != null) {
+      setErrors(getErrors() + 1);
+      throw new HopException(
+          "Error inserting rows into table [" + batch.getTableName() + "]", batch.getException());
+    }
+
+    for (Map.Entry<Integer, HopDatabaseException> entry : batch.getRowErrors().entrySet()) {
+      Object[] row = batch.getOutputRows().get(entry.getKey());
+      if (getTransformMeta().isDoingErrorHandling()) {
+        putError(data.outputRowMeta, row, 1L, entry.getValue().toString(), null, "TOP001");
+      } else {
+        logIgnoredError(data.outputRowMeta, row, entry.getValue());
+      }
+    }
+
+    HopDatabaseBatchException be = batch.getBatchException();
+    if (be != null) {
+      if (!getTransformMeta().isDoingErrorHandling()) {
+        throw createBatchInsertException(batch.getTableName(), be);
+      }
+      data.batchBuffer.addAll(batch.getBatchedRows());
+      processBatchException(be.toString(), be.getUpdateCounts(), be.getExceptionsList());
+    } else {
+      for (Object[] row : batch.getBatchedRows()) {
+        putRow(data.outputRowMeta, row);
+        incrementLinesOutput();
+      }
+    }
+  }
+
   private void processBatchException(
       String errorMessage, int[] updateCounts, List<Exception> exceptionsList) throws HopException {
     // There was an error with the commit
@@ -535,6 +588,24 @@ public class TableOutput extends BaseTransform<TableOutputMeta, TableOutputData>
         }
         data.db.setCommit(data.commitSize);
 
+        // Write the batches in the background if we're asked to
+        //
+        int batchesInFlight = Const.toInt(resolve(meta.getBatchesInFlight()), 0);
+        if (batchesInFlight > 0 && data.batchMode && data.db.getUseBatchInsert(true)) {
+          data.asyncWriter =
+              new TableOutputAsyncWriter(
+                  data,
+                  resolve(meta.getSchemaName()),
+                  getTransformMeta().isDoingErrorHandling(),
+                  meta.isIgnoreErrors(),
+                  batchesInFlight,
+                  this::processWrittenBatch,
+                  getTransformName() + " - batch writer");
+          if (isDetailed()) {
+            logDetailed("Writing up to " + batchesInFlight + " batches in the background");
+          }
+        }
+
         if (!meta.isPartitioningEnabled() && !meta.isTableNameInField()) {
           data.tableName = resolve(meta.getTableName());
         }
@@ -566,6 +637,10 @@ public class TableOutput extends BaseTransform<TableOutputMeta, TableOutputData>
       try {
         emptyAndCommitBatchBuffers(true);
       } finally {
+        if (data.asyncWriter != null) {
+          data.asyncWriter.close();
+          data.asyncWriter = null;
+        }
         data.db.disconnect();
         // Free data structures to enable GC
         data.db = null;
@@ -589,6 +664,13 @@ public class TableOutput extends BaseTransform<TableOutputMeta, TableOutputData>
 
   private void emptyAndCommitBatchBuffers(boolean dispose) {
     try {
+      if (data.asyncWriter != null) {
+        if (getErrors() == 0) {
+          data.asyncWriter.flush();
+        } else {
+          data.asyncWriter.discard();
+        }
+      }
       for (String schemaTable : data.preparedStatements.keySet()) {
         // Get a commit counter per prepared statement to keep track of separate tables, etc.
         //
@@ -633,6 +715,10 @@ public class TableOutput extends BaseTransform<TableOutputMeta, TableOutputData>
       setOutputDone();
 
       if (getErrors() > 0) {
+        if (data.asyncWriter != null) {
+          // Don't roll back while a batch is being written
+          data.asyncWriter.discard();
+        }
         try {
           data.db.rollback();
         } catch (HopDatabaseException e) {
@@ -0,0 +1,291 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.hop.pipeline.transforms.tableoutput;
+
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import org.apache.hop.core.database.Database;
+import org.apache.hop.core.exception.HopDatabaseBatchException;
+import org.apache.hop.core.exception.HopDatabaseException;
+import org.apache.hop.core.exception.HopException;
+
+/**
+ * Sends batches of rows to the database in a background thread. This way the transform can keep
+ * converting rows while the database works on the previous batches. The batches are executed and
+ * committed one by one, in the order in which they were filled.
+ *
+ * <p>All public methods are called from the transform thread. The results of a batch are handed
+ * back to that thread as well. While the writer is active only the background thread uses the
+ * database connection and the prepared statements.
+ */
+public class TableOutputAsyncWriter {
+
+  /** Processes a batch once it was written to the database, on the transform thread. */
+  @FunctionalInterface
+  public interface IBatchHandler {
+    void batchWritten(Batch batch) throws HopException;
+  }
+
+  private final TableOutputData data;
+  private final String schemaName;
+  private final boolean errorHandling;
+  private final boolean ignoreErrors;
+  private final int maxBatchesInFlight;
+  private final IBatchHandler handler;
+  private final ExecutorService executor;
+
+  /** The batches being filled, per table */
+  private final Map<String, Batch> openBatches;
+
+  /** The batches submitted to the background thread, oldest first */
+  private final Deque<Future<Batch>> inFlight;
+
+  /**
+   * @param data The transform data with the database connection and the prepared statements
+   * @param schemaName The resolved schema name
+   * @param errorHandling true if failing rows are sent to the error handling of the transform
+   * @param ignoreErrors true if a row which can't be added to a batch should be skipped
+   * @param maxBatchesInFlight The maximum number of batches submitted and not yet handled
+   * @param handler Processes the batches once they are written
+   * @param threadName The name of the background thread
+   */
+  public TableOutputAsyncWriter(
+      TableOutputData data,
+      String schemaName,
+      boolean errorHandling,
+      boolean ignoreErrors,
+      int maxBatchesInFlight,
+      IBatchHandler handler,
+      String threadName) {
+    this.data = data;
+    this.schemaName = schemaName;
+    this.errorHandling = errorHandling;
+    this.ignoreErrors = ignoreErrors;
+    this.maxBatchesInFlight = Math.max(1, maxBatchesInFlight);
+    this.handler = handler;
+    this.openBatches = new LinkedHashMap<>();
+    this.inFlight = new ArrayDeque<>();
+    this.executor =
+        Executors.newSingleThreadExecutor(
+            runnable -> {
+              Thread thread = new Thread(runnable, threadName);
+              thread.setDaemon(true);
+              return thread;
+            });
+  }
+
+  /**
+   * Add a row to the batch of its table. A full batch is handed to the background thread. When too
+   * many batches are in flight, this waits for the oldest one to finish.
+   *
+   * @param tableName The table to insert into
+   * @param insertRow The values to insert
+   * @param outputRow The row to pass on once the batch is committed
+   * @throws HopException in case the handler of a finished batch throws an error
+   */
+  public void addRow(String tableName, Object[] insertRow, Object[] outputRow) throws HopException {
+    Batch batch = openBatches.computeIfAbsent(tableName, Batch::new);
+    batch.insertRows.add(insertRow);
+    batch.outputRows.add(outputRow);
+    if (batch.insertRows.size() >= data.commitSize) {
+      openBatches.remove(tableName);
+      submit(batch);
+    }
+
+    // Pass on the results of the batches which are done without waiting
+    //
+    while (!inFlight.isEmpty() && inFlight.peekFirst().isDone()) {
+      handler.batchWritten(takeOldest());
+    }
+  }
+
+  /**
+   * Write the remaining rows and wait until all batches are handled.
+   *
+   * @throws HopException in case the handler of a batch throws an error
+   */
+  public void flush() throws HopException {
+    List<Batch> batches = new ArrayList<>(openBatches.values());
+    openBatches.clear();
+    for (Batch batch : batches) {
+      submit(batch);
+    }
+    while (!inFlight.isEmpty()) {
+      handler.batchWritten(takeOldest());
+    }
+  }
+
+  /**
+   * Drop the rows which weren't submitted yet and wait for the batches in flight to finish without
+   * handling their results. Afterwards the database connection can be used again.
+   */
+  public void discard() {
+    openBatches.clear();
+    while (!inFlight.isEmpty()) {
+      try {
+        inFlight.pollFirst().get();
+      } catch (InterruptedException e) {
+        Thread.currentThread().interrupt();
+      } catch (ExecutionException e) {
+        // We're discarding the results
+      }
+    }
+  }
+
+  /** Discard the remaining work and stop the background thread. */
+  public void close() {
+    discard();
+    executor.shutdown();
+  }
+
+  private void submit(Batch batch) throws HopException {
+    while (inFlight.size() >= maxBatchesInFlight) {
+      handler.batchWritten(takeOldest());
+    }
+    inFlight.addLast(executor.submit(() -> execute(batch)));
+  }
+
+  private Batch takeOldest() throws HopException {
+    Future<Batch> future = inFlight.pollFirst();
+    try {
+      return future.get();
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+      throw new HopException("Interrupted while waiting for a batch insert", e);
+    } catch (ExecutionException e) {
+      throw new HopException("Unexpected error writing a batch of rows", e.getCause());
+    }
+  }
+
+  /** Insert and commit a batch. This runs in the background thread. */
+  private Batch execute(Batch batch) throws HopException {
+    PreparedStatement insertStatement = data.preparedStatements.get(batch.tableName);
+    if (insertStatement == null) {
+      String sql = data.db.getInsertStatement(schemaName, batch.tableName, data.insertRowMeta);
+      insertStatement = data.db.prepareSql(sql, false);
+      data.preparedStatements.put(batch.tableName, insertStatement);
+    }
+
+    try {
+      for (int i = 0; i < batch.insertRows.size(); i++) {
+        try {
+          data.db.setValues(data.insertRowMeta, batch.insertRows.get(i), insertStatement);
+        } catch (HopDatabaseException e) {
+          if (!errorHandling && !ignoreErrors) {
+            throw e;
+          }
+          batch.rowErrors.put(i, e);
+          continue;
+        }
+        insertStatement.addBatch();
+        batch.batchedRows.add(batch.outputRows.get(i));
+      }
+      insertStatement.executeBatch();
+      data.db.commit();
+      insertStatement.clearBatch();
+    } catch (SQLException e) {
+      batch.batchException = Database.createHopDatabaseBatchException("Error updating batch", e);
+      data.db.clearBatch(insertStatement);
+      if (errorHandling) {
+        data.db.commit(true);
+      } else {
+        data.db.rollback();
+      }
+    } catch (Exception e) {
+      batch.exception = e;
+      data.db.clearBatch(insertStatement);
+      data.db.rollback();
+    }
+    return batch;
+  }
+
+  /** The rows inserted into one table with one commit. */
+  public static class Batch {
+    private final String tableName;
+    private final List<Object[]> insertRows;
+    private final List<Object[]> outputRows;
+    private final List<Object[]> batchedRows;
+    private final Map<Integer, HopDatabaseException> rowErrors;
+    private HopDatabaseBatchException batchException;
+    private Exception exception;
+
+    Batch(String tableName) {
+      this.tableName = tableName;
+      this.insertRows = new ArrayList<>();
+      this.outputRows = new ArrayList<>();
+      this.batchedRows = new ArrayList<>();
+      this.rowErrors = new LinkedHashMap<>();
+    }
+
+    /**
+     * Gets tableName
+     *
+     * @return value of tableName
+     */
+    public String getTableName() {
+      return tableName;
+    }
+
+    /**
+     * Gets outputRows
+     *
+     * @return value of outputRows
+     */
+    public List<Object[]> getOutputRows() {
+      return outputRows;
+    }
+
+    /**
+     * @return The output rows which were added to the JDBC batch, in batch order
+     */
+    public List<Object[]> getBatchedRows() {
+      return batchedRows;
+    }
+
+    /**
+     * @return The errors of the rows which couldn't be added to the batch, by row index
+     */
+    public Map<Integer, HopDatabaseException> getRowErrors() {
+      return rowErrors;
+    }
+
+    /**
+     * @return The error executing the batch or null if the batch was committed
+     */
+    public HopDatabaseBatchException getBatchException() {
+      return batchException;
+    }
+
+    /**
+     * @return An unexpected error, the batch was rolled back
+     */
+    public Exception getException() {
+      return exception;
+    }
+  }
+}
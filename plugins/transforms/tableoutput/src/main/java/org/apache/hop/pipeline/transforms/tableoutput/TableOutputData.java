@@ -69,6 +69,9 @@ public class TableOutputData extends BaseTransformData implements ITransformData
 
   public int commitSize;
 
+  /** Writes the batches in the background, null if the batches are written synchronously */
+  public TableOutputAsyncWriter asyncWriter;
+
   public TableOutputData() {
     super();
 
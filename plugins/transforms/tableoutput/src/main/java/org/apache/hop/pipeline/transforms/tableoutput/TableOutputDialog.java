@@ -101,6 +101,9 @@ public class TableOutputDialog extends BaseTransformDialog {
   private Label wlBatch;
   private Button wBatch;
 
+  private Label wlBatchesInFlight;
+  private TextVar wBatchesInFlight;
+
   private Button wUsePart;
 
   private Label wlPartField;
@@ -549,13 +552,34 @@ public class TableOutputDialog extends BaseTransformDialog {
           }
         });
 
+    // Batches in flight
+    wlBatchesInFlight = new Label(wMainComp, SWT.RIGHT);
+    wlBatchesInFlight.setText(
+        BaseMessages.getString(PKG, "TableOutputDialog.BatchesInFlight.Label"));
+    PropsUi.setLook(wlBatchesInFlight);
+    FormData fdlBatchesInFlight = new FormData();
+    fdlBatchesInFlight.left = new FormAttachment(0, 0);
+    fdlBatchesInFlight.top = new FormAttachment(wBatch, margin);
+    fdlBatchesInFlight.right = new FormAttachment(middle, -margin);
+    wlBatchesInFlight.setLayoutData(fdlBatchesInFlight);
+    wBatchesInFlight = new TextVar(variables, wMainComp, SWT.SINGLE | SWT.LEFT | SWT.BORDER);
+    wBatchesInFlight.setToolTipText(
+        BaseMessages.getString(PKG, "TableOutputDialog.BatchesInFlight.Tooltip"));
+    PropsUi.setLook(wBatchesInFlight);
+    wBatchesInFlight.addModifyListener(lsMod);
+    FormData fdBatchesInFlight = new FormData();
+    fdBatchesInFlight.left = new FormAttachment(middle, 0);
+    fdBatchesInFlight.top = new FormAttachment(wlBatchesInFlight, 0, SWT.CENTER);
+    fdBatchesInFlight.right = new FormAttachment(100, 0);
+    wBatchesInFlight.setLayoutData(fdBatchesInFlight);
+
     // NameInField
     Label wlNameInField = new Label(wMainComp, SWT.RIGHT);
     wlNameInField.setText(BaseMessages.getString(PKG, "TableOutputDialog.NameInField.Label"));
     PropsUi.setLook(wlNameInField);
     FormData fdlNameInField = new FormData();
     fdlNameInField.left = new FormAttachment(0, 0);
-    fdlNameInField.top = new FormAttachment(wBatch, margin * 5);
+    fdlNameInField.top = new FormAttachment(wBatchesInFlight, margin * 5);
     fdlNameInField.right = new FormAttachment(middle, -margin);
     wlNameInField.setLayoutData(fdlNameInField);
     wNameInField = new Button(wMainComp, SWT.CHECK);
@@ -1215,6 +1239,8 @@ public class TableOutputDialog extends BaseTransformDialog {
 
     wlBatch.setEnabled(enableBatch);
     wBatch.setEnabled(enableBatch);
+    wlBatchesInFlight.setEnabled(useBatch);
+    wBatchesInFlight.setEnabled(useBatch);
 
     boolean specifyFields = wSpecifyFields.getSelection();
     wFields.setEnabled(specifyFields);
@@ -1262,6 +1288,7 @@ public class TableOutputDialog extends BaseTransformDialog {
     wBatch.setSelection(input.isUseBatchUpdate());
 
     wCommit.setText(input.getCommitSize());
+    wBatchesInFlight.setText(Const.NVL(input.getBatchesInFlight(), ""));
 
     wUsePart.setSelection(input.isPartitioningEnabled());
     wPartDaily.setSelection(input.isPartitioningDaily());
@@ -1316,6 +1343,7 @@ public class TableOutputDialog extends BaseTransformDialog {
     info.setOnlyWhenHaveRows(wOnlyWhenHaveRows.getSelection());
     info.setIgnoreErrors(wIgnore.getSelection());
     info.setUseBatchUpdate(wBatch.getSelection());
+    info.setBatchesInFlight(wBatchesInFlight.getText());
     info.setPartitioningEnabled(wUsePart.getSelection());
     info.setPartitioningField(wPartField.getText());
     info.setPartitioningDaily(wPartDaily.getSelection());
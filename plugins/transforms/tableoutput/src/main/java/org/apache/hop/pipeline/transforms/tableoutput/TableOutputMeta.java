@@ -111,6 +111,13 @@ public class TableOutputMeta extends BaseTransformMeta<TableOutput, TableOutputD
       injectionKeyDescription = "TableOutputMeta.Injection.UseBatch.Field")
   private boolean useBatchUpdate;
 
+  /** The number of batches which are written in the background while the next one is built */
+  @HopMetadataProperty(
+      key = "batches_in_flight",
+      injectionKey = "BATCHES_IN_FLIGHT",
+      injectionKeyDescription = "TableOutputMeta.Injection.BatchesInFlight.Field")
+  private String batchesInFlight;
+
   @HopMetadataProperty(
       key = "partitioning_enabled",
       injectionKey = "PARTITION_OVER_TABLES",
@@ -336,6 +343,7 @@ public class TableOutputMeta extends BaseTransformMeta<TableOutput, TableOutputD
     super(); // allocate BaseTransformMeta
     useBatchUpdate = true;
     commitSize = "1000";
+    batchesInFlight = "0";
 
     fields = new ArrayList<>();
   }
@@ -462,10 +470,25 @@ public class TableOutputMeta extends BaseTransformMeta<TableOutput, TableOutputD
     return useBatchUpdate;
   }
 
+  /**
+   * @return Returns the number of batches in flight, 0 to write the batches synchronously.
+   */
+  public String getBatchesInFlight() {
+    return batchesInFlight;
+  }
+
+  /**
+   * @param batchesInFlight The number of batches in flight to set.
+   */
+  public void setBatchesInFlight(String batchesInFlight) {
+    this.batchesInFlight = batchesInFlight;
+  }
+
   @Override
   public void setDefault() {
     tableName = "";
     commitSize = "1000";
+    batchesInFlight = "0";
 
     partitioningEnabled = false;
     partitioningDaily = false;
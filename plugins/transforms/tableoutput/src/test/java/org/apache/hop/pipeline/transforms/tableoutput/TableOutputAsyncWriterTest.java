@@ -0,0 +1,119 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.hop.pipeline.transforms.tableoutput;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyBoolean;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.doReturn;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+
+import java.sql.BatchUpdateException;
+import java.sql.PreparedStatement;
+import java.util.ArrayList;
+import java.util.List;
+import org.apache.hop.core.database.Database;
+import org.apache.hop.core.row.IRowMeta;
+import org.apache.hop.core.row.RowMeta;
+import org.apache.hop.core.row.value.ValueMetaInteger;
+import org.junit.Before;
+import org.junit.Test;
+
+public class TableOutputAsyncWriterTest {
+
+  private TableOutputData data;
+  private Database db;
+  private PreparedStatement insertStatement;
+  private List<TableOutputAsyncWriter.Batch> written;
+
+  @Before
+  public void setUp() throws Exception {
+    db = mock(Database.class);
+    insertStatement = mock(PreparedStatement.class);
+    doReturn("INSERT").when(db).getInsertStatement(any(), anyString(), any(IRowMeta.class));
+    doReturn(insertStatement).when(db).prepareSql(anyString(), anyBoolean());
+
+    data = new TableOutputData();
+    data.db = db;
+    data.commitSize = 2;
+    data.insertRowMeta = new RowMeta();
+    data.insertRowMeta.addValueMeta(new ValueMetaInteger("id"));
+
+    written = new ArrayList<>();
+  }
+
+  @Test
+  public void testBatchesAreWrittenInOrder() throws Exception {
+    TableOutputAsyncWriter writer =
+        new TableOutputAsyncWriter(data, null, false, false, 2, written::add, "test writer");
+    try {
+      for (long i = 0; i < 5; i++) {
+        Object[] row = new Object[] {i};
+        writer.addRow("table", row, row);
+      }
+      writer.flush();
+    } finally {
+      writer.close();
+    }
+
+    assertEquals(3, written.size());
+    long expected = 0;
+    for (TableOutputAsyncWriter.Batch batch : written) {
+      assertNull(batch.getBatchException());
+      assertNull(batch.getException());
+      for (Object[] row : batch.getBatchedRows()) {
+        assertEquals(expected++, row[0]);
+      }
+    }
+    assertEquals(5L, expected);
+    verify(insertStatement, times(5)).addBatch();
+    verify(insertStatement, times(3)).executeBatch();
+    verify(db, times(3)).commit();
+    verify(db, never()).rollback();
+  }
+
+  @Test
+  public void testFailingBatchIsRolledBack() throws Exception {
+    doThrow(new BatchUpdateException("Duplicate key", new int[] {1, 0}))
+        .when(insertStatement)
+        .executeBatch();
+
+    TableOutputAsyncWriter writer =
+        new TableOutputAsyncWriter(data, null, false, false, 1, written::add, "test writer");
+    try {
+      writer.addRow("table", new Object[] {1L}, new Object[] {1L});
+      writer.addRow("table", new Object[] {1L}, new Object[] {1L});
+      writer.flush();
+    } finally {
+      writer.close();
+    }
+
+    assertEquals(1, written.size());
+    assertNotNull(written.get(0).getBatchException());
+    verify(db).clearBatch(insertStatement);
+    verify(db).rollback();
+    verify(db, never()).commit();
+  }
+}